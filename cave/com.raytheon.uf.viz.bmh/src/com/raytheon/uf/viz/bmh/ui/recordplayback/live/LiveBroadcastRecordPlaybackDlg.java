@@ -61,6 +61,8 @@ import com.raytheon.uf.viz.bmh.ui.recordplayback.live.LiveBroadcastThread.BROADC
  * Nov 17, 2014 3808       bkowal      Support broadcast live.
  * Nov 21, 2014 3845       bkowal      Use AbstractBroadcastSettingsBuilder.
  * Aug 25, 2015 4771       bkowal      Updated to use {@link AudioRegulationConfiguration}.
+ * Oct 18, 2026            agent       The live broadcast thread no longer needs the
+ *                                     {@link AudioRegulationConfiguration}.
  * 
  * </pre>
  * 
@@ -177,8 +179,7 @@ public class LiveBroadcastRecordPlaybackDlg extends RecordPlaybackDlg implements
     private void initializeBroadcastLive() throws Exception {
         ILiveBroadcastMessage command = this.configureBroadcastLive();
 
-        this.broadcastThread = new LiveBroadcastThread(command,
-                this.configuration);
+        this.broadcastThread = new LiveBroadcastThread(command);
         this.broadcastThread.setListener(this);
         this.broadcastThread.start();
     }
@@ -19,14 +19,9 @@
  **/
 package com.raytheon.uf.viz.bmh.ui.recordplayback.live;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.TimerTask;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
-import com.raytheon.uf.common.bmh.audio.AudioRegulationConfiguration;
 import com.raytheon.uf.common.bmh.broadcast.BroadcastStatus;
 import com.raytheon.uf.common.bmh.broadcast.ILiveBroadcastMessage;
 import com.raytheon.uf.common.bmh.broadcast.LiveBroadcastCommand;
@@ -63,6 +58,7 @@ import com.raytheon.uf.viz.bmh.ui.recordplayback.IAudioRecorderListener;
  * Jul 15, 2015 4636       bkowal      Slightly increase the amount of audio that is accumulated.
  * Aug 25, 2015 4771       bkowal      Buffer delays are now configurable.
  * Nov 11, 2015 5114       rjpeter     Updated CommsManager to use a single port.
+ * Oct 18, 2026            agent       Stream every packet of audio as soon as it is recorded.
  * </pre>
  * 
  * @author bkowal
@@ -85,26 +81,13 @@ public class LiveBroadcastThread extends
 
     private String broadcastId;
 
-    private final List<byte[]> bufferedAudio;
-
-    /** Audio streaming timer. */
-    private ScheduledExecutorService timer;
-
-    private final int initialBufferDelay;
-
-    private final int bufferDelay;
-
     /**
      * 
      */
-    public LiveBroadcastThread(final ILiveBroadcastMessage command,
-            AudioRegulationConfiguration configuration) {
+    public LiveBroadcastThread(final ILiveBroadcastMessage command) {
         super(LiveBroadcastThread.class.getName());
         this.command = command;
         this.state = BROADCAST_STATE.INITIALIZING;
-        this.bufferedAudio = new LinkedList<>();
-        this.initialBufferDelay = configuration.getInitialBufferDelay();
-        this.bufferDelay = configuration.getBufferDelay();
     }
 
     @Override
@@ -226,9 +209,6 @@ public class LiveBroadcastThread extends
             if (status.getStatus() == true) {
                 this.state = BROADCAST_STATE.LIVE;
                 this.broadcastId = status.getBroadcastId();
-                this.timer = Executors.newSingleThreadScheduledExecutor();
-                this.timer.scheduleWithFixedDelay(new ElapsedTimerTask(),
-                        initialBufferDelay, bufferDelay, TimeUnit.MILLISECONDS);
             } else if (status.getStatus() == false) {
                 this.state = BROADCAST_STATE.INIT_ERROR;
                 this.notifyListener();
@@ -253,10 +233,6 @@ public class LiveBroadcastThread extends
             return;
         }
 
-        if (this.timer != null) {
-            this.timer.shutdown();
-        }
-
         LiveBroadcastCommand command = new LiveBroadcastCommand();
         command.setBroadcastId(this.broadcastId);
         command.setMsgSource(MSGSOURCE.VIZ);
@@ -287,48 +263,38 @@ public class LiveBroadcastThread extends
         this.listener = listener;
     }
 
+    /**
+     * Streams the audio to the comms manager as soon as it has been recorded.
+     * Each packet is sent on its own so that dac transmit can start playing
+     * the audio as soon as possible, dac transmit buffers just enough audio to
+     * smooth out any variation in when the packets arrive.
+     */
     @Override
     public void audioReady(byte[] audioData) {
-        if ((this.state == BROADCAST_STATE.ERROR)
-                || (this.state == BROADCAST_STATE.STOPPED)) {
+        if (this.state != BROADCAST_STATE.LIVE) {
             return;
         }
 
-        synchronized (this.bufferedAudio) {
-            this.bufferedAudio.add(audioData);
-        }
-    }
-
-    private void broadcastBufferedAudio() {
-        synchronized (this.bufferedAudio) {
-            if (this.bufferedAudio.isEmpty()) {
-                return;
-            }
-
-            LiveBroadcastPlayCommand playCommand = new LiveBroadcastPlayCommand();
-            playCommand.setMsgSource(MSGSOURCE.VIZ);
-            playCommand.setBroadcastId(this.broadcastId);
-            playCommand.setTransmitterGroups(this.command
-                    .getTransmitterGroups());
-            playCommand.setAudio(this.bufferedAudio);
-            try {
-                this.writeToCommsManager(playCommand);
-            } catch (BroadcastException e) {
-                statusHandler.error(
-                        "Failed to stream audio during live broadcast!", e);
-                this.state = BROADCAST_STATE.ERROR;
-            }
-            this.bufferedAudio.clear();
-        }
-    }
-
-    /**
-     * Elapsed timer task called when the timer fires.
-     */
-    private class ElapsedTimerTask extends TimerTask {
-        @Override
-        public void run() {
-            broadcastBufferedAudio();
+        /*
+         * The recorder delivers the audio after the last sample has been
+         * captured, ulaw audio is 8 samples per millisecond.
+         */
+        final long captureTime = System.currentTimeMillis()
+                - (audioData.length / 8);
+
+        LiveBroadcastPlayCommand playCommand = new LiveBroadcastPlayCommand();
+        playCommand.setMsgSource(MSGSOURCE.VIZ);
+        playCommand.setBroadcastId(this.broadcastId);
+        List<byte[]> audio = new ArrayList<>(1);
+        audio.add(audioData);
+        playCommand.setAudio(audio);
+        playCommand.setCaptureTime(captureTime);
+        try {
+            this.writeToCommsManager(playCommand);
+        } catch (BroadcastException e) {
+            statusHandler.error("Failed to stream audio during live broadcast!",
+                    e);
+            this.state = BROADCAST_STATE.ERROR;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.dac;
+
+import com.raytheon.uf.common.bmh.dac.data.RTPPacketStruct;
+
+/**
+ * Single producer, multiple consumer ring buffer of the audio payloads received
+ * from a dac. Every published sequence holds one payload for each dac channel.
+ * The producer never waits for consumers; each consumer tracks its own
+ * sequence and must check that it has not been lapped using
+ * {@link #isAvailable(long)} before reading a payload. Because a slow consumer
+ * can still be lapped while it reads, consumers copy a payload and then confirm
+ * with {@link #isIntact(long)} that the producer had not claimed the slot for
+ * a later sequence before the copy finished, in the style of a seqlock.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * Oct 18, 2026            agent       Added claim and isIntact.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class DacPayloadRingBuffer {
+
+    /**
+     * The number of payloads buffered for each channel, must be a power of
+     * two. At one packet every 20ms this is a little more than 5 seconds of
+     * audio.
+     */
+    public static final int CAPACITY = 256;
+
+    /**
+     * The number of sequences that a consumer must stay ahead of the
+     * producer's next write, allows a consumer to finish processing a payload
+     * without it being overwritten.
+     */
+    public static final int LAG_MARGIN = 32;
+
+    private static final int MASK = CAPACITY - 1;
+
+    /* indexed by channel - 1 then sequence. */
+    private final byte[][][] payloads;
+
+    /* the last sequence published, only written by the producer. */
+    private volatile long cursor = -1;
+
+    /*
+     * the sequence being written, only written by the producer. Always equal
+     * to the cursor or one ahead of it.
+     */
+    private volatile long claimed = -1;
+
+    public DacPayloadRingBuffer(final int channels) {
+        this.payloads = new byte[channels][CAPACITY][RTPPacketStruct.DATA_PAYLOAD_SIZE];
+    }
+
+    /**
+     * @return the sequence that the producer will write next.
+     */
+    public long next() {
+        return this.cursor + 1;
+    }
+
+    /**
+     * Claim the next sequence for writing. Must be called by the producer
+     * before it writes the payloads of the sequence so that consumers still
+     * reading the slot that is being reused can detect it.
+     * 
+     * @return the sequence to write, the same as {@link #next()}.
+     */
+    public long claim() {
+        long sequence = this.cursor + 1;
+        this.claimed = sequence;
+        /*
+         * Reading the claim back keeps the payload writes that follow from
+         * being reordered ahead of the claim.
+         */
+        if (this.claimed != sequence) {
+            throw new IllegalStateException(
+                    "Only a single producer may claim sequences.");
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns the payload storage for a channel. The producer writes into the
+     * payload for {@link #claim()} before calling {@link #publish(long)};
+     * consumers read the payloads of published sequences.
+     * 
+     * @param channel
+     *            the dac channel, 1 - 4
+     * @param sequence
+     *            the sequence
+     * @return the payload
+     */
+    public byte[] getPayload(final int channel, final long sequence) {
+        return this.payloads[channel - 1][(int) (sequence & MASK)];
+    }
+
+    /**
+     * Makes the payloads for a sequence visible to consumers.
+     * 
+     * @param sequence
+     *            the sequence returned from {@link #claim()}
+     */
+    public void publish(final long sequence) {
+        this.cursor = sequence;
+    }
+
+    /**
+     * @return the last published sequence, -1 if nothing has been published.
+     */
+    public long getCursor() {
+        return this.cursor;
+    }
+
+    /**
+     * Determine if a consumer can safely read a sequence.
+     * 
+     * @param sequence
+     *            the sequence the consumer will read
+     * @return true if the sequence has been published and will not be
+     *         overwritten for at least {@link #LAG_MARGIN} sequences.
+     */
+    public boolean isAvailable(final long sequence) {
+        long published = this.cursor;
+        return sequence <= published
+                && (published - sequence) < (CAPACITY - LAG_MARGIN);
+    }
+
+    /**
+     * Determine if a payload that a consumer has finished copying is intact.
+     * The consumer must perform a volatile write after copying and before
+     * calling this method so that the copy cannot be reordered after this
+     * check.
+     * 
+     * @param sequence
+     *            the sequence that was copied
+     * @return true if the slot of the sequence was not claimed for a later
+     *         sequence, false if the copy may mix old and new audio.
+     */
+    public boolean isIntact(final long sequence) {
+        return (this.claimed - sequence) < CAPACITY;
+    }
+}
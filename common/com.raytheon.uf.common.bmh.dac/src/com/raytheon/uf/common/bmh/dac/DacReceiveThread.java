@@ -27,10 +27,8 @@ import java.net.MulticastSocket;
 import java.net.NetworkInterface;
 import java.nio.ByteBuffer;
 import java.security.InvalidParameterException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.raytheon.uf.common.bmh.audio.AudioPacketLogger;
 import com.raytheon.uf.common.bmh.dac.data.RTPHeaderStruct;
@@ -58,6 +56,9 @@ import com.raytheon.uf.common.status.UFStatus;
  *                                     a set amount of time.
  * Jan 13, 2016 3976       bkowal      Do not pass subscribers by reference.
  * Dec 15, 2016 5114       rjpeter     Updated thread name.
+ * Oct 17, 2026            agent       Deliver payloads through a {@link DacPayloadRingBuffer}
+ *                                     with a {@link DacSubscription} per subscriber.
+ * Oct 18, 2026            agent       Claim ring buffer slots before writing them.
  * </pre>
  * 
  * @author bkowal
@@ -97,22 +98,13 @@ public class DacReceiveThread extends Thread {
     private static final int DAC_CHANNELS = 4;
 
     /*
-     * A list of {@link IDacListener} that will be notified whenever valid data
-     * arrives.
+     * A {@link DacSubscription} for every {@link IDacListener} that will be
+     * notified whenever valid data arrives. Each subscription has its own
+     * thread to ensure that the receiver can return to listening for
+     * additional data as soon as possible to mitigate the risk of skipping
+     * packets and so that a slow subscriber does not delay the others.
      */
-    private List<IDacListener> subscribers;
-
-    /*
-     * Thread pool to asynchronously notify subscribers that data has arrived.
-     * Subscribers are asynchronously notified to ensure that the receiver can
-     * return to listening for additional data as soon as possible to mitigate
-     * the risk of skipping packets.
-     * 
-     * Only one thread is used to ensure that messages are sent to subscribers
-     * one at a time in the proper order.
-     */
-    private final ExecutorService subscriberNotifierService = Executors
-            .newFixedThreadPool(1);
+    private final List<DacSubscription> subscriptions = new CopyOnWriteArrayList<>();
 
     /*
      * The port that will be used to connect to the dac.
@@ -136,7 +128,14 @@ public class DacReceiveThread extends Thread {
 
     private byte[] packetBuffer;
 
-    private List<byte[]> payloadBuffers;
+    private DatagramPacket packet;
+
+    private ByteBuffer headerBuffer;
+
+    private final RTPHeaderStruct rtpHeader = new RTPHeaderStruct();
+
+    private final DacPayloadRingBuffer ringBuffer = new DacPayloadRingBuffer(
+            DAC_CHANNELS);
 
     /*
      * Used to track the last packet sequence number that was encountered to
@@ -185,7 +184,6 @@ public class DacReceiveThread extends Thread {
     public DacReceiveThread(final NetworkInterface netIf,
             final InetAddress multicastAddress, final int port) {
         super(DacReceiveThread.class.getSimpleName() + "-port-" + port);
-        this.subscribers = new ArrayList<>();
         this.port = port;
         this.multicastAddress = multicastAddress;
 
@@ -225,11 +223,10 @@ public class DacReceiveThread extends Thread {
 
     private void initDataStorage() {
         this.packetBuffer = new byte[RTPPacketStruct.PACKET_SIZE];
-        this.payloadBuffers = new ArrayList<byte[]>(DAC_CHANNELS);
-        for (int i = 0; i < DAC_CHANNELS; i++) {
-            this.payloadBuffers
-                    .add(new byte[RTPPacketStruct.DATA_PAYLOAD_SIZE]);
-        }
+        this.packet = new DatagramPacket(this.packetBuffer,
+                this.packetBuffer.length);
+        this.headerBuffer = ByteBuffer.wrap(this.packetBuffer, 0,
+                RTPPacketStruct.RTP_PACKET_HDR_SIZE).slice();
     }
 
     /*
@@ -243,9 +240,10 @@ public class DacReceiveThread extends Thread {
         AudioPacketLogger logger = new AudioPacketLogger("Dac Receive",
                 getClass(), 60);
         while (this.halt == false) {
-            this.receivePackets();
-            logger.packetProcessed();
-            this.notifySubscribers();
+            if (this.receivePackets()) {
+                logger.packetProcessed();
+                this.notifySubscribers();
+            }
         }
         logger.close();
         statusHandler.info("Shutting down ...");
@@ -263,7 +261,10 @@ public class DacReceiveThread extends Thread {
         /*
          * stop notifying subscribers.
          */
-        this.subscriberNotifierService.shutdownNow();
+        for (DacSubscription subscription : this.subscriptions) {
+            subscription.halt();
+        }
+        this.subscriptions.clear();
         statusHandler.info("Initiating shutdown sequence ...");
     }
 
@@ -290,36 +291,36 @@ public class DacReceiveThread extends Thread {
     }
 
     /**
-     * Attempts to read packets from the dac.
+     * Attempts to read packets from the dac. The payloads of a packet that is
+     * accepted are written to the next sequence of the
+     * {@link DacPayloadRingBuffer}.
      * 
-     * @param packetsReceived
-     *            the packets that are read from the dac.
+     * @return true if a packet was accepted and should be published to
+     *         subscribers.
      */
-    private void receivePackets() {
-        DatagramPacket packet = new DatagramPacket(this.packetBuffer,
-                this.packetBuffer.length);
+    private boolean receivePackets() {
+        /* receive shrinks the length to the size of the last packet. */
+        this.packet.setLength(this.packetBuffer.length);
         try {
-            this.dacConnection.receive(packet);
+            this.dacConnection.receive(this.packet);
         } catch (IOException e) {
             if (this.halt) {
                 /*
                  * the dac socket may need to be forcefully closed during
                  * shutdown.
                  */
-                return;
+                return false;
             }
             statusHandler.error("Failed to receive data from the DAC!", e);
-            return;
+            return false;
         }
 
-        /* analyze the header bytes */
-        ByteBuffer headerBuffer = ByteBuffer
-                .allocate(RTPPacketStruct.RTP_PACKET_HDR_SIZE);
-        headerBuffer.put(this.packetBuffer, 0,
-                RTPPacketStruct.RTP_PACKET_HDR_SIZE);
-
-        /* create the header to validate the sequence numbers and the source id. */
-        RTPHeaderStruct rtpHeader = new RTPHeaderStruct(headerBuffer);
+        /*
+         * analyze the header bytes in place to validate the sequence numbers
+         * and the source id.
+         */
+        final RTPHeaderStruct rtpHeader = this.rtpHeader;
+        rtpHeader.read(this.headerBuffer);
 
         /* determine if the source id has changed */
         if (this.lastContributingSource == NO_PREVIOUS_IDENTIFIER) {
@@ -355,7 +356,7 @@ public class DacReceiveThread extends Thread {
                             + rtpHeader.getSequenceNumber()
                             + " later than expected. "
                             + this.logLastKnownState() + " Skipping ...");
-                    return;
+                    return false;
                 }
             } else if ((rtpHeader.getSequenceNumber() < this.lastSequenceNumber)
                     && this.potentialWrapAround) {
@@ -370,7 +371,7 @@ public class DacReceiveThread extends Thread {
                     statusHandler.warn("Received duplicate packet: "
                             + rtpHeader.getSequenceNumber() + "! "
                             + this.logLastKnownState() + " Skipping ...");
-                    return;
+                    return false;
                 }
             } else if (rtpHeader.getSequenceNumber() > (this.lastSequenceNumber + 1)) {
                 /* a packet has arrived earlier than expected. */
@@ -391,19 +392,22 @@ public class DacReceiveThread extends Thread {
         }
 
         /* retrieve the bytes for every channel */
+        final long sequence = this.ringBuffer.claim();
         for (int channel = 1; channel <= DAC_CHANNELS; channel++) {
             int offset = RTPPacketStruct.RTP_PACKET_HDR_SIZE
                     + ((channel - 1) * RTPPacketStruct.DATA_PAYLOAD_SIZE);
             System.arraycopy(this.packetBuffer, offset,
-                    this.payloadBuffers.get(channel - 1), 0,
+                    this.ringBuffer.getPayload(channel, sequence), 0,
                     RTPPacketStruct.DATA_PAYLOAD_SIZE);
         }
+        this.ringBuffer.publish(sequence);
 
         /*
          * always reset the flag when we reach this point; indicates that
          * packets are arriving in the expected order.
          */
         this.outOfOrder = false;
+        return true;
     }
 
     private boolean adjustSequencing(final int sequenceNumber) {
@@ -437,21 +441,10 @@ public class DacReceiveThread extends Thread {
 
     /**
      * Notifies subscribers that data is available after a successful data read.
-     * 
-     * @param packetsReceived
-     *            the packets that are read from the dac.
      */
     private void notifySubscribers() {
-        synchronized (this.subscribers) {
-            if (this.subscribers.isEmpty()) {
-                return;
-            }
-
-            SubscriberNotifier subscriberNotifier = new SubscriberNotifier(
-                    new ArrayList<>(this.subscribers), this.payloadBuffers);
-            if (this.halt == false) {
-                this.subscriberNotifierService.execute(subscriberNotifier);
-            }
+        for (DacSubscription subscription : this.subscriptions) {
+            subscription.signal();
         }
     }
 
@@ -461,15 +454,19 @@ public class DacReceiveThread extends Thread {
      * @param dacListener
      */
     public void subscribe(final IDacListener dacListener) {
-        if ((dacListener.getChannel() < 0)
+        if ((dacListener.getChannel() < 1)
                 || (dacListener.getChannel() > DAC_CHANNELS)) {
             throw new InvalidParameterException(
                     "The specified DAC channel to listen to must be > 0 and <= "
                             + DAC_CHANNELS + "!");
         }
 
-        synchronized (this.subscribers) {
-            this.subscribers.add(dacListener);
+        synchronized (this.subscriptions) {
+            DacSubscription subscription = new DacSubscription(getName()
+                    + "-channel-" + dacListener.getChannel() + "-"
+                    + this.subscriptions.size(), this.ringBuffer, dacListener);
+            this.subscriptions.add(subscription);
+            subscription.start();
             statusHandler.info("Added subscriber: " + dacListener.toString());
         }
     }
@@ -480,15 +477,22 @@ public class DacReceiveThread extends Thread {
      * @param dacListener
      */
     public void unsubscribe(final IDacListener dacListener) {
-        synchronized (this.subscribers) {
-            this.subscribers.remove(dacListener);
-            statusHandler.info("Removed subscriber: " + dacListener.toString());
+        synchronized (this.subscriptions) {
+            for (DacSubscription subscription : this.subscriptions) {
+                if (subscription.getListener() == dacListener) {
+                    subscription.halt();
+                    this.subscriptions.remove(subscription);
+                    statusHandler.info("Removed subscriber: "
+                            + dacListener.toString() + ". Delivered "
+                            + subscription.getDeliveredPackets()
+                            + " packets, dropped "
+                            + subscription.getDroppedPackets() + " packets.");
+                }
+            }
         }
     }
 
     public boolean hasSubscribers() {
-        synchronized (subscribers) {
-            return !subscribers.isEmpty();
-        }
+        return !this.subscriptions.isEmpty();
     }
-}
\ No newline at end of file
+}
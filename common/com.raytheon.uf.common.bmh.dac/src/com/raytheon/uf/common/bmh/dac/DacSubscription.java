@@ -0,0 +1,183 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.dac;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.raytheon.uf.common.bmh.dac.data.RTPPacketStruct;
+import com.raytheon.uf.common.status.IUFStatusHandler;
+import com.raytheon.uf.common.status.UFStatus;
+
+/**
+ * Delivers the payloads for one channel from a {@link DacPayloadRingBuffer} to
+ * a single {@link IDacListener}. Every listener has its own thread and
+ * sequence so a slow listener does not delay any other listener. A listener
+ * that falls so far behind that the payloads it has not consumed are about to
+ * be overwritten skips ahead to the most recent payload; the skipped payloads
+ * are counted as dropped. Each payload is copied out of the ring buffer and
+ * validated before delivery so a listener that blocks never reads a slot the
+ * producer is overwriting; a payload that was overwritten during the copy is
+ * also dropped.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * Oct 18, 2026            agent       Copy and validate payloads before delivery.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class DacSubscription extends Thread {
+
+    private static final IUFStatusHandler statusHandler = UFStatus
+            .getHandler(DacSubscription.class);
+
+    /*
+     * Upper bound on the time spent waiting for the producer, in case a signal
+     * is missed.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(20);
+
+    private final DacPayloadRingBuffer ringBuffer;
+
+    private final IDacListener listener;
+
+    private volatile boolean active = true;
+
+    private long nextSequence;
+
+    /* reused for every payload delivered to the listener. */
+    private final byte[] payload = new byte[RTPPacketStruct.DATA_PAYLOAD_SIZE];
+
+    /*
+     * written after every copy, orders the copy before the validation of the
+     * copy.
+     */
+    private volatile long copiedSequence;
+
+    private volatile long deliveredPackets;
+
+    private volatile long droppedPackets;
+
+    /**
+     * Constructor
+     * 
+     * @param name
+     *            the name of the thread
+     * @param ringBuffer
+     *            the buffer to read payloads from
+     * @param listener
+     *            the listener to deliver the payloads to
+     */
+    public DacSubscription(final String name,
+            final DacPayloadRingBuffer ringBuffer, final IDacListener listener) {
+        super(name);
+        this.ringBuffer = ringBuffer;
+        this.listener = listener;
+        /* only deliver data that arrives after subscribing. */
+        this.nextSequence = ringBuffer.next();
+        this.setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        while (this.active) {
+            long published = this.ringBuffer.getCursor();
+            if (this.nextSequence > published) {
+                LockSupport.parkNanos(this, MAX_WAIT_NANOS);
+                continue;
+            }
+
+            if (this.ringBuffer.isAvailable(this.nextSequence) == false) {
+                long skipped = published - this.nextSequence;
+                this.droppedPackets += skipped;
+                statusHandler.warn("Subscriber " + this.listener
+                        + " fell behind by " + skipped
+                        + " packets; skipping to the most recent packet. "
+                        + this.droppedPackets + " packets dropped in total.");
+                this.nextSequence = published;
+            }
+
+            System.arraycopy(this.ringBuffer.getPayload(
+                    this.listener.getChannel(), this.nextSequence), 0,
+                    this.payload, 0, this.payload.length);
+            this.copiedSequence = this.nextSequence;
+            if (this.ringBuffer.isIntact(this.copiedSequence) == false) {
+                ++this.droppedPackets;
+                statusHandler.warn("Subscriber " + this.listener
+                        + " was overwritten while copying a packet. "
+                        + this.droppedPackets + " packets dropped in total.");
+                ++this.nextSequence;
+                continue;
+            }
+
+            try {
+                this.listener.dataArrived(this.payload);
+                ++this.deliveredPackets;
+            } catch (Throwable e) {
+                statusHandler.error("Subscriber " + this.listener
+                        + " failed to process a packet.", e);
+            }
+            ++this.nextSequence;
+        }
+    }
+
+    /**
+     * Wake up the subscription because new data has been published.
+     */
+    public void signal() {
+        LockSupport.unpark(this);
+    }
+
+    /**
+     * Stop delivering data to the listener.
+     */
+    public void halt() {
+        this.active = false;
+        LockSupport.unpark(this);
+    }
+
+    public IDacListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @return the number of packets that have been delivered to the listener.
+     */
+    public long getDeliveredPackets() {
+        return deliveredPackets;
+    }
+
+    /**
+     * @return the number of packets the listener did not receive because it
+     *         fell too far behind.
+     */
+    public long getDroppedPackets() {
+        return droppedPackets;
+    }
+}
@@ -29,6 +29,8 @@ package com.raytheon.uf.common.bmh.dac;
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
  * Jul 15, 2014 3374       bkowal      Initial creation
+ * Oct 17, 2026            agent       Document payload reuse.
+ * Oct 18, 2026            agent       Payloads are copied per listener.
  * 
  * </pre>
  * 
@@ -38,7 +40,9 @@ package com.raytheon.uf.common.bmh.dac;
 
 public interface IDacListener {
     /**
-     * Notifies the listener that data has arrived.
+     * Notifies the listener that data has arrived. Each listener is notified
+     * on its own thread with its own copy of the payload. The copy is reused
+     * for future data so it must not be retained after this method returns.
      * 
      * @param packet
      *            the data that has arrived.
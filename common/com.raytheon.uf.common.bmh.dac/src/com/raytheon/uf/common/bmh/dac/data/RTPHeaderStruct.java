@@ -33,6 +33,7 @@ import java.nio.ByteBuffer;
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
  * Jul 10, 2014 3374       bkowal      Initial creation
+ * Oct 17, 2026            agent       Allow the header to be read in place.
  * 
  * </pre>
  * 
@@ -66,6 +67,24 @@ public class RTPHeaderStruct {
      *            a buffer with the header information
      */
     public RTPHeaderStruct(final ByteBuffer headerBytes) {
+        this.read(headerBytes);
+    }
+
+    /**
+     * Constructor for a header that will be populated using
+     * {@link #read(ByteBuffer)}.
+     */
+    public RTPHeaderStruct() {
+    }
+
+    /**
+     * Populates this header in place so a single instance can be reused for
+     * every packet.
+     * 
+     * @param headerBytes
+     *            a buffer with the header information starting at index 0
+     */
+    public void read(final ByteBuffer headerBytes) {
         this.readFlags(headerBytes.get(0));
         this.readMPT(headerBytes.get(1));
         this.readSequenceNumber(headerBytes.getShort(2));
@@ -21,6 +21,8 @@ package com.raytheon.uf.common.bmh.dac.tones;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.raytheon.uf.common.bmh.dac.dacsession.DacSessionConstants;
 import com.raytheon.uf.common.bmh.tones.ToneGenerationException;
@@ -42,6 +44,8 @@ import com.raytheon.uf.common.bmh.tones.TonesManager;
  * May 05, 2015  #4464     bkowal       SAME Tone Padding is now configurable via a system property.
  * Jul 07, 2015  #4464     bkowal       Default SAME padding is now 0.
  * Sep 30, 2016  #5912     bkowal       Removed embedded determination of the SAME EoM padding.
+ * Oct 17, 2026            agent        Keep the end of message tones for each padding and
+ *                                      retrieve them without locking.
  * 
  * </pre>
  * 
@@ -73,7 +77,7 @@ public final class StaticTones {
 
     private final byte[] beforeMessagePause;
 
-    private ByteBuffer endOfMessageTones;
+    private final ConcurrentMap<Integer, ByteBuffer> endOfMessageTones = new ConcurrentHashMap<>();
 
     public StaticTones() throws ToneGenerationException {
         this.betweenPreambleOrClosingPause = generateSilence(SILENCE_BEWTWEEN_PREAMBLE);
@@ -105,22 +109,28 @@ public final class StaticTones {
         return beforeMessagePause;
     }
 
-    public synchronized ByteBuffer getEndOfMessageTones(final int sameEOMPadding)
+    public ByteBuffer getEndOfMessageTones(final int sameEOMPadding)
             throws ToneGenerationException {
-        if (endOfMessageTones == null) {
+        ByteBuffer eomTones = this.endOfMessageTones.get(sameEOMPadding);
+        if (eomTones == null) {
             byte[] eomTone = TonesManager.generateSAMETone(END_OF_MESSAGE_CODE,
                     sameEOMPadding);
             byte[] afterMessagePause = generateSilence(SILENCE_AFTER_MESSAGE);
             int eomBufferSize = afterMessagePause.length + (3 * eomTone.length)
                     + (2 * this.betweenPreambleOrClosingPause.length);
-            this.endOfMessageTones = ByteBuffer.allocate(eomBufferSize);
-            this.endOfMessageTones.put(afterMessagePause);
-            this.endOfMessageTones.put(eomTone);
-            this.endOfMessageTones.put(this.betweenPreambleOrClosingPause);
-            this.endOfMessageTones.put(eomTone);
-            this.endOfMessageTones.put(this.betweenPreambleOrClosingPause);
-            this.endOfMessageTones.put(eomTone);
+            eomTones = ByteBuffer.allocate(eomBufferSize);
+            eomTones.put(afterMessagePause);
+            eomTones.put(eomTone);
+            eomTones.put(this.betweenPreambleOrClosingPause);
+            eomTones.put(eomTone);
+            eomTones.put(this.betweenPreambleOrClosingPause);
+            eomTones.put(eomTone);
+            ByteBuffer existing = this.endOfMessageTones.putIfAbsent(
+                    sameEOMPadding, eomTones);
+            if (existing != null) {
+                eomTones = existing;
+            }
         }
-        return endOfMessageTones;
+        return eomTones;
     }
 }
@@ -19,14 +19,12 @@
  **/
 package com.raytheon.uf.common.bmh.audio;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.lang3.Range;
 
-import com.raytheon.uf.common.bmh.audio.impl.algorithm.PCMToUlawAlgorithm;
-import com.raytheon.uf.common.bmh.audio.impl.algorithm.UlawToPCMAlgorithm;
-
 /**
  * Generic audio regulator that implements common functionality.
  * 
@@ -40,6 +38,7 @@ import com.raytheon.uf.common.bmh.audio.impl.algorithm.UlawToPCMAlgorithm;
  * Oct 14, 2015 4984       rjpeter     Fix sign on clipping.
  * Nov 04, 2015 5068       rjpeter     Switch audio units from dB to amplitude.
  * Feb 09, 2016 5082       bkowal      Updates for Apache commons lang 3.
+ * Oct 17, 2026            agent       Regulate ulaw directly with a {@link UlawGainTable}.
  * </pre>
  * 
  * @author bkowal
@@ -76,48 +75,6 @@ public abstract class AbstractAudioRegulator implements IAudioRegulator {
         this.audioCollectionToRegulate = audioCollectionToRegulate;
     }
 
-    /**
-     * Adjusts the regulated audio data according to the specified volume
-     * adjustment amount
-     * 
-     * @param sample
-     *            the audio byte data to regulate
-     * @param volumeAdjustment
-     *            the specified volume adjustment amount ( < 1.0 will decrease
-     *            the audio level; > 1.0 will increase the audio level).
-     * @param offset
-     *            the offset within the sample byte array to start the
-     *            regulation
-     * @param length
-     *            the number of bytes in the sample array to regulate after the
-     *            offset
-     * @return the adjusted audio data
-     * @throws AudioConversionException
-     *             when the final adjusted pcm to ulaw conversion fails
-     * @throws UnsupportedAudioFormatException
-     *             when the final adjusted pcm to ulaw conversion fails
-     * @throws AudioOverflowException
-     *             if the requested volume adjustment would generate invalid
-     *             audio samples
-     */
-    protected void regulateAudioVolume(byte[] sample,
-            final double volumeAdjustment, int offset, int length)
-            throws UnsupportedAudioFormatException, AudioConversionException,
-            AudioOverflowException {
-        for (int i = offset; i < (offset + length); i += 2) {
-            short audioSample = (short) (((sample[i + 1] & 0xff) << 8) | (sample[i] & 0xff));
-            double calculation = audioSample * volumeAdjustment;
-            if (Math.abs(calculation) > BMHAudioConstants.MAX_AMPLITUDE) {
-                audioSample = (short) (Math.signum(calculation) * BMHAudioConstants.MAX_AMPLITUDE);
-            } else {
-                audioSample = (short) calculation;
-            }
-
-            sample[i] = (byte) audioSample;
-            sample[i + 1] = (byte) (audioSample >> 8);
-        }
-    }
-
     @Override
     public byte[] regulateAudioVolume(final byte[] ulawData,
             final short amplitude, final int sampleSize)
@@ -125,7 +82,14 @@ public abstract class AbstractAudioRegulator implements IAudioRegulator {
             AudioConversionException {
         long start = System.currentTimeMillis();
 
-        byte[] pcmData = new byte[sampleSize * 2];
+        /*
+         * Find the peak amplitude and the samples that should not be altered
+         * in a single pass over the ulaw data.
+         */
+        final int[] histogram = new int[UlawGainTable.CODE_COUNT];
+        final boolean[] skipSample = new boolean[(ulawData.length
+                + sampleSize - 1)
+                / sampleSize];
         int length = sampleSize;
         short maxValue = -Short.MAX_VALUE;
 
@@ -134,23 +98,27 @@ public abstract class AbstractAudioRegulator implements IAudioRegulator {
                 length = ulawData.length - i;
             }
 
-            UlawToPCMAlgorithm.convert(ulawData, i, length, pcmData);
-            Range<? extends Number> range = this.calculateBoundarySignals(
-                    pcmData, 0, length * 2);
+            Arrays.fill(histogram, 0);
+            UlawGainTable.countCodes(ulawData, i, length, histogram);
+            Range<? extends Number> range = this
+                    .calculateBoundarySignals(histogram);
             maxValue = (short) Math.max(maxValue, range.getMaximum()
                     .shortValue());
+            skipSample[i / sampleSize] = this.skipAudio(range.getMinimum()
+                    .shortValue(), range.getMaximum().shortValue());
         }
 
-        double adjustmentRate = amplitude / (double) maxValue;
+        final UlawGainTable gainTable = UlawGainTable.getInstance(amplitude
+                / (double) maxValue);
         length = sampleSize;
         for (int i = 0; i < ulawData.length; i += sampleSize) {
             if (i + length > ulawData.length) {
                 length = ulawData.length - i;
             }
 
-            UlawToPCMAlgorithm.convert(ulawData, i, length, pcmData);
-            this.adjustAudioSamplePCM(pcmData, adjustmentRate, 0, length * 2);
-            PCMToUlawAlgorithm.convert(pcmData, 0, length * 2, ulawData, i);
+            if (skipSample[i / sampleSize] == false) {
+                gainTable.apply(ulawData, i, length);
+            }
         }
 
         this.duration = System.currentTimeMillis() - start;
@@ -168,24 +136,12 @@ public abstract class AbstractAudioRegulator implements IAudioRegulator {
         /*
          * Determine the amplitude ranges.
          */
-        byte[] pcmAudio = new byte[this.audioCollectionToRegulate.get(0).length * 2];
+        final int[] histogram = new int[UlawGainTable.CODE_COUNT];
         for (byte[] ulawAudio : this.audioCollectionToRegulate) {
-            /*
-             * Have to create the conversion array every time because we cannot
-             * be certain that all audio arrays in the {@link Collection} are
-             * the same length.
-             * 
-             * TODO: Worth tracking the maximum length so that a single array
-             * can be created for use during the actual conversion process and
-             * only a subset of the elements would be touched, when necessary?
-             */
-            if (pcmAudio.length != ulawAudio.length * 2) {
-                pcmAudio = new byte[ulawAudio.length * 2];
-            }
-            UlawToPCMAlgorithm
-                    .convert(ulawAudio, 0, ulawAudio.length, pcmAudio);
-            Range<? extends Number> range = this.calculateBoundarySignals(
-                    pcmAudio, 0, pcmAudio.length);
+            Arrays.fill(histogram, 0);
+            UlawGainTable.countCodes(ulawAudio, 0, ulawAudio.length, histogram);
+            Range<? extends Number> range = this
+                    .calculateBoundarySignals(histogram);
             this.maxAmplitude = (short) Math.max(range.getMaximum()
                     .shortValue(), this.maxAmplitude);
             this.minAmplitude = (short) Math.min(range.getMinimum()
@@ -203,41 +159,28 @@ public abstract class AbstractAudioRegulator implements IAudioRegulator {
         /*
          * Calculate the amount of adjustment required.
          */
-        double adjustmentRate = amplitude / (double) this.maxAmplitude;
+        final UlawGainTable gainTable = UlawGainTable.getInstance(amplitude
+                / (double) this.maxAmplitude);
         /*
          * Alter the audio.
          */
         for (byte[] ulawAudio : this.audioCollectionToRegulate) {
-            if (pcmAudio.length != ulawAudio.length * 2) {
-                pcmAudio = new byte[ulawAudio.length * 2];
-            }
-            UlawToPCMAlgorithm
-                    .convert(ulawAudio, 0, ulawAudio.length, pcmAudio);
-            this.regulateAudioVolume(pcmAudio, adjustmentRate, 0,
-                    pcmAudio.length);
-            PCMToUlawAlgorithm.convert(pcmAudio, 0, pcmAudio.length, ulawAudio,
-                    0);
+            gainTable.apply(ulawAudio, 0, ulawAudio.length);
         }
 
         return this.audioCollectionToRegulate;
     }
 
-    protected void adjustAudioSamplePCM(final byte[] sample,
-            final double adjustmentRate, int offset, int length)
-            throws UnsupportedAudioFormatException, AudioConversionException,
-            AudioOverflowException {
-        Range<? extends Number> amplitudeRange = this.calculateBoundarySignals(
-                sample, offset, length);
-        if (this.skipAudio(amplitudeRange.getMinimum().shortValue(),
-                amplitudeRange.getMaximum().shortValue())) {
-            return;
-        }
-
-        this.regulateAudioVolume(sample, adjustmentRate, offset, length);
-    }
-
+    /**
+     * Determines the minimum and maximum amplitudes of a segment of audio.
+     * 
+     * @param histogram
+     *            the number of occurrences of each ulaw code in the audio, see
+     *            {@link UlawGainTable#countCodes(byte[], int, int, int[])}
+     * @return the amplitude range
+     */
     protected abstract Range<? extends Number> calculateBoundarySignals(
-            final byte[] audio, int offset, int length);
+            final int[] histogram);
 
     /**
      * Determines if a segment of audio should be skipped based on the
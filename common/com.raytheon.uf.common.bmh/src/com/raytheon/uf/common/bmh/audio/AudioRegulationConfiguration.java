@@ -38,6 +38,8 @@ import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
  * Sep 01, 2015 4771       bkowal      Added additional configurable options that
  *                                     are used for audio playback via weather messages.
  * Nov 04, 2015 5068       rjpeter     Switch audio units from dB to amplitude.
+ * Oct 18, 2026            agent       Live audio is no longer buffered by the client, the
+ *                                     {@link #bufferDelay} is now the regulation window.
  * </pre>
  * 
  * @author bkowal
@@ -93,15 +95,15 @@ public class AudioRegulationConfiguration {
     private boolean disableRecordedPreAmplication;
 
     /*
-     * Specifies the amount of time (in milliseconds) to buffer audio before
-     * transmitting it to the server the first time.
+     * No longer used, live audio is transmitted to the server as it is
+     * recorded. Retained so existing configuration files remain valid.
      */
     @DynamicSerializeElement
     private int initialBufferDelay;
 
     /*
-     * Specifies the amount of time (in milliseconds) to buffer audio before
-     * transmitting it to the server every additional time thereafter.
+     * Specifies the amount of time (in milliseconds) of live audio that is used
+     * to determine the gain when live audio is regulated.
      */
     @DynamicSerializeElement
     private int bufferDelay;
@@ -35,6 +35,8 @@ import com.raytheon.uf.common.bmh.audio.AudioRegulationConfiguration.ALGORITHM;
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
  * Aug 25, 2015 4771       bkowal      Initial creation
+ * Oct 18, 2026            agent       Added
+ *                                     {@link #getStreamingAudioRegulator(AudioRegulationConfiguration, short, int)}.
  * 
  * </pre>
  * 
@@ -67,4 +69,28 @@ public class AudioRegulationFactory {
                     audioCollectionToRegulate);
         }
     }
+
+    /**
+     * Constructs a {@link StreamingAudioRegulator} for a live stream of audio.
+     * 
+     * @param configuration
+     *            the {@link AudioRegulationConfiguration} to use
+     * @param amplitude
+     *            the target amplitude of the stream
+     * @param windowSize
+     *            the number of segments, including the segment being
+     *            regulated, used to calculate the gain
+     * @return the {@link StreamingAudioRegulator}
+     */
+    public static StreamingAudioRegulator getStreamingAudioRegulator(
+            AudioRegulationConfiguration configuration, final short amplitude,
+            final int windowSize) {
+        AbstractAudioRegulator regulator;
+        if (configuration.getRegulationAlgorithm() == ALGORITHM.LINEAR_PCM) {
+            regulator = new LinearAudioRegulator(configuration);
+        } else {
+            regulator = new DeviationAudioRegulator(configuration);
+        }
+        return new StreamingAudioRegulator(regulator, amplitude, windowSize);
+    }
 }
\ No newline at end of file
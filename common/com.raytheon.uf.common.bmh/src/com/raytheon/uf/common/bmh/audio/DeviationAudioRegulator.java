@@ -19,7 +19,6 @@
  **/
 package com.raytheon.uf.common.bmh.audio;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang3.Range;
@@ -39,6 +38,7 @@ import org.apache.commons.lang3.Range;
  *                                     which there is no standard deviation.
  * Nov 04, 2015 5068       rjpeter     Switch audio units from dB to amplitude.
  * Feb 09, 2016 5082       bkowal      Updates for Apache commons lang 3.
+ * Oct 17, 2026            agent       Calculate the boundary signals from a ulaw histogram.
  * </pre>
  * 
  * @author bkowal
@@ -66,25 +66,22 @@ public class DeviationAudioRegulator extends AbstractAudioRegulator {
      * (non-Javadoc)
      * 
      * @see com.raytheon.uf.common.bmh.audio.AbstractAudioRegulator#
-     * calculateBoundarySignals(byte[], int, int)
+     * calculateBoundarySignals(int[])
      */
     @Override
-    protected Range<? extends Number> calculateBoundarySignals(byte[] audio, int offset,
-            int length) {
+    protected Range<? extends Number> calculateBoundarySignals(
+            final int[] histogram) {
         /*
          * First, determine the amplitude levels of every segment of audio.
          */
-        List<Short> audioAmplitudes = new ArrayList<>(audio.length / 2);
         double sampleCount = 0;
         double amplitudeSum = 0.0;
-        for (int i = offset; i < (offset + length); i += 2) {
-            short amplitude = (short) (((audio[i + 1] & 0xff) << 8) | (audio[i] & 0xff));
-            amplitude = (short) Math.abs(amplitude);
-
-            if (amplitude > 0) {
-                audioAmplitudes.add(amplitude);
-                ++sampleCount;
-                amplitudeSum += amplitude;
+        for (int code = 0; code < histogram.length; code++) {
+            short amplitude = UlawGainTable.getAmplitude(code);
+
+            if (amplitude > 0 && histogram[code] > 0) {
+                sampleCount += histogram[code];
+                amplitudeSum += (double) amplitude * histogram[code];
             }
         }
 
@@ -100,9 +97,12 @@ public class DeviationAudioRegulator extends AbstractAudioRegulator {
 
         double mean = amplitudeSum / sampleCount;
         double varianceSum = 0.0;
-        for (short amplitude : audioAmplitudes) {
-            double square = Math.pow((amplitude - mean), 2);
-            varianceSum += square;
+        for (int code = 0; code < histogram.length; code++) {
+            short amplitude = UlawGainTable.getAmplitude(code);
+            if (amplitude > 0 && histogram[code] > 0) {
+                double square = Math.pow((amplitude - mean), 2);
+                varianceSum += square * histogram[code];
+            }
         }
 
         final double stdDeviation = Math.sqrt(varianceSum / sampleCount);
@@ -123,8 +123,11 @@ public class DeviationAudioRegulator extends AbstractAudioRegulator {
         short rangeMinAmplitude = Short.MAX_VALUE;
         short rangeMaxAmplitude = Short.MIN_VALUE;
         boolean rangeCalculated = false;
-        for (short amplitude : audioAmplitudes) {
-            if (amplitude >= minimumAmplitude && amplitude <= maximumAmplitude) {
+        for (int code = 0; code < histogram.length; code++) {
+            short amplitude = UlawGainTable.getAmplitude(code);
+            if (amplitude > 0 && histogram[code] > 0
+                    && amplitude >= minimumAmplitude
+                    && amplitude <= maximumAmplitude) {
                 rangeCalculated = true;
                 rangeMinAmplitude = (short) Math.min(rangeMinAmplitude,
                         amplitude);
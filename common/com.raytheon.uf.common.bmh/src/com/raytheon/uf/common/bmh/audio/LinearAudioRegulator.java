@@ -53,6 +53,7 @@ import org.apache.commons.lang3.Range;
  * Aug 25, 2015 4771       bkowal      Re-factored to support additional audio regulators.
  * Nov 04, 2015 5068       rjpeter     Switch audio units from dB to amplitude.
  * Feb 09, 2016 5082       bkowal      Updates for Apache commons lang 3.
+ * Oct 17, 2026            agent       Calculate the boundary signals from a ulaw histogram.
  * </pre>
  * 
  * @author bkowal
@@ -76,43 +77,34 @@ public class LinearAudioRegulator extends AbstractAudioRegulator {
      * Determines the minimum and maximum amplitudes associated with the managed
      * audio data.
      * 
-     * @param audio
-     *            the managed audio data
-     * @param offset
-     *            determines the first index in the managed audio array that
-     *            should be used when calculating the boundary signals
-     * @param length
-     *            the number of bytes from the offset to use when calculating
-     *            the boundary signals
+     * @param histogram
+     *            the number of occurrences of each ulaw code in the managed
+     *            audio data
      * @return the amplitude range
      */
     @Override
     protected Range<? extends Number> calculateBoundarySignals(
-            final byte[] audio, int offset, int length) {
+            final int[] histogram) {
         short runningMinAmplitude = 0;
         short runningMaxAmplitude = 0;
 
-        for (int i = offset; i < (offset + length); i += 2) {
-            short amplitude = (short) (((audio[i + 1] & 0xff) << 8) | (audio[i] & 0xff));
-            amplitude = (short) Math.abs(amplitude);
+        for (int code = 0; code < histogram.length; code++) {
+            if (histogram[code] == 0) {
+                continue;
+            }
+            short amplitude = UlawGainTable.getAmplitude(code);
 
-            if (i == 0) {
+            /*
+             * We use the quietest audible signal to calculate the minimum
+             * amplitude rather than the lack of audio. For the lack of audio,
+             * when the amplitude is 0, the associated dB value is -infinity.
+             */
+            if ((runningMinAmplitude == 0 || amplitude < runningMinAmplitude)
+                    && amplitude != 0) {
                 runningMinAmplitude = amplitude;
+            }
+            if (amplitude > runningMaxAmplitude) {
                 runningMaxAmplitude = amplitude;
-            } else {
-                /*
-                 * We use the quietest audible signal to calculate the minimum
-                 * amplitude rather than the lack of audio. For the lack of
-                 * audio, when the amplitude is 0, the associated dB value is
-                 * -infinity.
-                 */
-                if ((runningMinAmplitude == 0 || amplitude < runningMinAmplitude)
-                        && amplitude != 0) {
-                    runningMinAmplitude = amplitude;
-                }
-                if (amplitude > runningMaxAmplitude) {
-                    runningMaxAmplitude = amplitude;
-                }
             }
         }
 
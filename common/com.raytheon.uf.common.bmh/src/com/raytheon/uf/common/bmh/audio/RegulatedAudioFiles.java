@@ -0,0 +1,107 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.audio;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Naming of the regulated audio files the dac transmit processes write next
+ * to the fragments of a message. Shared with the purge so that the variants
+ * of a fragment are always found and removed with it.
+ * 
+ * A variant is named after the first fragment it was created from followed
+ * by a '.', an optional hash identifying any other fragments, the amplitude,
+ * a fingerprint of the regulation configuration and {@link #EXTENSION}.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public final class RegulatedAudioFiles {
+
+    public static final String EXTENSION = ".reg";
+
+    /**
+     * Glob matching every variant in a directory.
+     */
+    public static final String GLOB = "*" + EXTENSION;
+
+    private RegulatedAudioFiles() {
+    }
+
+    /**
+     * @param fragments
+     *            the fragments the regulated audio is created from, in order
+     * @param amplitude
+     *            the target amplitude
+     * @param fingerprint
+     *            identifies the regulation configuration
+     * @return the path of the variant, in the directory of the first fragment
+     */
+    public static Path getVariantPath(final List<Path> fragments,
+            final short amplitude, final String fingerprint) {
+        Path first = fragments.get(0);
+        StringBuilder name = new StringBuilder(first.getFileName().toString());
+        if (fragments.size() > 1) {
+            /* combined audio, identify the other fragments */
+            name.append(".").append(Integer.toHexString(fragments.hashCode()));
+        }
+        name.append(".").append(amplitude).append(".").append(fingerprint)
+                .append(EXTENSION);
+        return first.resolveSibling(name.toString());
+    }
+
+    /**
+     * @return true if the file is a regulated variant of a fragment.
+     */
+    public static boolean isVariant(final Path file) {
+        return file.getFileName().toString().endsWith(EXTENSION);
+    }
+
+    /**
+     * Fragment names may contain '.' so the name of the fragment a variant was
+     * created from cannot be split off exactly, it is one of the names
+     * returned.
+     * 
+     * @return every name the first fragment of a variant could have, in the
+     *         directory of the variant.
+     */
+    public static List<String> getFragmentNames(final Path variant) {
+        String name = variant.getFileName().toString();
+        List<String> fragmentNames = new ArrayList<>();
+        int index = name.indexOf('.');
+        while (index > 0) {
+            fragmentNames.add(name.substring(0, index));
+            index = name.indexOf('.', index + 1);
+        }
+        return fragmentNames;
+    }
+}
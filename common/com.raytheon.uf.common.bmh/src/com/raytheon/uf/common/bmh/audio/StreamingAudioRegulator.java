@@ -0,0 +1,118 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.audio;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.Range;
+
+/**
+ * Regulates the volume of a continuous stream of audio that arrives in small
+ * segments, such as a live broadcast. Regulating each segment on its own
+ * would constantly change the gain, instead the gain for every segment is
+ * calculated from the amplitude range of a sliding window made up of the
+ * segment and the segments immediately before it. This is the same
+ * calculation that
+ * {@link AbstractAudioRegulator#regulateAudioCollection(short)} performs for
+ * a collection that spans the window, but the gain changes gradually rather
+ * than at the boundary of every collection.
+ * 
+ * This class is not thread safe, each stream should have its own regulator.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class StreamingAudioRegulator {
+
+    private final AbstractAudioRegulator regulator;
+
+    private final short amplitude;
+
+    private final short[] windowMaximums;
+
+    private final short[] windowMinimums;
+
+    private final int[] histogram = new int[UlawGainTable.CODE_COUNT];
+
+    private int windowIndex;
+
+    private int windowCount;
+
+    StreamingAudioRegulator(final AbstractAudioRegulator regulator,
+            final short amplitude, final int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException(
+                    "The window size must be at least 1 segment.");
+        }
+        this.regulator = regulator;
+        this.amplitude = amplitude;
+        this.windowMaximums = new short[windowSize];
+        this.windowMinimums = new short[windowSize];
+    }
+
+    /**
+     * Regulate the volume of the next segment of the stream in place.
+     * 
+     * @param ulawData
+     *            the next segment of ulaw audio
+     * @return the regulated audio, the same array that was provided
+     */
+    public byte[] regulate(final byte[] ulawData) {
+        Arrays.fill(histogram, 0);
+        UlawGainTable.countCodes(ulawData, 0, ulawData.length, histogram);
+        Range<? extends Number> range = regulator
+                .calculateBoundarySignals(histogram);
+        windowMaximums[windowIndex] = range.getMaximum().shortValue();
+        windowMinimums[windowIndex] = range.getMinimum().shortValue();
+        windowIndex = (windowIndex + 1) % windowMaximums.length;
+        if (windowCount < windowMaximums.length) {
+            windowCount += 1;
+        }
+
+        short maxAmplitude = Short.MIN_VALUE;
+        short minAmplitude = Short.MAX_VALUE;
+        for (int i = 0; i < windowCount; i += 1) {
+            maxAmplitude = (short) Math.max(maxAmplitude, windowMaximums[i]);
+            minAmplitude = (short) Math.min(minAmplitude, windowMinimums[i]);
+        }
+        if ((maxAmplitude <= 0)
+                || regulator.skipAudio(minAmplitude, maxAmplitude)) {
+            return ulawData;
+        }
+
+        /*
+         * The window always includes the current segment so the gain can never
+         * push it past the target amplitude.
+         */
+        UlawGainTable.getInstance(amplitude / (double) maxAmplitude).apply(
+                ulawData, 0, ulawData.length);
+        return ulawData;
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.audio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.raytheon.uf.common.bmh.audio.impl.algorithm.UlawPCMCodec;
+
+/**
+ * Lookup table that applies a constant gain directly to ulaw audio. There are
+ * only 256 ulaw codes so the result of decoding a code to pcm, scaling it
+ * (with clipping at {@link BMHAudioConstants#MAX_AMPLITUDE}) and encoding it
+ * back to ulaw can be computed once per gain; regulating audio is then a
+ * single table lookup per byte.
+ * 
+ * Tables are cached by gain. Gains are quantized to
+ * {@link #GAIN_RESOLUTION} so that nearly identical gains share a table, the
+ * difference is well below the resolution of ulaw.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public final class UlawGainTable {
+
+    /**
+     * The number of distinct ulaw codes.
+     */
+    public static final int CODE_COUNT = 256;
+
+    private static final double GAIN_RESOLUTION = 10000.0;
+
+    private static final int MAX_CACHED_TABLES = 256;
+
+    /**
+     * The pcm sample for every ulaw code.
+     */
+    private static final short[] PCM_SAMPLES = new short[CODE_COUNT];
+
+    /**
+     * The absolute amplitude of every ulaw code.
+     */
+    private static final short[] AMPLITUDES = new short[CODE_COUNT];
+
+    static {
+        for (int code = 0; code < CODE_COUNT; code++) {
+            PCM_SAMPLES[code] = UlawPCMCodec.decode((byte) code);
+            AMPLITUDES[code] = (short) Math.abs(PCM_SAMPLES[code]);
+        }
+    }
+
+    private static final Map<Long, UlawGainTable> tableCache = new LinkedHashMap<Long, UlawGainTable>(
+            16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<Long, UlawGainTable> eldest) {
+            return size() > MAX_CACHED_TABLES;
+        }
+    };
+
+    private final byte[] table = new byte[CODE_COUNT];
+
+    private UlawGainTable(final double adjustmentRate) {
+        for (int code = 0; code < CODE_COUNT; code++) {
+            short audioSample;
+            double calculation = PCM_SAMPLES[code] * adjustmentRate;
+            if (Math.abs(calculation) > BMHAudioConstants.MAX_AMPLITUDE) {
+                audioSample = (short) (Math.signum(calculation) * BMHAudioConstants.MAX_AMPLITUDE);
+            } else {
+                audioSample = (short) calculation;
+            }
+            table[code] = UlawPCMCodec.encode(audioSample);
+        }
+    }
+
+    /**
+     * Get the table for a gain.
+     * 
+     * @param adjustmentRate
+     *            the gain ( < 1.0 will decrease the audio level; > 1.0 will
+     *            increase the audio level).
+     * @return the table
+     */
+    public static UlawGainTable getInstance(final double adjustmentRate) {
+        if (Double.isNaN(adjustmentRate) || Double.isInfinite(adjustmentRate)) {
+            /*
+             * Only occurs when regulating complete silence, not worth
+             * caching.
+             */
+            return new UlawGainTable(adjustmentRate);
+        }
+        final double quantized = Math.round(adjustmentRate * GAIN_RESOLUTION)
+                / GAIN_RESOLUTION;
+        final Long key = Double.doubleToLongBits(quantized);
+        synchronized (tableCache) {
+            UlawGainTable gainTable = tableCache.get(key);
+            if (gainTable == null) {
+                gainTable = new UlawGainTable(quantized);
+                tableCache.put(key, gainTable);
+            }
+            return gainTable;
+        }
+    }
+
+    /**
+     * Apply the gain to ulaw audio in place.
+     * 
+     * @param ulawData
+     *            the ulaw audio
+     * @param offset
+     *            the index of the first byte to adjust
+     * @param length
+     *            the number of bytes to adjust
+     */
+    public void apply(final byte[] ulawData, final int offset, final int length) {
+        for (int i = offset; i < (offset + length); i++) {
+            ulawData[i] = table[ulawData[i] & 0xff];
+        }
+    }
+
+    /**
+     * Add the number of occurrences of each ulaw code in the audio to a
+     * histogram. The amplitude statistics of the audio can be computed from
+     * the histogram using {@link #getAmplitude(int)}.
+     * 
+     * @param ulawData
+     *            the ulaw audio
+     * @param offset
+     *            the index of the first byte to count
+     * @param length
+     *            the number of bytes to count
+     * @param histogram
+     *            an array of {@link #CODE_COUNT} counts
+     */
+    public static void countCodes(final byte[] ulawData, final int offset,
+            final int length, final int[] histogram) {
+        for (int i = offset; i < (offset + length); i++) {
+            ++histogram[ulawData[i] & 0xff];
+        }
+    }
+
+    /**
+     * @param code
+     *            a ulaw code, 0-255
+     * @return the absolute pcm amplitude of the code
+     */
+    public static short getAmplitude(final int code) {
+        return AMPLITUDES[code];
+    }
+}
@@ -34,6 +34,7 @@ package com.raytheon.uf.common.bmh.audio.impl.algorithm;
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
  * Apr 9, 2015  4365       bkowal      Initial creation
+ * Oct 17, 2026            agent       Convert with {@link UlawPCMCodec}.
  * 
  * </pre>
  * 
@@ -119,15 +120,14 @@ public class PCMToUlawAlgorithm {
         /*
          * Complete the conversion.
          */
-        int i = srcOffset;
-        while (i < (srcOffset + srcLength)) {
-            int sample = (src[i++] & 0x00FF);
-            sample |= (src[i++] << 8);
-            destination[dstOffset++] = (byte) compress((short) sample);
-        }
+        UlawPCMCodec.encode(src, srcOffset, srcLength, destination, dstOffset);
     }
 
-    private static int compress(short sample) {
+    /**
+     * Compress a single sample, used to build the encode table of
+     * {@link UlawPCMCodec}.
+     */
+    static int compress(short sample) {
         int sign = (sample >> 8) & 0x80;
         if (sign != 0) {
             sample *= -1;
@@ -0,0 +1,293 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.audio.impl.algorithm;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Table driven ulaw/pcm codec for bulk conversions. Decoding uses a 256 entry
+ * table and encoding uses a table with an entry for every 16-bit pcm sample so
+ * neither direction branches per sample. Arguments are only checked once per
+ * call, not per sample.
+ * 
+ * Heap buffers are converted through their backing arrays; direct buffers are
+ * converted with absolute gets and puts. Pcm in a {@link ByteBuffer} is read
+ * and written in the byte order of the buffer; pcm in a byte array is little
+ * endian, the same as {@link UlawToPCMAlgorithm} and
+ * {@link PCMToUlawAlgorithm}.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public final class UlawPCMCodec {
+
+    private static final short[] decodeTable = new short[256];
+
+    private static final byte[] encodeTable = new byte[1 << 16];
+
+    static {
+        for (int code = 0; code < decodeTable.length; code++) {
+            int value = UlawToPCMAlgorithm.ulawtable[code];
+            /* the table is stored byte swapped. */
+            decodeTable[code] = (short) (((value & 0x00FF) << 8) | ((value >> 8) & 0x00FF));
+        }
+        for (int sample = Short.MIN_VALUE; sample <= Short.MAX_VALUE; sample++) {
+            encodeTable[sample & 0xFFFF] = (byte) PCMToUlawAlgorithm
+                    .compress((short) sample);
+        }
+    }
+
+    /**
+     * Utility Class. No Construction Allowed.
+     */
+    private UlawPCMCodec() {
+    }
+
+    public static short decode(final byte ulaw) {
+        return decodeTable[ulaw & 0x00FF];
+    }
+
+    public static byte encode(final short sample) {
+        return encodeTable[sample & 0xFFFF];
+    }
+
+    /**
+     * Decode ulaw to pcm samples.
+     * 
+     * @param src
+     *            the ulaw data
+     * @param srcOffset
+     *            the index of the first ulaw byte
+     * @param length
+     *            the number of ulaw bytes to decode
+     * @param destination
+     *            receives length samples
+     * @param dstOffset
+     *            the index of the first sample in the destination
+     */
+    public static void decode(final byte[] src, final int srcOffset,
+            final int length, final short[] destination, final int dstOffset) {
+        checkBounds(srcOffset, length, src.length);
+        checkBounds(dstOffset, length, destination.length);
+        for (int i = 0; i < length; i++) {
+            destination[dstOffset + i] = decodeTable[src[srcOffset + i] & 0x00FF];
+        }
+    }
+
+    /**
+     * Decode ulaw to little endian pcm.
+     * 
+     * @param src
+     *            the ulaw data
+     * @param srcOffset
+     *            the index of the first ulaw byte
+     * @param length
+     *            the number of ulaw bytes to decode
+     * @param destination
+     *            receives length * 2 bytes of pcm
+     * @param dstOffset
+     *            the index of the first pcm byte in the destination
+     */
+    public static void decode(final byte[] src, final int srcOffset,
+            final int length, final byte[] destination, final int dstOffset) {
+        checkBounds(srcOffset, length, src.length);
+        checkBounds(dstOffset, length << 1, destination.length);
+        int d = dstOffset;
+        for (int i = srcOffset; i < (srcOffset + length); i++) {
+            short sample = decodeTable[src[i] & 0x00FF];
+            destination[d++] = (byte) sample;
+            destination[d++] = (byte) (sample >> 8);
+        }
+    }
+
+    /**
+     * Encode pcm samples to ulaw.
+     * 
+     * @param src
+     *            the pcm samples
+     * @param srcOffset
+     *            the index of the first sample
+     * @param length
+     *            the number of samples to encode
+     * @param destination
+     *            receives length bytes of ulaw
+     * @param dstOffset
+     *            the index of the first ulaw byte in the destination
+     */
+    public static void encode(final short[] src, final int srcOffset,
+            final int length, final byte[] destination, final int dstOffset) {
+        checkBounds(srcOffset, length, src.length);
+        checkBounds(dstOffset, length, destination.length);
+        for (int i = 0; i < length; i++) {
+            destination[dstOffset + i] = encodeTable[src[srcOffset + i] & 0xFFFF];
+        }
+    }
+
+    /**
+     * Encode little endian pcm to ulaw.
+     * 
+     * @param src
+     *            the pcm data
+     * @param srcOffset
+     *            the index of the first pcm byte
+     * @param length
+     *            the number of pcm bytes to encode, an odd trailing byte is
+     *            ignored
+     * @param destination
+     *            receives length / 2 bytes of ulaw
+     * @param dstOffset
+     *            the index of the first ulaw byte in the destination
+     */
+    public static void encode(final byte[] src, final int srcOffset,
+            final int length, final byte[] destination, final int dstOffset) {
+        checkBounds(srcOffset, length, src.length);
+        checkBounds(dstOffset, length >> 1, destination.length);
+        int d = dstOffset;
+        final int end = srcOffset + (length & ~1);
+        for (int i = srcOffset; i < end; i += 2) {
+            destination[d++] = encodeTable[(src[i] & 0x00FF)
+                    | ((src[i + 1] & 0x00FF) << 8)];
+        }
+    }
+
+    /**
+     * Decode the remaining ulaw in the source into the destination. The
+     * positions of both buffers are advanced by the number of samples
+     * converted, which is limited by the remaining space in the destination.
+     * 
+     * @param src
+     *            the ulaw data
+     * @param destination
+     *            receives the pcm samples
+     */
+    public static void decode(final ByteBuffer src,
+            final ShortBuffer destination) {
+        final int length = Math.min(src.remaining(), destination.remaining());
+        final int srcPosition = src.position();
+        final int dstPosition = destination.position();
+        if (src.hasArray() && destination.hasArray()) {
+            decode(src.array(), src.arrayOffset() + srcPosition, length,
+                    destination.array(), destination.arrayOffset()
+                            + dstPosition);
+        } else {
+            for (int i = 0; i < length; i++) {
+                destination.put(dstPosition + i,
+                        decodeTable[src.get(srcPosition + i) & 0x00FF]);
+            }
+        }
+        src.position(srcPosition + length);
+        destination.position(dstPosition + length);
+    }
+
+    /**
+     * Decode the remaining ulaw in the source into pcm in the destination,
+     * written in the byte order of the destination. The positions of both
+     * buffers are advanced by the amount converted, which is limited by the
+     * remaining space in the destination.
+     * 
+     * @param src
+     *            the ulaw data
+     * @param destination
+     *            receives the pcm data
+     */
+    public static void decode(final ByteBuffer src, final ByteBuffer destination) {
+        final int length = Math.min(src.remaining(),
+                destination.remaining() >> 1);
+        final int srcPosition = src.position();
+        final int dstPosition = destination.position();
+        for (int i = 0; i < length; i++) {
+            destination.putShort(dstPosition + (i << 1),
+                    decodeTable[src.get(srcPosition + i) & 0x00FF]);
+        }
+        src.position(srcPosition + length);
+        destination.position(dstPosition + (length << 1));
+    }
+
+    /**
+     * Encode the remaining pcm samples in the source into the destination. The
+     * positions of both buffers are advanced by the number of samples
+     * converted, which is limited by the remaining space in the destination.
+     * 
+     * @param src
+     *            the pcm samples
+     * @param destination
+     *            receives the ulaw data
+     */
+    public static void encode(final ShortBuffer src,
+            final ByteBuffer destination) {
+        final int length = Math.min(src.remaining(), destination.remaining());
+        final int srcPosition = src.position();
+        final int dstPosition = destination.position();
+        if (src.hasArray() && destination.hasArray()) {
+            encode(src.array(), src.arrayOffset() + srcPosition, length,
+                    destination.array(), destination.arrayOffset()
+                            + dstPosition);
+        } else {
+            for (int i = 0; i < length; i++) {
+                destination.put(dstPosition + i,
+                        encodeTable[src.get(srcPosition + i) & 0xFFFF]);
+            }
+        }
+        src.position(srcPosition + length);
+        destination.position(dstPosition + length);
+    }
+
+    /**
+     * Encode the remaining pcm in the source, read in the byte order of the
+     * source, into the destination. The positions of both buffers are advanced
+     * by the amount converted, which is limited by the remaining space in the
+     * destination.
+     * 
+     * @param src
+     *            the pcm data
+     * @param destination
+     *            receives the ulaw data
+     */
+    public static void encode(final ByteBuffer src, final ByteBuffer destination) {
+        final int length = Math.min(src.remaining() >> 1,
+                destination.remaining());
+        final int srcPosition = src.position();
+        final int dstPosition = destination.position();
+        for (int i = 0; i < length; i++) {
+            destination.put(dstPosition + i,
+                    encodeTable[src.getShort(srcPosition + (i << 1)) & 0xFFFF]);
+        }
+        src.position(srcPosition + (length << 1));
+        destination.position(dstPosition + length);
+    }
+
+    private static void checkBounds(int off, int len, int size) {
+        if ((off | len | (off + len) | (size - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException("offset: " + off
+                    + ", length: " + len + ", array length: " + size);
+        }
+    }
+}
@@ -34,6 +34,7 @@ package com.raytheon.uf.common.bmh.audio.impl.algorithm;
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
  * Apr 9, 2015  4365       bkowal      Initial creation
+ * Oct 17, 2026            agent       Convert with {@link UlawPCMCodec}.
  * 
  * </pre>
  * 
@@ -43,7 +44,7 @@ package com.raytheon.uf.common.bmh.audio.impl.algorithm;
 
 public class UlawToPCMAlgorithm {
 
-    private static final int[] ulawtable = { 0x8482, 0x8486, 0x848a, 0x848e,
+    static final int[] ulawtable = { 0x8482, 0x8486, 0x848a, 0x848e,
             0x8492, 0x8496, 0x849a, 0x849e, 0x84a2, 0x84a6, 0x84aa, 0x84ae,
             0x84b2, 0x84b6, 0x84ba, 0x84be, 0x84c1, 0x84c3, 0x84c5, 0x84c7,
             0x84c9, 0x84cb, 0x84cd, 0x84cf, 0x84d1, 0x84d3, 0x84d5, 0x84d7,
@@ -132,10 +133,6 @@ public class UlawToPCMAlgorithm {
             throw new IllegalStateException(sb.toString());
         }
 
-        for (int i = srcOffset; i < (srcOffset + srcLength); i++) {
-            int value = ulawtable[src[i] & 0x00FF];
-            destination[dstOffset++] = (byte) ((value >> 8) & 0x00FF); // little-endian
-            destination[dstOffset++] = (byte) (value & 0x00FF);
-        }
+        UlawPCMCodec.decode(src, srcOffset, srcLength, destination, dstOffset);
     }
 }
\ No newline at end of file
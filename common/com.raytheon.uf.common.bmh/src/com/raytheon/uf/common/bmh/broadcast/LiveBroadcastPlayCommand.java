@@ -35,6 +35,7 @@ import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
  * ------------ ---------- ----------- --------------------------
  * Oct 20, 2014 3655       bkowal      Initial creation
  * Nov 3, 2014  3655       bkowal      Support sending multiple packets.
+ * Oct 18, 2026            agent       Added {@link #captureTime}.
  * 
  * </pre>
  * 
@@ -47,6 +48,14 @@ public class LiveBroadcastPlayCommand extends LiveBroadcastCommand {
     @DynamicSerializeElement
     private List<byte[]> audio;
 
+    /**
+     * The time (in milliseconds since the epoch) that the first sample of the
+     * audio was captured by the client or 0 if it is not known. Each packet is
+     * 20 ms of audio so the capture time of later packets can be derived.
+     */
+    @DynamicSerializeElement
+    private long captureTime;
+
     /**
      * 
      */
@@ -62,4 +71,19 @@ public class LiveBroadcastPlayCommand extends LiveBroadcastCommand {
     public void setAudio(List<byte[]> audio) {
         this.audio = audio;
     }
+
+    /**
+     * @return the captureTime
+     */
+    public long getCaptureTime() {
+        return captureTime;
+    }
+
+    /**
+     * @param captureTime
+     *            the captureTime to set
+     */
+    public void setCaptureTime(long captureTime) {
+        this.captureTime = captureTime;
+    }
 }
\ No newline at end of file
@@ -89,6 +89,10 @@ import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
  * May 29, 2015  4686     bkowal      Renamed the broadcast flag to {@link #delivered}.
  * Jul 01, 2016  5722     rjpeter     Fixed serialization of contents.
  * Jul 28, 2016  5722     rjpeter     Handled null contents.
+ * Oct 18, 2026           agent       Added {@link #GET_MSGS_BY_IDS_QUERY} and the played
+ *                                    tones/interrupt bulk updates.
+ * Oct 18, 2026           agent       Added {@link #GET_FRAGMENT_PATHS_BY_INPUT_MSG_IDS_QUERY} and
+ *                                    {@link #GET_ARCHIVE_INFO_BY_INPUT_MSG_IDS_QUERY}.
  * </pre>
  * 
  * @author bkowal
@@ -101,7 +105,12 @@ import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
         @NamedQuery(name = BroadcastMsg.GET_MSG_BY_FRAGMENT_PATH, query = BroadcastMsg.GET_MSG_BY_FRAGMENT_PATH_QUERY),
         @NamedQuery(name = BroadcastMsg.GET_MSG_BY_INPUT_MSG_AND_GROUP, query = BroadcastMsg.GET_MSG_BY_INPUT_MSG_AND_GROUP_QUERY),
         @NamedQuery(name = BroadcastMsg.GET_MSG_WITH_MULTI_OLD_CONTENT, query = BroadcastMsg.GET_MSG_WITH_MULTI_OLD_CONTENT_QUERY),
-        @NamedQuery(name = BroadcastMsg.ALL_UNEXPIRED_MSGS, query = BroadcastMsg.ALL_UNEXPIRED_MSGS_QUERY) })
+        @NamedQuery(name = BroadcastMsg.ALL_UNEXPIRED_MSGS, query = BroadcastMsg.ALL_UNEXPIRED_MSGS_QUERY),
+        @NamedQuery(name = BroadcastMsg.GET_MSGS_BY_IDS, query = BroadcastMsg.GET_MSGS_BY_IDS_QUERY),
+        @NamedQuery(name = BroadcastMsg.UPDATE_PLAYED_TONES, query = BroadcastMsg.UPDATE_PLAYED_TONES_QUERY),
+        @NamedQuery(name = BroadcastMsg.UPDATE_PLAYED_INTERRUPT, query = BroadcastMsg.UPDATE_PLAYED_INTERRUPT_QUERY),
+        @NamedQuery(name = BroadcastMsg.GET_FRAGMENT_PATHS_BY_INPUT_MSG_IDS, query = BroadcastMsg.GET_FRAGMENT_PATHS_BY_INPUT_MSG_IDS_QUERY),
+        @NamedQuery(name = BroadcastMsg.GET_ARCHIVE_INFO_BY_INPUT_MSG_IDS, query = BroadcastMsg.GET_ARCHIVE_INFO_BY_INPUT_MSG_IDS_QUERY) })
 @Entity
 @DynamicSerialize
 @Table(name = "broadcast_msg", uniqueConstraints = { @UniqueConstraint(name = "uk_broadcast_msg_tx_group_input_msg", columnNames = {
@@ -138,6 +147,26 @@ public class BroadcastMsg {
 
     protected static final String ALL_UNEXPIRED_MSGS_QUERY = "SELECT bm FROM BroadcastMsg bm INNER JOIN bm.inputMessage m WHERE m.expirationTime IS NULL or m.expirationTime >= :currentTime";
 
+    public static final String GET_MSGS_BY_IDS = "getBroadcastMsgsByIds";
+
+    protected static final String GET_MSGS_BY_IDS_QUERY = "SELECT m FROM BroadcastMsg m INNER JOIN FETCH m.inputMessage INNER JOIN FETCH m.transmitterGroup WHERE m.id IN :ids";
+
+    public static final String UPDATE_PLAYED_TONES = "updateBroadcastMsgPlayedTones";
+
+    protected static final String UPDATE_PLAYED_TONES_QUERY = "UPDATE BroadcastMsg m SET m.playedSameTone = :playedSameTone, m.playedAlertTone = :playedAlertTone WHERE m.id IN :ids AND (m.playedSameTone <> :playedSameTone OR m.playedAlertTone <> :playedAlertTone)";
+
+    public static final String UPDATE_PLAYED_INTERRUPT = "updateBroadcastMsgPlayedInterrupt";
+
+    protected static final String UPDATE_PLAYED_INTERRUPT_QUERY = "UPDATE BroadcastMsg m SET m.playedInterrupt = true WHERE m.id IN :ids AND m.playedInterrupt = false AND m.inputMessage.id IN (SELECT i.id FROM InputMessage i WHERE i.interrupt = true)";
+
+    public static final String GET_FRAGMENT_PATHS_BY_INPUT_MSG_IDS = "getFragmentPathsByInputMsgIds";
+
+    protected static final String GET_FRAGMENT_PATHS_BY_INPUT_MSG_IDS_QUERY = "SELECT f.outputName FROM BroadcastMsg m inner join m.contents c inner join c.fragments f WHERE m.inputMessage.id IN :inputMsgIds AND f.outputName IS NOT NULL";
+
+    public static final String GET_ARCHIVE_INFO_BY_INPUT_MSG_IDS = "getArchiveInfoByInputMsgIds";
+
+    protected static final String GET_ARCHIVE_INFO_BY_INPUT_MSG_IDS_QUERY = "SELECT m.id, m.transmitterGroup.name FROM BroadcastMsg m WHERE m.inputMessage.id IN :inputMsgIds";
+
     /* A unique auto-generated numerical id. Long = SQL BIGINT */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = GEN)
@@ -111,6 +111,8 @@ import com.raytheon.uf.common.time.util.TimeUtil;
  *                                    {@link #UNEXPIRED_QUERY_NAME} to retrieve the origin column.
  * Feb 24, 2017  6030     bkowal      Added {@link #MESSAGE_NAME_LENGTH}.
 >>>>>>> origin/omaha_17.3.1
+ * Oct 18, 2026           agent       Added {@link #PURGE_IDS_QUERY_NAME} and {@link #DELETE_BY_IDS_QUERY_NAME}
+ *                                    for chunked purging.
  * </pre>
  * 
  * @author bsteffen
@@ -119,6 +121,8 @@ import com.raytheon.uf.common.time.util.TimeUtil;
         @NamedQuery(name = InputMessage.DUP_QUERY_NAME, query = InputMessage.DUP_QUERY),
         @NamedQuery(name = InputMessage.GET_INPUT_MSGS_ID_NAME_AFOS_CREATION, query = InputMessage.GET_INPUT_MSGS_ID_NAME_AFOS_CREATION_QUERY),
         @NamedQuery(name = InputMessage.PURGE_QUERY_NAME, query = InputMessage.PURGE_QUERY),
+        @NamedQuery(name = InputMessage.PURGE_IDS_QUERY_NAME, query = InputMessage.PURGE_IDS_QUERY),
+        @NamedQuery(name = InputMessage.DELETE_BY_IDS_QUERY_NAME, query = InputMessage.DELETE_BY_IDS_QUERY),
         @NamedQuery(name = InputMessage.UNEXPIRED_QUERY_NAME, query = InputMessage.UNEXPIRED_QUERY),
         @NamedQuery(name = InputMessage.ACTIVE_WITH_AFOSID_AND_AREACODES_QUERY_NAME, query = InputMessage.ACTIVE_WITH_AFOSID_AND_AREACODES_QUERY),
         @NamedQuery(name = InputMessage.ACTIVE_WITH_AFOSID_AND_AREACODES_AND_NO_MRD_QUERY_NAME, query = InputMessage.ACTIVE_WITH_AFOSID_AND_AREACODES_AND_NO_MRD_QUERY),
@@ -161,6 +165,14 @@ public class InputMessage {
 
     protected static final String PURGE_QUERY = "FROM InputMessage m WHERE m.expirationTime < :purgeTime OR (m.active=false and m.creationTime < :purgeTime))";
 
+    public static final String PURGE_IDS_QUERY_NAME = "getPurgableInputMessageIds";
+
+    protected static final String PURGE_IDS_QUERY = "SELECT m.id FROM InputMessage m WHERE m.id > :lastId AND (m.expirationTime < :purgeTime OR (m.active = false AND m.creationTime < :purgeTime)) ORDER BY m.id";
+
+    public static final String DELETE_BY_IDS_QUERY_NAME = "deleteInputMessagesByIds";
+
+    protected static final String DELETE_BY_IDS_QUERY = "DELETE FROM InputMessage m WHERE m.id IN :ids";
+
     /**
      * Named query to retrieve message that have not expired.
      */
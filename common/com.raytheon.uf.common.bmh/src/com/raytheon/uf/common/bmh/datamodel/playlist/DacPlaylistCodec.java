@@ -0,0 +1,562 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.datamodel.playlist;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Versioned binary codec for the {@link DacPlaylist},
+ * {@link DacPlaylistMessageMetadata} and {@link DacPlaylistMessage} files that
+ * are exchanged between the playlist manager and dac transmit. The binary
+ * format is written by default; the xml format is still available for
+ * debugging by setting the {@value #XML_FORMAT_PROPERTY} system property.
+ * Readers detect the format of the data, so files written in either format
+ * can always be read. Consumers outside of BMH, such as the edge, only
+ * understand the xml format; use {@link #toXml(byte[], Class)} for them.
+ * 
+ * Binary layout: the {@link #MAGIC} bytes, a format version byte, a type byte
+ * and then the fields of the object in declaration order. Strings are written
+ * as a length followed by UTF-8 bytes; optional values are preceded by a
+ * presence flag.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 17, 2026           agent       Initial creation
+ * Oct 18, 2026           agent       Added marshalXml and toXml.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public final class DacPlaylistCodec {
+
+    /**
+     * System property that will cause the playlist and message files to be
+     * written as xml.
+     */
+    public static final String XML_FORMAT_PROPERTY = "bmh.playlist.xml";
+
+    private static final byte[] MAGIC = { 'B', 'M', 'H', 'P' };
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+
+    private static final byte TYPE_PLAYLIST = 1;
+
+    private static final byte TYPE_MESSAGE_METADATA = 2;
+
+    private static final byte TYPE_MESSAGE = 3;
+
+    private static final int NULL_LENGTH = -1;
+
+    private static volatile JAXBContext jaxbContext;
+
+    private DacPlaylistCodec() {
+    }
+
+    /**
+     * @return true if the playlist and message files should be written as xml
+     */
+    public static boolean isXmlFormat() {
+        return Boolean.getBoolean(XML_FORMAT_PROPERTY);
+    }
+
+    /**
+     * Encodes the specified {@link DacPlaylist}, {@link DacPlaylistMessage} or
+     * {@link DacPlaylistMessageMetadata} in the configured format.
+     * 
+     * @param object
+     *            the object to encode
+     * @return the encoded object
+     * @throws IOException
+     */
+    public static byte[] marshal(final Object object) throws IOException {
+        if (isXmlFormat()) {
+            return marshalXml(object);
+        }
+
+        if (object instanceof DacPlaylist) {
+            return encode((DacPlaylist) object);
+        } else if (object instanceof DacPlaylistMessageMetadata) {
+            return encode((DacPlaylistMessageMetadata) object);
+        } else if (object instanceof DacPlaylistMessage) {
+            return encode((DacPlaylistMessage) object);
+        }
+        throw new IllegalArgumentException("Unsupported type: "
+                + object.getClass().getName());
+    }
+
+    public static byte[] encode(final DacPlaylist playlist) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = writeHeader(bytes, TYPE_PLAYLIST);
+        writeString(out, playlist.getTransmitterGroup());
+        out.writeInt(playlist.getPriority());
+        writeString(out, playlist.getSuite());
+        writeCalendar(out, playlist.getCreationTime());
+        writeCalendar(out, playlist.getStart());
+        writeCalendar(out, playlist.getExpired());
+        writeCalendar(out, playlist.getLatestTrigger());
+        writeLong(out, playlist.getTriggerBroadcastId());
+        out.writeBoolean(playlist.isInterrupt());
+        writeString(out, playlist.getTraceId());
+
+        List<DacPlaylistMessageId> messages = playlist.getMessages();
+        out.writeInt(messages == null ? 0 : messages.size());
+        if (messages != null) {
+            for (DacPlaylistMessageId message : messages) {
+                writeMessageId(out, message);
+            }
+        }
+        List<DacTriggerSpan> triggers = playlist.getTriggers();
+        out.writeInt(triggers == null ? 0 : triggers.size());
+        if (triggers != null) {
+            for (DacTriggerSpan trigger : triggers) {
+                writeLong(out, trigger.getBroadcastId());
+                writeCalendar(out, trigger.getStart());
+                writeCalendar(out, trigger.getEnd());
+            }
+        }
+        out.writeBoolean(playlist.getReplacedMessage() != null);
+        if (playlist.getReplacedMessage() != null) {
+            writeMessageId(out, playlist.getReplacedMessage());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static byte[] encode(final DacPlaylistMessageMetadata metadata)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = writeHeader(bytes, TYPE_MESSAGE_METADATA);
+        writeMessageId(out, metadata);
+        writeString(out, metadata.getName());
+        writeCalendar(out, metadata.getStart());
+        writeString(out, metadata.getMessageType());
+        writeString(out, metadata.getSAMEtone());
+        out.writeBoolean(metadata.isAlertTone());
+        out.writeBoolean(metadata.isToneBlackoutEnabled());
+        writeString(out, metadata.getToneBlackoutStart());
+        writeString(out, metadata.getToneBlackoutEnd());
+        writeString(out, metadata.getPeriodicity());
+        writeInteger(out, metadata.getCycles());
+        List<String> soundFiles = metadata.getSoundFiles();
+        out.writeInt(soundFiles == null ? NULL_LENGTH : soundFiles.size());
+        if (soundFiles != null) {
+            for (String soundFile : soundFiles) {
+                writeString(out, soundFile);
+            }
+        }
+        writeString(out, metadata.getMessageText());
+        out.writeBoolean(metadata.isConfirm());
+        out.writeBoolean(metadata.isWatch());
+        out.writeBoolean(metadata.isWarning());
+        out.writeLong(metadata.getInitialRecognitionTime());
+        out.writeBoolean(metadata.isRecognized());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static byte[] encode(final DacPlaylistMessage message)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = writeHeader(bytes, TYPE_MESSAGE);
+        writeMessageId(out, message);
+        writeCalendar(out, message.getLastTransmitTime());
+        out.writeInt(message.getPlayCount());
+        out.writeBoolean(message.isPlayedSameTone());
+        out.writeBoolean(message.isPlayedAlertTone());
+        writeInteger(out, message.getRemainingCycles());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Encodes the specified {@link DacPlaylist}, {@link DacPlaylistMessage} or
+     * {@link DacPlaylistMessageMetadata} as xml regardless of the configured
+     * format.
+     * 
+     * @param object
+     *            the object to encode
+     * @return the xml
+     * @throws IOException
+     */
+    public static byte[] marshalXml(final Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try {
+            Marshaller marshaller = getJaxbContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT,
+                    Boolean.TRUE);
+            marshaller.marshal(object, bytes);
+        } catch (JAXBException e) {
+            throw new IOException("Failed to marshal "
+                    + object.getClass().getSimpleName() + " to xml.", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Converts data that was encoded in either format to the xml format.
+     * 
+     * @param data
+     *            the encoded data
+     * @param type
+     *            the type that was encoded
+     * @return the xml, the specified data if it is already xml
+     * @throws IOException
+     */
+    public static <T> byte[] toXml(final byte[] data, final Class<T> type)
+            throws IOException {
+        if (data.length >= HEADER_LENGTH && isBinary(data)) {
+            return marshalXml(decode(data, type));
+        }
+        return data;
+    }
+
+    /**
+     * Reads an object of the specified type from the specified file, which may
+     * be in either the binary or the xml format.
+     * 
+     * @param path
+     *            the file to read
+     * @param type
+     *            the expected type
+     * @return the object that was read
+     * @throws IOException
+     */
+    public static <T> T read(final Path path, final Class<T> type)
+            throws IOException {
+        return decode(Files.readAllBytes(path), type);
+    }
+
+    /**
+     * Reads an object of the specified type from the specified stream, which
+     * may be in either the binary or the xml format.
+     * 
+     * @param is
+     *            the stream to read
+     * @param type
+     *            the expected type
+     * @return the object that was read
+     * @throws IOException
+     */
+    public static <T> T read(final InputStream is, final Class<T> type)
+            throws IOException {
+        InputStream in = is.markSupported() ? is
+                : new BufferedInputStream(is);
+        in.mark(HEADER_LENGTH);
+        byte[] header = new byte[HEADER_LENGTH];
+        int read = 0;
+        while (read < HEADER_LENGTH) {
+            int count = in.read(header, read, HEADER_LENGTH - read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        in.reset();
+        if (read == HEADER_LENGTH && isBinary(header)) {
+            return decode(new DataInputStream(in), type);
+        }
+        return unmarshalXml(new StreamSource(in), type);
+    }
+
+    /**
+     * Decodes an object of the specified type from the specified data, which
+     * may be in either the binary or the xml format.
+     * 
+     * @param data
+     *            the data to decode
+     * @param type
+     *            the expected type
+     * @return the decoded object
+     * @throws IOException
+     */
+    public static <T> T decode(final byte[] data, final Class<T> type)
+            throws IOException {
+        if (data.length >= HEADER_LENGTH && isBinary(data)) {
+            return decode(new DataInputStream(new ByteArrayInputStream(data)),
+                    type);
+        }
+        return unmarshalXml(new StreamSource(new ByteArrayInputStream(data)),
+                type);
+    }
+
+    private static boolean isBinary(final byte[] header) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (header[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> T decode(final DataInputStream in, final Class<T> type)
+            throws IOException {
+        in.skipBytes(MAGIC.length);
+        final byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary playlist format version: "
+                    + version + ".");
+        }
+        final byte recordType = in.readByte();
+        final Object decoded;
+        switch (recordType) {
+        case TYPE_PLAYLIST:
+            decoded = readPlaylist(in);
+            break;
+        case TYPE_MESSAGE_METADATA:
+            decoded = readMessageMetadata(in);
+            break;
+        case TYPE_MESSAGE:
+            decoded = readMessage(in);
+            break;
+        default:
+            throw new IOException("Unrecognized binary playlist record type: "
+                    + recordType + ".");
+        }
+        if (type.isInstance(decoded) == false) {
+            throw new IOException("Expected a " + type.getSimpleName()
+                    + " but found a " + decoded.getClass().getSimpleName()
+                    + ".");
+        }
+        return type.cast(decoded);
+    }
+
+    private static DacPlaylist readPlaylist(final DataInputStream in)
+            throws IOException {
+        DacPlaylist playlist = new DacPlaylist();
+        playlist.setTransmitterGroup(readString(in));
+        playlist.setPriority(in.readInt());
+        playlist.setSuite(readString(in));
+        playlist.setCreationTime(readCalendar(in));
+        playlist.setStart(readCalendar(in));
+        playlist.setExpired(readCalendar(in));
+        playlist.setLatestTrigger(readCalendar(in));
+        playlist.setTriggerBroadcastId(readLong(in));
+        playlist.setInterrupt(in.readBoolean());
+        playlist.setTraceId(readString(in));
+
+        int count = in.readInt();
+        List<DacPlaylistMessageId> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DacPlaylistMessageId message = new DacPlaylistMessageId();
+            readMessageId(in, message);
+            messages.add(message);
+        }
+        playlist.setMessages(messages);
+        count = in.readInt();
+        List<DacTriggerSpan> triggers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            triggers.add(new DacTriggerSpan(readLong(in), readCalendar(in),
+                    readCalendar(in)));
+        }
+        playlist.setTriggers(triggers);
+        if (in.readBoolean()) {
+            DacPlaylistMessageId replacedMessage = new DacPlaylistMessageId();
+            readMessageId(in, replacedMessage);
+            playlist.setReplacedMessage(replacedMessage);
+        }
+        return playlist;
+    }
+
+    private static DacPlaylistMessageMetadata readMessageMetadata(
+            final DataInputStream in) throws IOException {
+        DacPlaylistMessageMetadata metadata = new DacPlaylistMessageMetadata();
+        readMessageId(in, metadata);
+        metadata.setName(readString(in));
+        metadata.setStart(readCalendar(in));
+        metadata.setMessageType(readString(in));
+        metadata.setSAMEtone(readString(in));
+        metadata.setAlertTone(in.readBoolean());
+        metadata.setToneBlackoutEnabled(in.readBoolean());
+        metadata.setToneBlackoutStart(readString(in));
+        metadata.setToneBlackoutEnd(readString(in));
+        metadata.setPeriodicity(readString(in));
+        metadata.setCycles(readInteger(in));
+        final int soundFileCount = in.readInt();
+        if (soundFileCount != NULL_LENGTH) {
+            List<String> soundFiles = new ArrayList<>(soundFileCount);
+            for (int i = 0; i < soundFileCount; i++) {
+                soundFiles.add(readString(in));
+            }
+            metadata.setSoundFiles(soundFiles);
+        }
+        metadata.setMessageText(readString(in));
+        metadata.setConfirm(in.readBoolean());
+        metadata.setWatch(in.readBoolean());
+        metadata.setWarning(in.readBoolean());
+        metadata.setInitialRecognitionTime(in.readLong());
+        metadata.setRecognized(in.readBoolean());
+        return metadata;
+    }
+
+    private static DacPlaylistMessage readMessage(final DataInputStream in)
+            throws IOException {
+        DacPlaylistMessage message = new DacPlaylistMessage();
+        readMessageId(in, message);
+        message.setLastTransmitTime(readCalendar(in));
+        message.setPlayCount(in.readInt());
+        message.setPlayedSameTone(in.readBoolean());
+        message.setPlayedAlertTone(in.readBoolean());
+        message.setRemainingCycles(readInteger(in));
+        return message;
+    }
+
+    private static DataOutputStream writeHeader(
+            final ByteArrayOutputStream bytes, final byte recordType)
+            throws IOException {
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(recordType);
+        return out;
+    }
+
+    private static void writeMessageId(final DataOutputStream out,
+            final DacPlaylistMessageId id) throws IOException {
+        out.writeLong(id.getBroadcastId());
+        writeLong(out, id.timestamp);
+        writeString(out, id.getTraceId());
+        writeString(out, id.getVersion());
+        writeCalendar(out, id.getExpire());
+    }
+
+    private static void readMessageId(final DataInputStream in,
+            final DacPlaylistMessageId id) throws IOException {
+        id.setBroadcastId(in.readLong());
+        id.timestamp = readLong(in);
+        id.setTraceId(readString(in));
+        id.setVersion(readString(in));
+        id.setExpire(readCalendar(in));
+    }
+
+    private static void writeString(final DataOutputStream out,
+            final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in)
+            throws IOException {
+        final int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeCalendar(final DataOutputStream out,
+            final Calendar value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTimeInMillis());
+            writeString(out, value.getTimeZone().getID());
+        }
+    }
+
+    private static Calendar readCalendar(final DataInputStream in)
+            throws IOException {
+        if (in.readBoolean() == false) {
+            return null;
+        }
+        final long millis = in.readLong();
+        Calendar value = new GregorianCalendar(
+                TimeZone.getTimeZone(readString(in)));
+        value.setTimeInMillis(millis);
+        return value;
+    }
+
+    private static void writeLong(final DataOutputStream out, final Long value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInteger(final DataOutputStream out,
+            final Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(final DataInputStream in)
+            throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static <T> T unmarshalXml(final StreamSource source,
+            final Class<T> type) throws IOException {
+        try {
+            Unmarshaller unmarshaller = getJaxbContext().createUnmarshaller();
+            return unmarshaller.unmarshal(source, type).getValue();
+        } catch (JAXBException e) {
+            throw new IOException("Failed to unmarshal "
+                    + type.getSimpleName() + " from xml.", e);
+        }
+    }
+
+    private static JAXBContext getJaxbContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(DacPlaylist.class,
+                    DacPlaylistMessage.class, DacPlaylistMessageMetadata.class);
+        }
+        return jaxbContext;
+    }
+}
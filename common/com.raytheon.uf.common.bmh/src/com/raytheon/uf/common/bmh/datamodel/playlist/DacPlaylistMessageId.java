@@ -51,6 +51,8 @@ import com.raytheon.uf.common.bmh.trace.ITraceable;
  * May 13, 2015  4429     rferrel     Implement {@link ITraceable}.
  * Feb 04, 2016  5308     bkowal      Promoted {@link #path}.
  * Mar 08, 2016  5382     bkowal      Added {@link #version}.
+ * Oct 17, 2026           agent       Made {@link #timestamp} accessible to
+ *                                    {@link DacPlaylistCodec}.
  * 
  * </pre>
  * 
@@ -70,7 +72,7 @@ public class DacPlaylistMessageId implements ITraceable {
      * was last updated.
      */
     @XmlAttribute
-    private Long timestamp;
+    protected Long timestamp;
 
     @XmlAttribute
     protected String traceId;
@@ -46,6 +46,8 @@ import com.raytheon.uf.common.time.util.TimeUtil;
  * Feb 04, 2016  #5308     rjpeter      Added additional constructor.
  * Feb 23, 2016  #5382     bkowal       Always copy the same and alert tones
  *                                      played flag during construction.
+ * Oct 18, 2026            agent        Added equals and hashCode so playlist
+ *                                      notifications can be compared.
  * </pre>
  * 
  * @author dgilling
@@ -188,4 +190,68 @@ public final class MessagePlaybackPrediction {
     public void setDynamic(boolean dynamic) {
         this.dynamic = dynamic;
     }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + (int) (broadcastId ^ (broadcastId >>> 32));
+        result = prime * result + (int) (timestamp ^ (timestamp >>> 32));
+        long next = getMillis(nextTransmitTime);
+        result = prime * result + (int) (next ^ (next >>> 32));
+        result = prime * result + playCount;
+        long last = getMillis(lastTransmitTime);
+        result = prime * result + (int) (last ^ (last >>> 32));
+        result = prime * result + (playedAlertTone ? 1231 : 1237);
+        result = prime * result + (playedSameTone ? 1231 : 1237);
+        result = prime * result + (dynamic ? 1231 : 1237);
+        return result;
+    }
+
+    /**
+     * Transmit times are compared by instant only, the time zone of the
+     * {@link Calendar} is not significant.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        MessagePlaybackPrediction other = (MessagePlaybackPrediction) obj;
+        if (broadcastId != other.broadcastId) {
+            return false;
+        }
+        if (timestamp != other.timestamp) {
+            return false;
+        }
+        if (getMillis(nextTransmitTime) != getMillis(other.nextTransmitTime)) {
+            return false;
+        }
+        if (playCount != other.playCount) {
+            return false;
+        }
+        if (getMillis(lastTransmitTime) != getMillis(other.lastTransmitTime)) {
+            return false;
+        }
+        if (playedAlertTone != other.playedAlertTone) {
+            return false;
+        }
+        if (playedSameTone != other.playedSameTone) {
+            return false;
+        }
+        if (dynamic != other.dynamic) {
+            return false;
+        }
+        return true;
+    }
+
+    private static long getMillis(Calendar time) {
+        return (time == null) ? Long.MIN_VALUE : time.getTimeInMillis();
+    }
 }
@@ -0,0 +1,169 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.stats;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.raytheon.uf.common.serialization.annotations.DynamicSerialize;
+import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
+import com.raytheon.uf.common.stats.StatisticsEvent;
+
+/**
+ * Stat event used to track how closely a dac transmit process is able to
+ * send audio packets to the DAC at the scheduled time. Values are the
+ * percentiles of the difference between the scheduled and actual send time of
+ * every packet sent during the reporting period.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+@DynamicSerialize
+public class DacPacketJitterEvent extends StatisticsEvent {
+
+    private static final long serialVersionUID = 4390275601813377092L;
+
+    private static final Map<String, String> FIELD_UNIT_MAP;
+    static {
+        Map<String, String> m = new HashMap<String, String>();
+        m.put("packets", "packets");
+        m.put("jitter50", "us");
+        m.put("jitter90", "us");
+        m.put("jitter99", "us");
+        m.put("jitterMax", "us");
+        FIELD_UNIT_MAP = Collections.unmodifiableMap(m);
+    }
+
+    @DynamicSerializeElement
+    private String transmitterGroup;
+
+    @DynamicSerializeElement
+    private int packets;
+
+    @DynamicSerializeElement
+    private long jitter50;
+
+    @DynamicSerializeElement
+    private long jitter90;
+
+    @DynamicSerializeElement
+    private long jitter99;
+
+    @DynamicSerializeElement
+    private long jitterMax;
+
+    @Override
+    protected Map<String, String> getFieldUnitMap() {
+        return FIELD_UNIT_MAP;
+    }
+
+    public String getTransmitterGroup() {
+        return transmitterGroup;
+    }
+
+    public void setTransmitterGroup(String transmitterGroup) {
+        this.transmitterGroup = transmitterGroup;
+    }
+
+    public int getPackets() {
+        return packets;
+    }
+
+    public void setPackets(int packets) {
+        this.packets = packets;
+    }
+
+    /**
+     * @return the median jitter (in microseconds)
+     */
+    public long getJitter50() {
+        return jitter50;
+    }
+
+    public void setJitter50(long jitter50) {
+        this.jitter50 = jitter50;
+    }
+
+    /**
+     * @return the 90th percentile jitter (in microseconds)
+     */
+    public long getJitter90() {
+        return jitter90;
+    }
+
+    public void setJitter90(long jitter90) {
+        this.jitter90 = jitter90;
+    }
+
+    /**
+     * @return the 99th percentile jitter (in microseconds)
+     */
+    public long getJitter99() {
+        return jitter99;
+    }
+
+    public void setJitter99(long jitter99) {
+        this.jitter99 = jitter99;
+    }
+
+    /**
+     * @return the maximum jitter (in microseconds)
+     */
+    public long getJitterMax() {
+        return jitterMax;
+    }
+
+    public void setJitterMax(long jitterMax) {
+        this.jitterMax = jitterMax;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.raytheon.uf.common.stats.StatisticsEvent#finalizeEvent()
+     */
+    @Override
+    public void finalizeEvent() {
+        // Do Nothing.
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(128)
+                .append("DacPacketJitterEvent [transmitterGroup=")
+                .append(transmitterGroup).append(", packets=")
+                .append(packets).append(", jitter50=").append(jitter50)
+                .append(", jitter90=").append(jitter90)
+                .append(", jitter99=").append(jitter99)
+                .append(", jitterMax=").append(jitterMax).append("]")
+                .toString();
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.common.bmh.stats;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.raytheon.uf.common.serialization.annotations.DynamicSerialize;
+import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
+import com.raytheon.uf.common.stats.StatisticsEvent;
+
+/**
+ * Stat event used to track the end-to-end audio latency of a live broadcast.
+ * Latency is measured for every packet from the time the audio was captured
+ * by the client until the packet was sent to the DAC and the values are the
+ * percentiles over the entire broadcast. The jitter buffer fields describe how
+ * much audio dac transmit held back to smooth the arrival of the packets.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+@DynamicSerialize
+public class LiveBroadcastAudioLatencyEvent extends StatisticsEvent {
+
+    private static final long serialVersionUID = -2207165315532951148L;
+
+    private static final Map<String, String> FIELD_UNIT_MAP;
+    static {
+        Map<String, String> m = new HashMap<String, String>();
+        m.put("packets", "packets");
+        m.put("latency50", "ms");
+        m.put("latency90", "ms");
+        m.put("latency99", "ms");
+        m.put("latencyMax", "ms");
+        m.put("arrivalJitter", "ms");
+        m.put("bufferDepth", "ms");
+        m.put("underruns", "packets");
+        FIELD_UNIT_MAP = Collections.unmodifiableMap(m);
+    }
+
+    @DynamicSerializeElement
+    private String transmitterGroup;
+
+    @DynamicSerializeElement
+    private String broadcastIdentifier;
+
+    @DynamicSerializeElement
+    private int packets;
+
+    @DynamicSerializeElement
+    private long latency50;
+
+    @DynamicSerializeElement
+    private long latency90;
+
+    @DynamicSerializeElement
+    private long latency99;
+
+    @DynamicSerializeElement
+    private long latencyMax;
+
+    @DynamicSerializeElement
+    private long arrivalJitter;
+
+    @DynamicSerializeElement
+    private long bufferDepth;
+
+    @DynamicSerializeElement
+    private int underruns;
+
+    @Override
+    protected Map<String, String> getFieldUnitMap() {
+        return FIELD_UNIT_MAP;
+    }
+
+    public String getTransmitterGroup() {
+        return transmitterGroup;
+    }
+
+    public void setTransmitterGroup(String transmitterGroup) {
+        this.transmitterGroup = transmitterGroup;
+    }
+
+    public String getBroadcastIdentifier() {
+        return broadcastIdentifier;
+    }
+
+    public void setBroadcastIdentifier(String broadcastIdentifier) {
+        this.broadcastIdentifier = broadcastIdentifier;
+    }
+
+    public int getPackets() {
+        return packets;
+    }
+
+    public void setPackets(int packets) {
+        this.packets = packets;
+    }
+
+    /**
+     * @return the median latency (in milliseconds)
+     */
+    public long getLatency50() {
+        return latency50;
+    }
+
+    public void setLatency50(long latency50) {
+        this.latency50 = latency50;
+    }
+
+    /**
+     * @return the 90th percentile latency (in milliseconds)
+     */
+    public long getLatency90() {
+        return latency90;
+    }
+
+    public void setLatency90(long latency90) {
+        this.latency90 = latency90;
+    }
+
+    /**
+     * @return the 99th percentile latency (in milliseconds)
+     */
+    public long getLatency99() {
+        return latency99;
+    }
+
+    public void setLatency99(long latency99) {
+        this.latency99 = latency99;
+    }
+
+    /**
+     * @return the maximum latency (in milliseconds)
+     */
+    public long getLatencyMax() {
+        return latencyMax;
+    }
+
+    public void setLatencyMax(long latencyMax) {
+        this.latencyMax = latencyMax;
+    }
+
+    /**
+     * @return the estimated variation in packet arrival times at the end of
+     *         the broadcast (in milliseconds)
+     */
+    public long getArrivalJitter() {
+        return arrivalJitter;
+    }
+
+    public void setArrivalJitter(long arrivalJitter) {
+        this.arrivalJitter = arrivalJitter;
+    }
+
+    /**
+     * @return the target depth of the jitter buffer at the end of the
+     *         broadcast (in milliseconds)
+     */
+    public long getBufferDepth() {
+        return bufferDepth;
+    }
+
+    public void setBufferDepth(long bufferDepth) {
+        this.bufferDepth = bufferDepth;
+    }
+
+    /**
+     * @return the number of times the jitter buffer ran out of audio and had
+     *         to be refilled
+     */
+    public int getUnderruns() {
+        return underruns;
+    }
+
+    public void setUnderruns(int underruns) {
+        this.underruns = underruns;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see com.raytheon.uf.common.stats.StatisticsEvent#finalizeEvent()
+     */
+    @Override
+    public void finalizeEvent() {
+        // Do Nothing.
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(256)
+                .append("LiveBroadcastAudioLatencyEvent [transmitterGroup=")
+                .append(transmitterGroup).append(", broadcastIdentifier=")
+                .append(broadcastIdentifier).append(", packets=")
+                .append(packets).append(", latency50=").append(latency50)
+                .append(", latency90=").append(latency90)
+                .append(", latency99=").append(latency99)
+                .append(", latencyMax=").append(latencyMax)
+                .append(", arrivalJitter=").append(arrivalJitter)
+                .append(", bufferDepth=").append(bufferDepth)
+                .append(", underruns=").append(underruns).append("]")
+                .toString();
+    }
+}
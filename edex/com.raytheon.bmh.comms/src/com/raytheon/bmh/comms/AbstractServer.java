@@ -40,6 +40,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Jun 05, 2015  4482     rjpeter     Ignore IPVS port checks.
  * Nov 11, 2015  5114     rjpeter     Updated CommsManager to use a single port.
  * Dec 15, 2015  5114     rjpeter     Refactored to not be a dedicated thread.
+ * Oct 18, 2026           agent       Updated handleConnection for selector based listener.
  * </pre>
  * 
  * @author bsteffen
@@ -70,10 +71,12 @@ public abstract class AbstractServer {
      * Called by {@link SocketListener} to handle a new connection. As long as
      * task can complete in a few seconds, work may be done on the calling
      * thread as its backed by a threadpool. Any work taking more than a few
-     * seconds should be accomplished on a different thread to avoid having the
-     * socket closed due to timeout. Returning true states that the task is done
-     * and socket will be closed by SocketListener. If socket was passed of to
-     * another thread for additional work, this method should return false.
+     * seconds should be accomplished on a different thread to avoid delaying
+     * other connections waiting for the threadpool. The socket supports reading
+     * and writing on different threads at the same time but does not support a
+     * read timeout. Returning true states that the task is done and socket will
+     * be closed by SocketListener. If socket was passed of to another thread
+     * for additional work, this method should return false.
      * 
      * @param socket
      * @param initialObj
@@ -58,6 +58,7 @@ import com.raytheon.bmh.comms.jms.JmsCommunicator;
 import com.raytheon.bmh.comms.linetap.LineTapServer;
 import com.raytheon.bmh.comms.playlist.PlaylistServer;
 import com.raytheon.bmh.dactransmit.DacTransmitArgParser;
+import com.raytheon.bmh.dactransmit.dacsession.DacFencingToken;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitCriticalError;
 import com.raytheon.uf.common.bmh.broadcast.ILiveBroadcastMessage;
 import com.raytheon.uf.common.bmh.comms.SendPlaylistMessage;
@@ -151,6 +152,8 @@ import com.raytheon.uf.edex.bmh.comms.DacConfig;
  * Feb 25, 2016  5382     bkowal      Log every case when a dac transmit process is killed.
  * Feb 25, 2016  5419     rjpeter     Give DacTransmit more time to start if it fails to connect.
  * Mar 14, 2016  5472     rjpeter     Added forwardPlaylistResponse.
+ * Oct 18, 2026           agent       Added dacFenced.
+ * Oct 18, 2026           agent       Claim the dac before launching a dac transmit.
  * </pre>
  * 
  * @author bsteffen
@@ -692,11 +695,16 @@ public class CommsManager {
             }
         }
 
-        logger.info("Starting dac transmit for: " + group);
         if (config.getDacTransmitStarter() == null) {
             /* validateConfig should have already handled this. */
             return;
         }
+        if (clusterServer.isClaimedRemote(group, channel.getInputDirectory())) {
+            return;
+        }
+        logger.info("Starting dac transmit for: " + group);
+        DacFencingToken fencingToken = clusterServer.claimDac(group,
+                channel.getInputDirectory());
         List<String> args = new ArrayList<>();
         args.add(config.getDacTransmitStarter());
         if (force) {
@@ -730,6 +738,10 @@ public class CommsManager {
             args.add("-" + DacTransmitArgParser.TIMEZONE_KEY);
             args.add(channel.getTimezone());
         }
+        if (fencingToken != null) {
+            args.add("-" + DacTransmitArgParser.FENCING_TOKEN_KEY);
+            args.add(fencingToken.toString());
+        }
 
         ProcessBuilder startCommand = new ProcessBuilder(args);
         startCommand.environment().put("TRANSMITTER_GROUP", group);
@@ -842,6 +854,19 @@ public class CommsManager {
         transmitServer.dacRequested(transmitterGroups);
     }
 
+    /**
+     * This method should be called when another cluster member has a newer
+     * fencing token for a dac that is also connected locally. The local dac
+     * transmit is stopped immediately so that two processes never drive the
+     * same dac.
+     */
+    public void dacFenced(String transmitterGroup) {
+        logger.info(
+                "Stopping dac transmit for {}, fenced by another cluster member.",
+                transmitterGroup);
+        transmitServer.dacFenced(transmitterGroup);
+    }
+
     /**
      * This method should be called when a dac transmit process has disconnected
      * from the comms manager. If the dac transmit was connected to a dac than
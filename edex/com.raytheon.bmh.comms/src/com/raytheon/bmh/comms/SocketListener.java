@@ -20,18 +20,27 @@
 package com.raytheon.bmh.comms;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.net.SocketException;
-import java.util.LinkedHashSet;
-import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
-import org.apache.thrift.transport.TTransportException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,12 +48,14 @@ import com.raytheon.uf.common.serialization.SerializationException;
 import com.raytheon.uf.common.serialization.SerializationUtil;
 
 /**
- * Listens for connections to a socket. Socket is then passed off to a thread
- * pool for reading initial thrift object from the socket. Based on initial
- * object, socket is then passed to registered listener. The listener can
- * complete the task inline on the thread pool for tasks only taking a few
- * seconds. Tasks more than a few seconds should be handed off to a separate
- * thread to allow the thread pool to stay open to handle new connections.
+ * Listens for connections to a socket. A single selector thread accepts new
+ * connections and reads the initial thrift object from each socket without
+ * blocking, so a slow or idle client can never delay the accepting of other
+ * connections. Based on initial object, socket is then passed to registered
+ * listener on a thread pool. The listener can complete the task inline on the
+ * thread pool for tasks only taking a few seconds. Tasks more than a few
+ * seconds should be handed off to a separate thread to allow the thread pool
+ * to stay open to handle new connections.
  * 
  * <pre>
  * 
@@ -55,6 +66,7 @@ import com.raytheon.uf.common.serialization.SerializationUtil;
  * Nov 11, 2015 5114      rjpeter     Initial creation.
  * Dec 15, 2015  5114     rjpeter     Updated to use a ThreadPool.
  * Jun 28, 2017  6321     bkowal      Suppress error output for RHEL7 keep-alive checks.
+ * Oct 18, 2026           agent       Accept and read registration with a selector.
  * </pre>
  * 
  * @author rjpeter
@@ -64,22 +76,40 @@ public class SocketListener extends Thread {
 
     private static final int POOL_SIZE = 16;
 
+    /**
+     * Interval (in ms) between checks for connections that have not sent a
+     * complete registration within the timeout.
+     */
+    private static final long SELECT_INTERVAL = 1000;
+
+    /**
+     * Registration messages are small, anything larger than this is not a
+     * valid client.
+     */
+    private static final int MAX_REGISTRATION_SIZE = 1024 * 1024;
+
     private final Logger logger = LoggerFactory.getLogger(SocketListener.class);
 
-    private volatile ServerSocket server;
+    private final Selector selector;
+
+    private volatile ServerSocketChannel server;
+
+    /**
+     * Servers created by {@link #changePort(int)} that still need to be
+     * registered with the selector.
+     */
+    private final Queue<ServerSocketChannel> pendingServers = new ConcurrentLinkedQueue<>();
 
     private final ConcurrentMap<Class<?>, AbstractServer> registeredTypes = new ConcurrentHashMap<>(
             8, 1, 2);
 
     /**
-     * Allow 1 task to be waiting to avoid having to coordinate 1 thread
-     * finishing and submitting of a new task.
+     * Connections are queued when all threads are busy, the selector thread
+     * never waits for a thread to become available.
      */
-    private final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(1,
-            POOL_SIZE, 1, TimeUnit.MINUTES,
-            new ArrayBlockingQueue<Runnable>(1));
-
-    private final Set<SocketAcceptor> runningAcceptors = new LinkedHashSet<>();
+    private final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+            POOL_SIZE, POOL_SIZE, 1, TimeUnit.MINUTES,
+            new LinkedBlockingQueue<Runnable>());
 
     /**
      * Create a server for listening to dac transmit applications.
@@ -91,7 +121,23 @@ public class SocketListener extends Thread {
     public SocketListener(int port) throws IOException {
         super();
         this.setName(getClass().getSimpleName());
-        server = new ServerSocket(port);
+        threadPool.allowCoreThreadTimeOut(true);
+        selector = Selector.open();
+        server = openServer(port);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    private static ServerSocketChannel openServer(int port)
+            throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        try {
+            server.configureBlocking(false);
+            server.socket().bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        return server;
     }
 
     public void registerListener(Class<?> clazz, AbstractServer server) {
@@ -109,33 +155,17 @@ public class SocketListener extends Thread {
     }
 
     public void shutdown() {
-        ServerSocket server = this.server;
         this.server = null;
-        if (server != null) {
-            try {
-                server.close();
-            } catch (IOException e) {
-                logger.error("Failed to close server socket for {}", getName(),
-                        e);
-            }
-        }
+        selector.wakeup();
         threadPool.shutdown();
     }
 
     public void changePort(int port) throws IOException {
-        if (server.getLocalPort() != port) {
-            ServerSocket server = new ServerSocket(port);
-            ServerSocket old = this.server;
+        if (server.socket().getLocalPort() != port) {
+            ServerSocketChannel server = openServer(port);
             this.server = server;
-
-            if (old != null) {
-                try {
-                    old.close();
-                } catch (IOException e) {
-                    logger.error("Failed to close server socket for {}",
-                            getName(), e);
-                }
-            }
+            pendingServers.add(server);
+            selector.wakeup();
         }
     }
 
@@ -143,146 +173,283 @@ public class SocketListener extends Thread {
     public void run() {
         logger.info("{} is now accepting connections ",
                 this.getClass().getSimpleName());
-        while ((server != null) && !server.isClosed()) {
-            ServerSocket server = this.server;
-            Socket socket = null;
-            boolean closeSocket = true;
-
+        while (server != null) {
             try {
-                socket = server.accept();
-                socket.setTcpNoDelay(true);
-
-                if (socket.getInputStream() == null) {
-                    continue;
+                registerPendingServers();
+                selector.select(SELECT_INTERVAL);
+
+                List<RegistrationReader> registered = new ArrayList<>();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept((ServerSocketChannel) key.channel());
+                    } else if (key.isReadable()) {
+                        RegistrationReader reader = (RegistrationReader) key
+                                .attachment();
+                        if (reader.readRegistration()) {
+                            key.cancel();
+                            registered.add(reader);
+                        }
+                    }
                 }
 
-                SocketAcceptor acceptor = new SocketAcceptor(socket);
-                boolean threadWaited = false;
-
-                synchronized (runningAcceptors) {
+                if (!registered.isEmpty()) {
                     /*
-                     * If all threads busy, check if a previous acceptor has
-                     * timed out
+                     * Cancelled keys are only removed from the selector on the
+                     * next selection, a channel cannot be returned to blocking
+                     * mode until then.
                      */
-                    while ((runningAcceptors.size() >= POOL_SIZE)
-                            && (acceptor.hasTimedOut() == false)) {
-                        long curTime = System.currentTimeMillis();
-                        long sleepTime = TIMEOUT;
-
-                        for (SocketAcceptor acceptorToCheck : runningAcceptors) {
-                            if (acceptorToCheck.timeOut < curTime) {
-                                sleepTime = 10;
-                                if (acceptorToCheck.socket.isClosed()) {
-                                    logger.warn(
-                                            "SocketAcceptor has timed out and socket has been closed. Interrupting Thread {}",
-                                            acceptorToCheck.thread);
-                                    acceptorToCheck.thread.interrupt();
-                                } else {
-                                    logger.warn(
-                                            "SocketAcceptor has timed out. Closing Socket {} on Thread {}",
-                                            acceptorToCheck.socket,
-                                            acceptorToCheck.thread);
-
-                                    // close the socket used by the thread
-                                    try {
-                                        acceptorToCheck.socket.close();
-                                    } catch (IOException e) {
-                                        logger.error(
-                                                "Error occurred closing socket",
-                                                e);
-                                    }
-                                }
-                            } else {
-                                sleepTime = Math.min(sleepTime,
-                                        acceptor.timeOut - curTime);
-                                /*
-                                 * set ordered by insert time, no need to check
-                                 * any further as this will be the oldest socket
-                                 * that is still valid
-                                 */
-                                break;
-                            }
-                        }
+                    selector.selectNow();
+                    for (RegistrationReader reader : registered) {
+                        dispatch(reader);
+                    }
+                }
 
-                        logger.warn(
-                                "All socket acceptors in use, waiting for available thread to process {}",
-                                socket);
+                closeTimedOutConnections();
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (Throwable e) {
+                logger.error("Unexpected error accepting a connection", e);
+            }
+        }
 
-                        try {
-                            threadWaited = true;
-                            // notified on SocketAcceptor completion
-                            runningAcceptors.wait(sleepTime);
-                        } catch (InterruptedException e2) {
-                            // ignore
-                        }
-                    }
+        for (SelectionKey key : selector.keys()) {
+            closeChannel(key);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.error("Failed to close selector for {}", getName(), e);
+        }
+
+        logger.info("{} is no longer accepting connections ",
+                this.getClass().getSimpleName());
+    }
+
+    /**
+     * Register servers created by {@link #changePort(int)} and close any
+     * server that has been replaced.
+     */
+    private void registerPendingServers() throws IOException {
+        ServerSocketChannel pending = pendingServers.poll();
+        if (pending == null) {
+            return;
+        }
+        while (pending != null) {
+            if (pending == this.server) {
+                pending.register(selector, SelectionKey.OP_ACCEPT);
+            } else {
+                pending.close();
+            }
+            pending = pendingServers.poll();
+        }
+        for (SelectionKey key : selector.keys()) {
+            if ((key.channel() instanceof ServerSocketChannel)
+                    && (key.channel() != this.server)) {
+                closeChannel(key);
+            }
+        }
+    }
 
+    private void accept(ServerSocketChannel serverChannel) throws IOException {
+        SocketChannel channel = null;
+        while ((channel = serverChannel.accept()) != null) {
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                channel.register(selector, SelectionKey.OP_READ,
+                        new RegistrationReader(channel));
+            } catch (IOException e) {
+                logger.error("Error accepting client", e);
+                try {
+                    channel.close();
+                } catch (IOException e2) {
+                    logger.error("Error closing socket", e2);
                 }
-                if (acceptor.hasTimedOut()) {
-                    logger.error(
-                            "SocketListener has timed out. No free threads");
-                } else {
-                    if (threadWaited) {
-                        logger.info("Thread available to process {}", socket);
-                    }
+            }
+        }
+    }
 
-                    threadPool.submit(acceptor);
-                    synchronized (runningAcceptors) {
-                        runningAcceptors.add(acceptor);
-                    }
-                    closeSocket = false;
+    private void closeTimedOutConnections() {
+        long currentTime = System.currentTimeMillis();
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if ((attachment instanceof RegistrationReader)
+                    && ((RegistrationReader) attachment).timeOut < currentTime) {
+                logger.warn(
+                        "Closing {}, registration was not received within {} ms",
+                        ((RegistrationReader) attachment).channel, TIMEOUT);
+                closeChannel(key);
+            }
+        }
+    }
+
+    private void closeChannel(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            logger.error("Error closing socket", e);
+        }
+    }
+
+    /**
+     * Return a channel with a complete registration to blocking mode and pass
+     * it to the thread pool.
+     */
+    private void dispatch(RegistrationReader reader) {
+        SocketChannel channel = reader.channel;
+        try {
+            channel.configureBlocking(true);
+            threadPool.execute(new SocketAcceptor(new ChannelSocket(channel),
+                    reader.registration));
+        } catch (IOException | RejectedExecutionException e) {
+            logger.error("Error accepting client", e);
+            try {
+                channel.close();
+            } catch (IOException e2) {
+                logger.error("Error closing socket", e2);
+            }
+        }
+    }
+
+    /**
+     * Reads the initial thrift object from a non blocking channel. Thrift
+     * messages do not have a length so the object is deserialized from the
+     * data that is available each time the channel is readable. Only the number
+     * of bytes requested by the deserializer are read from the channel so no
+     * data following the registration is consumed. When no more data is
+     * available the deserialization fails and is attempted again from the
+     * beginning when more data arrives.
+     */
+    private class RegistrationReader extends InputStream {
+
+        private final SocketChannel channel;
+
+        private final long timeOut = System.currentTimeMillis() + TIMEOUT;
+
+        private byte[] data = new byte[256];
+
+        private int count = 0;
+
+        private int position = 0;
+
+        private boolean starved = false;
+
+        private boolean endOfStream = false;
+
+        private Object registration;
+
+        public RegistrationReader(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return true if the registration has been read, false if more data
+         *         is needed or the channel has been closed.
+         */
+        public boolean readRegistration() {
+            position = 0;
+            starved = false;
+            try {
+                registration = SerializationUtil.transformFromThrift(
+                        Object.class, this);
+                return true;
+            } catch (SerializationException e) {
+                if (starved) {
+                    return false;
                 }
-            } catch (Throwable e) {
                 /*
-                 * do not log if this is the exact exception we are expecting
-                 * for closing the connection(either from port change or
-                 * shutdown)
+                 * IPVS creates a connection on the port and then closes it to
+                 * validate process is available. Ignore them since it will
+                 * happen every second.
                  */
-                if ((server == this.server) || !(e instanceof SocketException)
-                        || !"Socket closed".equals(e.getMessage())) {
-                    logger.error("Unexpected error accepting a connection", e);
+                if (!endOfStream) {
+                    logger.error("Error accepting client", e);
                 }
-                continue;
-            } finally {
-                if (closeSocket && (socket != null)) {
-                    try {
-                        socket.close();
-                    } catch (IOException e) {
-                        logger.error("Error occurred closing socket", e);
-                    }
+            } catch (Throwable e) {
+                logger.error("Error accepting client", e);
+            }
+
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.error("Error closing socket", e);
+            }
+            return false;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            if (n < 0) {
+                return -1;
+            }
+            return b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position == count) {
+                fill(len);
+                if (position == count) {
+                    return -1;
                 }
             }
+            int n = Math.min(len, count - position);
+            System.arraycopy(data, position, b, off, n);
+            position += n;
+            return n;
         }
 
-        logger.info("{} is no longer accepting connections ",
-                this.getClass().getSimpleName());
+        private void fill(int len) throws IOException {
+            if (count + len > MAX_REGISTRATION_SIZE) {
+                throw new IOException("Registration is larger than "
+                        + MAX_REGISTRATION_SIZE + " bytes");
+            }
+            if (count + len > data.length) {
+                data = Arrays.copyOf(data,
+                        Math.max(data.length * 2, count + len));
+            }
+            int n = channel.read(ByteBuffer.wrap(data, count, len));
+            if (n == 0) {
+                starved = true;
+                throw new IOException("Registration is incomplete");
+            } else if (n < 0) {
+                endOfStream = true;
+            } else {
+                count += n;
+            }
+        }
     }
 
     private class SocketAcceptor implements Runnable {
 
-        private final Socket socket;
-
-        private final long timeOut = System.currentTimeMillis() + TIMEOUT;
+        private final ChannelSocket socket;
 
-        private volatile Thread thread = null;
+        private final Object obj;
 
-        public SocketAcceptor(Socket socket) {
+        public SocketAcceptor(ChannelSocket socket, Object obj) {
             this.socket = socket;
-        }
-
-        public boolean hasTimedOut() {
-            return System.currentTimeMillis() >= timeOut;
+            this.obj = obj;
         }
 
         @Override
         public void run() {
-            thread = Thread.currentThread();
+            Thread thread = Thread.currentThread();
             thread.setName(this.getClass().getSimpleName());
             boolean closeSocket = true;
 
             try {
-                Object obj = SerializationUtil.transformFromThrift(Object.class,
-                        socket.getInputStream());
                 Class<?> objClass = obj.getClass();
                 AbstractServer server = registeredTypes.get(obj.getClass());
 
@@ -300,9 +467,8 @@ public class SocketListener extends Thread {
                 if (server != null) {
                     thread.setName(server.getClass().getSimpleName());
                     /*
-                     * Note this needs to finish within timeout period to avoid
-                     * having socket closed. Any task taking more than a few
-                     * seconds should be in its own thread
+                     * Any task taking more than a few seconds should be in its
+                     * own thread to keep the thread pool available.
                      */
                     closeSocket = server.handleConnection(socket, obj);
                 } else {
@@ -310,25 +476,6 @@ public class SocketListener extends Thread {
                             "No listener for Object {} defined.  Rejecting connection",
                             obj.getClass().getName());
                 }
-            } catch (SerializationException e) {
-                /*
-                 * IPVS creates a connection on the port and then closes it to
-                 * validate process is available. Ignore them since it will
-                 * happen every second.
-                 */
-                boolean printError = true;
-                if (e.getCause() instanceof TTransportException) {
-                    final int transportExceptionType = ((TTransportException) e
-                            .getCause()).getType();
-                    if ((transportExceptionType == TTransportException.END_OF_FILE)
-                            || (transportExceptionType == TTransportException.UNKNOWN)) {
-                        printError = false;
-                    }
-                }
-
-                if (printError) {
-                    logger.error("Error accepting client", e);
-                }
             } catch (Throwable e) {
                 logger.error("Error accepting client", e);
             } finally {
@@ -341,15 +488,6 @@ public class SocketListener extends Thread {
                 }
 
                 thread.setName(this.getClass().getSimpleName());
-
-                /*
-                 * Notify SocketListener that a thread is available in use case
-                 * where all threads were busy
-                 */
-                synchronized (runningAcceptors) {
-                    runningAcceptors.remove(this);
-                    runningAcceptors.notify();
-                }
             }
         }
     }
@@ -80,6 +80,8 @@ import com.raytheon.uf.common.serialization.SerializationUtil;
  * Oct 26, 2015 5034       bkowal      Halt any resources that are managed by this
  *                                     task when this task halts due to error.
  * Dec 15, 2015 5114       rjpeter     Updated name to include EO/BL.
+ * Oct 18, 2026            agent       Restore transmitter group management and relay
+ *                                     live audio to the dacs as soon as it arrives.
  * </pre>
  * 
  * @author bkowal
@@ -102,7 +104,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
 
     protected final LiveBroadcastStartCommand command;
 
-    //CCastro protected final TransmitterGroupManager tgManager;
+    protected final TransmitterGroupManager tgManager;
 
     protected volatile STATE state;
 
@@ -130,7 +132,8 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         this.clusterServer = clusterServer;
         this.dacServer = dacServer;
         this.command = command;
-      //CCastro  this.tgManager = new TransmitterGroupManager(this.command.getTransmitterGroups());
+        this.tgManager = new TransmitterGroupManager(
+                this.command.getTransmitterGroups());
     }
 
     private static String determineName(final LiveBroadcastStartCommand command) {
@@ -142,7 +145,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
     private void handleStateTransition() {
         logger.info("Broadcast {} state transition to: {}", this.getName(),
                 this.state.toString());
- //CCastro       logger.info("CURRENT MANAGED STATE: {}", this.tgManager.toString());
+        logger.info("CURRENT MANAGED STATE: {}", this.tgManager.toString());
 
         if ((this.state == STATE.READY) || (this.state == STATE.TRIGGER)) {
             /**
@@ -152,18 +155,18 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
              * provides time for the dac transmits associated with the managed
              * {@link TransmitterGroup}s to provide responses.
              */
-            /*try {
-                
+            try {
+                /*
                  * lock should be available immediately or else it is already
                  * locked.
-                 
+                 */
                 if (this.communicationLock
                         .tryAcquire(10, TimeUnit.MILLISECONDS) == false) {
                     logger.warn("The Communication Lock is currently already locked. Expected State 2... Continuing");
                 }
             } catch (InterruptedException e) {
                 logger.warn("Broadcast Stream Task was interrupted while waiting for the Communication Lock.");
-            }*/
+            }
         }
 
         switch (this.state) {
@@ -204,13 +207,13 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
          * transmitters across multiple systems?
          * ..........................................
          */
-        /* CCastrofor (TransmitterGroup transmitterGrp : this.command
+        for (TransmitterGroup transmitterGrp : this.command
                 .getTransmitterGroups()) {
             if (this.streamingServer.isDacConnected(transmitterGrp.getName()) == false) {
                 continue;
             }
             this.tgManager.claimResponsibility(transmitterGrp);
-        }*?
+        }
 
         /**
          * We will only acquire the communication lock if there are other
@@ -232,15 +235,16 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
          * can access or that a different cluster member can access.
          */
         if (((count > 0) && (this.communicationWait(this
-                .calculateWaitDuration()) == false))){
-             //CCastro   || (this.tgManager.allTransmittersAssigned() == false)) {
+                .calculateWaitDuration()) == false))
+                || (this.tgManager.allTransmittersAssigned() == false)) {
             final String preText = "Failed to start broadcast "
                     + this.getName()
                     + ". Unable to access the following transmitter groups: ";
-   //CCastro         final String clientMsg = this.buildTransmitterListMsg(preText,this.tgManager.getUnassignedTransmitters());
+            final String clientMsg = this.buildTransmitterListMsg(preText,
+                    this.tgManager.getUnassignedTransmitters());
 
             // failure
-          //CCastro     this.notifyShareholdersProblem(clientMsg);
+            this.notifyShareholdersProblem(clientMsg);
 
             /*
              * due to the fact that we are only in the initialization phase, we
@@ -250,11 +254,11 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
              * after a successful initialization.
              */
             // build and submit a stop command.
-          /* CCastro LiveBroadcastCommand command = new LiveBroadcastCommand();
+            LiveBroadcastCommand command = new LiveBroadcastCommand();
             command.setAction(ACTION.STOP);
             command.setBroadcastId(this.getName());
             command.setMsgSource(MSGSOURCE.COMMS);
-            this.handleStopCommand(command);*/
+            this.handleStopCommand(command);
 
             return;
         }
@@ -278,7 +282,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         status.setMsgSource(MSGSOURCE.COMMS);
         status.setStatus(true);
         status.setBroadcastId(this.getName());
-      //CCastro status.setTransmitterGroups(this.tgManager.getManagedTransmitters());
+        status.setTransmitterGroups(this.tgManager.getManagedTransmitters());
 
         if (this.sendClientReplyMessage(status)) {
             this.state = STATE.LIVE;
@@ -320,7 +324,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         this.clusterServer
                 .sendDataToAll(new ClusteredBroadcastTransitionTrigger(this
                         .getName()));
-      //CCastrothis.sendStartCmdToDacs();
+        this.sendStartCmdToDacs();
 
         /*
          * give dac transmits and member comms managers some amount of time to
@@ -332,11 +336,12 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         /*
          * verify all transmitter groups are available for streaming.
          */
-      /*CCastro if ((this.communicationWait(this.calculateWaitDuration()) == false)){
-  ||  (this.tgManager.doAllTransmittersHaveStreamStatus(STREAMING_STATUS.AVAILABLE) == false)) {
+        if ((this.communicationWait(this.calculateWaitDuration()) == false)
+                || (this.tgManager
+                        .doAllTransmittersHaveStreamStatus(STREAMING_STATUS.AVAILABLE) == false)) {
             StringBuilder msgBuilder = new StringBuilder(
-                    "Failed to start broadcast 1 " + this.getName() + ".");
-            /*CCastro if (this.tgManager
+                    "Failed to start broadcast " + this.getName() + ".");
+            if (this.tgManager
                     .doAnyTransmittersHaveStreamStatus(STREAMING_STATUS.UNKNOWN)) {
                 msgBuilder
                         .append(this
@@ -356,7 +361,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
             }
 
             // failure
-            this.notifyShareholdersProblem(msgBuilder.toString());*/
+            this.notifyShareholdersProblem(msgBuilder.toString());
 
             /*
              * due to the fact that we are only in the initialization phase, we
@@ -364,7 +369,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
              * cluster members that they will need to be shutdown because Viz
              * will only initiate the shutdown if an error occurs at any point
              * after a successful initialization.
-             
+             */
             // build and submit a stop command.
             LiveBroadcastCommand command = new LiveBroadcastCommand();
             command.setAction(ACTION.STOP);
@@ -373,18 +378,20 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
             this.handleStopCommand(command);
 
             return;
-        }*/
+        }
+
         this.state = STATE.TRIGGER;
     }
 
     protected void sendStartCmdToDacs() {
-         for (TransmitterGroup transmitterGroup : this.getTransmitterGroups()) {
+        for (TransmitterGroup transmitterGroup : this.tgManager
+                .getManagedTransmitters()) {
             if (this.streamingServer.isDacConnected(transmitterGroup.getName()) == false) {
                 /*
                  * for now assume that the dac transmit was given to another
                  * comms manager.
-                */ 
-               //CCastro this.tgManager.forfeitResponsibility(transmitterGroup);
+                 */
+                this.tgManager.forfeitResponsibility(transmitterGroup);
                 continue;
             }
             BroadcastTransmitterConfiguration config = this.command
@@ -418,7 +425,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         this.clusterServer
                 .sendDataToAll(new ClusteredBroadcastTransitionTrigger(this
                         .getName()));
-        //CCastrothis.sendCmdToDacs(ACTION.TRIGGER);
+        this.sendCmdToDacs(ACTION.TRIGGER);
 
         /*
          * verify all transmitter groups are now available to start streaming -
@@ -426,11 +433,11 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
          * playback has been paused.
          */
         if ((this.communicationWait(this.calculateWaitDuration()) == false)
-                /*CCastro || (this.tgManager
-                        .doAllTransmittersHaveStreamStatus(STREAMING_STATUS.READY) == false)*/) {
+                || (this.tgManager
+                        .doAllTransmittersHaveStreamStatus(STREAMING_STATUS.READY) == false)) {
             StringBuilder msgBuilder = new StringBuilder(
                     "Failed to start broadcast " + this.getName() + ".");
-            /*CCastro if (this.tgManager
+            if (this.tgManager
                     .doAnyTransmittersHaveStreamStatus(STREAMING_STATUS.AVAILABLE)) {
                 msgBuilder
                         .append(this
@@ -448,7 +455,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
                                         this.tgManager
                                                 .getTransmittersWithStreamStatus(STREAMING_STATUS.BUSY)));
             }
-*/
+
             // failure
             this.notifyShareholdersProblem(msgBuilder.toString());
 
@@ -467,13 +474,13 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
     }
 
     protected void sendCmdToDacs(ACTION cmdAction) {
-        /*CCastro for (TransmitterGroup transmitterGrp : this.tgManager
+        for (TransmitterGroup transmitterGrp : this.tgManager
                 .getManagedTransmitters()) {
             if (this.streamingServer.isDacConnected(transmitterGrp.getName()) == false) {
-                
+                /*
                  * for now assume that the dac transmit was given to another
                  * comms manager.
-                 
+                 */
                 this.tgManager.forfeitResponsibility(transmitterGrp);
                 continue;
             }
@@ -483,7 +490,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
             command.setMsgSource(MSGSOURCE.COMMS);
             command.setAction(cmdAction);
             this.dacServer.sendToDac(transmitterGrp.getName(), command);
-        }*/
+        }
     }
 
     protected void stopBroadcast() {
@@ -600,16 +607,20 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         return true;
     }
 
+    /**
+     * Relays audio to the dac transmit of every managed
+     * {@link TransmitterGroup} as soon as it arrives. Viz sends every packet
+     * as soon as it is recorded so nothing is buffered here, any buffering
+     * needed to smooth out variations in delivery is done by dac transmit.
+     * 
+     * @param playCommand
+     *            the {@link LiveBroadcastPlayCommand} containing the audio
+     */
     private void streamDacAudio(LiveBroadcastPlayCommand playCommand) {
-        /*CCastro logger.info(
-                "Streaming {} packets of audio to the dac for Broadcast {}.",
-                playCommand.getAudio().size(), this.getName());
-
-        // TODO: thread audio data transmissions to the managed dacs.
         for (TransmitterGroup transmitterGroup : this.tgManager
                 .getManagedTransmitters()) {
             this.dacServer.sendToDac(transmitterGroup.getName(), playCommand);
-        }*/
+        }
     }
 
     protected void handleMessageInternal(ILiveBroadcastMessage msg) {
@@ -618,8 +629,14 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         }
         if (msg instanceof LiveBroadcastCommand) {
             LiveBroadcastCommand liveCommand = (LiveBroadcastCommand) msg;
-            logger.info("Handling {} command for Broadcast {}.", liveCommand
-                    .getAction().toString(), this.getName());
+            /* Audio arrives many times a second, only log the other actions. */
+            if (liveCommand.getAction() == ACTION.PLAY) {
+                logger.debug("Handling {} command for Broadcast {}.",
+                        liveCommand.getAction(), this.getName());
+            } else {
+                logger.info("Handling {} command for Broadcast {}.",
+                        liveCommand.getAction(), this.getName());
+            }
             switch (liveCommand.getAction()) {
             case STOP:
                 this.handleStopCommand(liveCommand);
@@ -645,7 +662,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
                  * determine which transmitters other comms managers are
                  * managing.
                  */
-                /*CCastro for (TransmitterGroup tg : msg.getTransmitterGroups()) {
+                for (TransmitterGroup tg : msg.getTransmitterGroups()) {
                     this.tgManager.giveResponsibility(tg);
                 }
 
@@ -654,16 +671,16 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
 
                 // if all transmitters have now been accounted for, unlock
                 if (this.tgManager.allTransmittersAssigned()) {
-                    
+                    /*
                      * Note: at this point, we may not have necessarily received
                      * a response from every cluster member (granted this design
                      * does allow for more than one additional cluster member).
                      * But, if all transmitters have been accounted for, there
                      * is no reason to wait for other cluster members to
                      * respond.
-                     
+                     */
                     this.communicationLock.release();
-                }*/
+                }
                 break;
             case READY:
             case TRIGGER:
@@ -678,18 +695,19 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
                 } else {
                     newStatus = STREAMING_STATUS.BUSY;
                 }
-                /*CCastrofor (TransmitterGroup tg : msg.getTransmitterGroups()) {
+                for (TransmitterGroup tg : msg.getTransmitterGroups()) {
                     this.tgManager.updateStreamStatus(tg, newStatus);
-                }*/
+                }
 
-                logger.info("UPDATED MANAGED STATE: {}",newStatus.toString()); //CCastro this.tgManager.toString());
+                logger.info("UPDATED MANAGED STATE: {}",
+                        this.tgManager.toString());
 
                 STREAMING_STATUS nonDesiredStatus = (this.state == STATE.READY) ? STREAMING_STATUS.UNKNOWN
                         : STREAMING_STATUS.AVAILABLE;
-                /* CCastro if (this.tgManager
+                if (this.tgManager
                         .doAnyTransmittersHaveStreamStatus(nonDesiredStatus) == false) {
                     this.communicationLock.release();
-                }*/
+                }
                 break;
             default:
                 if (status.getStatus() == false) {
@@ -762,13 +780,13 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
                  */
                 streamingStatus = STREAMING_STATUS.BUSY;
             }
-            /*CCastro for (TransmitterGroup tg : status.getTransmitterGroups()) {
+            for (TransmitterGroup tg : status.getTransmitterGroups()) {
                 this.tgManager.updateStreamStatus(tg, streamingStatus);
-            }*/
-            logger.info("UPDATED MANAGED STATE: {}", streamingStatus.toString());
+            }
+            logger.info("UPDATED MANAGED STATE: {}", this.tgManager.toString());
 
             // have all transmitters been accounted for?
-            /*CCastroif (this.isPrimary()
+            if (this.isPrimary()
                     && (this.tgManager
                             .doAnyTransmittersHaveStreamStatus(notWantedStatus) == false)) {
                 this.communicationLock.release();
@@ -776,7 +794,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
                     && (this.tgManager
                             .doManagedTransmittersHaveStreamStatus(notWantedStatus) == false)) {
                 this.communicationLock.release();
-            }*/
+            }
 
             break;
         case LIVE:
@@ -840,14 +858,14 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         command.setBroadcastId(this.getName());
         command.setMsgSource(MSGSOURCE.COMMS);
         command.setAction(ACTION.STOP);
-        /*CCastro for (TransmitterGroup transmitterGroup : this.tgManager
+        for (TransmitterGroup transmitterGroup : this.tgManager
                 .getManagedTransmitters()) {
             if (this.streamingServer.isDacConnected(transmitterGroup.getName()) == false) {
                 this.dacMsgFailed(transmitterGroup);
                 continue;
             }
             this.dacServer.sendToDac(transmitterGroup.getName(), command);
-        }*/
+        }
     }
 
     private void shutdownBroadcastOnError() {
@@ -965,15 +983,16 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
      */
     protected void notifyClusterMembersDacStatus(
             final STREAMING_STATUS statusToCheck, final boolean indicatesSuccess) {
-        /*CCastro if(this.tgManager.doAnyTransmittersHaveStreamStatus(statusToCheck) == false) {
+        if (this.tgManager.doAnyTransmittersHaveStreamStatus(statusToCheck) == false) {
             return;
-        }*/
+        }
 
         BroadcastStatus status = new BroadcastStatus();
         status.setBroadcastId(this.getName());
         status.setMsgSource(MSGSOURCE.COMMS);
         status.setStatus(indicatesSuccess);
-      //CCastro  status.setTransmitterGroups(this.tgManager.getTransmittersWithStreamStatus(statusToCheck));
+        status.setTransmitterGroups(this.tgManager
+                .getTransmittersWithStreamStatus(statusToCheck));
         this.clusterServer.sendDataToAll(status);
     }
 
@@ -991,7 +1010,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
         status.setBroadcastId(this.getName());
         status.setMsgSource(MSGSOURCE.COMMS);
         status.setStatus(true);
-       //CCastro status.setTransmitterGroups(this.tgManager.getManagedTransmitters());
+        status.setTransmitterGroups(this.tgManager.getManagedTransmitters());
         this.clusterServer.sendDataToAll(status);
     }
 
@@ -1028,7 +1047,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
          * Note: if a dac transmit switches servers during the first phase of
          * live stream initialization, the initialization will most likely fail.
          */
-       //CCastro this.tgManager.claimResponsibility(tg);
+        this.tgManager.claimResponsibility(tg);
     }
 
     /*
@@ -1053,7 +1072,7 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
          * Note: if a dac transmit switches servers during the first phase of
          * live stream initialization, the initialization will most likely fail.
          */
-       //CCastro this.tgManager.forfeitResponsibility(tg);
+        this.tgManager.forfeitResponsibility(tg);
     }
 
     /**
@@ -1063,10 +1082,8 @@ public class BroadcastStreamTask extends AbstractBroadcastingTask {
      * @return the amount of time to wait in milliseconds.
      */
     protected long calculateWaitDuration() {
-        /*CCastro long duration = this.command.getTransmitterGroups().size()
-                * PER_TRANSMITTER_WAIT_DURATION;*/
-        long duration = 10 * PER_TRANSMITTER_WAIT_DURATION;
-
+        long duration = this.command.getTransmitterGroups().size()
+                * PER_TRANSMITTER_WAIT_DURATION;
 
         /*
          * if this is the trigger step, we will want to increase the wait
@@ -59,6 +59,7 @@ import com.raytheon.uf.common.bmh.datamodel.transmitter.TransmitterGroup;
  * Nov 25, 2014 3797       bkowal      Initial creation
  * Jun 19, 2015 4482       rjpeter     Remove override of stopBroadcast.
  * Aug 12, 2015 4424       bkowal      Eliminate Dac Transmit Key.
+ * Oct 18, 2026            agent       Restore transmitter group management.
  * </pre>
  * 
  * @author bkowal
@@ -99,7 +100,7 @@ public class ClusteredBroadcastStreamTask extends BroadcastStreamTask {
             if (this.streamingServer.isDacConnected(transmitterGrp.getName()) == false) {
                 continue;
             }
-           //CCastro this.tgManager.claimResponsibility(transmitterGrp);
+            this.tgManager.claimResponsibility(transmitterGrp);
         }
 
         this.notifyClusterMembersDacResponsibility();
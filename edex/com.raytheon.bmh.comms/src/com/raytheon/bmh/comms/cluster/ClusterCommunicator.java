@@ -60,6 +60,9 @@ import com.raytheon.uf.common.serialization.SerializationUtil;
  * Oct 28, 2015  5029     rjpeter     Allow multiple dac transmits to be requested.
  * Feb 11, 2016  5308     rjpeter     Forward on SendPlaylistMessage.
  * Mar 14, 2016  5472     rjpeter     Added handling of SendPlaylistResponse.
+ * Oct 18, 2026           agent       Track the load balancing weight from heartbeats.
+ * Oct 18, 2026           agent       Feed heartbeats to a phi accrual failure detector,
+ *                                    check fencing tokens of new states.
  * </pre>
  * 
  * @author bsteffen
@@ -83,6 +86,15 @@ public class ClusterCommunicator extends Thread {
 
     private volatile long timeLastMessageReceived = System.currentTimeMillis();
 
+    /*
+     * Load balancing weight most recently published by the remote host, 0 until
+     * the first heartbeat arrives.
+     */
+    private volatile double weight = 0;
+
+    private final PhiAccrualFailureDetector failureDetector = new PhiAccrualFailureDetector(
+            System.currentTimeMillis());
+
     public ClusterCommunicator(CommsManager manager, ClusterServer server,
             Socket socket, String remoteHost) {
         super("ClusterCommunicator-" + remoteHost);
@@ -132,6 +144,7 @@ public class ClusterCommunicator extends Thread {
         if (message instanceof ClusterStateMessage) {
             ClusterStateMessage newState = (ClusterStateMessage) message;
             ClusterStateMessage oldState = state;
+            server.checkFencingTokens(remoteHost, newState);
             state = newState;
             logger.info("Clustered manager {} is connected to {} dac(s)",
                     remoteHost, newState.getConnectedTransmitters().size());
@@ -188,12 +201,16 @@ public class ClusterCommunicator extends Thread {
             this.manager
                     .forwardDacBroadcastMsg((ILiveBroadcastMessage) message);
         } else if (message instanceof ClusterHeartbeatMessage) {
-            String heartbeatIp = ((ClusterHeartbeatMessage) message).getHost();
+            ClusterHeartbeatMessage heartbeat = (ClusterHeartbeatMessage) message;
+            String heartbeatIp = heartbeat.getHost();
             if (!remoteHost.equals(heartbeatIp)) {
                 logger.error(
                         "Received wrong heartbeat host for {}.  Expected {} received {}, disconnecting...",
                         remoteHost, remoteHost, heartbeatIp);
                 disconnect();
+            } else {
+                failureDetector.heartbeat(timeLastMessageReceived);
+                weight = heartbeat.getWeight();
             }
         } else if (message instanceof LiveBroadcastSwitchNotification) {
             LiveBroadcastSwitchNotification notification = (LiveBroadcastSwitchNotification) message;
@@ -305,4 +322,22 @@ public class ClusterCommunicator extends Thread {
     public long getTimeLastMessageReceived() {
         return timeLastMessageReceived;
     }
+
+    /**
+     * @param timestamp
+     *            the current time
+     * @return the phi suspicion level that the remote host has failed based on
+     *         the arrival of heartbeats, see {@link PhiAccrualFailureDetector}.
+     */
+    public double getSuspicion(long timestamp) {
+        return failureDetector.phi(timestamp);
+    }
+
+    /**
+     * @return the load balancing weight published by the remote host, 0 if it
+     *         has not published one.
+     */
+    public double getWeight() {
+        return weight;
+    }
 }
\ No newline at end of file
@@ -23,7 +23,8 @@ import com.raytheon.uf.common.serialization.annotations.DynamicSerialize;
 import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
 
 /**
- * Keep alive message.
+ * Keep alive message. Also carries the load balancing weight of the sender,
+ * see {@link ClusterLoadBalancer}.
  * 
  * <pre>
  * 
@@ -32,6 +33,7 @@ import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
  * Aug 10, 2015 4711       rjpeter     Initial creation
+ * Oct 18, 2026            agent       Added weight for load balancing.
  * 
  * </pre>
  * 
@@ -44,12 +46,16 @@ public class ClusterHeartbeatMessage {
     @DynamicSerializeElement
     private String host;
 
+    @DynamicSerializeElement
+    private double weight;
+
     public ClusterHeartbeatMessage() {
 
     }
 
-    public ClusterHeartbeatMessage(String host) {
+    public ClusterHeartbeatMessage(String host, double weight) {
         this.host = host;
+        this.weight = weight;
     }
 
     /**
@@ -67,4 +73,19 @@ public class ClusterHeartbeatMessage {
         this.host = host;
     }
 
+    /**
+     * @return the weight
+     */
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+     * @param weight
+     *            the weight to set
+     */
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+
 }
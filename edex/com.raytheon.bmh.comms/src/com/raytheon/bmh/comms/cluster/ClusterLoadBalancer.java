@@ -0,0 +1,267 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.comms.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 
+ * Deterministically assigns transmitter groups to comms manager cluster
+ * members. Every group ranks the live members using weighted rendezvous
+ * (highest random weight) hashing so that a membership or weight change only
+ * moves the groups that ranked the changed member first. The assignment is
+ * bounded by a per member quota proportional to its weight so that a small
+ * number of groups still divides evenly across the cluster. Given the same
+ * groups and weights every member computes the same assignment, so no
+ * coordination is needed beyond sharing the weights.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * Oct 18, 2026           agent       Load discount is filtered by {@link ClusterLoadFilter}.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public final class ClusterLoadBalancer {
+
+    /**
+     * Weight used for a member that has not published a valid weight.
+     */
+    public static final double DEFAULT_WEIGHT = 1.0;
+
+    /**
+     * The most a busy member's weight will be reduced by load.
+     */
+    public static final double MAX_LOAD_DISCOUNT = 0.75;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ClusterLoadBalancer() {
+    }
+
+    /**
+     * Calculate the weight a member should publish to the cluster.
+     * 
+     * @param capacity
+     *            the configured relative capacity of the host.
+     * @param loadDiscount
+     *            the discount for the load of the host from
+     *            {@link ClusterLoadFilter#update(double, long)}.
+     * @return the weight of the member.
+     */
+    public static double calculateWeight(double capacity, double loadDiscount) {
+        if (capacity <= 0) {
+            return 0;
+        }
+        double discount = Math.max(0,
+                Math.min(loadDiscount, MAX_LOAD_DISCOUNT));
+        return capacity * (1 - discount);
+    }
+
+    /**
+     * Weighted rendezvous score of a member for a group, the member with the
+     * highest score is the preferred owner of the group.
+     */
+    public static double score(String group, String member, double weight) {
+        if (weight <= 0) {
+            return 0;
+        }
+        long hash = FNV_OFFSET;
+        for (byte b : (group + '\0' + member)
+                .getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        /* fmix64 from MurmurHash3 spreads the FNV result over all bits. */
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        /* uniform in (0, 1) */
+        double uniform = ((hash >>> 11) + 0.5) / (1L << 53);
+        return weight / -Math.log(uniform);
+    }
+
+    /**
+     * Split the groups between the members in proportion to their weights
+     * using the largest remainder method. Ties are broken by member id so
+     * every member computes the same quotas.
+     */
+    static Map<String, Integer> calculateQuotas(
+            Map<String, Double> weights, int numGroups) {
+        Map<String, Double> effective = new TreeMap<>();
+        double totalWeight = 0;
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            double weight = Math.max(0, entry.getValue());
+            effective.put(entry.getKey(), weight);
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0) {
+            /* nobody has capacity, share equally rather than not at all */
+            for (Map.Entry<String, Double> entry : effective.entrySet()) {
+                entry.setValue(DEFAULT_WEIGHT);
+            }
+            totalWeight = effective.size() * DEFAULT_WEIGHT;
+        }
+
+        final Map<String, Double> remainders = new HashMap<>();
+        Map<String, Integer> quotas = new TreeMap<>();
+        int assigned = 0;
+        for (Map.Entry<String, Double> entry : effective.entrySet()) {
+            double share = numGroups * entry.getValue() / totalWeight;
+            int quota = (int) Math.floor(share);
+            quotas.put(entry.getKey(), quota);
+            remainders.put(entry.getKey(), share - quota);
+            assigned += quota;
+        }
+
+        List<String> byRemainder = new ArrayList<>(quotas.keySet());
+        Collections.sort(byRemainder, new Comparator<String>() {
+
+            @Override
+            public int compare(String o1, String o2) {
+                int result = Double.compare(remainders.get(o2),
+                        remainders.get(o1));
+                if (result == 0) {
+                    result = o1.compareTo(o2);
+                }
+                return result;
+            }
+        });
+        for (int i = 0; assigned < numGroups; i++, assigned++) {
+            String member = byRemainder.get(i % byRemainder.size());
+            quotas.put(member, quotas.get(member) + 1);
+        }
+        return quotas;
+    }
+
+    /**
+     * Assign every group to a member. Each group goes to its highest scoring
+     * member unless that member has already filled its quota, in which case it
+     * falls to the next member in its ranking. Candidates are considered in
+     * order of score so that the strongest preferences are honored first.
+     * 
+     * @param groups
+     *            the transmitter groups to assign.
+     * @param weights
+     *            the weight of each live member.
+     * @return the member for each group, empty if there are no members.
+     */
+    public static Map<String, String> assign(Collection<String> groups,
+            Map<String, Double> weights) {
+        Map<String, String> assignment = new TreeMap<>();
+        if (weights.isEmpty() || groups.isEmpty()) {
+            return assignment;
+        }
+        Collection<String> sortedGroups = new TreeSet<>(groups);
+        Map<String, Integer> quotas = calculateQuotas(weights,
+                sortedGroups.size());
+
+        List<Candidate> candidates = new ArrayList<>(sortedGroups.size()
+                * quotas.size());
+        for (String group : sortedGroups) {
+            for (String member : quotas.keySet()) {
+                candidates.add(new Candidate(group, member, score(group,
+                        member, weights.get(member))));
+            }
+        }
+        Collections.sort(candidates);
+
+        for (Candidate candidate : candidates) {
+            if (assignment.containsKey(candidate.group)) {
+                continue;
+            }
+            int quota = quotas.get(candidate.member);
+            if (quota > 0) {
+                assignment.put(candidate.group, candidate.member);
+                quotas.put(candidate.member, quota - 1);
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Determine the groups that must move to reach an assignment. Groups that
+     * are not currently running anywhere are not included since they will be
+     * started by whichever member notices first and are then eligible to move.
+     * 
+     * @param assignment
+     *            the result of {@link #assign(Collection, Map)}.
+     * @param owners
+     *            the member currently running each group.
+     * @return the new member for each group that must move, ordered by group.
+     */
+    public static Map<String, String> planMigrations(
+            Map<String, String> assignment, Map<String, String> owners) {
+        Map<String, String> migrations = new TreeMap<>();
+        for (Map.Entry<String, String> entry : assignment.entrySet()) {
+            String owner = owners.get(entry.getKey());
+            if (owner != null && owner.equals(entry.getValue()) == false) {
+                migrations.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return migrations;
+    }
+
+    private static class Candidate implements Comparable<Candidate> {
+
+        private final String group;
+
+        private final String member;
+
+        private final double score;
+
+        public Candidate(String group, String member, double score) {
+            this.group = group;
+            this.member = member;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Candidate o) {
+            int result = Double.compare(o.score, score);
+            if (result == 0) {
+                result = group.compareTo(o.group);
+            }
+            if (result == 0) {
+                result = member.compareTo(o.member);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.comms.cluster;
+
+/**
+ * 
+ * Turns the system load of a cluster member into the discount that is applied
+ * to its load balancing weight. The raw load average is a poor input for
+ * placement: it is moved by EDEX and text to speech spikes on the same host,
+ * and taking dac transmits raises it, which would feed straight back into the
+ * weight. So the load is smoothed with an exponentially weighted moving average
+ * and the discount is only changed when the average leaves the current
+ * {@value #LOAD_QUANTUM} wide bucket by more than a margin, and never more
+ * than once per dwell time. A load that sits on a bucket boundary therefore
+ * keeps the discount it already has instead of flipping every check.
+ * 
+ * All times are supplied by the caller so the filter can be driven by a
+ * recorded trace as easily as by the system clock.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class ClusterLoadFilter {
+
+    /**
+     * Load is rounded to this fraction before it is applied to a weight.
+     */
+    public static final double LOAD_QUANTUM = 0.25;
+
+    /**
+     * How far(in load per processor) the average load must move beyond the
+     * current bucket before the discount changes.
+     */
+    private static final double LOAD_MARGIN = Double.parseDouble(System
+            .getProperty("ClusterLoadMargin", "0.1"));
+
+    /**
+     * Time constant(in ms) of the moving average of the load.
+     */
+    private static final long LOAD_TIME_CONSTANT = Long.getLong(
+            "ClusterLoadTimeConstant", 10 * 60 * 1000L);
+
+    /**
+     * Minimum time(in ms) between changes to the discount.
+     */
+    private static final long LOAD_DWELL_TIME = Long.getLong(
+            "ClusterLoadDwellTime", 15 * 60 * 1000L);
+
+    private final double margin;
+
+    private final long timeConstant;
+
+    private final long dwellTime;
+
+    private double average = -1;
+
+    private long lastSampleTime;
+
+    private double discount = 0;
+
+    private long lastChangeTime = Long.MIN_VALUE;
+
+    /**
+     * Create a filter using the configured defaults.
+     */
+    public ClusterLoadFilter() {
+        this(LOAD_MARGIN, LOAD_TIME_CONSTANT, LOAD_DWELL_TIME);
+    }
+
+    public ClusterLoadFilter(double margin, long timeConstant, long dwellTime) {
+        this.margin = Math.max(0, margin);
+        this.timeConstant = Math.max(1, timeConstant);
+        this.dwellTime = Math.max(0, dwellTime);
+    }
+
+    /**
+     * Add a load sample and determine the discount to apply.
+     * 
+     * @param load
+     *            the system load divided by the number of processors,
+     *            negative if it is not available.
+     * @param timestamp
+     *            the time the load was sampled.
+     * @return the discount, a multiple of {@link #LOAD_QUANTUM} between 0 and
+     *         {@link ClusterLoadBalancer#MAX_LOAD_DISCOUNT}.
+     */
+    public synchronized double update(double load, long timestamp) {
+        if (load < 0) {
+            /* not available, keep what was published */
+            return discount;
+        }
+        if (average < 0) {
+            average = load;
+        } else if (timestamp > lastSampleTime) {
+            double alpha = 1 - Math.exp(-(timestamp - lastSampleTime)
+                    / (double) timeConstant);
+            average += alpha * (load - average);
+        }
+        lastSampleTime = Math.max(lastSampleTime, timestamp);
+
+        double reach = LOAD_QUANTUM / 2 + margin;
+        boolean outside = average < discount - reach
+                || average > discount + reach;
+        boolean dwelled = lastChangeTime == Long.MIN_VALUE
+                || timestamp - lastChangeTime >= dwellTime;
+        if (outside && dwelled) {
+            double target = Math.min(Math.round(average / LOAD_QUANTUM)
+                    * LOAD_QUANTUM, ClusterLoadBalancer.MAX_LOAD_DISCOUNT);
+            if (target != discount) {
+                discount = target;
+                lastChangeTime = timestamp;
+            }
+        }
+        return discount;
+    }
+
+    /**
+     * @return the smoothed load, negative if no load has been sampled.
+     */
+    public synchronized double getAverage() {
+        return average;
+    }
+}
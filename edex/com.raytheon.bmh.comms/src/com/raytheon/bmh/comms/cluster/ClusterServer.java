@@ -20,30 +20,38 @@
 package com.raytheon.bmh.comms.cluster;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableMap;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.raytheon.bmh.comms.AbstractServer;
 import com.raytheon.bmh.comms.CommsManager;
+import com.raytheon.bmh.dactransmit.dacsession.DacFencingToken;
+import com.raytheon.bmh.dactransmit.util.NamedThreadFactory;
 import com.raytheon.uf.common.time.util.TimeUtil;
 import com.raytheon.uf.edex.bmh.comms.CommsConfig;
 import com.raytheon.uf.edex.bmh.comms.CommsHostConfig;
+import com.raytheon.uf.edex.bmh.comms.DacChannelConfig;
 import com.raytheon.uf.edex.bmh.comms.DacConfig;
 
 /**
@@ -80,6 +88,13 @@ import com.raytheon.uf.edex.bmh.comms.DacConfig;
  * Dec 15, 2015  5114     rjpeter     Updated SocketListener to use a ThreadPool.
  * Mar 30, 2016  5419     bkowal      Increased {@link #REQUEST_TIMEOUT_INTERVAL} to 30 seconds.
  *                                    Notify AlertViz users when load balancing is halted.
+ * Oct 18, 2026           agent       Balance with weighted rendezvous hashing and stagger
+ *                                    the resulting moves.
+ * Oct 18, 2026           agent       Replace the cluster timeout with a phi accrual failure
+ *                                    detector, fence dacs taken over from other members.
+ * Oct 18, 2026           agent       Filter the load with a {@link ClusterLoadFilter}.
+ * Oct 18, 2026           agent       Send heartbeats on a fixed rate timer, confirm failures
+ *                                    after a minimum interval, claim dacs before launching.
  * </pre>
  * 
  * @author bsteffen
@@ -95,10 +110,45 @@ public class ClusterServer extends AbstractServer {
     private static final long REQUEST_TIMEOUT_INTERVAL = 30 * TimeUtil.MILLIS_PER_MINUTE;
 
     /**
-     * When connected to another comms manager. This is the maximum amount of
-     * time allowed between messages.
+     * Suspicion(phi) of a cluster member at which no new load balancing
+     * requests will be made. A suspected member may only be paused so none of
+     * its dacs are taken.
      */
-    private static final long CLUSTER_TIMEOUT_INTERVAL = 60 * TimeUtil.MILLIS_PER_MINUTE;
+    private static final int SUSPECT_PHI = Integer.getInteger(
+            "ClusterSuspectPhi", 3);
+
+    /**
+     * Suspicion(phi) of a cluster member at which it is considered failed, it
+     * is disconnected and its dacs are taken over. This must be exceeded on
+     * two checks at least {@link #FAILURE_CONFIRM_INTERVAL} apart.
+     */
+    private static final int FAILURE_PHI = Integer.getInteger(
+            "ClusterFailurePhi", 8);
+
+    /**
+     * The amount of time(in ms) between heartbeats sent to each cluster
+     * member, also how often the members are checked for failure.
+     */
+    private static final long HEARTBEAT_INTERVAL = Long.getLong(
+            "ClusterHeartbeatInterval", 10 * TimeUtil.MILLIS_PER_SECOND);
+
+    /**
+     * The minimum amount of time(in ms) between the two checks that must find
+     * a member failed. When this host resumes from its own pause the timer
+     * may run several checks back to back, this gives the heartbeats that
+     * queued up during the pause time to be read before judging the member.
+     */
+    private static final long FAILURE_CONFIRM_INTERVAL = Long.getLong(
+            "ClusterFailureConfirmInterval", 2 * HEARTBEAT_INTERVAL);
+
+    /**
+     * The amount of time(in ms) after its last renewal that the claim of
+     * another member on a dac is respected when that member cannot be
+     * reached. Must be several times DacFencingCheckInterval, the rate at
+     * which a running dac transmit renews its claim.
+     */
+    private static final long FENCING_LEASE_TIME = Long.getLong(
+            "DacFencingLeaseTime", 30 * TimeUtil.MILLIS_PER_SECOND);
 
     /**
      * This is the maximum amount of time load balancing can be disabled before
@@ -106,6 +156,20 @@ public class ClusterServer extends AbstractServer {
      */
     private static final long BALANCE_DISABLED_INTERVAL = TimeUtil.MILLIS_PER_HOUR;
 
+    /**
+     * The maximum number of dac transmits that will be requested at once when
+     * load balancing. Every move interrupts audio on that transmitter group so
+     * moves are staggered rather than done all at once.
+     */
+    private static final int MAX_BALANCE_MOVES = Integer.getInteger(
+            "ClusterBalanceMaxMoves", 1);
+
+    /**
+     * The minimum amount of time(in ms) between load balancing requests.
+     */
+    private static final long BALANCE_MOVE_INTERVAL = Long.getLong(
+            "ClusterBalanceMoveInterval", TimeUtil.MILLIS_PER_MINUTE);
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final CommsManager manager;
@@ -124,7 +188,7 @@ public class ClusterServer extends AbstractServer {
 
     private final ConcurrentMap<String, Long> requestTimeout = new ConcurrentHashMap<>();
 
-    private String localIp;
+    private volatile String localIp;
 
     /*
      * Keep track of transmitters that will temporarily be unavailable for load
@@ -159,7 +223,44 @@ public class ClusterServer extends AbstractServer {
      */
     private BalanceDisabledAlarm balanceDisabledAlarm;
 
-    private volatile int totalDacTransmits = 0;
+    private volatile Set<String> dacTransmits = Collections.emptySet();
+
+    /*
+     * Configured capacity of each cluster host, used until the host publishes
+     * its own weight.
+     */
+    private final ConcurrentMap<String, Double> hostCapacities = new ConcurrentHashMap<>();
+
+    /*
+     * The load balancing weight this host last published to the cluster.
+     */
+    private volatile double localWeight = ClusterLoadBalancer.DEFAULT_WEIGHT;
+
+    private final ClusterLoadFilter loadFilter = new ClusterLoadFilter();
+
+    private long lastBalanceRequestTime = 0;
+
+    /*
+     * Highest fencing token known for each transmitter, from this host or any
+     * other member.
+     */
+    private final ConcurrentMap<String, Long> fencingTokens = new ConcurrentHashMap<>();
+
+    /*
+     * Fencing token claimed in the playlist directory by the last dac transmit
+     * launched on this host for each transmitter.
+     */
+    private final ConcurrentMap<String, Long> claimedTokens = new ConcurrentHashMap<>();
+
+    /*
+     * Time each member first exceeded the failure threshold, only used by the
+     * heartbeat timer.
+     */
+    private final Map<String, Long> failingMembers = new HashMap<>();
+
+    private final ScheduledExecutorService heartbeatTimer = Executors
+            .newSingleThreadScheduledExecutor(new NamedThreadFactory(
+                    "ClusterHeartbeat"));
 
     /**
      * Create a server for listening to dac transmit applications.
@@ -172,14 +273,33 @@ public class ClusterServer extends AbstractServer {
             throws IOException {
         super(manager.getSocketListener());
         this.manager = manager;
+        /*
+         * Heartbeats are not sent from the main comms manager loop, it may
+         * sleep much longer than the heartbeat interval while launching dac
+         * transmits.
+         */
+        heartbeatTimer.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    checkClusterMembers();
+                } catch (Throwable e) {
+                    logger.error("Error sending cluster heartbeats.", e);
+                }
+            }
+        }, HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
         if (config.getClusterHosts() == null) {
             logger.warn("No cluster members in config, continuing without clustering.");
             return;
         }
 
+        Set<String> dacTransmits = new HashSet<>();
         for (DacConfig dConfig : config.getDacs()) {
-            totalDacTransmits += dConfig.getChannels().size();
+            for (DacChannelConfig channel : dConfig.getChannels()) {
+                dacTransmits.add(channel.getTransmitterGroup());
+            }
         }
+        this.dacTransmits = dacTransmits;
     }
 
     public void attempClusterConnections(CommsConfig config) {
@@ -196,6 +316,15 @@ public class ClusterServer extends AbstractServer {
             }
         }
         Set<String> configuredAddresses = new HashSet<>();
+        Set<String> hostAddresses = new HashSet<>();
+        for (CommsHostConfig host : config.getClusterHosts()) {
+            Double capacity = host.getCapacity();
+            hostAddresses.add(host.getIpAddress());
+            hostCapacities.put(host.getIpAddress(),
+                    capacity == null ? ClusterLoadBalancer.DEFAULT_WEIGHT
+                            : capacity);
+        }
+        hostCapacities.keySet().retainAll(hostAddresses);
         for (CommsHostConfig host : config.getClusterHosts()) {
             try {
                 if (host.isLocalHost()) {
@@ -217,8 +346,6 @@ public class ClusterServer extends AbstractServer {
             return;
         }
 
-        long timeoutThreshold = System.currentTimeMillis()
-                - CLUSTER_TIMEOUT_INTERVAL;
         for (CommsHostConfig host : config.getClusterHosts()) {
             if (localIp.equals(host.getIpAddress())) {
                 continue;
@@ -239,16 +366,7 @@ public class ClusterServer extends AbstractServer {
             ClusterCommunicator communicator = communicators.get(remoteAddress);
 
             if (communicator != null) {
-                if (communicator.getTimeLastMessageReceived() < timeoutThreshold) {
-                    logger.error(
-                            "Cluster time out for cluster member: {}.  Have not received heartbeat message within threshold of {}, disconnecting...",
-                            remoteAddress,
-                            TimeUtil.prettyDuration(CLUSTER_TIMEOUT_INTERVAL));
-                    communicator.disconnect();
-                } else {
-                    communicator.send(new ClusterHeartbeatMessage(localIp));
-                    continue;
-                }
+                continue;
             }
 
             try {
@@ -290,6 +408,48 @@ public class ClusterServer extends AbstractServer {
         }
     }
 
+    /**
+     * Runs on the heartbeat timer. Disconnects members that have failed and
+     * sends a heartbeat to all the others.
+     */
+    private void checkClusterMembers() {
+        String localIp = this.localIp;
+        if (localIp == null) {
+            return;
+        }
+        localWeight = calculateLocalWeight();
+
+        long currentTime = System.currentTimeMillis();
+        failingMembers.keySet().retainAll(communicators.keySet());
+        for (ClusterCommunicator communicator : communicators.values()) {
+            String remoteAddress = communicator.getClusterId();
+            double phi = communicator.getSuspicion(currentTime);
+            if (phi < FAILURE_PHI) {
+                failingMembers.remove(remoteAddress);
+            } else {
+                Long firstFailure = failingMembers.get(remoteAddress);
+                if (firstFailure == null) {
+                    failingMembers.put(remoteAddress, currentTime);
+                    logger.warn(
+                            "Cluster member {} is suspected of failure (phi: {}), last message received {} ago.",
+                            remoteAddress, phi,
+                            TimeUtil.prettyDuration(currentTime
+                                    - communicator.getTimeLastMessageReceived()));
+                } else if ((currentTime - firstFailure) >= FAILURE_CONFIRM_INTERVAL) {
+                    failingMembers.remove(remoteAddress);
+                    logger.error(
+                            "Cluster member {} has failed (phi: {}), last message received {} ago, disconnecting...",
+                            remoteAddress, phi,
+                            TimeUtil.prettyDuration(currentTime
+                                    - communicator.getTimeLastMessageReceived()));
+                    communicator.disconnect();
+                    continue;
+                }
+            }
+            communicator.send(new ClusterHeartbeatMessage(localIp, localWeight));
+        }
+    }
+
     public boolean isConnected(final String transmitterGroup) {
         for (ClusterCommunicator communicator : this.communicators.values()) {
             if (communicator.isConnected(transmitterGroup)) {
@@ -314,6 +474,7 @@ public class ClusterServer extends AbstractServer {
      */
     @Override
     protected void shutdownInternal() {
+        heartbeatTimer.shutdown();
         synchronized (communicatorLock) {
             for (ClusterCommunicator communicator : communicators.values()) {
                 communicator.shutdown();
@@ -393,9 +554,128 @@ public class ClusterServer extends AbstractServer {
         }
     }
 
+    /**
+     * Check if another cluster member holds the dac of a transmitter group
+     * while this host cannot reach it, as happens when the cluster is
+     * partitioned. The claim in the playlist directory is only respected
+     * while the dac transmit of that member keeps renewing it.
+     * 
+     * @param transmitterGroup
+     *            the transmitter group
+     * @param directory
+     *            the playlist directory of the transmitter group
+     * @return true if a dac transmit should not be launched for the group
+     */
+    public boolean isClaimedRemote(final String transmitterGroup,
+            final Path directory) {
+        String localIp = this.localIp;
+        if (localIp == null) {
+            return false;
+        }
+        DacFencingToken claim;
+        long renewed;
+        try {
+            claim = DacFencingToken.read(directory);
+            if (claim == null) {
+                return false;
+            }
+            renewed = DacFencingToken.getLastRenewed(directory);
+        } catch (IOException e) {
+            logger.warn("Unable to read the fencing token of {}.",
+                    transmitterGroup, e);
+            return false;
+        }
+        if (localIp.equals(claim.getHolder())
+                || communicators.containsKey(claim.getHolder())) {
+            /*
+             * Reachable members report their dacs in their state, a member
+             * that released the dac for load balancing is not waited for.
+             */
+            return false;
+        }
+        long age = System.currentTimeMillis() - renewed;
+        if (age < FENCING_LEASE_TIME) {
+            logger.info(
+                    "{} is claimed by unreachable cluster member {}, last renewed {} ago.",
+                    transmitterGroup, claim.getHolder(),
+                    TimeUtil.prettyDuration(age));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Claim the dac of a transmitter group for this host before a dac
+     * transmit is launched for it. The token is larger than any token that
+     * has been claimed or seen for the group. A dac transmit still running
+     * with an older claim stops itself once it sees the new claim, even if
+     * this host cannot reach the member that launched it.
+     * 
+     * @param transmitterGroup
+     *            the transmitter group
+     * @param directory
+     *            the playlist directory of the transmitter group
+     * @return the claim to pass to the dac transmit or null if the dac
+     *         transmit should be launched without fencing.
+     */
+    public DacFencingToken claimDac(final String transmitterGroup,
+            final Path directory) {
+        String localIp = this.localIp;
+        if (localIp == null) {
+            return null;
+        }
+        try {
+            DacFencingToken current = DacFencingToken.read(directory);
+            DacFencingToken claim;
+            synchronized (state) {
+                long token = nextFencingToken(transmitterGroup);
+                if ((current != null) && (current.getToken() >= token)) {
+                    token = current.getToken() + 1;
+                }
+                claim = new DacFencingToken(token, localIp);
+                fencingTokens.put(transmitterGroup, token);
+            }
+            claim.write(directory);
+            claimedTokens.put(transmitterGroup, claim.getToken());
+            return claim;
+        } catch (IOException e) {
+            logger.warn(
+                    "Unable to claim the dac of {}, the dac transmit will not be fenced.",
+                    transmitterGroup, e);
+            claimedTokens.remove(transmitterGroup);
+            return null;
+        }
+    }
+
+    /**
+     * Newer claims always win, using the time keeps tokens increasing even if
+     * this host has restarted and forgotten the old tokens. Must be called
+     * while synchronized on state.
+     */
+    private long nextFencingToken(final String transmitterGroup) {
+        long token = System.currentTimeMillis();
+        Long highest = fencingTokens.get(transmitterGroup);
+        if ((highest != null) && (highest >= token)) {
+            token = highest + 1;
+        }
+        return token;
+    }
+
     public void dacConnectedLocal(final String transmitterGroup) {
         synchronized (state) {
-            state.add(transmitterGroup);
+            /*
+             * Use the token claimed when the dac transmit was launched so the
+             * cluster state agrees with the playlist directory.
+             */
+            Long token = claimedTokens.get(transmitterGroup);
+            if (token == null) {
+                token = nextFencingToken(transmitterGroup);
+            }
+            Long highest = fencingTokens.get(transmitterGroup);
+            if ((highest == null) || (highest < token)) {
+                fencingTokens.put(transmitterGroup, token);
+            }
+            state.add(transmitterGroup, token);
             state.removeRequestedTransmitter(transmitterGroup);
             requestTimeout.remove(transmitterGroup);
             sendStateToAll();
@@ -411,6 +691,53 @@ public class ClusterServer extends AbstractServer {
         }
     }
 
+    /**
+     * Compare the fencing tokens of another member with the tokens of the dacs
+     * connected locally. If the other member holds a newer token for a dac
+     * that is also connected locally then the local dac transmit is stopped.
+     * Ties are broken by address so that exactly one of the members stops.
+     * 
+     * @param remoteHost
+     *            the address of the other member
+     * @param remoteState
+     *            the state just received from the other member
+     */
+    public void checkFencingTokens(final String remoteHost,
+            final ClusterStateMessage remoteState) {
+        List<String> fenced = new ArrayList<>();
+        synchronized (state) {
+            for (String transmitterGroup : remoteState
+                    .getConnectedTransmitters()) {
+                long remoteToken = remoteState
+                        .getFencingToken(transmitterGroup);
+                Long highest = fencingTokens.get(transmitterGroup);
+                if ((highest == null) || (highest < remoteToken)) {
+                    fencingTokens.put(transmitterGroup, remoteToken);
+                }
+                if (state.contains(transmitterGroup) == false) {
+                    continue;
+                }
+                long localToken = state.getFencingToken(transmitterGroup);
+                if ((remoteToken > localToken)
+                        || ((remoteToken == localToken) && (remoteHost
+                                .compareTo(localIp) < 0))) {
+                    logger.warn(
+                            "{} is also connected on {} with a newer fencing token ({} > {}), stopping the local dac transmit.",
+                            transmitterGroup, remoteHost, remoteToken,
+                            localToken);
+                    state.remove(transmitterGroup);
+                    fenced.add(transmitterGroup);
+                }
+            }
+            if (fenced.isEmpty() == false) {
+                sendStateToAll();
+            }
+        }
+        for (String transmitterGroup : fenced) {
+            manager.dacFenced(transmitterGroup);
+        }
+    }
+
     public void dacDisconnectedRemote(final String transmitterGroup) {
         synchronized (state) {
             if (state.isRequestedTransmitter(transmitterGroup)) {
@@ -475,13 +802,18 @@ public class ClusterServer extends AbstractServer {
 
             if (allDacsRunning && (pendingRequest == false)
                     && (failedRequests.isEmpty())) {
-                /* determine total number of transmitters */
-                int requiredForBalance = totalDacTransmits
-                        / (communicators.size() + 1);
-                int numConnected = state.getConnectedTransmitters().size();
-                int numToRequest = requiredForBalance - numConnected;
+                if ((localIp == null) || communicators.isEmpty()
+                        || (currentTime < lastBalanceRequestTime
+                                + BALANCE_MOVE_INTERVAL)) {
+                    return;
+                }
 
-                NavigableMap<Integer, ClusterCommunicator> commMap = new TreeMap<>();
+                Map<String, Double> weights = new HashMap<>();
+                Map<String, String> owners = new HashMap<>();
+                weights.put(localIp, localWeight);
+                for (String group : state.getConnectedTransmitters()) {
+                    owners.put(group, localIp);
+                }
                 for (ClusterCommunicator communicator : communicators.values()) {
                     ClusterStateMessage otherState = communicator
                             .getClusterState();
@@ -493,114 +825,63 @@ public class ClusterServer extends AbstractServer {
                          */
                         return;
                     }
-                    commMap.put(otherState.getConnectedTransmitters().size(),
-                            communicator);
+                    if (communicator.getSuspicion(currentTime) >= SUSPECT_PHI) {
+                        /*
+                         * a dac requested from a member that is not responding
+                         * may never be released.
+                         */
+                        return;
+                    }
+                    String otherId = communicator.getClusterId();
+                    weights.put(otherId, getWeight(communicator));
+                    for (String group : otherState.getConnectedTransmitters()) {
+                        owners.put(group, otherId);
+                    }
                 }
 
                 /*
-                 * double check in a large cluster that everything is balanced,
-                 * say with 7 transmitters across 4 nodes (1, 1, 1, 4)
+                 * Every member computes the same assignment so each member only
+                 * requests the groups assigned to itself.
                  */
-                if (numToRequest == 0) {
-                    // map sorted by least number of connections
-                    for (Integer key : commMap.keySet()) {
-                        if (key < numConnected) {
-                            /*
-                             * we have more than another communicator, don't
-                             * request anything
-                             */
-                            break;
-                        } else if (key > (numConnected + 1)) {
-                            /*
-                             * another entry has more than 1 more than me,
-                             * request 1
-                             */
-                            numToRequest = 1;
-                            break;
-                        }
+                Map<String, String> migrations = ClusterLoadBalancer
+                        .planMigrations(ClusterLoadBalancer.assign(
+                                dacTransmits, weights), owners);
+                List<String> candidates = new ArrayList<>();
+                for (Map.Entry<String, String> entry : migrations.entrySet()) {
+                    if (localIp.equals(entry.getValue())) {
+                        candidates.add(entry.getKey());
                     }
                 }
+                if (candidates.isEmpty()) {
+                    return;
+                }
 
-                if (numToRequest > 0) {
-                    int numRequested = 0;
-
-                    /*
-                     * Iterate in order of most connected transmitters
-                     */
-                    for (ClusterCommunicator communicator : commMap
-                            .descendingMap().values()) {
-                        String otherId = communicator.getClusterId();
-                        ClusterStateMessage otherState = communicator
-                                .getClusterState();
-                        Set<String> otherTrans = new HashSet<>(
-                                otherState.getConnectedTransmitters());
-                        if (otherTrans.size() > requiredForBalance) {
-                            int numAllowedToTake = otherTrans.size()
-                                    - requiredForBalance;
-
-                            synchronized (this.lockedLoadBalanceTransmitters) {
-                                otherTrans
-                                        .removeAll(this.lockedLoadBalanceTransmitters);
-                            }
-                            synchronized (this.unavailableLoadBalanceCandidates) {
-                                otherTrans
-                                        .removeAll(this.unavailableLoadBalanceCandidates);
-                            }
-
-                            if (otherTrans.isEmpty() == false) {
-                                Iterator<String> iter = otherTrans.iterator();
-
-                                while ((numRequested < numToRequest)
-                                        && (numAllowedToTake > 0)
-                                        && iter.hasNext()) {
-                                    String group = iter.next();
-                                    logger.info(
-                                            "To balance the load, {} dac transmit has been requested from {}",
-                                            group, otherId);
-                                    state.addRequestedTransmitter(group);
-                                    numRequested++;
-                                    numAllowedToTake--;
-                                }
-                            } else {
-                                if (this.loadBalanceDisabledTimeSent != null
-                                        && (System.currentTimeMillis() > this.loadBalanceDisabledTimeSent
-                                                .longValue()
-                                                + BALANCE_DISABLED_INTERVAL)) {
-                                    synchronized (this.lockedLoadBalanceTransmitters) {
-                                        this.lockedLoadBalanceTransmitters
-                                                .clear();
-                                    }
-                                    logger.info(
-                                            "Restoring the load balancing capability. The maximum allowed amount of time has passed: {}.",
-                                            TimeUtil.prettyDuration(BALANCE_DISABLED_INTERVAL));
-                                    /*
-                                     * Reset the load balancing clock.
-                                     */
-                                    this.loadBalanceDisabledTimeSent = null;
-                                } else {
-                                    logger.warn(
-                                            "Unable to load balance with {}, all transmitters are unavailable for balancing",
-                                            otherId);
-                                    if (this.balanceDisabledAlarm != null) {
-                                        synchronized (this.lockedLoadBalanceTransmitters) {
-                                            this.balanceDisabledAlarm
-                                                    .alarm(new ArrayList<>(
-                                                            this.lockedLoadBalanceTransmitters),
-                                                            BALANCE_DISABLED_INTERVAL);
-                                        }
-                                    }
-
-                                    this.loadBalanceDisabledTimeSent = System
-                                            .currentTimeMillis();
-                                }
-                            }
-                        }
-                    }
+                List<String> available = new ArrayList<>(candidates);
+                synchronized (this.lockedLoadBalanceTransmitters) {
+                    available.removeAll(this.lockedLoadBalanceTransmitters);
+                }
+                synchronized (this.unavailableLoadBalanceCandidates) {
+                    available.removeAll(this.unavailableLoadBalanceCandidates);
+                }
 
-                    if (state.hasRequestedTransmitter()) {
-                        sendStateToAll();
+                if (available.isEmpty()) {
+                    balanceUnavailable(candidates);
+                    return;
+                }
+
+                int numRequested = 0;
+                for (String group : available) {
+                    if (numRequested >= MAX_BALANCE_MOVES) {
+                        break;
                     }
+                    logger.info(
+                            "To balance the load, {} dac transmit has been requested from {}",
+                            group, owners.get(group));
+                    state.addRequestedTransmitter(group);
+                    numRequested++;
                 }
+                lastBalanceRequestTime = currentTime;
+                sendStateToAll();
             } else if (pendingRequest && (failedRequests.isEmpty() == false)) {
                 for (String transmitter : failedRequests) {
                     FailedDacTransmitMetadata metadata = this.failedLoadBalanceTransmitters
@@ -631,6 +912,74 @@ public class ClusterServer extends AbstractServer {
         }
     }
 
+    /**
+     * Called when transmitters should move to this host to balance the load
+     * but all of them are locked or part of a live broadcast. Alerts the user
+     * and if load balancing has been disabled for too long then the locks are
+     * cleared.
+     */
+    private void balanceUnavailable(List<String> candidates) {
+        if (this.loadBalanceDisabledTimeSent != null
+                && (System.currentTimeMillis() > this.loadBalanceDisabledTimeSent
+                        .longValue() + BALANCE_DISABLED_INTERVAL)) {
+            synchronized (this.lockedLoadBalanceTransmitters) {
+                this.lockedLoadBalanceTransmitters.clear();
+            }
+            logger.info(
+                    "Restoring the load balancing capability. The maximum allowed amount of time has passed: {}.",
+                    TimeUtil.prettyDuration(BALANCE_DISABLED_INTERVAL));
+            /*
+             * Reset the load balancing clock.
+             */
+            this.loadBalanceDisabledTimeSent = null;
+        } else {
+            logger.warn(
+                    "Unable to load balance, all transmitters are unavailable for balancing: {}",
+                    candidates);
+            if (this.balanceDisabledAlarm != null) {
+                synchronized (this.lockedLoadBalanceTransmitters) {
+                    this.balanceDisabledAlarm.alarm(new ArrayList<>(
+                            this.lockedLoadBalanceTransmitters),
+                            BALANCE_DISABLED_INTERVAL);
+                }
+            }
+
+            this.loadBalanceDisabledTimeSent = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return the weight published by a cluster member or the configured
+     *         capacity of the member if it has not published one.
+     */
+    private double getWeight(ClusterCommunicator communicator) {
+        double weight = communicator.getWeight();
+        if (weight > 0) {
+            return weight;
+        }
+        Double capacity = hostCapacities.get(communicator.getClusterId());
+        return capacity == null ? ClusterLoadBalancer.DEFAULT_WEIGHT
+                : capacity;
+    }
+
+    /**
+     * Combine the configured capacity of this host with the filtered system
+     * load to determine the weight to publish to the cluster.
+     */
+    private double calculateLocalWeight() {
+        Double capacity = hostCapacities.get(localIp);
+        if (capacity == null) {
+            capacity = ClusterLoadBalancer.DEFAULT_WEIGHT;
+        }
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        double load = os.getSystemLoadAverage();
+        if (load > 0) {
+            load /= os.getAvailableProcessors();
+        }
+        return ClusterLoadBalancer.calculateWeight(capacity,
+                loadFilter.update(load, System.currentTimeMillis()));
+    }
+
     /**
      * Tells the cluster members that a new config was read.
      */
@@ -649,7 +998,7 @@ public class ClusterServer extends AbstractServer {
      *            configuration.
      */
     public void reconfigure(Set<String> activeDacTransmits) {
-        totalDacTransmits = activeDacTransmits.size();
+        dacTransmits = new HashSet<>(activeDacTransmits);
 
         synchronized (state) {
             if (state.hasRequestedTransmitter()) {
@@ -20,8 +20,10 @@
 package com.raytheon.bmh.comms.cluster;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import com.raytheon.uf.common.serialization.annotations.DynamicSerialize;
 import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
@@ -43,6 +45,7 @@ import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
  * Aug 19, 2015  4764     bkowal      Added a copy constructor.
  * Oct 23, 2015  5029     rjpeter     Fix NPE when state is null.
  * Oct 28, 2015  5029     rjpeter     Allow multiple dac transmits to be requested.
+ * Oct 18, 2026           agent       Added fencing tokens.
  * </pre>
  * 
  * @author bsteffen
@@ -57,6 +60,15 @@ public class ClusterStateMessage {
     @DynamicSerializeElement
     private List<String> requestedTransmitters = null;
 
+    /*
+     * Fencing token for each connected transmitter. Whenever a member takes
+     * control of a dac it uses a token greater than any it has seen for that
+     * transmitter so if two members ever drive the same dac the one with the
+     * lower token knows to stop.
+     */
+    @DynamicSerializeElement
+    private Map<String, Long> fencingTokens = new HashMap<>();
+
     public ClusterStateMessage() {
     }
 
@@ -65,6 +77,9 @@ public class ClusterStateMessage {
             this.connectedTransmitters = new ArrayList<>(
                     state.getConnectedTransmitters());
             this.requestedTransmitters = state.getRequestedTransmitters();
+            if (state.getFencingTokens() != null) {
+                this.fencingTokens = new HashMap<>(state.getFencingTokens());
+            }
         }
     }
 
@@ -72,10 +87,29 @@ public class ClusterStateMessage {
         this.connectedTransmitters.add(transmitterGroup);
     }
 
+    public void add(String transmitterGroup, long fencingToken) {
+        add(transmitterGroup);
+        this.fencingTokens.put(transmitterGroup, fencingToken);
+    }
+
     public boolean remove(String transmitterGroup) {
+        fencingTokens.remove(transmitterGroup);
         return connectedTransmitters.remove(transmitterGroup);
     }
 
+    /**
+     * @return the fencing token of a connected transmitter, 0 if the
+     *         transmitter is not connected or the sender does not use fencing
+     *         tokens.
+     */
+    public long getFencingToken(String transmitterGroup) {
+        if (fencingTokens == null) {
+            return 0;
+        }
+        Long token = fencingTokens.get(transmitterGroup);
+        return token == null ? 0 : token;
+    }
+
     public boolean contains(String transmitterGroup) {
         return this.connectedTransmitters.contains(transmitterGroup);
     }
@@ -105,6 +139,21 @@ public class ClusterStateMessage {
         this.connectedTransmitters = connectedTransmitters;
     }
 
+    /**
+     * @return the fencingTokens
+     */
+    public Map<String, Long> getFencingTokens() {
+        return fencingTokens;
+    }
+
+    /**
+     * @param fencingTokens
+     *            the fencingTokens to set
+     */
+    public void setFencingTokens(Map<String, Long> fencingTokens) {
+        this.fencingTokens = fencingTokens;
+    }
+
     /**
      * @return the requestedTransmitters
      */
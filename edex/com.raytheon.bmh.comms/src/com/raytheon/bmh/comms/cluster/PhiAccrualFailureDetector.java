@@ -0,0 +1,188 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.comms.cluster;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 
+ * Phi accrual failure detector for a single cluster member. Rather than a
+ * fixed timeout, the inter-arrival times of heartbeats are assumed to be
+ * normally distributed and the detector reports how unlikely it is that the
+ * next heartbeat is merely late, expressed as phi = -log10(P(late)). A phi of
+ * 1 means there is a 10% chance that the member is still alive, 2 means 1%,
+ * 3 means 0.1% and so on. Because the distribution is learned from the actual
+ * heartbeats a member that is slow to send them is not suspected as quickly as
+ * one that is normally punctual.
+ * 
+ * All times are supplied by the caller so the detector can be driven by a
+ * recorded trace as easily as by the system clock.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * Oct 18, 2026           agent       First estimate matches the heartbeat interval.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class PhiAccrualFailureDetector {
+
+    /**
+     * The number of heartbeat intervals used to estimate the distribution.
+     */
+    private static final int MAX_SAMPLE_SIZE = Integer.getInteger(
+            "ClusterHeartbeatSampleSize", 200);
+
+    /**
+     * Lower bound on the standard deviation(in ms) so that very regular
+     * heartbeats do not make the detector overly sensitive.
+     */
+    private static final long MIN_STD_DEVIATION = Long.getLong(
+            "ClusterHeartbeatMinStdDeviation", 2000);
+
+    /**
+     * Additional time(in ms) a heartbeat may be late without raising
+     * suspicion, covers garbage collection and other short pauses.
+     */
+    private static final long ACCEPTABLE_HEARTBEAT_PAUSE = Long.getLong(
+            "ClusterHeartbeatAcceptablePause", 15000);
+
+    /**
+     * Expected interval(in ms) between heartbeats before any have been
+     * received, matches the default ClusterHeartbeatInterval.
+     */
+    private static final long FIRST_HEARTBEAT_ESTIMATE = Long.getLong(
+            "ClusterHeartbeatFirstEstimate", 10000);
+
+    private final int maxSampleSize;
+
+    private final long minStdDeviation;
+
+    private final long acceptableHeartbeatPause;
+
+    private final Deque<Long> intervals = new ArrayDeque<>();
+
+    private double intervalSum = 0;
+
+    private double squaredIntervalSum = 0;
+
+    private long lastHeartbeat;
+
+    /**
+     * Create a detector using the configured defaults.
+     * 
+     * @param startTime
+     *            the time the member connected, this is treated as the first
+     *            heartbeat.
+     */
+    public PhiAccrualFailureDetector(long startTime) {
+        this(startTime, MAX_SAMPLE_SIZE, MIN_STD_DEVIATION,
+                ACCEPTABLE_HEARTBEAT_PAUSE, FIRST_HEARTBEAT_ESTIMATE);
+    }
+
+    public PhiAccrualFailureDetector(long startTime, int maxSampleSize,
+            long minStdDeviation, long acceptableHeartbeatPause,
+            long firstHeartbeatEstimate) {
+        if (maxSampleSize < 2) {
+            throw new IllegalArgumentException(
+                    "Sample size must be at least 2: " + maxSampleSize);
+        }
+        this.maxSampleSize = maxSampleSize;
+        this.minStdDeviation = Math.max(1, minStdDeviation);
+        this.acceptableHeartbeatPause = acceptableHeartbeatPause;
+        this.lastHeartbeat = startTime;
+        /*
+         * Seed the distribution with a mean of the first estimate and a
+         * standard deviation of a quarter of that.
+         */
+        long deviation = firstHeartbeatEstimate / 4;
+        addInterval(firstHeartbeatEstimate - deviation);
+        addInterval(firstHeartbeatEstimate + deviation);
+    }
+
+    /**
+     * Record the arrival of a heartbeat.
+     */
+    public synchronized void heartbeat(long timestamp) {
+        long interval = timestamp - lastHeartbeat;
+        if (interval < 0) {
+            /* out of order, nothing learned */
+            return;
+        }
+        lastHeartbeat = timestamp;
+        addInterval(interval);
+    }
+
+    private void addInterval(long interval) {
+        if (intervals.size() >= maxSampleSize) {
+            long dropped = intervals.removeFirst();
+            intervalSum -= dropped;
+            squaredIntervalSum -= (double) dropped * dropped;
+        }
+        intervals.addLast(interval);
+        intervalSum += interval;
+        squaredIntervalSum += (double) interval * interval;
+    }
+
+    /**
+     * Calculate the current suspicion level of the member.
+     * 
+     * @param timestamp
+     *            the current time.
+     * @return phi, 0 when a heartbeat has just arrived and growing without
+     *         bound as the next heartbeat becomes more overdue.
+     */
+    public synchronized double phi(long timestamp) {
+        long elapsed = timestamp - lastHeartbeat;
+        int size = intervals.size();
+        double mean = intervalSum / size;
+        double variance = Math.max(0, (squaredIntervalSum / size)
+                - (mean * mean));
+        double stdDeviation = Math.max(Math.sqrt(variance), minStdDeviation);
+        return phi(elapsed, mean + acceptableHeartbeatPause, stdDeviation);
+    }
+
+    /**
+     * -log10 of the probability that a normally distributed interval is
+     * longer than elapsed, using a logistic approximation of the normal
+     * cumulative distribution that stays accurate far into the tail.
+     */
+    private static double phi(double elapsed, double mean, double stdDeviation) {
+        double y = (elapsed - mean) / stdDeviation;
+        double e = Math.exp(-y * (1.5976 + (0.070566 * y * y)));
+        if (elapsed > mean) {
+            return -Math.log10(e / (1.0 + e));
+        } else {
+            return -Math.log10(1.0 - (1.0 / (1.0 + e)));
+        }
+    }
+
+    public synchronized long getLastHeartbeat() {
+        return lastHeartbeat;
+    }
+}
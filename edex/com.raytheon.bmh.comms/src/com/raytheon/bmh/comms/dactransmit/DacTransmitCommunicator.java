@@ -33,12 +33,15 @@ import com.raytheon.bmh.comms.broadcast.PriorityBroadcastMsgInitFailedAlarm;
 import com.raytheon.bmh.comms.broadcast.SAMEDurationTruncatedAlarm;
 import com.raytheon.bmh.comms.broadcast.WtchOrWrnNotBroadcastAlarm;
 import com.raytheon.bmh.dactransmit.ipc.ChangeAmplitudeTarget;
+import com.raytheon.bmh.dactransmit.ipc.ChangeProtocolVersion;
 import com.raytheon.bmh.dactransmit.ipc.ChangeTimeZone;
 import com.raytheon.bmh.dactransmit.ipc.ChangeTransmitters;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitCriticalError;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitScanPlaylists;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitShutdown;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitStatus;
+import com.raytheon.bmh.dactransmit.ipc.FramedMessageReader;
+import com.raytheon.bmh.dactransmit.ipc.FramedMessageWriter;
 import com.raytheon.uf.common.bmh.broadcast.ILiveBroadcastMessage;
 import com.raytheon.uf.common.bmh.comms.SendPlaylistMessage;
 import com.raytheon.uf.common.bmh.comms.SendPlaylistResponse;
@@ -54,7 +57,9 @@ import com.raytheon.uf.common.bmh.notify.NoPlaybackMessageNotification;
 import com.raytheon.uf.common.bmh.notify.PlaylistNotification;
 import com.raytheon.uf.common.bmh.notify.SAMEMessageTruncatedNotification;
 import com.raytheon.uf.common.bmh.notify.status.DacHardwareStatusNotification;
+import com.raytheon.uf.common.bmh.stats.DacPacketJitterEvent;
 import com.raytheon.uf.common.bmh.stats.DeliveryTimeEvent;
+import com.raytheon.uf.common.bmh.stats.LiveBroadcastAudioLatencyEvent;
 import com.raytheon.uf.common.bmh.stats.LiveBroadcastLatencyEvent;
 import com.raytheon.uf.common.serialization.SerializationUtil;
 
@@ -109,6 +114,9 @@ import com.raytheon.uf.common.serialization.SerializationUtil;
  * Feb 04, 2016  5308     rjpeter     Handle SendPlaylistMessage.
  * Mar 14, 2016  5472     rjpeter     Handle SendPlaylistResponse.
  * Apr 26, 2016  5561     bkowal      Handle {@link BroadcastMsgInitFailedNotification}.
+ * Oct 17, 2026            agent       Handle {@link DacPacketJitterEvent}.
+ * Oct 18, 2026            agent       Switch to framed messages when supported by dac transmit.
+ * Oct 18, 2026            agent       Handle {@link LiveBroadcastAudioLatencyEvent}.
  * </pre>
  * 
  * @author bsteffen
@@ -140,6 +148,18 @@ public class DacTransmitCommunicator extends Thread {
 
     private volatile boolean disconnected = false;
 
+    /**
+     * The protocol version advertised by the dac transmit process in its
+     * registration.
+     */
+    private final int protocolVersion;
+
+    /**
+     * Used for all messages once the switch to framed messages has been sent,
+     * guarded by {@link #sendLock}.
+     */
+    private FramedMessageWriter framedWriter;
+
     private static final BroadcastDelayAlarm broadcastDelayAlarm = new BroadcastDelayAlarm();
 
     private final SAMEDurationTruncatedAlarm sameDurationTruncatedAlarm = new SAMEDurationTruncatedAlarm();
@@ -152,7 +172,7 @@ public class DacTransmitCommunicator extends Thread {
 
     public DacTransmitCommunicator(CommsManager manager, String groupName,
             int[] radios, Socket socket, short audioAmplitude,
-            short sameAmplitude, short alertAmplitude) {
+            short sameAmplitude, short alertAmplitude, int protocolVersion) {
         super("DacTransmitCommunicator-" + groupName);
         this.manager = manager;
         this.groupName = groupName;
@@ -162,6 +182,7 @@ public class DacTransmitCommunicator extends Thread {
         this.audioAmplitude = audioAmplitude;
         this.sameAmplitude = sameAmplitude;
         this.alertAmplitude = alertAmplitude;
+        this.protocolVersion = protocolVersion;
     }
 
     public String getGroupName() {
@@ -171,12 +192,30 @@ public class DacTransmitCommunicator extends Thread {
     @Override
     public void run() {
         manager.dacTransmitConnected(groupName);
+        if (protocolVersion >= ChangeProtocolVersion.FRAMED) {
+            switchToFramedWriter();
+        }
+        FramedMessageReader framedReader = null;
         try {
             while (!socket.isClosed()) {
                 try {
-                    Object message = SerializationUtil.transformFromThrift(
-                            Object.class, socket.getInputStream());
-                    handleMessage(message);
+                    Object message = null;
+                    if (framedReader == null) {
+                        message = SerializationUtil.transformFromThrift(
+                                Object.class, socket.getInputStream());
+                    } else {
+                        message = framedReader.read();
+                    }
+                    if (message instanceof ChangeProtocolVersion) {
+                        /*
+                         * Everything after the switch from dac transmit is
+                         * framed.
+                         */
+                        framedReader = new FramedMessageReader(
+                                socket.getInputStream());
+                    } else {
+                        handleMessage(message);
+                    }
                 } catch (Throwable e) {
                     logger.error("Error reading message from DacTransmit: {}",
                             groupName, e);
@@ -241,6 +280,14 @@ public class DacTransmitCommunicator extends Thread {
             LiveBroadcastLatencyEvent event = (LiveBroadcastLatencyEvent) message;
             event.setTransmitterGroup(this.groupName);
             manager.transmitBMHStat(event);
+        } else if (message instanceof DacPacketJitterEvent) {
+            DacPacketJitterEvent event = (DacPacketJitterEvent) message;
+            event.setTransmitterGroup(this.groupName);
+            manager.transmitBMHStat(event);
+        } else if (message instanceof LiveBroadcastAudioLatencyEvent) {
+            LiveBroadcastAudioLatencyEvent event = (LiveBroadcastAudioLatencyEvent) message;
+            event.setTransmitterGroup(this.groupName);
+            manager.transmitBMHStat(event);
         } else if (message instanceof DeliveryTimeEvent) {
             DeliveryTimeEvent event = (DeliveryTimeEvent) message;
             event.setTransmitterGroup(this.groupName);
@@ -353,11 +400,34 @@ public class DacTransmitCommunicator extends Thread {
         send(new DacTransmitScanPlaylists(!active));
     }
 
-    private void send(Object toSend) {
+    /**
+     * Tell dac transmit that all following messages will be framed, dac
+     * transmit replies with the same message once its messages are framed.
+     */
+    private void switchToFramedWriter() {
         synchronized (sendLock) {
             try {
-                SerializationUtil.transformToThriftUsingStream(toSend,
+                SerializationUtil.transformToThriftUsingStream(
+                        new ChangeProtocolVersion(ChangeProtocolVersion.FRAMED),
                         socket.getOutputStream());
+                framedWriter = new FramedMessageWriter(socket.getOutputStream());
+            } catch (Throwable e) {
+                logger.error("Error communicating with DacTransmit: {}",
+                        groupName, e);
+                disconnect();
+            }
+        }
+    }
+
+    private void send(Object toSend) {
+        synchronized (sendLock) {
+            try {
+                if (framedWriter == null) {
+                    SerializationUtil.transformToThriftUsingStream(toSend,
+                            socket.getOutputStream());
+                } else {
+                    framedWriter.write(toSend);
+                }
             } catch (Throwable e) {
                 logger.error("Error communicating with DacTransmit: {}",
                         groupName, e);
@@ -84,6 +84,8 @@ import com.raytheon.uf.edex.bmh.comms.DacConfig;
  * Dec 15, 2015  5114     rjpeter     Updated SocketListener to use a ThreadPool.
  * Jan 07, 2016  4997     bkowal      dactransmit is no longer a uf edex plugin.
  * Feb 04, 2016  5308     rjpeter     Handle SendPlaylistMessage.
+ * Oct 18, 2026           agent       Pass the registered protocol version to the communicator.
+ * Oct 18, 2026           agent       Added dacFenced.
  * </pre>
  * 
  * @author bsteffen
@@ -336,6 +338,16 @@ public class DacTransmitServer extends AbstractServer {
         }
     }
 
+    public void dacFenced(final String transmitterGroup) {
+        List<DacTransmitCommunicator> communicators = this.communicators
+                .get(transmitterGroup);
+        if (communicators != null) {
+            for (DacTransmitCommunicator communicator : communicators) {
+                communicator.shutdown(true);
+            }
+        }
+    }
+
     /**
      * This method should be called from the comms manager when the connection
      * with a dac transmit has been lost.
@@ -414,7 +426,7 @@ public class DacTransmitServer extends AbstractServer {
         DacTransmitCommunicator comms = new DacTransmitCommunicator(manager,
                 group, message.getTransmitters(), socket,
                 message.getAudioAmplitude(), message.getSameAmplitude(),
-                message.getAlertAmplitude());
+                message.getAlertAmplitude(), message.getProtocolVersion());
         List<DacTransmitCommunicator> communicators = this.communicators
                 .get(group);
         if (communicators == null) {
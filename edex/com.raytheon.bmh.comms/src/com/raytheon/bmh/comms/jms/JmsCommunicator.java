@@ -19,12 +19,17 @@
  **/
 package com.raytheon.bmh.comms.jms;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.jms.BytesMessage;
 import javax.jms.DeliveryMode;
@@ -44,6 +49,8 @@ import com.raytheon.bmh.comms.CommsManager;
 import com.raytheon.bmh.comms.dactransmit.DacTransmitServer;
 import com.raytheon.bmh.comms.logging.JmsStatusMessageAppender;
 import com.raytheon.uf.common.bmh.datamodel.playlist.PlaylistUpdateNotification;
+import com.raytheon.uf.common.bmh.notify.status.DacHardwareStatusNotification;
+import com.raytheon.uf.common.bmh.notify.status.PeriodicStatusMessage;
 import com.raytheon.uf.common.jms.JmsSslConfiguration;
 import com.raytheon.uf.common.jms.notification.JmsNotificationManager;
 import com.raytheon.uf.common.message.StatusMessage;
@@ -76,6 +83,8 @@ import com.raytheon.uf.edex.bmh.comms.CommsConfig;
  * Dec 21, 2015  5218     rjpeter     Added SendThread.
  * Jan 21, 2015  5276     rjpeter     Reconnect to QPID after disconnect.
  * Feb 02, 2017  6085     bsteffen    Enable ssl in the JMS connection.
+ * Oct 18, 2026           agent       Coalesce status messages, batch statistics and serialize on
+ *                                    the SendThread.
  *
  * </pre>
  * 
@@ -90,6 +99,15 @@ public class JmsCommunicator extends JmsNotificationManager {
 
     private static final int RETRY_LIMIT = 5;
 
+    /**
+     * The amount of time (in ms) that status messages which can be superseded
+     * and statistics are held before they are sent. Only the latest status
+     * message for each dac or host is sent and all statistics are sent in a
+     * single message. A value of 0 sends everything immediately.
+     */
+    private static final int COALESCE_WINDOW = Integer.getInteger(
+            "JmsCoalesceWindow", 1000);
+
     private final Set<PlaylistNotificationObserver> playlistObservers = new HashSet<>();
 
     private final boolean operational;
@@ -136,7 +154,7 @@ public class JmsCommunicator extends JmsNotificationManager {
         if (!this.operational) {
             return;
         }
-        sendThread.enqueue(bmhStatisticTopic, event);
+        sendThread.enqueueBatched(bmhStatisticTopic, event);
     }
 
     public void sendStatusMessage(StatusMessage message) {
@@ -175,6 +193,22 @@ public class JmsCommunicator extends JmsNotificationManager {
         sendThread.disconnect();
     }
 
+    /**
+     * @return the number of status messages that were not sent because a
+     *         newer status replaced them
+     */
+    public long getCoalescedMessageCount() {
+        return sendThread.coalescedCount.get();
+    }
+
+    /**
+     * @return the number of messages that were dropped because the queue was
+     *         full or they could not be delivered
+     */
+    public long getDroppedMessageCount() {
+        return sendThread.droppedCount.get();
+    }
+
     public void listenForPlaylistChanges(String group,
             DacTransmitServer server) {
         String topic = PlaylistUpdateNotification.getTopicName(operational);
@@ -219,13 +253,15 @@ public class JmsCommunicator extends JmsNotificationManager {
     private class MessageWrapper {
         private final String topicName;
 
-        private final byte[] data;
+        private final Object payload;
+
+        private byte[] data;
 
         private int attempts = 0;
 
-        public MessageWrapper(String topicName, byte[] data) {
+        public MessageWrapper(String topicName, Object payload) {
             this.topicName = topicName;
-            this.data = data;
+            this.payload = payload;
         }
     }
 
@@ -233,9 +269,11 @@ public class JmsCommunicator extends JmsNotificationManager {
      * Class for holding the {@link Session} and {@link MessageProducer}
      * associated with a producer. This also provides the option to have a queue
      * of messages that will be sent later if there is a temporary
-     * communications problem.
+     * communications problem. Messages are serialized on this thread.
      */
     private class SendThread extends Thread {
+        private final int queueSize;
+
         private final BlockingDeque<MessageWrapper> unsent;
 
         private Session session;
@@ -246,36 +284,145 @@ public class JmsCommunicator extends JmsNotificationManager {
 
         private final Object connectionLock = new Object();
 
+        /**
+         * Status messages waiting for the end of the coalesce window, keyed by
+         * topic and {@link #getCoalesceKey(Object)}.
+         */
+        private final Map<String, MessageWrapper> coalesced = new LinkedHashMap<>();
+
+        /**
+         * Messages that will be sent as a single list at the end of the
+         * coalesce window, keyed by topic.
+         */
+        private final Map<String, List<Object>> batched = new HashMap<>();
+
+        private final Object pendingLock = new Object();
+
+        private final AtomicLong coalescedCount = new AtomicLong();
+
+        private final AtomicLong droppedCount = new AtomicLong();
+
         public SendThread(int queueSize) {
             super("JmsMessageSender");
+            this.queueSize = queueSize;
             unsent = new LinkedBlockingDeque<>(queueSize);
         }
 
         public void enqueue(String topic, Object obj) {
-            try {
-                MessageWrapper message = new MessageWrapper(topic,
-                        SerializationUtil.transformToThrift(obj));
-
-                /*
-                 * If too many messages are queued up drop the oldest message.
-                 */
-                while (!unsent.offerLast(message)) {
-                    unsent.pollFirst();
+            String key = getCoalesceKey(obj);
+            if ((key == null) || (COALESCE_WINDOW <= 0)) {
+                offer(new MessageWrapper(topic, obj));
+                return;
+            }
+
+            synchronized (pendingLock) {
+                MessageWrapper previous = coalesced.put(topic + key,
+                        new MessageWrapper(topic, obj));
+                if (previous != null) {
+                    coalescedCount.incrementAndGet();
+                    mergeSuperseded(previous.payload, obj);
+                }
+            }
+        }
+
+        public void enqueueBatched(String topic, Object obj) {
+            if (COALESCE_WINDOW <= 0) {
+                offer(new MessageWrapper(topic, obj));
+                return;
+            }
+
+            synchronized (pendingLock) {
+                List<Object> batch = batched.get(topic);
+                if (batch == null) {
+                    batch = new ArrayList<>();
+                    batched.put(topic, batch);
+                }
+                if (batch.size() >= queueSize) {
+                    batch.remove(0);
+                    droppedCount.incrementAndGet();
                 }
-            } catch (SerializationException e) {
-                logger.error("Error serializing message {} to topic {}", obj,
-                        topic, e);
+                batch.add(obj);
+            }
+        }
+
+        private void offer(MessageWrapper message) {
+            /*
+             * If too many messages are queued up drop the oldest message.
+             */
+            while (!unsent.offerLast(message)) {
+                if (unsent.pollFirst() != null) {
+                    droppedCount.incrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * Moves all coalesced and batched messages to the send queue.
+         */
+        private void flushPending() {
+            List<MessageWrapper> messages;
+            synchronized (pendingLock) {
+                if (coalesced.isEmpty() && batched.isEmpty()) {
+                    return;
+                }
+                messages = new ArrayList<>(coalesced.values());
+                coalesced.clear();
+                for (Map.Entry<String, List<Object>> entry : batched
+                        .entrySet()) {
+                    List<Object> batch = entry.getValue();
+                    if (batch.size() == 1) {
+                        messages.add(new MessageWrapper(entry.getKey(), batch
+                                .get(0)));
+                    } else if (!batch.isEmpty()) {
+                        messages.add(new MessageWrapper(entry.getKey(),
+                                new ArrayList<>(batch)));
+                    }
+                }
+                batched.clear();
+            }
+            for (MessageWrapper message : messages) {
+                offer(message);
             }
         }
 
         @Override
         public void run() {
+            long nextFlushTime = System.currentTimeMillis()
+                    + COALESCE_WINDOW;
             while (continueRunning) {
                 boolean messageProcessed = false;
                 MessageWrapper message = null;
 
                 try {
-                    message = unsent.take();
+                    if (COALESCE_WINDOW > 0) {
+                        long currentTime = System.currentTimeMillis();
+                        if (currentTime >= nextFlushTime) {
+                            flushPending();
+                            nextFlushTime = currentTime + COALESCE_WINDOW;
+                        }
+                        message = unsent.poll(nextFlushTime - currentTime,
+                                TimeUnit.MILLISECONDS);
+                        if (message == null) {
+                            continue;
+                        }
+                    } else {
+                        message = unsent.take();
+                    }
+
+                    if (message.data == null) {
+                        try {
+                            message.data = SerializationUtil
+                                    .transformToThrift(message.payload);
+                        } catch (SerializationException e) {
+                            logger.error(
+                                    "Error serializing message {} to topic {}",
+                                    message.payload, message.topicName, e);
+                            droppedCount.incrementAndGet();
+                            message = null;
+                            continue;
+                        }
+                    }
+
                     MessageProducer producer = null;
                     BytesMessage m = null;
 
@@ -330,9 +477,11 @@ public class JmsCommunicator extends JmsNotificationManager {
                             logger.warn(
                                     "Message for topic {} failed to deliver {} times, dropping message",
                                     message.topicName, message.attempts);
+                            droppedCount.incrementAndGet();
                         } else if (!unsent.offerFirst(message)) {
                             logger.warn(
                                     "Internal message queue is full, dropping message");
+                            droppedCount.incrementAndGet();
                         }
                     }
 
@@ -341,6 +490,41 @@ public class JmsCommunicator extends JmsNotificationManager {
 
         }
 
+        /**
+         * @return the key that identifies the messages which are superseded
+         *         by the specified message, or null if it must always be sent
+         */
+        private String getCoalesceKey(Object obj) {
+            if (obj instanceof DacHardwareStatusNotification) {
+                return DacHardwareStatusNotification.class.getSimpleName()
+                        + ((DacHardwareStatusNotification) obj)
+                                .getTransmitterGroup();
+            } else if (obj instanceof PeriodicStatusMessage) {
+                return obj.getClass().getSimpleName()
+                        + ((PeriodicStatusMessage) obj).getHost();
+            }
+            return null;
+        }
+
+        /**
+         * The packet error counts of a {@link DacHardwareStatusNotification}
+         * only cover the interval since the previous status so they are
+         * carried forward when a status is superseded.
+         */
+        private void mergeSuperseded(Object previous, Object latest) {
+            if (previous instanceof DacHardwareStatusNotification
+                    && latest instanceof DacHardwareStatusNotification) {
+                DacHardwareStatusNotification previousStatus = (DacHardwareStatusNotification) previous;
+                DacHardwareStatusNotification latestStatus = (DacHardwareStatusNotification) latest;
+                latestStatus.setRecoverablePacketErrors(latestStatus
+                        .getRecoverablePacketErrors()
+                        + previousStatus.getRecoverablePacketErrors());
+                latestStatus.setUnrecoverablePacketErrors(latestStatus
+                        .getUnrecoverablePacketErrors()
+                        + previousStatus.getUnrecoverablePacketErrors());
+            }
+        }
+
         public void wake() {
             synchronized (connectionLock) {
                 connectionLock.notify();
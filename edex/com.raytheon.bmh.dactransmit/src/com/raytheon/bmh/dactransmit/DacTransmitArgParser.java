@@ -32,6 +32,7 @@ import org.apache.commons.cli.ParseException;
 
 import com.raytheon.bmh.dactransmit.dacsession.AbstractDacConfig;
 import com.raytheon.bmh.dactransmit.dacsession.DacCommonConfig;
+import com.raytheon.bmh.dactransmit.dacsession.DacFencingToken;
 import com.raytheon.bmh.dactransmit.dacsession.DacSessionConfig;
 import com.raytheon.uf.common.bmh.audio.SAMEPaddingConfiguration;
 
@@ -61,6 +62,7 @@ import com.raytheon.uf.common.bmh.audio.SAMEPaddingConfiguration;
  * Jul 08, 2015  #4636     bkowal      Support same and alert decibel levels.
  * Nov 04, 2015  #5068     rjpeter     Switch audio units from dB to amplitude.
  * Sep 30, 2016 5912       bkowal      Construction now requires {@link SAMEPaddingConfiguration}.
+ * Oct 18, 2026            agent       Added fencing token argument.
  * </pre>
  * 
  * @author dgilling
@@ -72,6 +74,8 @@ public final class DacTransmitArgParser extends AbstractDacArgParser {
 
     public static final char TIMEZONE_KEY = 'z';
 
+    public static final char FENCING_TOKEN_KEY = 'f';
+
     public static final String SAME_AMPLITUDE_TARGET_KEY = TRANSMISSION_AMPLITUDE_TARGET_KEY
             + "s";
 
@@ -107,12 +111,17 @@ public final class DacTransmitArgParser extends AbstractDacArgParser {
                 .hasArg().withArgName("alert amplitude").withType(Short.class)
                 .create(ALERT_AMPLITUDE_TARGET_KEY);
         alertDbTarget.setRequired(true);
+        Option fencingToken = OptionBuilder
+                .withDescription(
+                        "The claim on the dac written to the playlist directory by the comms manager.")
+                .hasArg().withArgName("token").create(FENCING_TOKEN_KEY);
 
         List<Option> options = new ArrayList<>();
         options.add(inputDirectory);
         options.add(timezone);
         options.add(sameDbTarget);
         options.add(alertDbTarget);
+        options.add(fencingToken);
 
         return options;
     }
@@ -149,7 +158,20 @@ public final class DacTransmitArgParser extends AbstractDacArgParser {
         short alertAmplitude = Short.parseShort(cmd
                 .getOptionValue(ALERT_AMPLITUDE_TARGET_KEY));
 
+        DacFencingToken fencingToken = null;
+        String fencingTokenStr = cmd.getOptionValue(FENCING_TOKEN_KEY, null);
+        if (fencingTokenStr != null) {
+            try {
+                fencingToken = DacFencingToken.valueOf(fencingTokenStr);
+            } catch (IllegalArgumentException e) {
+                throw new ParseException(
+                        "An invalid fencing token has been specified for the -f option: "
+                                + fencingTokenStr + ".");
+            }
+        }
+
         return new DacSessionConfig(commonConfig, inputDirectory, timeZone,
-                sameAmplitude, alertAmplitude, samePaddingConfiguration);
+                sameAmplitude, alertAmplitude, samePaddingConfiguration,
+                fencingToken);
     }
 }
\ No newline at end of file
@@ -25,6 +25,8 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,7 +40,8 @@ import com.raytheon.bmh.dactransmit.events.RegainSyncEvent;
 import com.raytheon.bmh.dactransmit.events.handlers.IDacStatusUpdateEventHandler;
 import com.raytheon.bmh.dactransmit.ipc.ChangeTransmitters;
 import com.raytheon.bmh.dactransmit.rtp.RtpPacketIn;
-import com.raytheon.bmh.dactransmit.rtp.RtpPacketInFactory;
+import com.raytheon.bmh.dactransmit.rtp.RtpPacketInEncoder;
+import com.raytheon.uf.common.bmh.stats.DacPacketJitterEvent;
 
 /**
  * Abstraction of the common functionality that is required to submit data to a
@@ -55,6 +58,13 @@ import com.raytheon.bmh.dactransmit.rtp.RtpPacketInFactory;
  * Jan 19, 2015 3912       bsteffen    Receive sync, status directly instead of subscribing.
  * Feb 06, 2015 4071       bsteffen    Consolidate threading.
  * Apr 16, 2015 4405       rjpeter     Update to have hasSync initialized.
+ * Oct 17, 2026            agent       Encode packets in place with a reusable
+ *                                     RtpPacketInEncoder and DatagramPacket.
+ * Oct 17, 2026            agent       Pace packets against nanosecond deadlines
+ *                                     using an IPacketClock, replace the stable
+ *                                     interval algorithm with a PI controller
+ *                                     and report packet jitter.
+ * Oct 18, 2026            agent       Validate transmitters before applying them.
  * </pre>
  * 
  * @author bkowal
@@ -69,6 +79,10 @@ public class AbstractTransmitThread extends Thread implements
     protected final boolean aggressivePacketInterval = Boolean
             .getBoolean("DacAggressivePacketInterval");
 
+    protected final IPacketClock packetClock = Boolean
+            .getBoolean("DacSleepPacketClock") ? new SleepPacketClock()
+            : new PrecisionPacketClock();
+
     protected final EventBus eventBus;
 
     protected final InetAddress address;
@@ -79,10 +93,34 @@ public class AbstractTransmitThread extends Thread implements
 
     protected final DatagramSocket socket;
 
-    protected RtpPacketIn previousPacket;
+    /**
+     * Encodes every packet sent by this thread, all packet buffers are reused
+     * to avoid generating garbage in the transmit loop.
+     */
+    protected final RtpPacketInEncoder packetEncoder;
+
+    private final DatagramPacket datagram;
+
+    /*
+     * Sequence number of the last packet sent, read by the status thread so it
+     * is tracked separately from the encoder, which is not thread safe.
+     */
+    private volatile long lastSequenceNumber = -1;
 
+    /**
+     * The current interval between packets, in nanoseconds.
+     */
     protected volatile long packetInterval;
 
+    private final PacketIntervalController intervalController = new PacketIntervalController();
+
+    private final PacketJitterTracker jitterTracker;
+
+    /*
+     * The time, according to packetClock, when the next packet should be sent.
+     */
+    private long nextPacketDeadline;
+
     protected int watermarkPackets;
 
     protected volatile boolean hasSync;
@@ -99,54 +137,114 @@ public class AbstractTransmitThread extends Thread implements
         this.port = port;
         this.transmitters = transmitters;
         this.socket = new DatagramSocket();
-        this.previousPacket = null;
-        this.packetInterval = DataTransmitConstants.INITIAL_CYCLE_TIME;
+        this.packetEncoder = new RtpPacketInEncoder(transmitters);
+        byte[] rawPacket = packetEncoder.getPacket();
+        this.datagram = new DatagramPacket(rawPacket, rawPacket.length,
+                address, port);
+        this.packetInterval = DataTransmitConstants.INITIAL_CYCLE_TIME_NANOS;
+        this.nextPacketDeadline = packetClock.nanoTime();
+        this.jitterTracker = new PacketJitterTracker(
+                DataTransmitConstants.JITTER_REPORT_INTERVAL_NANOS,
+                nextPacketDeadline);
         this.watermarkPackets = DataTransmitConstants.WATERMARK_PACKETS_IN_BUFFER;
         this.hasSync = hasSync;
         this.onSyncRestartMessage = false;
     }
 
     public Integer getLastSequenceNumber() {
-        if (previousPacket != null) {
-            return previousPacket.getSequenceNumber();
+        long sequenceNumber = lastSequenceNumber;
+        if (sequenceNumber >= 0) {
+            return (int) sequenceNumber;
         } else {
             return null;
         }
     }
 
-    protected RtpPacketIn buildRtpPacket(final RtpPacketIn previousPacket,
-            final byte[] nextPayload) {
-        RtpPacketInFactory factory = RtpPacketInFactory.getInstance();
-        if (previousPacket != null) {
-            factory.fromPacket(previousPacket, false)
-                    .setPreviousPayload(previousPacket.getCurrentPayload())
-                    .setCurrentPayload(nextPayload)
-                    .incrementSequenceNum(
-                            DataTransmitConstants.SEQUENCE_INCREMENT)
-                    .incrementTimestamp(
-                            DataTransmitConstants.TIMESTAMP_INCREMENT)
-                    .setTransmitters(transmitters);
-        } else {
-            factory = factory.setCurrentPayload(nextPayload)
-                    .setSequenceNumber(0).setTimestamp(0)
-                    .setTransmitters(transmitters);
-        }
+    /**
+     * Block until it is time to send the next packet.
+     * 
+     * @throws InterruptedException
+     */
+    protected void awaitNextPacket() throws InterruptedException {
+        packetClock.awaitDeadline(nextPacketDeadline);
+    }
 
-        return factory.create();
+    /**
+     * Start a new packet schedule, the next packet will be sent immediately.
+     * This should be called whenever transmission stops for reasons other than
+     * pacing, such as pausing or losing sync, so the delay is not reported as
+     * packet jitter.
+     */
+    protected void resetPacketSchedule() {
+        nextPacketDeadline = packetClock.nanoTime();
+        jitterTracker.skipNext();
     }
 
-    protected void sendPacket(final RtpPacketIn packet) {
+    /**
+     * Encode the payload that has been written into
+     * {@link RtpPacketInEncoder#getNextPayload()} and send it to the DAC. No
+     * objects are allocated unless an error occurs or jitter statistics are
+     * due.
+     */
+    protected void sendNextPacket() {
+        packetEncoder.encodeNext();
         try {
-            byte[] rawPacket = packet.encode();
-            DatagramPacket finalizedPacket = buildPacket(rawPacket);
-            socket.send(finalizedPacket);
+            socket.send(datagram);
         } catch (IOException e) {
             logger.error("Error sending RTP packet to DAC.", e);
         }
+        long sendTime = packetClock.nanoTime();
+        lastSequenceNumber = packetEncoder.getSequenceNumber() & 0xFFFFFFFFL;
+        jitterTracker.record(nextPacketDeadline, sendTime);
+        /*
+         * Never send before FAST_CYCLE_TIME because it increases the risk that
+         * packets will arrive out of order. Do not try to catch up if more than
+         * one packet behind, the control status thread will eventually adjust
+         * the rate more accurately based off the actual buffer levels.
+         */
+        nextPacketDeadline = Math.max(nextPacketDeadline + packetInterval,
+                sendTime + DataTransmitConstants.FAST_CYCLE_TIME_NANOS);
+        if (jitterTracker.isReportDue(sendTime)) {
+            DacPacketJitterEvent event = jitterTracker.report(sendTime);
+            if (event != null) {
+                logger.info("Packet jitter: {}", event);
+                eventBus.post(event);
+            }
+        }
     }
 
-    protected DatagramPacket buildPacket(byte[] buf) {
-        return new DatagramPacket(buf, buf.length, address, port);
+    /**
+     * Copy the provided payload into the encoder and send it to the DAC.
+     * 
+     * @param payload
+     *            a single payload of ulaw audio.
+     */
+    protected void sendPayload(final byte[] payload) {
+        packetEncoder.setNextPayload(payload);
+        sendNextPacket();
+    }
+
+    /**
+     * @return a copy of the last packet that was sent so that another thread
+     *         can continue the same stream, or null if nothing has been sent.
+     */
+    protected RtpPacketIn getPreviousPacket() {
+        return packetEncoder.snapshot(transmitters);
+    }
+
+    /**
+     * Continue the stream of packets that was started by another thread.
+     * 
+     * @param previousPacket
+     *            the last packet sent by the other thread, may be null.
+     */
+    protected void setPreviousPacket(final RtpPacketIn previousPacket) {
+        packetEncoder.restore(previousPacket);
+        if (previousPacket == null) {
+            lastSequenceNumber = -1;
+        } else {
+            lastSequenceNumber = previousPacket.getSequenceNumber() & 0xFFFFFFFFL;
+        }
     }
 
     @Override
@@ -172,17 +270,18 @@ public class AbstractTransmitThread extends Thread implements
      *            reach the {@link #watermarkPackets}.
      */
     private void calculatePacketIntervalAggressive(int differenceFromWatermark) {
-        long newSleepCycle = DataTransmitConstants.DEFAULT_CYCLE_TIME;
+        long newSleepCycle = DataTransmitConstants.DEFAULT_CYCLE_TIME_NANOS;
 
         if (differenceFromWatermark < 0) {
-            newSleepCycle = DataTransmitConstants.SLOW_CYCLE_TIME;
+            newSleepCycle = DataTransmitConstants.SLOW_CYCLE_TIME_NANOS;
         } else {
             int packetsToSendUntilNextStatus = Math
                     .abs(differenceFromWatermark) + 5;
 
             // make sure we don't speed it up too fast
-            newSleepCycle = Math.max(100L / packetsToSendUntilNextStatus,
-                    DataTransmitConstants.FAST_CYCLE_TIME);
+            newSleepCycle = Math.max(TimeUnit.MILLISECONDS.toNanos(100)
+                    / packetsToSendUntilNextStatus,
+                    DataTransmitConstants.FAST_CYCLE_TIME_NANOS);
             // logger.debug("Speeding up cycle time to: " + nextCycleTime);
         }
 
@@ -191,24 +290,19 @@ public class AbstractTransmitThread extends Thread implements
 
     /**
      * An algorithm for setting the packet interval. Of the two algorithms this
-     * one is more stable. Corrections take longer to take affect. The slowest
-     * correction is when the buffer is only off by a single packet can take up
-     * to 400ms to correct. Larger corrections take affect faster. Since most
-     * corrections are small the interval over long time periods(minutes) is
-     * much more stable and missed or late status packets are not a problem.
+     * one is more stable. A {@link PacketIntervalController} applies a small
+     * proportional correction for the current buffer error and slowly
+     * integrates any persistent error so that the interval converges on the
+     * actual DAC playback rate. Since most corrections are small the interval
+     * over long time periods(minutes) is much more stable and missed or late
+     * status packets are not a problem.
      * 
      * @param differenceFromWatermark
      *            the number of packets that need to be added to the buffer to
      *            reach the {@link #watermarkPackets}.
      */
     private void calculatePacketIntervalStable(int differenceFromWatermark) {
-        long newSleepCycle = DataTransmitConstants.DEFAULT_CYCLE_TIME
-                - differenceFromWatermark;
-        newSleepCycle = Math.max(newSleepCycle,
-                DataTransmitConstants.FAST_CYCLE_TIME);
-        newSleepCycle = Math.min(newSleepCycle,
-                DataTransmitConstants.SLOW_CYCLE_TIME);
-        packetInterval = newSleepCycle;
+        packetInterval = intervalController.update(differenceFromWatermark);
     }
 
     @Override
@@ -226,11 +320,19 @@ public class AbstractTransmitThread extends Thread implements
             logger.info("Application has re-gained sync with the DAC. Resuming transmission.");
             onSyncRestartMessage = false;
         }
+        intervalController.reset();
         hasSync = true;
     }
 
     @Subscribe
     public void changeTransmitters(ChangeTransmitters changeEvent) {
-        transmitters = Ints.asList(changeEvent.getTransmitters());
+        List<Integer> newTransmitters = Ints.asList(changeEvent
+                .getTransmitters());
+        /*
+         * Only the cached addressing bitmask is updated, the encoder is
+         * otherwise only accessed by the transmit thread.
+         */
+        packetEncoder.setTransmitters(newTransmitters);
+        transmitters = newTransmitters;
     }
 }
\ No newline at end of file
@@ -27,7 +27,6 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.eventbus.EventBus;
-import com.raytheon.bmh.dactransmit.rtp.RtpPacketIn;
 import com.raytheon.uf.common.bmh.audio.AudioConversionException;
 import com.raytheon.uf.common.bmh.audio.AudioOverflowException;
 import com.raytheon.uf.common.bmh.audio.AudioPacketLogger;
@@ -52,6 +51,8 @@ import com.raytheon.uf.common.bmh.audio.UnsupportedAudioFormatException;
  * Jul 15, 2015 4636       bkowal      No longer alter audio packet-by-packet.
  * Aug 17, 2015 4757       bkowal      Relocated regulation to BMH common.
  * Nov 04, 2015 5068       rjpeter     Switch audio units from dB to amplitude.
+ * Oct 17, 2026            agent       Reuse packet buffers when streaming.
+ * Oct 17, 2026            agent       Pace packets with nanosecond deadlines.
  * </pre>
  * 
  * @author bkowal
@@ -96,6 +97,7 @@ public class BroadcastTransmitThread extends AbstractTransmitThread {
     public void run() {
         AudioPacketLogger packetLog = new AudioPacketLogger("Broadcast Audio",
                 getClass(), 30);
+        resetPacketSchedule();
         while (this.error == false && this.audioBuffer.isEmpty() == false) {
             try {
                 // check for data every 5ms, we only have a 20ms window.
@@ -135,27 +137,25 @@ public class BroadcastTransmitThread extends AbstractTransmitThread {
             UnsupportedAudioFormatException, AudioConversionException,
             InterruptedException {
 
-        RtpPacketIn rtpPacket = buildRtpPacket(previousPacket, data);
-
-        sendPacket(rtpPacket);
+        awaitNextPacket();
+        sendPayload(data);
         if (this.listener != null) {
             ++this.packetCount;
             this.listener.packetStreamed(this.packetCount);
         }
 
-        previousPacket = rtpPacket;
-
-        Thread.sleep(packetInterval);
+        if (!hasSync) {
+            while (!hasSync) {
+                Thread.sleep(DataTransmitConstants.DEFAULT_CYCLE_TIME);
 
-        while (!hasSync) {
-            Thread.sleep(DataTransmitConstants.DEFAULT_CYCLE_TIME);
-
-            // cannot restart audio. should 'onSyncRestartMessage'
-            // indicate an error condition in the case of live
-            // broadcasting?
-            if (hasSync && onSyncRestartMessage) {
-                logger.warn("Application has re-gained sync with the DAC. Unable to restart audio stream!");
+                // cannot restart audio. should 'onSyncRestartMessage'
+                // indicate an error condition in the case of live
+                // broadcasting?
+                if (hasSync && onSyncRestartMessage) {
+                    logger.warn("Application has re-gained sync with the DAC. Unable to restart audio stream!");
+                }
             }
+            resetPacketSchedule();
         }
     }
 
@@ -34,6 +34,7 @@ import com.google.common.eventbus.Subscribe;
 import com.google.common.primitives.Ints;
 import com.raytheon.bmh.dactransmit.events.ShutdownRequestedEvent;
 import com.raytheon.bmh.dactransmit.ipc.ChangeAmplitudeTarget;
+import com.raytheon.bmh.dactransmit.ipc.ChangeProtocolVersion;
 import com.raytheon.bmh.dactransmit.ipc.ChangeTimeZone;
 import com.raytheon.bmh.dactransmit.ipc.ChangeTransmitters;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitCriticalError;
@@ -41,6 +42,8 @@ import com.raytheon.bmh.dactransmit.ipc.DacTransmitRegister;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitScanPlaylists;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitShutdown;
 import com.raytheon.bmh.dactransmit.ipc.DacTransmitStatus;
+import com.raytheon.bmh.dactransmit.ipc.FramedMessageReader;
+import com.raytheon.bmh.dactransmit.ipc.FramedMessageWriter;
 import com.raytheon.bmh.dactransmit.playlist.PrioritizableCallable;
 import com.raytheon.bmh.dactransmit.playlist.PriorityBasedExecutorService;
 import com.raytheon.bmh.dactransmit.playlist.ScanPlaylistDirectoryTask;
@@ -58,6 +61,7 @@ import com.raytheon.uf.common.bmh.notify.NoPlaybackMessageNotification;
 import com.raytheon.uf.common.bmh.notify.PlaylistNotification;
 import com.raytheon.uf.common.bmh.notify.SAMEMessageTruncatedNotification;
 import com.raytheon.uf.common.bmh.notify.status.DacHardwareStatusNotification;
+import com.raytheon.uf.common.bmh.stats.DacPacketJitterEvent;
 import com.raytheon.uf.common.serialization.SerializationException;
 import com.raytheon.uf.common.serialization.SerializationUtil;
 import com.raytheon.uf.common.stats.StatisticsEvent;
@@ -114,6 +118,9 @@ import com.raytheon.uf.common.stats.StatisticsEvent;
  * Mar 14, 2016  5472     rjpeter     Send a SendPlaylistResponse for SendPlaylistMessage.
  * Apr 26, 2016  5561     bkowal      Eliminate CriticalErrorEvent and handle 
  *                                    {@link BroadcastMsgInitFailedNotification}.
+ * Oct 17, 2026            agent       Forward {@link DacPacketJitterEvent}.
+ * Oct 18, 2026            agent       Switch to framed messages when requested by comms manager.
+ * Oct 18, 2026            agent       Always close the socket on disconnect.
  * </pre>
  * 
  * @author bsteffen
@@ -139,6 +146,12 @@ public final class CommsManagerCommunicator extends Thread {
 
     private Socket socket;
 
+    /**
+     * Used for all messages once the comms manager has switched to framed
+     * messages, guarded by {@link #sendLock}.
+     */
+    private FramedMessageWriter framedWriter;
+
     private DacTransmitStatus statusToSend = new DacTransmitStatus(false);
 
     private transient boolean running = true;
@@ -173,8 +186,10 @@ public final class CommsManagerCommunicator extends Thread {
         eventBus.register(this);
 
         InputStream inputStream = null;
+        FramedMessageReader framedReader = null;
         while (running) {
             if (socket == null) {
+                framedReader = null;
                 OutputStream outputStream = null;
                 synchronized (sendLock) {
                     try {
@@ -214,6 +229,8 @@ public final class CommsManagerCommunicator extends Thread {
                                     config.getSameAmplitude(),
                                     config.getAlertAmplitude(),
                                     config.getTransmitterGroup());
+                            registration
+                                    .setProtocolVersion(ChangeProtocolVersion.FRAMED);
                             SerializationUtil.transformToThriftUsingStream(
                                     registration, outputStream);
                             if (statusToSend.isConnectedToDac()) {
@@ -242,8 +259,24 @@ public final class CommsManagerCommunicator extends Thread {
                 continue;
             } else {
                 try {
-                    handleMessage(SerializationUtil.transformFromThrift(
-                            Object.class, inputStream));
+                    Object message = null;
+                    if (framedReader == null) {
+                        message = SerializationUtil.transformFromThrift(
+                                Object.class, inputStream);
+                    } else {
+                        message = framedReader.read();
+                    }
+                    if (message instanceof ChangeProtocolVersion) {
+                        /*
+                         * Everything after the switch from the comms manager
+                         * is framed, reply so it knows the same is true in the
+                         * other direction.
+                         */
+                        framedReader = new FramedMessageReader(inputStream);
+                        switchToFramedWriter();
+                    } else {
+                        handleMessage(message);
+                    }
                 } catch (Throwable e) {
                     logger.error("Error reading message from comms manager", e);
                     disconnect();
@@ -254,22 +287,22 @@ public final class CommsManagerCommunicator extends Thread {
 
     private void disconnect() {
         synchronized (sendLock) {
-            try {
-                if (socket != null) {
-                    try {
-                        SerializationUtil.transformToThriftUsingStream(
-                                new DacTransmitShutdown(),
-                                socket.getOutputStream());
-                    } catch (SerializationException e) {
-                        logger.error(
-                                "Unable to send shutdown message to comms manager",
-                                e);
-                    }
+            if (socket != null) {
+                try {
+                    writeMessage(new DacTransmitShutdown());
+                } catch (SerializationException | IOException e) {
+                    logger.error(
+                            "Unable to send shutdown message to comms manager",
+                            e);
+                }
+                try {
                     socket.close();
+                } catch (IOException ignorable) {
+                    logger.error("Error closing message to comms manager");
+                } finally {
                     socket = null;
+                    framedWriter = null;
                 }
-            } catch (IOException ignorable) {
-                logger.error("Error closing message to comms manager");
             }
         }
 
@@ -418,21 +451,55 @@ public final class CommsManagerCommunicator extends Thread {
         executorService.submit(new SendToCommsManagerTask(notification));
     }
 
+    @Subscribe
+    public void handlePacketJitterStatistic(DacPacketJitterEvent event) {
+        executorService.submit(new SendToCommsManagerTask(event));
+    }
+
     @Subscribe
     public void handleBroadcastDelayedNotification(
             MessageDelayedBroadcastNotification notification) {
         executorService.submit(new SendToCommsManagerTask(notification));
     }
 
-    private void sendMessageToCommsManager(final Object message) {
+    private void switchToFramedWriter() {
         synchronized (sendLock) {
             if (socket != null) {
                 try {
-                    SerializationUtil.transformToThriftUsingStream(message,
+                    SerializationUtil.transformToThriftUsingStream(
+                            new ChangeProtocolVersion(
+                                    ChangeProtocolVersion.FRAMED),
+                            socket.getOutputStream());
+                    framedWriter = new FramedMessageWriter(
                             socket.getOutputStream());
                 } catch (SerializationException | IOException e) {
                     logger.error("Error communicating with comms manager", e);
                 }
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding {@link #sendLock} with a connected socket.
+     */
+    private void writeMessage(Object message) throws SerializationException,
+            IOException {
+        if (framedWriter == null) {
+            SerializationUtil.transformToThriftUsingStream(message,
+                    socket.getOutputStream());
+        } else {
+            framedWriter.write(message);
+        }
+    }
+
+    private void sendMessageToCommsManager(final Object message) {
+        synchronized (sendLock) {
+            if (socket != null) {
+                try {
+                    writeMessage(message);
+                } catch (SerializationException | IOException e) {
+                    logger.error("Error communicating with comms manager", e);
+                }
             } else {
                 logger.warn("Received notification that could not be sent to CommsManager: "
                         + message.toString());
@@ -0,0 +1,113 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.dacsession;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.eventbus.EventBus;
+import com.raytheon.bmh.dactransmit.events.ShutdownRequestedEvent;
+
+/**
+ * 
+ * Periodically compares the {@link DacFencingToken} a dac session was started
+ * with against the claim in the playlist directory. While they match the
+ * claim is renewed so the comms managers know the dac is still in use. Once
+ * another claim has been written the session is shut down immediately, the
+ * comms manager that wrote it has launched a dac transmit for the same dac.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class DacFencingMonitor implements Runnable {
+
+    /**
+     * The amount of time(in ms) between checks of the claim. This bounds how
+     * long a fenced dac transmit keeps driving the dac.
+     */
+    public static final long CHECK_INTERVAL = Long.getLong(
+            "DacFencingCheckInterval", 5000);
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final EventBus eventBus;
+
+    private final Path directory;
+
+    private final DacFencingToken token;
+
+    private boolean fenced = false;
+
+    public DacFencingMonitor(EventBus eventBus, Path directory,
+            DacFencingToken token) {
+        this.eventBus = eventBus;
+        this.directory = directory;
+        this.token = token;
+    }
+
+    @Override
+    public void run() {
+        if (fenced) {
+            return;
+        }
+        DacFencingToken current;
+        try {
+            current = DacFencingToken.read(directory);
+        } catch (IOException e) {
+            /*
+             * Do not silence the transmitter because the shared directory is
+             * briefly unavailable, another member cannot write a claim then
+             * either.
+             */
+            logger.warn("Unable to read the fencing token in {}.", directory,
+                    e);
+            return;
+        }
+        if (token.equals(current)) {
+            try {
+                DacFencingToken.renew(directory, System.currentTimeMillis());
+            } catch (IOException e) {
+                logger.warn("Unable to renew the fencing token in {}.",
+                        directory, e);
+            }
+        } else if (current == null) {
+            logger.warn("The fencing token in {} has been removed.", directory);
+        } else {
+            fenced = true;
+            logger.error(
+                    "The dac has been claimed by {} with fencing token {} (session token {}), shutting down.",
+                    current.getHolder(), current.getToken(), token.getToken());
+            eventBus.post(new ShutdownRequestedEvent(true));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.dacsession;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import com.raytheon.uf.common.bmh.FilePermissionUtils;
+import com.raytheon.uf.common.util.file.IOPermissionsHelper;
+
+/**
+ * 
+ * The claim of a cluster member on the dac of a transmitter group. The claim
+ * is kept in a file in the playlist directory of the group, which every
+ * cluster member can read even when the members cannot reach each other. A
+ * comms manager writes a new claim with a larger token before it launches a
+ * dac transmit and passes the claim to the process. The dac transmit renews
+ * the claim while it runs and stops itself as soon as the file holds any
+ * other claim, so a process left running on a member that was wrongly
+ * considered failed gives up the dac to the member that took it over.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public final class DacFencingToken {
+
+    public static final String FILE_NAME = "fencing.token";
+
+    private static final char SEPARATOR = '@';
+
+    private final long token;
+
+    private final String holder;
+
+    public DacFencingToken(long token, String holder) {
+        if ((holder == null) || holder.isEmpty()
+                || (holder.indexOf(SEPARATOR) >= 0)) {
+            throw new IllegalArgumentException("Invalid fencing token holder: "
+                    + holder);
+        }
+        this.token = token;
+        this.holder = holder;
+    }
+
+    /**
+     * Parse a claim in the format produced by {@link #toString()}.
+     * 
+     * @throws IllegalArgumentException
+     *             if the value is not a valid claim.
+     */
+    public static DacFencingToken valueOf(String value) {
+        int index = value.indexOf(SEPARATOR);
+        if (index <= 0) {
+            throw new IllegalArgumentException("Invalid fencing token: "
+                    + value);
+        }
+        try {
+            return new DacFencingToken(Long.parseLong(value.substring(0,
+                    index)), value.substring(index + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid fencing token: "
+                    + value, e);
+        }
+    }
+
+    /**
+     * Read the current claim on a transmitter group.
+     * 
+     * @param directory
+     *            the playlist directory of the group.
+     * @return the claim or null if the group has never been claimed.
+     * @throws IOException
+     *             if the file cannot be read or does not hold a valid claim.
+     */
+    public static DacFencingToken read(Path directory) throws IOException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(directory.resolve(FILE_NAME),
+                    StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (lines.isEmpty()) {
+            throw new IOException("Empty fencing token in " + directory);
+        }
+        try {
+            return valueOf(lines.get(0).trim());
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + " in " + directory, e);
+        }
+    }
+
+    /**
+     * @return the time(in ms) the claim on a transmitter group was last
+     *         written or renewed.
+     */
+    public static long getLastRenewed(Path directory) throws IOException {
+        return Files.getLastModifiedTime(directory.resolve(FILE_NAME))
+                .toMillis();
+    }
+
+    /**
+     * Replace any existing claim on the transmitter group with this one.
+     * Readers see either the old or the new claim, never a partial one.
+     */
+    public void write(Path directory) throws IOException {
+        Path tmp = directory.resolve(FILE_NAME + "." + holder + ".tmp");
+        try {
+            try (OutputStream os = IOPermissionsHelper.getOutputStream(tmp,
+                    FilePermissionUtils.FILE_PERMISSIONS_SET)) {
+                os.write((toString() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(tmp, directory.resolve(FILE_NAME),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Mark the claim on the transmitter group as still in use.
+     */
+    public static void renew(Path directory, long timestamp)
+            throws IOException {
+        Files.setLastModifiedTime(directory.resolve(FILE_NAME),
+                FileTime.fromMillis(timestamp));
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * Long.valueOf(token).hashCode()) + holder.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        DacFencingToken other = (DacFencingToken) obj;
+        return (token == other.token) && holder.equals(other.holder);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(token) + SEPARATOR + holder;
+    }
+}
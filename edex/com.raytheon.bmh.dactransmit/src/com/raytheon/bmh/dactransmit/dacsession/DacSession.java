@@ -23,7 +23,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -117,6 +120,8 @@ import com.raytheon.uf.common.stats.StatisticsEvent;
  * Nov 04, 2015 5068       rjpeter      Switch audio units from dB to amplitude.
  * Feb 23, 2016  5382      bkowal       Verify sync with the dac before processing
  *                                      playlists/loading messages.
+ * Oct 18, 2026            agent        Pass the capture time of live audio to the broadcast.
+ * Oct 18, 2026            agent        Shut down when fenced, see {@link DacFencingMonitor}.
  * </pre>
  * 
  * @author dgilling
@@ -153,6 +158,10 @@ public final class DacSession implements IDacStatusUpdateEventHandler,
 
     private final Semaphore shutdownSignal;
 
+    private final DacFencingMonitor fencingMonitor;
+
+    private final ScheduledExecutorService fencingExecutor;
+
     private DacStatusMessage previousStatus;
 
     private final List<StatisticsEvent> undeliveredStatsList = new ArrayList<>();
@@ -185,6 +194,16 @@ public final class DacSession implements IDacStatusUpdateEventHandler,
         }
         this.shutdownSignal = new Semaphore(1);
         this.previousStatus = null;
+        if (config.getFencingToken() != null) {
+            this.fencingMonitor = new DacFencingMonitor(eventBus,
+                    config.getInputDirectory(), config.getFencingToken());
+            this.fencingExecutor = Executors
+                    .newSingleThreadScheduledExecutor(new NamedThreadFactory(
+                            "DacSession-Fencing"));
+        } else {
+            this.fencingMonitor = null;
+            this.fencingExecutor = null;
+        }
     }
 
     /**
@@ -229,6 +248,10 @@ public final class DacSession implements IDacStatusUpdateEventHandler,
 
         commsManager.start();
         eventBus.register(this);
+        if (fencingExecutor != null) {
+            fencingExecutor.scheduleAtFixedRate(fencingMonitor, 0,
+                    DacFencingMonitor.CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+        }
 
         dataThread.start();
         controlThread.start();
@@ -276,6 +299,9 @@ public final class DacSession implements IDacStatusUpdateEventHandler,
         }
 
         asyncExecutor.shutdown();
+        if (fencingExecutor != null) {
+            fencingExecutor.shutdown();
+        }
 
         return SHUTDOWN_STATUS.SUCCESS;
     }
@@ -382,8 +408,15 @@ public final class DacSession implements IDacStatusUpdateEventHandler,
 
     @Subscribe
     public void handleLiveBroadcastCommand(final LiveBroadcastCommand command) {
-        logger.info("Received live broadcast {} command for broadcast {}.",
-                command.getAction().toString(), command.getBroadcastId());
+        /* Audio arrives many times a second, only log the other actions. */
+        if (command.getAction() == LiveBroadcastCommand.ACTION.PLAY) {
+            logger.debug(
+                    "Received live broadcast {} command for broadcast {}.",
+                    command.getAction(), command.getBroadcastId());
+        } else {
+            logger.info("Received live broadcast {} command for broadcast {}.",
+                    command.getAction(), command.getBroadcastId());
+        }
         switch (command.getAction()) {
         case PREPARE:
             this.prepareLiveBroadcast((LiveBroadcastStartCommand) command);
@@ -483,7 +516,8 @@ public final class DacSession implements IDacStatusUpdateEventHandler,
             return;
         }
 
-        this.broadcastThread.playAudio(playCommand.getAudio());
+        this.broadcastThread.playAudio(playCommand.getAudio(),
+                playCommand.getCaptureTime());
     }
 
     private void notifyLiveClientFailure(final String broadcastId,
@@ -52,6 +52,7 @@ import com.raytheon.uf.common.bmh.audio.SAMEPaddingConfiguration;
  * Oct 14, 2015 4984       rjpeter     Added {@link #setAlertAmplitude(double)} and {@link #setSameAmplitude(double)}
  * Nov 04, 2015 5068       rjpeter     Switch audio units from dB to amplitude.
  * Sep 30, 2016 5912       bkowal      Construction now requires {@link SAMEPaddingConfiguration}.
+ * Oct 18, 2026            agent       Added the {@link DacFencingToken} of the session.
  * </pre>
  * 
  * @author dgilling
@@ -70,14 +71,18 @@ public final class DacSessionConfig extends AbstractDacConfig {
 
     private final String transmitterGroup;
 
+    private final DacFencingToken fencingToken;
+
     public DacSessionConfig(DacCommonConfig commonConfig, Path inputDirectory,
             TimeZone timezone, short sameAmplitude, short alertAmplitude,
-            final SAMEPaddingConfiguration samePaddingConfiguration) {
+            final SAMEPaddingConfiguration samePaddingConfiguration,
+            DacFencingToken fencingToken) {
         super(DAC_MODE.OPERATIONAL, commonConfig, samePaddingConfiguration);
         this.inputDirectory = inputDirectory;
         this.timezone = timezone;
         this.sameAmplitude = sameAmplitude;
         this.alertAmplitude = alertAmplitude;
+        this.fencingToken = fencingToken;
         /*
          * The name of directory that contains the playlists should always be
          * the same as the name of the {@link TransmitterGroup} the playlist was
@@ -99,6 +104,8 @@ public final class DacSessionConfig extends AbstractDacConfig {
         stringBuilder.append(this.inputDirectory);
         stringBuilder.append(", timezone=");
         stringBuilder.append(this.timezone.getID());
+        stringBuilder.append(", fencingToken=");
+        stringBuilder.append(this.fencingToken);
         stringBuilder.append("]");
 
         return stringBuilder.toString();
@@ -149,6 +156,14 @@ public final class DacSessionConfig extends AbstractDacConfig {
         return transmitterGroup;
     }
 
+    /**
+     * @return the claim this session holds on the dac, null if the session
+     *         was started without one and is not fenced.
+     */
+    public DacFencingToken getFencingToken() {
+        return fencingToken;
+    }
+
     @Override
     public IDacSession buildDacSession() throws IOException {
         return new DacSession(this);
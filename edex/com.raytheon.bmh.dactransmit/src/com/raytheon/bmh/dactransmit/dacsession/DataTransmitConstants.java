@@ -19,6 +19,8 @@
  **/
 package com.raytheon.bmh.dactransmit.dacsession;
 
+import java.util.concurrent.TimeUnit;
+
 import com.raytheon.uf.common.time.util.TimeUtil;
 
 /**
@@ -38,6 +40,8 @@ import com.raytheon.uf.common.time.util.TimeUtil;
  * Aug 25, 2014  #3286     dgilling     Adjust buffer size alert constants.
  * Oct 01, 2014  #3485     bsteffen     Add STARTUP_RESUME_THRESHOLD
  * Jan 09, 2015  #3942     rjpeter      Increased watermark to 25.
+ * Oct 17, 2026            agent        Added nanosecond cycle times and jitter
+ *                                      report interval.
  * </pre>
  * 
  * @author dgilling
@@ -57,6 +61,24 @@ public final class DataTransmitConstants {
 
     public static final long INITIAL_CYCLE_TIME = 10; // in MS
 
+    public static final long DEFAULT_CYCLE_TIME_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(DEFAULT_CYCLE_TIME);
+
+    public static final long SLOW_CYCLE_TIME_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(SLOW_CYCLE_TIME);
+
+    public static final long FAST_CYCLE_TIME_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(FAST_CYCLE_TIME);
+
+    public static final long INITIAL_CYCLE_TIME_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(INITIAL_CYCLE_TIME);
+
+    /**
+     * How often the packet jitter statistics are reported.
+     */
+    public static final long JITTER_REPORT_INTERVAL_NANOS = TimeUnit.MINUTES
+            .toNanos(1);
+
     /*
      * TODO Make these threshold values configurable and use these constants for
      * defaults.
@@ -27,7 +27,6 @@ import com.raytheon.bmh.dactransmit.playlist.DacMessagePlaybackData;
 import com.raytheon.bmh.dactransmit.playlist.PlaylistScheduler;
 import com.raytheon.bmh.dactransmit.rtp.RtpPacketIn;
 import com.raytheon.uf.common.bmh.audio.AudioPacketLogger;
-import com.raytheon.uf.common.bmh.dac.dacsession.DacSessionConstants;
 import com.raytheon.uf.common.bmh.notify.MessageBroadcastNotifcation;
 import com.raytheon.uf.common.bmh.notify.MessagePlaybackStatusNotification;
 import com.raytheon.uf.common.bmh.notify.SAMEMessageTruncatedNotification;
@@ -92,6 +91,8 @@ import com.raytheon.uf.edex.bmh.msg.logging.ErrorActivity.BMH_COMPONENT;
  * Jun 16, 2015  4482      rjpeter      Reset packet logger on pause.
  * Jan 21, 2015  5278      bkowal       Prevent rare audio NPE. Originally only happened due to
  *                                      conflicting future playlists being allowed to remain.
+ * Oct 17, 2026            agent        Reuse payload and packet buffers in the transmit loop.
+ * Oct 17, 2026            agent        Pace packets with nanosecond deadlines.
  * </pre>
  * 
  * @author dgilling
@@ -193,7 +194,7 @@ public final class DataTransmitThread extends AbstractTransmitThread {
                 logger.error(
                         "Unexpected interrupt while acquiring pause lock.", e);
             }
-            long nextPacketTime = System.currentTimeMillis();
+            resetPacketSchedule();
             eventBus.register(this);
             OUTER_LOOP: while (keepRunning) {
                 AudioPacketLogger messagePacketLog = null;
@@ -209,6 +210,7 @@ public final class DataTransmitThread extends AbstractTransmitThread {
                         Thread.sleep(5);
                         this.pauseLock.acquire();
                         logger.info("Resuming the playback of the current playlist.");
+                        resetPacketSchedule();
                     }
 
                     DacMessagePlaybackData playbackData = playlistMgr.next();
@@ -232,6 +234,7 @@ public final class DataTransmitThread extends AbstractTransmitThread {
                         } else {
                             logger.info("DataTransmitThread has resumed transmission.");
                             warnNoData = true;
+                            resetPacketSchedule();
                         }
                     }
 
@@ -275,12 +278,16 @@ public final class DataTransmitThread extends AbstractTransmitThread {
                             && (playingInterrupt || (!playlistMgr
                                     .hasInterrupt()))) {
                         try {
-                            while (!hasSync && !pausePlayback && keepRunning) {
-                                Thread.sleep(DataTransmitConstants.DEFAULT_CYCLE_TIME);
-
-                                if (hasSync && onSyncRestartMessage) {
-                                    playbackData.resetAudio();
+                            if (!hasSync) {
+                                while (!hasSync && !pausePlayback
+                                        && keepRunning) {
+                                    Thread.sleep(DataTransmitConstants.DEFAULT_CYCLE_TIME);
+
+                                    if (hasSync && onSyncRestartMessage) {
+                                        playbackData.resetAudio();
+                                    }
                                 }
+                                resetPacketSchedule();
                             }
 
                             if (pausePlayback) {
@@ -292,7 +299,8 @@ public final class DataTransmitThread extends AbstractTransmitThread {
                                 }
                             }
 
-                            byte[] nextPayload = new byte[DacSessionConstants.SINGLE_PAYLOAD_SIZE];
+                            byte[] nextPayload = packetEncoder
+                                    .getNextPayload();
 
                             long t0 = System.currentTimeMillis();
                             MessagePlaybackStatusNotification playbackStatus = playbackData
@@ -311,42 +319,18 @@ public final class DataTransmitThread extends AbstractTransmitThread {
                                 eventBus.post(playbackStatus);
                             }
 
-                            RtpPacketIn rtpPacket = buildRtpPacket(
-                                    previousPacket, nextPayload);
-                            long sleepTime = nextPacketTime
-                                    - System.currentTimeMillis();
-                            if (sleepTime > 0) {
-                                try {
-                                    Thread.sleep(sleepTime);
-                                } catch (InterruptedException e) {
-                                    logger.error("Thread sleep interrupted.", e);
-                                    DefaultMessageLogger
-                                            .getInstance()
-                                            .logError(
-                                                    null,
-                                                    BMH_COMPONENT.DAC_TRANSMIT,
-                                                    BMH_ACTIVITY.AUDIO_BROADCAST,
-                                                    playbackData.getMessage(),
-                                                    e);
-                                }
+                            try {
+                                awaitNextPacket();
+                            } catch (InterruptedException e) {
+                                logger.error("Thread sleep interrupted.", e);
+                                DefaultMessageLogger.getInstance().logError(
+                                        null, BMH_COMPONENT.DAC_TRANSMIT,
+                                        BMH_ACTIVITY.AUDIO_BROADCAST,
+                                        playbackData.getMessage(), e);
                             }
-                            sendPacket(rtpPacket);
-                            nextPacketTime = nextPacketTime + packetInterval;
-                            /*
-                             * Never send before FAST_CYCLE_TIME because it
-                             * increases the risk that packets will arrive out
-                             * of order. Do not try to catch up if more than one
-                             * packet behind, the control status thread will
-                             * eventually adjust the rate more accurately based
-                             * off the actual buffer levels.
-                             */
-                            nextPacketTime = Math
-                                    .max(System.currentTimeMillis()
-                                            + DataTransmitConstants.FAST_CYCLE_TIME,
-                                            nextPacketTime);
+                            sendNextPacket();
                             messagePacketLog.packetProcessed();
                             allPacketLog.packetProcessed();
-                            previousPacket = rtpPacket;
                         } catch (Throwable t) {
                             logger.error(
                                     "Uncaught exception thrown from message playback loop.",
@@ -401,11 +385,11 @@ public final class DataTransmitThread extends AbstractTransmitThread {
             // TODO: actually throw exception to notify that current audio
             // stream could not be paused.
         }
-        return this.previousPacket;
+        return getPreviousPacket();
     }
 
     public void resumePlayback(RtpPacketIn previousPacket) {
-        this.previousPacket = previousPacket;
+        setPreviousPacket(previousPacket);
         this.pausePlayback = false;
         this.pauseLock.release();
     }
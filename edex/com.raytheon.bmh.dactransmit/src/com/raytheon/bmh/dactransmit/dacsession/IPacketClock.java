@@ -0,0 +1,58 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.dacsession;
+
+/**
+ * Time source used by the transmit threads to pace packets to the DAC.
+ * Deadlines are expressed in the same units as {@link System#nanoTime()} so
+ * that pacing is not affected by changes to the wall clock.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public interface IPacketClock {
+
+    /**
+     * @return the current time in nanoseconds, only useful for comparing
+     *         against other values returned by this clock.
+     */
+    public long nanoTime();
+
+    /**
+     * Block until the specified deadline has been reached. Returns immediately
+     * if the deadline has already passed.
+     * 
+     * @param deadline
+     *            the deadline, relative to {@link #nanoTime()}
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting.
+     */
+    public void awaitDeadline(long deadline) throws InterruptedException;
+}
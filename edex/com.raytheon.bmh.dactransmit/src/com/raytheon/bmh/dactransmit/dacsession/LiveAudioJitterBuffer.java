@@ -0,0 +1,256 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.dacsession;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive jitter buffer for the audio of a live broadcast. Packets are
+ * streamed from the client as soon as they are recorded, so they arrive at a
+ * slightly irregular rate while the DAC must be fed at a steady rate. The
+ * buffer estimates the variation in packet arrival times the same way RTP
+ * estimates interarrival jitter (RFC 3550) and holds back just enough audio to
+ * absorb that variation. While the buffer is filling no audio is returned and
+ * the caller should send silence, if the buffer ever runs dry it starts
+ * filling again to the, possibly larger, target depth.
+ * 
+ * The clock of the client recording the audio and the DAC clock never run at
+ * exactly the same rate so the buffer will slowly grow or shrink. Growth is
+ * corrected by discarding quiet packets whenever the buffer holds more than
+ * {@link #TRIM_THRESHOLD_PACKETS} above the target, shrinking is corrected by
+ * the underrun handling.
+ * 
+ * Packets are added by the thread receiving messages from the comms manager
+ * and removed by the transmit thread so all methods are synchronized.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class LiveAudioJitterBuffer {
+
+    /** ulaw audio is 8000 samples per second, one byte per sample. */
+    private static final long NANOS_PER_BYTE = TimeUnit.SECONDS.toNanos(1) / 8000;
+
+    private static final long PACKET_NANOS = DataTransmitConstants.DEFAULT_CYCLE_TIME_NANOS;
+
+    /**
+     * The target depth is this many times the jitter estimate, the estimate is
+     * a mean deviation so this covers nearly all arrival variation.
+     */
+    private static final int JITTER_MULTIPLIER = 4;
+
+    /** Number of packets above the target that are tolerated before trimming. */
+    private static final int TRIM_THRESHOLD_PACKETS = 2;
+
+    private final int minPackets;
+
+    private final int maxPackets;
+
+    private final ArrayDeque<Packet> packets = new ArrayDeque<>();
+
+    /** The media time of the next packet to arrive, based on the audio size. */
+    private long mediaTime;
+
+    private long previousTransit;
+
+    private boolean firstArrival = true;
+
+    /** Interarrival jitter estimate in nanoseconds. */
+    private double jitter;
+
+    private int targetPackets;
+
+    private boolean filling = true;
+
+    private boolean finished;
+
+    private int underruns;
+
+    private int discarded;
+
+    /**
+     * @param minPackets
+     *            the minimum number of packets to buffer before playing
+     * @param maxPackets
+     *            the maximum number of packets to buffer, older packets are
+     *            discarded when this is exceeded
+     */
+    public LiveAudioJitterBuffer(int minPackets, int maxPackets) {
+        if ((minPackets < 1) || (maxPackets < minPackets)) {
+            throw new IllegalArgumentException("Invalid jitter buffer size: "
+                    + minPackets + " - " + maxPackets);
+        }
+        this.minPackets = minPackets;
+        this.maxPackets = maxPackets;
+        this.targetPackets = minPackets;
+    }
+
+    /**
+     * Add a packet of audio that has just arrived.
+     * 
+     * @param audio
+     *            the ulaw audio
+     * @param captureTime
+     *            the time the audio was captured in milliseconds since the
+     *            epoch or 0 if unknown.
+     */
+    public synchronized void add(byte[] audio, long captureTime) {
+        long transit = System.nanoTime() - mediaTime;
+        mediaTime += audio.length * NANOS_PER_BYTE;
+        if (firstArrival) {
+            firstArrival = false;
+        } else {
+            double deviation = Math.abs(transit - previousTransit);
+            jitter += (deviation - jitter) / 16;
+        }
+        previousTransit = transit;
+
+        long targetNanos = (long) (JITTER_MULTIPLIER * jitter);
+        targetPackets = (int) Math.min(
+                Math.max((targetNanos + PACKET_NANOS - 1) / PACKET_NANOS + 1,
+                        minPackets), maxPackets);
+
+        packets.add(new Packet(audio, captureTime));
+        while (packets.size() > maxPackets) {
+            packets.poll();
+            discarded += 1;
+        }
+    }
+
+    /**
+     * Get the next packet to send to the DAC.
+     * 
+     * @return the next packet or null if the buffer is filling and silence
+     *         should be sent instead.
+     */
+    public synchronized Packet poll() {
+        if (filling) {
+            if ((packets.size() < targetPackets)
+                    && (finished == false || packets.isEmpty())) {
+                return null;
+            }
+            filling = false;
+        }
+        Packet packet = packets.poll();
+        if (packet == null) {
+            underruns += 1;
+            filling = true;
+            return null;
+        }
+        if ((packets.size() > targetPackets + TRIM_THRESHOLD_PACKETS)
+                && packet.isQuiet()) {
+            discarded += 1;
+            packet = packets.poll();
+        }
+        return packet;
+    }
+
+    /**
+     * Indicate that no more audio will be added, any audio that is still
+     * buffered will be returned without waiting for the buffer to fill.
+     */
+    public synchronized void finish() {
+        finished = true;
+    }
+
+    public synchronized boolean isEmpty() {
+        return packets.isEmpty();
+    }
+
+    /**
+     * @return the current interarrival jitter estimate in milliseconds.
+     */
+    public synchronized long getJitterMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((long) jitter);
+    }
+
+    /**
+     * @return the current target depth of the buffer in milliseconds.
+     */
+    public synchronized long getTargetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(targetPackets * PACKET_NANOS);
+    }
+
+    /**
+     * @return the number of times the buffer ran out of audio.
+     */
+    public synchronized int getUnderruns() {
+        return underruns;
+    }
+
+    /**
+     * @return the number of packets that were discarded because the buffer
+     *         was too full.
+     */
+    public synchronized int getDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * A packet of audio and the time it was captured.
+     */
+    public static class Packet {
+
+        private final byte[] audio;
+
+        private final long captureTime;
+
+        private Packet(byte[] audio, long captureTime) {
+            this.audio = audio;
+            this.captureTime = captureTime;
+        }
+
+        public byte[] getAudio() {
+            return audio;
+        }
+
+        /**
+         * @return the time the audio was captured in milliseconds since the
+         *         epoch or 0 if unknown.
+         */
+        public long getCaptureTime() {
+            return captureTime;
+        }
+
+        /**
+         * @return true if every sample is in the lowest ulaw segment, so the
+         *         packet can be discarded without being heard.
+         */
+        private boolean isQuiet() {
+            for (byte sample : audio) {
+                if ((~sample & 0x70) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
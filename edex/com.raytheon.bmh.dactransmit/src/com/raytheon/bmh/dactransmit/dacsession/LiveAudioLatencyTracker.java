@@ -0,0 +1,110 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.dacsession;
+
+/**
+ * Tracks the end-to-end latency of the audio in a live broadcast, from the
+ * time each packet was captured by the client until it was sent to the DAC.
+ * Samples are accumulated in a fixed size histogram with millisecond
+ * resolution so that recording a sample never allocates.
+ * 
+ * This class is not thread safe, it should only be used by the transmit thread
+ * that owns it.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class LiveAudioLatencyTracker {
+
+    /**
+     * Samples larger than this many milliseconds are counted in the last
+     * bucket, the exact maximum is tracked separately.
+     */
+    private static final int BUCKET_COUNT = 10000;
+
+    private final int[] histogram = new int[BUCKET_COUNT];
+
+    private int count;
+
+    private long max;
+
+    /**
+     * Record the latency of a packet.
+     * 
+     * @param captureTime
+     *            the time the packet was captured in milliseconds since the
+     *            epoch, ignored if 0.
+     * @param sendTime
+     *            the time the packet was sent to the DAC in milliseconds since
+     *            the epoch.
+     */
+    public void record(long captureTime, long sendTime) {
+        if (captureTime <= 0) {
+            return;
+        }
+        /*
+         * The client and this host should be synchronized to the same time
+         * source but clamp in case they are not.
+         */
+        long latency = Math.max(sendTime - captureTime, 0);
+        int bucket = (int) Math.min(latency, BUCKET_COUNT - 1);
+        histogram[bucket] += 1;
+        count += 1;
+        if (latency > max) {
+            max = latency;
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @param percentile
+     *            the percentile to calculate, between 0 and 1.
+     * @return the latency in milliseconds that the specified fraction of
+     *         packets did not exceed.
+     */
+    public long getPercentile(double percentile) {
+        long target = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i += 1) {
+            seen += histogram[i];
+            if (seen >= target) {
+                return Math.min(i, max);
+            }
+        }
+        return max;
+    }
+}
@@ -25,7 +25,6 @@ import java.net.InetAddress;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import com.google.common.eventbus.EventBus;
 import com.raytheon.uf.common.bmh.audio.AudioConversionException;
@@ -34,6 +33,7 @@ import com.raytheon.uf.common.bmh.audio.AudioPacketLogger;
 import com.raytheon.uf.common.bmh.audio.AudioRegulationConfiguration;
 import com.raytheon.uf.common.bmh.audio.AudioRegulationFactory;
 import com.raytheon.uf.common.bmh.audio.IAudioRegulator;
+import com.raytheon.uf.common.bmh.audio.StreamingAudioRegulator;
 import com.raytheon.uf.common.bmh.audio.UnsupportedAudioFormatException;
 import com.raytheon.uf.common.bmh.broadcast.BroadcastStatus;
 import com.raytheon.uf.common.bmh.broadcast.BroadcastTransmitterConfiguration;
@@ -42,6 +42,7 @@ import com.raytheon.uf.common.bmh.broadcast.OnDemandBroadcastConstants.MSGSOURCE
 import com.raytheon.uf.common.bmh.dac.dacsession.DacSessionConstants;
 import com.raytheon.uf.common.bmh.notify.LiveBroadcastSwitchNotification;
 import com.raytheon.uf.common.bmh.notify.LiveBroadcastSwitchNotification.STATE;
+import com.raytheon.uf.common.bmh.stats.LiveBroadcastAudioLatencyEvent;
 import com.raytheon.uf.common.bmh.stats.LiveBroadcastLatencyEvent;
 import com.raytheon.uf.common.time.util.TimeUtil;
 import com.raytheon.uf.edex.bmh.audio.LoadedAudioRegulationConfiguration;
@@ -97,6 +98,10 @@ import com.raytheon.uf.edex.bmh.msg.logging.IMessageLogger.TONE_TYPE;
  * Sep 03, 2015 4825       bkowal      Only attempt to broadcast end tones when there are same tones.
  * Oct 26, 2015 5034       bkowal      Added {@link #getBroadcastId()}.
  * Nov 04, 2015 5068       rjpeter     Switch audio units from dB to amplitude.
+ * Oct 17, 2026            agent       Hand off the packet stream through the encoder.
+ * Oct 17, 2026            agent       Start a new packet schedule when the broadcast begins.
+ * Oct 18, 2026            agent       Play streamed audio through an adaptive jitter buffer and
+ *                                     report the end-to-end audio latency.
  * </pre>
  * 
  * @author bkowal
@@ -105,6 +110,13 @@ import com.raytheon.uf.edex.bmh.msg.logging.IMessageLogger.TONE_TYPE;
 
 public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
 
+    private static final int MIN_BUFFER_PACKETS = Integer.getInteger(
+            "LiveBroadcastMinBufferPackets", 2);
+
+    private static final int MAX_BUFFER_PACKETS = Integer.getInteger(
+            "LiveBroadcastMaxBufferPackets",
+            DataTransmitConstants.WATERMARK_PACKETS_IN_BUFFER);
+
     private final String broadcastId;
 
     private final DataTransmitThread dataThread;
@@ -121,6 +133,13 @@ public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
 
     private boolean bytesReceived = false;
 
+    private final LiveAudioJitterBuffer jitterBuffer = new LiveAudioJitterBuffer(
+            MIN_BUFFER_PACKETS, MAX_BUFFER_PACKETS);
+
+    private final LiveAudioLatencyTracker latencyTracker = new LiveAudioLatencyTracker();
+
+    private final StreamingAudioRegulator regulator;
+
     public LiveBroadcastTransmitThread(final EventBus eventBus,
             final InetAddress address, final int port,
             final Collection<Integer> transmitters, final String broadcastId,
@@ -139,6 +158,18 @@ public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
         this.config = config;
         this.type = type;
         this.requestTime = requestTime;
+
+        /*
+         * Regulate the audio over the same amount of audio that the client
+         * used to accumulate before sending it.
+         */
+        AudioRegulationConfiguration regulationConfig = LoadedAudioRegulationConfiguration
+                .getConfiguration();
+        int regulationWindow = (int) Math.max(1,
+                regulationConfig.getBufferDelay()
+                        / DataTransmitConstants.DEFAULT_CYCLE_TIME);
+        this.regulator = AudioRegulationFactory.getStreamingAudioRegulator(
+                regulationConfig, audioAmplitude, regulationWindow);
     }
 
     @Override
@@ -154,7 +185,8 @@ public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
                 }
             }
 
-            this.previousPacket = this.dataThread.pausePlayback();
+            setPreviousPacket(this.dataThread.pausePlayback());
+            resetPacketSchedule();
             // Build playlist switch notification
             this.notifyBroadcastSwitch(STATE.STARTED);
             if (this.type == BROADCASTTYPE.EO
@@ -200,25 +232,29 @@ public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
             status.addTransmitterGroup(this.config.getTransmitterGroup());
             this.commsManager.sendDacLiveBroadcastMsg(status);
 
-            waitForAudio();
-
             AudioPacketLogger packetLog = new AudioPacketLogger(
                     "Live Broadcast Audio", getClass(), 30);
+            byte[] silence = new byte[DacSessionConstants.SINGLE_PAYLOAD_SIZE];
+            Arrays.fill(silence, DacSessionConstants.SILENCE);
             /*
              * end the broadcast only after all buffered audio has been
              * streamed.
              */
-            while (live || this.audioBuffer.isEmpty() == false) {
+            while (live || this.jitterBuffer.isEmpty() == false) {
                 try {
-                    // check for data every 5ms, we only have a 20ms window.
-                    // 0 - 5 ms delay between end of audio and end of the
-                    // broadcast.
-                    byte[] audio = this.audioBuffer.poll(5,
-                            TimeUnit.MILLISECONDS);
-                    if (audio == null) {
-                        continue;
+                    /*
+                     * Stream silence while the jitter buffer is filling to
+                     * keep the DAC jitter buffer full to the watermark level.
+                     */
+                    LiveAudioJitterBuffer.Packet packet = this.jitterBuffer
+                            .poll();
+                    if (packet == null) {
+                        this.streamAudio(silence);
+                    } else {
+                        this.streamAudio(packet.getAudio());
+                        this.latencyTracker.record(packet.getCaptureTime(),
+                                System.currentTimeMillis());
                     }
-                    this.streamAudio(audio);
                     packetLog.packetProcessed();
                 } catch (AudioOverflowException
                         | UnsupportedAudioFormatException
@@ -228,6 +264,7 @@ public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
                 }
             }
             packetLog.close();
+            this.generateLatencyStatistics();
         } finally {
             DefaultMessageLogger.getInstance().logLiveBroadcastActivity(
                     this.config.getMessage(), this.config.getMessage());
@@ -248,30 +285,42 @@ public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
 
             this.notifyBroadcastSwitch(STATE.FINISHED);
 
-            this.dataThread.resumePlayback(previousPacket);
+            this.dataThread.resumePlayback(getPreviousPacket());
         }
     }
 
     @Override
     public void playAudio(List<byte[]> data) {
+        this.playAudio(data, 0);
+    }
+
+    /**
+     * Add audio received from the client to the jitter buffer.
+     * 
+     * @param data
+     *            the packets of audio
+     * @param captureTime
+     *            the time the first packet was captured in milliseconds since
+     *            the epoch or 0 if unknown.
+     */
+    public void playAudio(List<byte[]> data, long captureTime) {
         if (this.bytesReceived == false) {
             this.bytesReceived = true;
             this.generateStatistics();
         }
-        /*
-         * Attenuate / amplify all received data before it is added to the
-         * buffer. Here we know that the audio db target will be used.
-         */
-        try {
-            IAudioRegulator regulator = AudioRegulationFactory
-                    .getAudioRegulator(LoadedAudioRegulationConfiguration
-                            .getConfiguration(), data);
-            data = regulator.regulateAudioCollection(this.audioAmplitude);
-        } catch (Exception e) {
-            logger.error("Failed to amplify/attenuate received audio.", e);
+        for (byte[] audio : data) {
+            /*
+             * Attenuate / amplify all received data before it is added to the
+             * buffer. Here we know that the audio db target will be used.
+             */
+            this.regulator.regulate(audio);
+            this.jitterBuffer.add(audio, captureTime);
+            if (captureTime > 0) {
+                captureTime += audio.length
+                        * DataTransmitConstants.DEFAULT_CYCLE_TIME
+                        / DacSessionConstants.SINGLE_PAYLOAD_SIZE;
+            }
         }
-
-        super.playAudio(data);
     }
 
     private void playTones(byte[] toneAudio, final String toneType,
@@ -307,28 +356,6 @@ public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
         }
     }
 
-    private void waitForAudio() {
-        /*
-         * Stream silence until the first audio packet arrives to keep the
-         * jitter buffer full to the watermark level.
-         */
-        AudioPacketLogger packetLog = new AudioPacketLogger(
-                "Live Broadcast Buffering", getClass(), 10);
-        byte[] silence = new byte[DacSessionConstants.SINGLE_PAYLOAD_SIZE];
-        Arrays.fill(silence, DacSessionConstants.SILENCE);
-        while (live && this.audioBuffer.isEmpty()) {
-            try {
-                this.streamAudio(silence);
-                packetLog.packetProcessed();
-            } catch (AudioOverflowException | UnsupportedAudioFormatException
-                    | AudioConversionException | InterruptedException e) {
-                this.notifyDacError(
-                        "Failed to stream the buffered live audio.", e);
-            }
-        }
-        packetLog.close();
-    }
-
     private void notifyDacError(final String detail, final Exception e) {
         this.error = true;
         logger.error(detail, e);
@@ -349,8 +376,32 @@ public class LiveBroadcastTransmitThread extends BroadcastTransmitThread {
         this.commsManager.forwardStatistics(event);
     }
 
+    private void generateLatencyStatistics() {
+        logger.info(
+                "Live broadcast {} jitter buffer finished with a depth of {}ms, {} underruns and {} discarded packets.",
+                this.broadcastId, this.jitterBuffer.getTargetMillis(),
+                this.jitterBuffer.getUnderruns(),
+                this.jitterBuffer.getDiscarded());
+        if (this.latencyTracker.getCount() == 0) {
+            return;
+        }
+        LiveBroadcastAudioLatencyEvent event = new LiveBroadcastAudioLatencyEvent();
+        event.setBroadcastIdentifier(this.broadcastId);
+        event.setPackets(this.latencyTracker.getCount());
+        event.setLatency50(this.latencyTracker.getPercentile(0.50));
+        event.setLatency90(this.latencyTracker.getPercentile(0.90));
+        event.setLatency99(this.latencyTracker.getPercentile(0.99));
+        event.setLatencyMax(this.latencyTracker.getMax());
+        event.setArrivalJitter(this.jitterBuffer.getJitterMillis());
+        event.setBufferDepth(this.jitterBuffer.getTargetMillis());
+        event.setUnderruns(this.jitterBuffer.getUnderruns());
+        logger.info("Live broadcast audio latency: {}", event);
+        this.commsManager.forwardStatistics(event);
+    }
+
     public void shutdown() {
         this.live = false;
+        this.jitterBuffer.finish();
     }
 
     /**
@@ -0,0 +1,125 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.dacsession;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proportional-integral controller that converts the difference between the
+ * DAC jitter buffer level and the watermark into a packet interval. The
+ * proportional term reacts to the current buffer error the same way the
+ * original stable algorithm did(1ms per packet) while the integral term
+ * removes the steady state error caused by the DAC and host clocks running at
+ * slightly different rates, so the buffer settles on the watermark instead of
+ * oscillating around it.
+ * 
+ * All values are in nanoseconds. This class is not thread safe, updates are
+ * expected to come only from the thread delivering DAC status.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class PacketIntervalController {
+
+    /** Interval adjustment per packet of buffer error. */
+    private static final long PROPORTIONAL_GAIN = TimeUnit.MILLISECONDS
+            .toNanos(1);
+
+    /**
+     * Integral adjustment per packet of buffer error per status update. Status
+     * arrives roughly every 100ms so this accumulates 1ms per packet of
+     * sustained error each second.
+     */
+    private static final long INTEGRAL_GAIN = TimeUnit.MICROSECONDS
+            .toNanos(100);
+
+    private final long defaultInterval;
+
+    private final long minInterval;
+
+    private final long maxInterval;
+
+    private long integral;
+
+    public PacketIntervalController() {
+        this(DataTransmitConstants.DEFAULT_CYCLE_TIME_NANOS,
+                DataTransmitConstants.FAST_CYCLE_TIME_NANOS,
+                DataTransmitConstants.SLOW_CYCLE_TIME_NANOS);
+    }
+
+    public PacketIntervalController(long defaultInterval, long minInterval,
+            long maxInterval) {
+        this.defaultInterval = defaultInterval;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+    }
+
+    /**
+     * Calculate a new packet interval.
+     * 
+     * @param differenceFromWatermark
+     *            the number of packets that need to be added to the buffer to
+     *            reach the watermark, negative when the buffer is above the
+     *            watermark.
+     * @return the new packet interval in nanoseconds.
+     */
+    public long update(int differenceFromWatermark) {
+        long proportional = PROPORTIONAL_GAIN * differenceFromWatermark;
+        long candidateIntegral = integral + INTEGRAL_GAIN
+                * differenceFromWatermark;
+        long interval = defaultInterval - proportional - candidateIntegral;
+        /*
+         * Only keep integrating while the output is within limits, otherwise
+         * the integral winds up during long outages and overshoots once the
+         * buffer recovers.
+         */
+        if (interval < minInterval) {
+            if (differenceFromWatermark <= 0) {
+                integral = candidateIntegral;
+            }
+            return minInterval;
+        } else if (interval > maxInterval) {
+            if (differenceFromWatermark >= 0) {
+                integral = candidateIntegral;
+            }
+            return maxInterval;
+        }
+        integral = candidateIntegral;
+        return interval;
+    }
+
+    /**
+     * Discard the accumulated integral, should be used when the DAC buffer is
+     * reset such as after losing sync.
+     */
+    public void reset() {
+        integral = 0;
+    }
+}
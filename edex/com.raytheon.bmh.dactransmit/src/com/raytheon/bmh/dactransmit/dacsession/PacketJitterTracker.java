@@ -0,0 +1,156 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.dacsession;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import com.raytheon.uf.common.bmh.stats.DacPacketJitterEvent;
+
+/**
+ * Tracks the difference between the scheduled and the actual send time of
+ * every packet sent to the DAC. Samples are accumulated in a fixed size
+ * histogram with microsecond resolution so that recording a sample never
+ * allocates; percentiles are only calculated when a report is generated.
+ * 
+ * This class is not thread safe, it should only be used by the transmit thread
+ * that owns it.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class PacketJitterTracker {
+
+    private static final long BUCKET_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    /**
+     * Samples larger than this many buckets(50ms) are counted in the last
+     * bucket, the exact maximum is tracked separately.
+     */
+    private static final int BUCKET_COUNT = 5000;
+
+    private final long reportIntervalNanos;
+
+    private final int[] histogram = new int[BUCKET_COUNT];
+
+    private int count;
+
+    private long max;
+
+    private long nextReportTime;
+
+    /*
+     * When true the next sample is discarded because the transmit thread was
+     * not trying to keep pace, for example while paused or out of sync.
+     */
+    private boolean skipNext = true;
+
+    public PacketJitterTracker(long reportIntervalNanos, long now) {
+        this.reportIntervalNanos = reportIntervalNanos;
+        this.nextReportTime = now + reportIntervalNanos;
+    }
+
+    /**
+     * Record the send time of a packet.
+     * 
+     * @param deadline
+     *            the time the packet was scheduled to be sent.
+     * @param sendTime
+     *            the time the packet was actually sent.
+     */
+    public void record(long deadline, long sendTime) {
+        if (skipNext) {
+            skipNext = false;
+            return;
+        }
+        long jitter = Math.abs(sendTime - deadline);
+        int bucket = (int) Math.min(jitter / BUCKET_NANOS, BUCKET_COUNT - 1);
+        histogram[bucket] += 1;
+        count += 1;
+        if (jitter > max) {
+            max = jitter;
+        }
+    }
+
+    /**
+     * Indicate that there was a gap in transmission so the next packet should
+     * not be compared against the previous schedule.
+     */
+    public void skipNext() {
+        skipNext = true;
+    }
+
+    /**
+     * @param now
+     *            the current time
+     * @return true if enough time has passed to generate a new report.
+     */
+    public boolean isReportDue(long now) {
+        return now - nextReportTime >= 0;
+    }
+
+    /**
+     * Generate a statistic containing the percentiles for all the samples
+     * recorded since the last report and start a new reporting period.
+     * 
+     * @param now
+     *            the current time
+     * @return the statistic or null if no packets were sent during this period.
+     */
+    public DacPacketJitterEvent report(long now) {
+        nextReportTime = now + reportIntervalNanos;
+        if (count == 0) {
+            return null;
+        }
+        DacPacketJitterEvent event = new DacPacketJitterEvent();
+        event.setPackets(count);
+        event.setJitter50(percentileMicros(0.50));
+        event.setJitter90(percentileMicros(0.90));
+        event.setJitter99(percentileMicros(0.99));
+        event.setJitterMax(TimeUnit.NANOSECONDS.toMicros(max));
+        Arrays.fill(histogram, 0);
+        count = 0;
+        max = 0;
+        return event;
+    }
+
+    private long percentileMicros(double percentile) {
+        long target = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i += 1) {
+            seen += histogram[i];
+            if (seen >= target) {
+                return Math.min(TimeUnit.NANOSECONDS.toMicros(max),
+                        TimeUnit.NANOSECONDS.toMicros((i + 1) * BUCKET_NANOS));
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMicros(max);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.dacsession;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link IPacketClock} that parks the thread until shortly before the deadline
+ * and then spins for the remaining time. Parking alone routinely oversleeps by
+ * 50-100us, spinning through the final stretch keeps packet send times within
+ * a few microseconds of the deadline without burning a full core.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class PrecisionPacketClock implements IPacketClock {
+
+    /**
+     * Default amount of time before the deadline to stop parking and start
+     * spinning.
+     */
+    public static final long DEFAULT_SPIN_NANOS = TimeUnit.MICROSECONDS
+            .toNanos(200);
+
+    private final long spinNanos;
+
+    public PrecisionPacketClock() {
+        this(Long.getLong("DacPacketClockSpinNanos", DEFAULT_SPIN_NANOS));
+    }
+
+    public PrecisionPacketClock(long spinNanos) {
+        this.spinNanos = spinNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void awaitDeadline(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > spinNanos) {
+            LockSupport.parkNanos(remaining - spinNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        while (deadline - System.nanoTime() > 0) {
+            /* spin for the final microseconds. */
+        }
+    }
+}
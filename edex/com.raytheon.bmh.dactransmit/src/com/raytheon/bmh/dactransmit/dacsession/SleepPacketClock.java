@@ -17,12 +17,15 @@
  * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
  * further licensing information.
  **/
-package com.raytheon.uf.common.bmh.dac;
+package com.raytheon.bmh.dactransmit.dacsession;
 
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Used to asynchronously notify all subscribers about new data.
+ * {@link IPacketClock} that uses {@link Thread#sleep(long, int)}. This
+ * produces the same pacing the transmit threads used before
+ * {@link PrecisionPacketClock} was available and can be enabled with the
+ * DacSleepPacketClock system property on hosts where spinning is undesirable.
  * 
  * <pre>
  * 
@@ -30,39 +33,26 @@ import java.util.List;
  * 
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
- * Jul 16, 2014 3374       bkowal      Initial creation
+ * Oct 17, 2026            agent       Initial creation
  * 
  * </pre>
  * 
- * @author bkowal
+ * @author agent
  * @version 1.0
  */
+public class SleepPacketClock implements IPacketClock {
 
-public class SubscriberNotifier implements Runnable {
-
-    private final List<IDacListener> subscribers;
-
-    private final List<byte[]> payloadBuffers;
-
-    /**
-     * 
-     */
-    public SubscriberNotifier(final List<IDacListener> subscribers,
-            final List<byte[]> payloadBuffers) {
-        this.subscribers = subscribers;
-        this.payloadBuffers = payloadBuffers;
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
     }
 
-    /*
-     * (non-Javadoc)
-     * 
-     * @see java.lang.Runnable#run()
-     */
     @Override
-    public void run() {
-        for (IDacListener subscriber : this.subscribers) {
-            subscriber.dataArrived(this.payloadBuffers.get(subscriber
-                    .getChannel() - 1));
+    public void awaitDeadline(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(remaining),
+                    (int) (remaining % TimeUnit.MILLISECONDS.toNanos(1)));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.ipc;
+
+import com.raytheon.uf.common.serialization.annotations.DynamicSerialize;
+import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
+
+/**
+ * 
+ * Marks the point in the stream where the sender stops writing individual
+ * thrift objects and starts writing frames with a {@link FramedMessageWriter}.
+ * The comms manager sends this to a dac transmit process that advertised
+ * support for {@link #FRAMED} in its {@link DacTransmitRegister}, the dac
+ * transmit process replies with the same message before switching its own
+ * output. Each side switches its reader when the message is received.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+@DynamicSerialize
+public class ChangeProtocolVersion {
+
+    /** Every message is written as a single thrift object. */
+    public static final int LEGACY = 0;
+
+    /** Messages are written by a {@link FramedMessageWriter}. */
+    public static final int FRAMED = 1;
+
+    @DynamicSerializeElement
+    private int version;
+
+    public ChangeProtocolVersion() {
+    }
+
+    public ChangeProtocolVersion(int version) {
+        this.version = version;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+}
@@ -41,6 +41,7 @@ import com.raytheon.uf.common.serialization.annotations.DynamicSerializeElement;
  * Jul 08, 2015 4636      bkowal      Support same and alert decibel levels.
  * Aug 12, 2015  4424     bkowal      Eliminate Dac Transmit Key.
  * Nov 04, 2015 5068      rjpeter     Switch audio units from dB to amplitude.
+ * Oct 18, 2026           agent       Added protocolVersion.
  * </pre>
  * 
  * @author bsteffen
@@ -67,6 +68,14 @@ public class DacTransmitRegister extends AbstractDacRegistration {
     @DynamicSerializeElement
     private String transmitterGroup;
 
+    /**
+     * The highest {@link ChangeProtocolVersion} supported by the dac transmit
+     * process, older processes do not set this and use
+     * {@link ChangeProtocolVersion#LEGACY}.
+     */
+    @DynamicSerializeElement
+    private int protocolVersion = ChangeProtocolVersion.LEGACY;
+
     public DacTransmitRegister() {
     }
 
@@ -159,4 +168,19 @@ public class DacTransmitRegister extends AbstractDacRegistration {
     public void setTransmitterGroup(String transmitterGroup) {
         this.transmitterGroup = transmitterGroup;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return the protocolVersion
+     */
+    public int getProtocolVersion() {
+        return protocolVersion;
+    }
+
+    /**
+     * @param protocolVersion
+     *            the protocolVersion to set
+     */
+    public void setProtocolVersion(int protocolVersion) {
+        this.protocolVersion = protocolVersion;
+    }
+}
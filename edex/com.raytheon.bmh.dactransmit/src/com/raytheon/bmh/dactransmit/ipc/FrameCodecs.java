@@ -0,0 +1,364 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.ipc;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import com.raytheon.uf.common.bmh.broadcast.LiveBroadcastPlayCommand;
+import com.raytheon.uf.common.bmh.broadcast.OnDemandBroadcastConstants.MSGSOURCE;
+import com.raytheon.uf.common.bmh.datamodel.playlist.PlaylistUpdateNotification;
+import com.raytheon.uf.common.bmh.notify.MessagePlaybackStatusNotification;
+import com.raytheon.uf.common.bmh.notify.status.DacHardwareStatusNotification;
+import com.raytheon.uf.common.bmh.notify.status.DacVoiceStatus;
+
+/**
+ * 
+ * Registry of the {@link IFrameCodec}s for the messages that are sent most
+ * frequently between the comms manager and dac transmit. Any message without a
+ * codec is sent as a thrift object in a frame with {@link #THRIFT_TYPE}. Type
+ * ids must never be reused for a different message.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * Oct 18, 2026           agent       Added a codec for live broadcast audio.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+final class FrameCodecs {
+
+    /** Frame type for any message that does not have a codec. */
+    public static final short THRIFT_TYPE = 0;
+
+    private static final IFrameCodec<?>[] CODECS = { null,
+            new DacTransmitStatusCodec(), new PlaylistUpdateCodec(),
+            new MessagePlaybackStatusCodec(), new DacHardwareStatusCodec(),
+            new LiveBroadcastPlayCodec() };
+
+    private static final Map<Class<?>, Short> TYPES = new HashMap<>();
+
+    static {
+        for (short type = 1; type < CODECS.length; type += 1) {
+            TYPES.put(CODECS[type].getMessageClass(), type);
+        }
+    }
+
+    private FrameCodecs() {
+    }
+
+    /**
+     * @return the frame type of messages with the exact class, or
+     *         {@link #THRIFT_TYPE} if there is no codec.
+     */
+    public static short getType(Class<?> messageClass) {
+        Short type = TYPES.get(messageClass);
+        if (type == null) {
+            return THRIFT_TYPE;
+        }
+        return type;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> IFrameCodec<T> getCodec(short type) throws IOException {
+        if ((type <= THRIFT_TYPE) || (type >= CODECS.length)) {
+            throw new IOException("Unrecognized frame type: " + type);
+        }
+        return (IFrameCodec<T>) CODECS[type];
+    }
+
+    private static void writeString(DataOutput out, String value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        if (in.readBoolean()) {
+            return in.readUTF();
+        }
+        return null;
+    }
+
+    private static void writeCalendar(DataOutput out, Calendar value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTimeInMillis());
+            out.writeUTF(value.getTimeZone().getID());
+        }
+    }
+
+    private static Calendar readCalendar(DataInput in) throws IOException {
+        if (in.readBoolean()) {
+            long time = in.readLong();
+            Calendar value = Calendar.getInstance(TimeZone.getTimeZone(in
+                    .readUTF()));
+            value.setTimeInMillis(time);
+            return value;
+        }
+        return null;
+    }
+
+    private static class DacTransmitStatusCodec implements
+            IFrameCodec<DacTransmitStatus> {
+
+        @Override
+        public Class<DacTransmitStatus> getMessageClass() {
+            return DacTransmitStatus.class;
+        }
+
+        @Override
+        public void encode(DacTransmitStatus message, DataOutput out)
+                throws IOException {
+            out.writeBoolean(message.isConnectedToDac());
+        }
+
+        @Override
+        public DacTransmitStatus decode(DataInput in) throws IOException {
+            return new DacTransmitStatus(in.readBoolean());
+        }
+    }
+
+    private static class PlaylistUpdateCodec implements
+            IFrameCodec<PlaylistUpdateNotification> {
+
+        @Override
+        public Class<PlaylistUpdateNotification> getMessageClass() {
+            return PlaylistUpdateNotification.class;
+        }
+
+        @Override
+        public void encode(PlaylistUpdateNotification message, DataOutput out)
+                throws IOException {
+            writeString(out, message.getPlaylistPath());
+        }
+
+        @Override
+        public PlaylistUpdateNotification decode(DataInput in)
+                throws IOException {
+            PlaylistUpdateNotification message = new PlaylistUpdateNotification();
+            message.setPlaylistPath(readString(in));
+            return message;
+        }
+    }
+
+    private static class MessagePlaybackStatusCodec implements
+            IFrameCodec<MessagePlaybackStatusNotification> {
+
+        @Override
+        public Class<MessagePlaybackStatusNotification> getMessageClass() {
+            return MessagePlaybackStatusNotification.class;
+        }
+
+        @Override
+        public void encode(MessagePlaybackStatusNotification message,
+                DataOutput out) throws IOException {
+            out.writeLong(message.getBroadcastId());
+            writeCalendar(out, message.getTransmitTime());
+            out.writeInt(message.getPlayCount());
+            out.writeBoolean(message.isPlayedAlertTone());
+            out.writeBoolean(message.isPlayedSameTone());
+            writeString(out, message.getTransmitterGroup());
+            writeString(out, message.getTraceId());
+            out.writeBoolean(message.isDynamic());
+        }
+
+        @Override
+        public MessagePlaybackStatusNotification decode(DataInput in)
+                throws IOException {
+            MessagePlaybackStatusNotification message = new MessagePlaybackStatusNotification();
+            message.setBroadcastId(in.readLong());
+            message.setTransmitTime(readCalendar(in));
+            message.setPlayCount(in.readInt());
+            message.setPlayedAlertTone(in.readBoolean());
+            message.setPlayedSameTone(in.readBoolean());
+            message.setTransmitterGroup(readString(in));
+            message.setTraceId(readString(in));
+            message.setDynamic(in.readBoolean());
+            return message;
+        }
+    }
+
+    private static class DacHardwareStatusCodec implements
+            IFrameCodec<DacHardwareStatusNotification> {
+
+        private static final DacVoiceStatus[] VOICE_STATUS = DacVoiceStatus
+                .values();
+
+        @Override
+        public Class<DacHardwareStatusNotification> getMessageClass() {
+            return DacHardwareStatusNotification.class;
+        }
+
+        @Override
+        public void encode(DacHardwareStatusNotification message,
+                DataOutput out) throws IOException {
+            writeString(out, message.getTransmitterGroup());
+            out.writeDouble(message.getPsu1Voltage());
+            out.writeDouble(message.getPsu2Voltage());
+            out.writeInt(message.getBufferSize());
+
+            int[] validChannels = message.getValidChannels();
+            out.writeInt(validChannels == null ? -1 : validChannels.length);
+            if (validChannels != null) {
+                for (int channel : validChannels) {
+                    out.writeInt(channel);
+                }
+            }
+
+            double[] outputGain = message.getOutputGain();
+            out.writeInt(outputGain == null ? -1 : outputGain.length);
+            if (outputGain != null) {
+                for (double gain : outputGain) {
+                    out.writeDouble(gain);
+                }
+            }
+
+            DacVoiceStatus[] voiceStatus = message.getVoiceStatus();
+            out.writeInt(voiceStatus == null ? -1 : voiceStatus.length);
+            if (voiceStatus != null) {
+                for (DacVoiceStatus status : voiceStatus) {
+                    out.writeByte(status == null ? -1 : status.ordinal());
+                }
+            }
+
+            out.writeInt(message.getRecoverablePacketErrors());
+            out.writeInt(message.getUnrecoverablePacketErrors());
+        }
+
+        @Override
+        public DacHardwareStatusNotification decode(DataInput in)
+                throws IOException {
+            DacHardwareStatusNotification message = new DacHardwareStatusNotification();
+            message.setTransmitterGroup(readString(in));
+            message.setPsu1Voltage(in.readDouble());
+            message.setPsu2Voltage(in.readDouble());
+            message.setBufferSize(in.readInt());
+
+            int length = in.readInt();
+            if (length >= 0) {
+                int[] validChannels = new int[length];
+                for (int i = 0; i < length; i += 1) {
+                    validChannels[i] = in.readInt();
+                }
+                message.setValidChannels(validChannels);
+            }
+
+            length = in.readInt();
+            if (length >= 0) {
+                double[] outputGain = new double[length];
+                for (int i = 0; i < length; i += 1) {
+                    outputGain[i] = in.readDouble();
+                }
+                message.setOutputGain(outputGain);
+            }
+
+            length = in.readInt();
+            if (length >= 0) {
+                DacVoiceStatus[] voiceStatus = new DacVoiceStatus[length];
+                for (int i = 0; i < length; i += 1) {
+                    byte ordinal = in.readByte();
+                    if (ordinal >= 0) {
+                        voiceStatus[i] = VOICE_STATUS[ordinal];
+                    }
+                }
+                message.setVoiceStatus(voiceStatus);
+            }
+
+            message.setRecoverablePacketErrors(in.readInt());
+            message.setUnrecoverablePacketErrors(in.readInt());
+            return message;
+        }
+    }
+
+    /**
+     * Live broadcast audio is sent every 20ms, only the fields that dac
+     * transmit uses are included, the transmitter groups are not.
+     */
+    private static class LiveBroadcastPlayCodec implements
+            IFrameCodec<LiveBroadcastPlayCommand> {
+
+        private static final MSGSOURCE[] MSG_SOURCE = MSGSOURCE.values();
+
+        @Override
+        public Class<LiveBroadcastPlayCommand> getMessageClass() {
+            return LiveBroadcastPlayCommand.class;
+        }
+
+        @Override
+        public void encode(LiveBroadcastPlayCommand message, DataOutput out)
+                throws IOException {
+            writeString(out, message.getBroadcastId());
+            MSGSOURCE msgSource = message.getMsgSource();
+            out.writeByte(msgSource == null ? -1 : msgSource.ordinal());
+            out.writeLong(message.getCaptureTime());
+
+            List<byte[]> audio = message.getAudio();
+            out.writeInt(audio == null ? -1 : audio.size());
+            if (audio != null) {
+                for (byte[] packet : audio) {
+                    out.writeInt(packet.length);
+                    out.write(packet);
+                }
+            }
+        }
+
+        @Override
+        public LiveBroadcastPlayCommand decode(DataInput in)
+                throws IOException {
+            LiveBroadcastPlayCommand message = new LiveBroadcastPlayCommand();
+            message.setBroadcastId(readString(in));
+            byte ordinal = in.readByte();
+            if (ordinal >= 0) {
+                message.setMsgSource(MSG_SOURCE[ordinal]);
+            }
+            message.setCaptureTime(in.readLong());
+
+            int size = in.readInt();
+            if (size >= 0) {
+                List<byte[]> audio = new ArrayList<>(size);
+                for (int i = 0; i < size; i += 1) {
+                    byte[] packet = new byte[in.readInt()];
+                    in.readFully(packet);
+                    audio.add(packet);
+                }
+                message.setAudio(audio);
+            }
+            return message;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.ipc;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.raytheon.uf.common.serialization.SerializationException;
+import com.raytheon.uf.common.serialization.SerializationUtil;
+
+/**
+ * 
+ * Reads messages written by a {@link FramedMessageWriter}. The complete frame
+ * is read into a buffer that is reused for every message before it is
+ * decoded, so decoding never waits on the stream. Instances are not thread
+ * safe.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class FramedMessageReader {
+
+    /**
+     * Largest payload that will be accepted, a larger length indicates a
+     * corrupt stream.
+     */
+    private static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private final DataInputStream in;
+
+    private byte[] buffer = new byte[256];
+
+    public FramedMessageReader(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    public Object read() throws IOException, SerializationException {
+        short type = in.readShort();
+        int length = in.readInt();
+        if ((length < 0) || (length > MAX_FRAME_SIZE)) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        if (length > buffer.length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        in.readFully(buffer, 0, length);
+
+        ByteArrayInputStream payload = new ByteArrayInputStream(buffer, 0,
+                length);
+        if (type == FrameCodecs.THRIFT_TYPE) {
+            return SerializationUtil.transformFromThrift(Object.class,
+                    payload);
+        }
+        IFrameCodec<Object> codec = FrameCodecs.getCodec(type);
+        return codec.decode(new DataInputStream(payload));
+    }
+}
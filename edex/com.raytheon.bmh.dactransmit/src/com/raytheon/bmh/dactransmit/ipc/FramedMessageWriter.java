@@ -0,0 +1,108 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.ipc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.raytheon.uf.common.serialization.SerializationException;
+import com.raytheon.uf.common.serialization.SerializationUtil;
+
+/**
+ * 
+ * Writes messages to a stream as frames. Each frame has a header containing
+ * the frame type and the length of the payload. Messages with an
+ * {@link IFrameCodec} are encoded by the codec, all other messages are
+ * encoded with thrift. The frame is assembled in a buffer that is reused for
+ * every message and is written to the stream with a single write. Instances
+ * are not thread safe, callers must synchronize writes.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ * @see FramedMessageReader
+ */
+public class FramedMessageWriter {
+
+    /** Size of the frame type and payload length. */
+    static final int HEADER_SIZE = 6;
+
+    private static final byte[] EMPTY_HEADER = new byte[HEADER_SIZE];
+
+    private final OutputStream out;
+
+    private final FrameBuffer buffer = new FrameBuffer();
+
+    private final DataOutputStream data = new DataOutputStream(buffer);
+
+    public FramedMessageWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void write(Object message) throws IOException,
+            SerializationException {
+        buffer.reset();
+        data.write(EMPTY_HEADER);
+        short type = FrameCodecs.getType(message.getClass());
+        if (type == FrameCodecs.THRIFT_TYPE) {
+            SerializationUtil.transformToThriftUsingStream(message, buffer);
+        } else {
+            IFrameCodec<Object> codec = FrameCodecs.getCodec(type);
+            codec.encode(message, data);
+        }
+        data.flush();
+        buffer.writeHeader(type);
+        buffer.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Exposes the internal array so the header can be filled in after the
+     * payload is written.
+     */
+    private static class FrameBuffer extends ByteArrayOutputStream {
+
+        public FrameBuffer() {
+            super(256);
+        }
+
+        public void writeHeader(short type) {
+            int length = count - HEADER_SIZE;
+            buf[0] = (byte) (type >>> 8);
+            buf[1] = (byte) type;
+            buf[2] = (byte) (length >>> 24);
+            buf[3] = (byte) (length >>> 16);
+            buf[4] = (byte) (length >>> 8);
+            buf[5] = (byte) length;
+        }
+    }
+}
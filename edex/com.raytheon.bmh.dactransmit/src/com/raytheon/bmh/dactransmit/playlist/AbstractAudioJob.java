@@ -50,6 +50,8 @@ import com.raytheon.uf.edex.bmh.audio.LoadedAudioRegulationConfiguration;
  * Aug 24, 2015 4770       bkowal      Utilize the {@link AudioRegulationConfiguration}.
  * Aug 25, 2015 4771       bkowal      Updated to use {@link IAudioRegulator}.
  * Nov 04, 2015 5068       rjpeter     Switch audio units from dB to amplitude.
+ * Oct 17, 2026            agent       DISABLE_AUDIO_ATTENUATION is visible to the
+ *                                     {@link SharedAudioStore}.
  * </pre>
  * 
  * @author bkowal
@@ -59,7 +61,7 @@ import com.raytheon.uf.edex.bmh.audio.LoadedAudioRegulationConfiguration;
 public abstract class AbstractAudioJob<T extends IAudioFileBuffer> implements
         PrioritizableCallable<T> {
 
-    private static final boolean DISABLE_AUDIO_ATTENUATION = Boolean
+    static final boolean DISABLE_AUDIO_ATTENUATION = Boolean
             .getBoolean("disableAudioAttenuation");
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
@@ -60,6 +60,8 @@ import com.raytheon.uf.edex.bmh.msg.logging.IMessageLogger.TONE_TYPE;
  * Mar 17, 2015  4251      bkowal       Handle shorter interrupts without buffer underflows.
  * May 04, 2015  4452      bkowal       Added {@link #toneTruncationRequired()}.
  * May 13, 2015  4429       rferrel     Changes to {@link DefaultMessageLogger} for traceId.
+ * Oct 17, 2026             agent        Allow the message audio to be provided as a
+ *                                      {@link ByteBuffer} so mapped audio is not copied.
  * 
  * </pre>
  * 
@@ -123,8 +125,26 @@ public class AudioFileBuffer extends AbstractAudioFileBuffer {
      */
     public AudioFileBuffer(final DacPlaylistMessage dacMsg,
             final byte[] message, ByteBuffer tones, ByteBuffer endOfMessage) {
+        this(dacMsg, ByteBuffer.wrap(message), tones, endOfMessage);
+    }
+
+    /**
+     * Creates an {@code AudioFileBuffer} for the given message and its
+     * specified tones. The message audio is not copied, it can be a view of
+     * audio in the {@link SharedAudioStore}.
+     * 
+     * @param message
+     *            The main audio message to play, from its position to its
+     *            limit.
+     * @param tones
+     *            The tones to play prior to playing {@code message}.
+     * @param endOfMessage
+     *            The tones to play after playing {@code message}.
+     */
+    public AudioFileBuffer(final DacPlaylistMessage dacMsg,
+            final ByteBuffer message, ByteBuffer tones, ByteBuffer endOfMessage) {
         super(dacMsg);
-        this.messageBuffer = ByteBuffer.wrap(message).asReadOnlyBuffer();
+        this.messageBuffer = message.slice().asReadOnlyBuffer();
         this.tonesBuffer = (tones != null) ? tones.asReadOnlyBuffer()
                 : ByteBuffer.allocate(0).asReadOnlyBuffer();
         this.endOfMessageTones = (endOfMessage != null) ? endOfMessage
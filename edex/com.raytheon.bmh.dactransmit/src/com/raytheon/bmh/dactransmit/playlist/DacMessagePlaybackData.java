@@ -70,6 +70,8 @@ import com.raytheon.uf.common.time.util.TimeUtil;
  * Aug 04, 2016  #5766     bkowal       Utilize {@link UpdatePlaylistMsgTask}.
  * Jan 20, 2017  #6078     bkowal       Fix ordering of arguments passed to
  *                                      {@link MessagePlaybackStatusNotification}.
+ * Oct 17, 2026            agent        Record the playback state in the
+ *                                      {@link PlaybackStateJournal}.
  * 
  * </pre>
  * 
@@ -85,6 +87,8 @@ public final class DacMessagePlaybackData {
 
     private DacPlaylistMessage message;
 
+    private PlaybackStateJournal stateJournal;
+
     private AudioFileBuffer audio;
 
     private boolean dynamicAudio;
@@ -351,6 +355,10 @@ public final class DacMessagePlaybackData {
         this.dynamicAudio = dynamicAudio;
     }
 
+    public void setStateJournal(PlaybackStateJournal stateJournal) {
+        this.stateJournal = stateJournal;
+    }
+
     public void setInterrupt(boolean interrupt) {
         this.interrupt = interrupt;
     }
@@ -374,7 +382,7 @@ public final class DacMessagePlaybackData {
     protected class EndPlaybackTask extends UpdatePlaylistMsgTask {
 
         public EndPlaybackTask() {
-            super(message);
+            super(message, stateJournal);
         }
 
         @Override
@@ -0,0 +1,74 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.playlist;
+
+import java.util.Calendar;
+
+import com.raytheon.bmh.dactransmit.exceptions.NoSoundFileException;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageId;
+
+/**
+ * Definition of the message data a {@link PlaybackTimeline} predicts the
+ * playback of a playlist from.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+
+public interface IPlaylistMessageSource {
+    /**
+     * @param id
+     *            identifies the message
+     * @return the message, {@code null} if it could not be read.
+     */
+    public DacPlaylistMessage getMessage(DacPlaylistMessageId id);
+
+    /**
+     * @param id
+     *            identifies the message
+     * @param startTime
+     *            the time the message will be played, tones are ignored if
+     *            {@code null}
+     * @return the playback time of the message in milliseconds.
+     * @throws NoSoundFileException
+     *             if the message has no sound files
+     */
+    public long getPlaybackTime(DacPlaylistMessageId id, Calendar startTime)
+            throws NoSoundFileException;
+
+    /**
+     * @param id
+     *            identifies the message
+     * @return an object that is only replaced when the playback time of the
+     *         message may have changed, compared by identity.
+     */
+    public Object getPlaybackTimeSource(DacPlaylistMessageId id);
+}
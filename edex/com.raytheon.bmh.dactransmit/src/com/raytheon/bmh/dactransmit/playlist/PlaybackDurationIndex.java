@@ -0,0 +1,301 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.playlist;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.raytheon.uf.common.bmh.FilePermissionUtils;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
+import com.raytheon.uf.common.util.file.IOPermissionsHelper;
+
+/**
+ * Index of the playback size of the {@link DacPlaylistMessage}s broadcast by a
+ * single transmitter group. The sizes are recorded when the audio for a
+ * message is retrieved so that playback predictions do not need the audio
+ * buffer or the sound files. An entry is only used while the sound files of
+ * the message match the sound files the entry was recorded for.
+ * 
+ * Sizes recorded from a retrieved audio buffer are saved to
+ * {@value #INDEX_FILE_NAME} during the periodic cache purge and loaded when the
+ * dac transmit process starts. Estimates based on the size of the sound files
+ * are only kept in memory until the audio has been retrieved.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class PlaybackDurationIndex {
+
+    public static final String INDEX_FILE_NAME = "playbackDuration.index";
+
+    private static final int MAGIC = 0x424D4844;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Path indexPath;
+
+    private final ConcurrentMap<Long, PlaybackSize> sizes = new ConcurrentHashMap<>();
+
+    private volatile boolean dirty;
+
+    public PlaybackDurationIndex(final Path messageDirectory) {
+        this.indexPath = messageDirectory.resolve(INDEX_FILE_NAME);
+        if (Files.exists(this.indexPath)) {
+            try {
+                this.load();
+            } catch (Exception e) {
+                this.sizes.clear();
+                logger.warn("Failed to read the playback duration index: "
+                        + this.indexPath.toString()
+                        + ". Playback sizes will be recalculated.", e);
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream dis = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(this.indexPath)))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unrecognized playback duration index.");
+            }
+            final int count = dis.readInt();
+            for (int i = 0; i < count; i++) {
+                final long broadcastId = dis.readLong();
+                final int soundFilesHash = dis.readInt();
+                final int bytes = dis.readInt();
+                final int bytesWithTones = dis.readInt();
+                this.sizes.put(broadcastId, new PlaybackSize(soundFilesHash,
+                        bytes, bytesWithTones, false));
+            }
+        }
+        logger.info("Loaded {} playback size(s) from {}.", this.sizes.size(),
+                this.indexPath.toString());
+    }
+
+    /**
+     * Record the playback size of the retrieved audio of a message.
+     * 
+     * @param message
+     *            the message the audio was retrieved for
+     * @param buffer
+     *            the retrieved audio
+     */
+    public void record(final DacPlaylistMessage message,
+            final IAudioFileBuffer buffer) {
+        PlaybackSize size = new PlaybackSize(
+                getSoundFilesHash(message.getSoundFiles()),
+                buffer.capacity(false), buffer.capacity(true), false);
+        if (!size.equals(this.sizes.put(message.getBroadcastId(), size))) {
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Record an estimate of the playback size of a message that is based on
+     * the size of the sound files. The estimate will not replace a size that
+     * was recorded from the retrieved audio.
+     * 
+     * @param message
+     *            the message to record the estimate for
+     * @param fileSize
+     *            the size of the sound files
+     * @return the recorded size of the message
+     */
+    public PlaybackSize recordEstimate(final DacPlaylistMessage message,
+            final long fileSize) {
+        final int soundFilesHash = getSoundFilesHash(message.getSoundFiles());
+        PlaybackSize existing = this.sizes.get(message.getBroadcastId());
+        if (existing != null && existing.soundFilesHash == soundFilesHash) {
+            return existing;
+        }
+        PlaybackSize size = new PlaybackSize(soundFilesHash, fileSize,
+                fileSize, true);
+        this.sizes.put(message.getBroadcastId(), size);
+        return size;
+    }
+
+    /**
+     * @param message
+     *            the message to look up
+     * @return the playback size of the current audio of the message or null
+     *         if no size has been recorded for the audio.
+     */
+    public PlaybackSize get(final DacPlaylistMessage message) {
+        PlaybackSize size = this.sizes.get(message.getBroadcastId());
+        if (size == null
+                || size.soundFilesHash != getSoundFilesHash(message
+                        .getSoundFiles())) {
+            return null;
+        }
+        return size;
+    }
+
+    public void remove(final long broadcastId) {
+        if (this.sizes.remove(broadcastId) != null) {
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Write the sizes that were recorded from retrieved audio to the index
+     * file if any have changed since the last save.
+     */
+    public void save() {
+        if (!this.dirty) {
+            return;
+        }
+        this.dirty = false;
+
+        Map<Long, PlaybackSize> retrieved = new HashMap<>(this.sizes.size());
+        for (Map.Entry<Long, PlaybackSize> entry : this.sizes.entrySet()) {
+            if (!entry.getValue().estimate) {
+                retrieved.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Path tmp = this.indexPath.resolveSibling(INDEX_FILE_NAME + ".tmp");
+        try {
+            try (DataOutputStream dos = new DataOutputStream(
+                    new BufferedOutputStream(
+                            IOPermissionsHelper.getOutputStream(tmp,
+                                    FilePermissionUtils.FILE_PERMISSIONS_SET)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(FORMAT_VERSION);
+                dos.writeInt(retrieved.size());
+                for (Map.Entry<Long, PlaybackSize> entry : retrieved
+                        .entrySet()) {
+                    PlaybackSize size = entry.getValue();
+                    dos.writeLong(entry.getKey());
+                    dos.writeInt(size.soundFilesHash);
+                    dos.writeInt((int) size.bytes);
+                    dos.writeInt((int) size.bytesWithTones);
+                }
+            }
+            Files.move(tmp, this.indexPath,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.dirty = true;
+            logger.warn("Failed to write the playback duration index: "
+                    + this.indexPath.toString() + ".", e);
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException e1) {
+                // Ignore
+            }
+        }
+    }
+
+    private static int getSoundFilesHash(final List<String> soundFiles) {
+        return (soundFiles == null) ? 0 : soundFiles.hashCode();
+    }
+
+    /**
+     * The number of audio bytes that will be broadcast for a message, with
+     * and without the tones.
+     */
+    public static final class PlaybackSize {
+
+        private final int soundFilesHash;
+
+        private final long bytes;
+
+        private final long bytesWithTones;
+
+        private final boolean estimate;
+
+        private PlaybackSize(int soundFilesHash, long bytes,
+                long bytesWithTones, boolean estimate) {
+            this.soundFilesHash = soundFilesHash;
+            this.bytes = bytes;
+            this.bytesWithTones = bytesWithTones;
+            this.estimate = estimate;
+        }
+
+        /**
+         * @param includeTones
+         *            whether or not the tones will be broadcast
+         * @return the number of audio bytes that will be broadcast. For an
+         *         estimate this is the size of the sound files only.
+         */
+        public long getBytes(boolean includeTones) {
+            return includeTones ? bytesWithTones : bytes;
+        }
+
+        /**
+         * @return true if the size is based on the size of the sound files
+         *         rather than on the retrieved audio.
+         */
+        public boolean isEstimate() {
+            return estimate;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = soundFilesHash;
+            result = prime * result + (int) (bytes ^ (bytes >>> 32));
+            result = prime * result
+                    + (int) (bytesWithTones ^ (bytesWithTones >>> 32));
+            result = prime * result + (estimate ? 1231 : 1237);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            PlaybackSize other = (PlaybackSize) obj;
+            return soundFilesHash == other.soundFilesHash
+                    && bytes == other.bytes
+                    && bytesWithTones == other.bytesWithTones
+                    && estimate == other.estimate;
+        }
+    }
+}
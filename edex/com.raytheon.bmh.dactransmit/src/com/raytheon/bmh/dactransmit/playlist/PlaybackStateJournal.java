@@ -0,0 +1,529 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.playlist;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.raytheon.uf.common.bmh.FilePermissionUtils;
+import com.raytheon.uf.common.bmh.dac.archive.PlaylistMessageArchiver;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistCodec;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageId;
+import com.raytheon.uf.common.bmh.lock.InMemoryFileLockManager;
+import com.raytheon.uf.common.time.util.TimeUtil;
+import com.raytheon.uf.common.util.file.IOPermissionsHelper;
+
+/**
+ * Append-only, memory-mapped journal of the playback state of the
+ * {@link DacPlaylistMessage}s broadcast by a single transmitter group. Every
+ * playback (and every cycle countdown) appends one fixed-size record to the
+ * journal instead of rewriting the complete message file. The message files
+ * remain the checkpoint of the playback state: they are rewritten in
+ * bulk whenever the journal is compacted, which occurs when the journal fills
+ * up, during the periodic cache purge, and when a message is evicted from the
+ * {@link PlaylistMessageCache}. Any records remaining from a previous dac
+ * transmit process are replayed into the message files when the journal is opened.
+ * The message file of a new message is created by its first checkpoint, but the
+ * file of a message that has already been archived or purged is never recreated.
+ * 
+ * Journal layout: a {@value #HEADER_SIZE} byte header (magic, format version,
+ * generation) followed by {@value #RECORD_SIZE} byte records. A record is only
+ * valid when it carries the generation found in the header and its checksum
+ * matches; every compaction increments the generation which invalidates all
+ * existing records without needing to clear the file.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * Oct 18, 2026            agent       Do not recreate missing message files.
+ * Oct 18, 2026            agent       Create the files of new messages, never overwrite
+ *                                     unreadable message files.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class PlaybackStateJournal {
+
+    public static final String JOURNAL_FILE_NAME = "playbackState.journal";
+
+    /*
+     * Maximum number of records that can be appended to the journal before it
+     * is compacted.
+     */
+    private static final int CAPACITY = Integer.getInteger(
+            "playbackJournalCapacity", 4096);
+
+    private static final int MAGIC = 0x424D484A;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    private static final int RECORD_SIZE = 40;
+
+    /*
+     * Number of bytes at the start of a record covered by the checksum.
+     */
+    private static final int CHECKSUM_SIZE = 32;
+
+    private static final long NO_TRANSMIT_TIME = Long.MIN_VALUE;
+
+    private static final int FLAG_PLAYED_SAME_TONE = 0x1;
+
+    private static final int FLAG_PLAYED_ALERT_TONE = 0x2;
+
+    private static final int FLAG_REMAINING_CYCLES = 0x4;
+
+    private static final long FILE_LOCK_TIMEOUT = 1000L;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Path messageDirectory;
+
+    private final Path journalPath;
+
+    private final Path archiveDirectory;
+
+    /*
+     * Messages that have journal records which have not been checkpointed to
+     * their message files yet.
+     */
+    private final Map<Long, DacPlaylistMessage> dirtyMessages = new LinkedHashMap<>();
+
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer journal;
+
+    private int generation;
+
+    private int position = HEADER_SIZE;
+
+    public PlaybackStateJournal(final Path messageDirectory) {
+        this.messageDirectory = messageDirectory;
+        this.journalPath = messageDirectory.resolve(JOURNAL_FILE_NAME);
+        this.archiveDirectory = messageDirectory.getParent().resolve(
+                PlaylistMessageArchiver.ARCHIVE_DIR);
+        try {
+            this.open();
+        } catch (Exception e) {
+            this.journal = null;
+            logger.error("Failed to open the playback state journal: "
+                    + this.journalPath.toString()
+                    + ". Playback state will be written directly to the message files.",
+                    e);
+        }
+    }
+
+    /**
+     * Replays any records left behind by a previous process into the message
+     * files and prepares the journal for appending.
+     */
+    private void open() throws IOException {
+        Files.createDirectories(this.messageDirectory);
+        final boolean exists = Files.exists(this.journalPath);
+        final long size = CAPACITY * (long) RECORD_SIZE + HEADER_SIZE;
+        Map<Long, PlaybackState> states = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(this.journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (exists) {
+                final long existingSize = channel.size();
+                if (existingSize >= HEADER_SIZE) {
+                    this.replay(
+                            channel.map(MapMode.READ_ONLY, 0, existingSize),
+                            states);
+                }
+                if (existingSize > size) {
+                    channel.truncate(size);
+                }
+            } else {
+                IOPermissionsHelper.applyFilePermissions(this.journalPath,
+                        FilePermissionUtils.FILE_PERMISSIONS_SET);
+            }
+            this.journal = channel.map(MapMode.READ_WRITE, 0, size);
+        }
+
+        if (!states.isEmpty()) {
+            logger.info(
+                    "Replaying {} playback state(s) from journal {} into the message files.",
+                    states.size(), this.journalPath.toString());
+            for (PlaybackState state : states.values()) {
+                this.restoreMessageFile(state);
+            }
+        }
+        this.reset();
+    }
+
+    private void replay(final ByteBuffer buffer,
+            final Map<Long, PlaybackState> states) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            logger.warn("Ignoring unrecognized playback state journal: {}.",
+                    this.journalPath.toString());
+            return;
+        }
+        this.generation = buffer.getInt(8);
+        for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= buffer
+                .limit(); offset += RECORD_SIZE) {
+            /*
+             * Records are appended sequentially, so the first record that is
+             * stale or torn marks the end of the journal.
+             */
+            if (buffer.getInt(offset + 28) != this.generation
+                    || buffer.getInt(offset + 32) != this.checksum(buffer,
+                            offset)) {
+                break;
+            }
+            PlaybackState state = new PlaybackState(buffer, offset);
+            states.remove(state.broadcastId);
+            states.put(state.broadcastId, state);
+        }
+    }
+
+    private int checksum(final ByteBuffer buffer, final int offset) {
+        ByteBuffer record = buffer.duplicate();
+        record.limit(offset + CHECKSUM_SIZE);
+        record.position(offset);
+        crc.reset();
+        for (int i = 0; i < CHECKSUM_SIZE; i++) {
+            crc.update(record.get());
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Records the current playback state of the specified message.
+     * 
+     * @param message
+     *            the {@link DacPlaylistMessage} that was updated
+     */
+    public synchronized void record(final DacPlaylistMessage message) {
+        if (this.journal == null) {
+            this.writeMessageFile(message);
+            return;
+        }
+
+        this.dirtyMessages.put(message.getBroadcastId(), message);
+        if (this.position + RECORD_SIZE > this.journal.capacity()) {
+            /*
+             * The message is already dirty, so compaction will persist it.
+             */
+            this.checkpoint();
+            return;
+        }
+
+        final int offset = this.position;
+        final Calendar lastTransmitTime = message.getLastTransmitTime();
+        final Integer remainingCycles = message.getRemainingCycles();
+        int flags = 0;
+        if (message.isPlayedSameTone()) {
+            flags |= FLAG_PLAYED_SAME_TONE;
+        }
+        if (message.isPlayedAlertTone()) {
+            flags |= FLAG_PLAYED_ALERT_TONE;
+        }
+        if (remainingCycles != null) {
+            flags |= FLAG_REMAINING_CYCLES;
+        }
+        this.journal.putLong(offset, message.getBroadcastId());
+        this.journal.putLong(offset + 8,
+                lastTransmitTime == null ? NO_TRANSMIT_TIME : lastTransmitTime
+                        .getTimeInMillis());
+        this.journal.putInt(offset + 16, message.getPlayCount());
+        this.journal.putInt(offset + 20, remainingCycles == null ? 0
+                : remainingCycles);
+        this.journal.putInt(offset + 24, flags);
+        this.journal.putInt(offset + 28, this.generation);
+        this.journal.putInt(offset + 32, this.checksum(this.journal, offset));
+        this.journal.putInt(offset + 36, 0);
+        this.position += RECORD_SIZE;
+    }
+
+    /**
+     * Writes the state of all messages with outstanding journal records to
+     * their message files and discards the journal records.
+     */
+    public synchronized void checkpoint() {
+        if (this.journal == null) {
+            return;
+        }
+        final int records = (this.position - HEADER_SIZE) / RECORD_SIZE;
+        if (records == 0 && this.dirtyMessages.isEmpty()) {
+            return;
+        }
+
+        List<DacPlaylistMessage> messages = new ArrayList<>(
+                this.dirtyMessages.values());
+        this.dirtyMessages.clear();
+        for (DacPlaylistMessage message : messages) {
+            this.writeMessageFile(message);
+        }
+        this.reset();
+        logger.info(
+                "Compacted playback state journal: {} record(s) checkpointed to {} message file(s).",
+                records, messages.size());
+    }
+
+    /**
+     * Writes the state of the specified message to its message file if it has
+     * any outstanding journal records. Used before a message is evicted from
+     * memory so that it will be read back in its current state.
+     * 
+     * @param message
+     *            the {@link DacPlaylistMessage} to flush
+     */
+    public synchronized void flush(final DacPlaylistMessage message) {
+        if (this.dirtyMessages.remove(message.getBroadcastId()) != null) {
+            this.writeMessageFile(message);
+        }
+    }
+
+    /**
+     * Starts a new journal generation, invalidating all existing records.
+     */
+    private void reset() {
+        ++this.generation;
+        this.journal.putInt(0, MAGIC);
+        this.journal.putInt(4, FORMAT_VERSION);
+        this.journal.putInt(8, this.generation);
+        this.journal.putInt(12, 0);
+        this.journal.force();
+        this.position = HEADER_SIZE;
+    }
+
+    private void restoreMessageFile(final PlaybackState state) {
+        Path msgPath = this.messageDirectory.resolve(state.broadcastId
+                + ".xml");
+        DacPlaylistMessage message;
+        if (Files.exists(msgPath)) {
+            try {
+                message = DacPlaylistCodec.read(msgPath,
+                        DacPlaylistMessage.class);
+            } catch (Exception e) {
+                /*
+                 * Leave the file alone, the journal record does not include
+                 * the expiration or anything else needed to replace it.
+                 */
+                logger.error("Failed to read message file: "
+                        + msgPath.toString()
+                        + ". The playback state in the journal will not be restored.",
+                        e);
+                return;
+            }
+        } else {
+            message = this.createMessage(state.broadcastId);
+            if (message == null) {
+                logger.info(
+                        "Skipping the playback state of message {}. The message has been archived or purged.",
+                        state.broadcastId);
+                return;
+            }
+        }
+        message.setPath(msgPath);
+        state.apply(message);
+        this.writeMessageFile(message);
+    }
+
+    private Path getMessagePath(final DacPlaylistMessage message) {
+        if (message.getPath() != null) {
+            return message.getPath();
+        }
+        return this.messageDirectory.resolve(message.getBroadcastId()
+                + ".xml");
+    }
+
+    private void writeMessageFile(final DacPlaylistMessage message) {
+        Path msgPath = this.getMessagePath(message);
+        ReentrantLock fileLock = null;
+        try {
+            fileLock = InMemoryFileLockManager.getInstance()
+                    .requestResourceLock(msgPath, FILE_LOCK_TIMEOUT);
+            if (fileLock == null) {
+                logger.error("Unable to write updated message file: "
+                        + msgPath.toString() + ". Failed to lock the file.");
+                return;
+            }
+            if ((Files.exists(msgPath) == false)
+                    && (this.isActive(message.getBroadcastId()) == false)) {
+                /* Do not resurrect an archived or purged message. */
+                logger.info(
+                        "Not writing the playback state of message {}. The message has been archived or purged.",
+                        message.getBroadcastId());
+                return;
+            }
+            try (OutputStream os = IOPermissionsHelper.getOutputStream(msgPath,
+                    FilePermissionUtils.FILE_PERMISSIONS_SET)) {
+                os.write(DacPlaylistCodec.marshal(message));
+            }
+        } catch (Throwable e) {
+            logger.error("Unable to persist message state.", e);
+        } finally {
+            if (fileLock != null) {
+                fileLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Determines if a message without a message file is new rather than
+     * archived or purged. The archive task moves the message file to the
+     * archive and removes the metadata files, the purge only removes archived
+     * files, so a message is new when it has not been archived but still has
+     * metadata.
+     */
+    private boolean isActive(final long broadcastId) throws IOException {
+        return (this.isArchived(broadcastId) == false)
+                && (this.getLatestMetadataPath(broadcastId) != null);
+    }
+
+    private boolean isArchived(final long broadcastId) {
+        return Files.exists(this.archiveDirectory.resolve(broadcastId + ".xml"));
+    }
+
+    /**
+     * @return the metadata file with the latest timestamp for the message or
+     *         null if it has none.
+     */
+    private Path getLatestMetadataPath(final long broadcastId)
+            throws IOException {
+        final String prefix = broadcastId + "_";
+        Path latestPath = null;
+        long latestTimestamp = Long.MIN_VALUE;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(
+                this.messageDirectory, prefix + "*.xml")) {
+            for (Path metadataPath : stream) {
+                String fileName = metadataPath.getFileName().toString();
+                long timestamp;
+                try {
+                    timestamp = Long.parseLong(fileName.substring(
+                            prefix.length(), fileName.length() - 4));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (timestamp > latestTimestamp) {
+                    latestTimestamp = timestamp;
+                    latestPath = metadataPath;
+                }
+            }
+        }
+        return latestPath;
+    }
+
+    /**
+     * Creates the message for a new message that does not have a message file
+     * yet. The expiration comes from the latest metadata so the file can be
+     * archived once the message expires.
+     * 
+     * @return the message or null if the message has been archived or purged.
+     */
+    private DacPlaylistMessage createMessage(final long broadcastId) {
+        try {
+            if (this.isArchived(broadcastId)) {
+                return null;
+            }
+            Path metadataPath = this.getLatestMetadataPath(broadcastId);
+            if (metadataPath == null) {
+                return null;
+            }
+            DacPlaylistMessageId id = DacPlaylistCodec.read(metadataPath,
+                    DacPlaylistMessageId.class);
+            DacPlaylistMessage message = new DacPlaylistMessage();
+            message.setBroadcastId(broadcastId);
+            message.setVersion(DacPlaylistMessageId.CURRENT_VERSION);
+            message.setTimestamp(id.getTimestamp());
+            message.setExpire(id.getExpire());
+            return message;
+        } catch (Exception e) {
+            logger.error("Failed to read the metadata of message "
+                    + broadcastId
+                    + ". The playback state in the journal will not be restored.",
+                    e);
+            return null;
+        }
+    }
+
+    /**
+     * Playback state read from a single journal record.
+     */
+    private static class PlaybackState {
+
+        private final long broadcastId;
+
+        private final long lastTransmitTime;
+
+        private final int playCount;
+
+        private final int remainingCycles;
+
+        private final int flags;
+
+        public PlaybackState(final ByteBuffer buffer, final int offset) {
+            this.broadcastId = buffer.getLong(offset);
+            this.lastTransmitTime = buffer.getLong(offset + 8);
+            this.playCount = buffer.getInt(offset + 16);
+            this.remainingCycles = buffer.getInt(offset + 20);
+            this.flags = buffer.getInt(offset + 24);
+        }
+
+        public void apply(final DacPlaylistMessage message) {
+            if (this.lastTransmitTime == NO_TRANSMIT_TIME) {
+                message.setLastTransmitTime(null);
+            } else {
+                Calendar transmitTime = TimeUtil.newGmtCalendar();
+                transmitTime.setTimeInMillis(this.lastTransmitTime);
+                message.setLastTransmitTime(transmitTime);
+            }
+            message.setPlayCount(this.playCount);
+            message.setPlayedSameTone(
+                    (this.flags & FLAG_PLAYED_SAME_TONE) != 0);
+            message.setPlayedAlertTone(
+                    (this.flags & FLAG_PLAYED_ALERT_TONE) != 0);
+            if ((this.flags & FLAG_REMAINING_CYCLES) != 0) {
+                message.setRemainingCycles(this.remainingCycles);
+            } else {
+                message.setRemainingCycles(null);
+            }
+        }
+    }
+}
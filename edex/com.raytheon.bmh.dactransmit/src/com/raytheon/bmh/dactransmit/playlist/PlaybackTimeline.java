@@ -0,0 +1,700 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.playlist;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.raytheon.bmh.dactransmit.exceptions.NoSoundFileException;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageId;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageMetadata;
+import com.raytheon.uf.common.bmh.notify.MessagePlaybackPrediction;
+
+/**
+ * Persistent timeline of the playback predictions for the messages of a cycle
+ * that have not played yet. Every {@link Slot} holds the prediction for one
+ * message of the playlist together with the predictions for the periodic
+ * messages that became due ahead of it. The predictions of a slot only depend
+ * on the time the slot starts, the periodic messages that are still pending at
+ * that time and the state of the messages, so a slot can be reused as long as
+ * all of those are unchanged.
+ * 
+ * The slots are kept in an immutable treap ordered by position that also
+ * tracks the playback time and the number of periodic messages of every
+ * subtree. Finding the start of a slot and inserting, removing or replacing
+ * slots take O(log n) and return a new timeline that shares every untouched
+ * slot with this one, so a new timeline can be built and dropped without
+ * affecting the current one. {@link #update(long, boolean, List, SortedMap,
+ * IPlaylistMessageSource)} only predicts the slots from the first message that
+ * changed, until the new slots line up with the old ones again.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public final class PlaybackTimeline {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(PlaybackTimeline.class);
+
+    /**
+     * Time the first slot starts, in epoch milliseconds.
+     */
+    private final long startTime;
+
+    private final boolean interrupt;
+
+    /**
+     * Periodic messages keyed by the time they are due, the slots consume them
+     * in order.
+     */
+    private final SortedMap<Long, DacPlaylistMessageId> periodicMessages;
+
+    private final List<MessageState> periodicStates;
+
+    private final Node root;
+
+    /**
+     * Create an empty timeline.
+     * 
+     * @param startTime
+     *            time the first slot starts, in epoch milliseconds
+     * @param interrupt
+     *            true if the messages are from an interrupt playlist
+     * @param periodicMessages
+     *            periodic messages keyed by the time they are due
+     * @param source
+     *            the source the messages are read from
+     */
+    public PlaybackTimeline(long startTime, boolean interrupt,
+            SortedMap<Long, DacPlaylistMessageId> periodicMessages,
+            IPlaylistMessageSource source) {
+        this.startTime = startTime;
+        this.interrupt = interrupt;
+        this.periodicMessages = new TreeMap<>(periodicMessages);
+        this.periodicStates = new ArrayList<>(periodicMessages.size());
+        for (DacPlaylistMessageId id : periodicMessages.values()) {
+            this.periodicStates.add(new MessageState(id, source));
+        }
+        this.root = null;
+    }
+
+    private PlaybackTimeline(PlaybackTimeline that, Node root) {
+        this.startTime = that.startTime;
+        this.interrupt = that.interrupt;
+        this.periodicMessages = that.periodicMessages;
+        this.periodicStates = that.periodicStates;
+        this.root = root;
+    }
+
+    /**
+     * Determine if the slots of this timeline are valid for a timeline with
+     * the specified parameters.
+     * 
+     * @param startTime
+     *            time the first slot starts, in epoch milliseconds
+     * @param interrupt
+     *            true if the messages are from an interrupt playlist
+     * @param periodicMessages
+     *            periodic messages keyed by the time they are due
+     * @param source
+     *            the source the messages are read from
+     * @return true if every slot with a current message can be reused.
+     */
+    public boolean isCompatible(long startTime, boolean interrupt,
+            SortedMap<Long, DacPlaylistMessageId> periodicMessages,
+            IPlaylistMessageSource source) {
+        if (this.startTime != startTime || this.interrupt != interrupt
+                || !this.periodicMessages.equals(periodicMessages)) {
+            return false;
+        }
+        Iterator<MessageState> states = this.periodicStates.iterator();
+        for (DacPlaylistMessageId id : periodicMessages.values()) {
+            if (!states.next().matches(id, source)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Predict the playback of the messages that have not played yet. Periodic
+     * messages are played ahead of the first message that would start after
+     * they are due.
+     * 
+     * When this timeline is compatible with the new parameters its slots are
+     * reused: only the slots from the first message that was added, removed
+     * or changed are predicted again, until the new slots line up with the
+     * remaining slots of this timeline.
+     * 
+     * @param startTime
+     *            the time the first message will start, in epoch milliseconds
+     * @param interrupt
+     *            true if the messages are from an interrupt playlist, the
+     *            start and expire times of those messages are ignored
+     * @param messages
+     *            the messages to play, in order
+     * @param periodicMessages
+     *            periodic messages keyed by the time they are due
+     * @param source
+     *            the source the messages are read from
+     * @return the new timeline, this timeline is not modified.
+     */
+    public PlaybackTimeline update(long startTime, boolean interrupt,
+            List<DacPlaylistMessageId> messages,
+            SortedMap<Long, DacPlaylistMessageId> periodicMessages,
+            IPlaylistMessageSource source) {
+        boolean compatible = isCompatible(startTime, interrupt,
+                periodicMessages, source);
+        List<Slot> previousSlots = compatible ? getSlots() : Collections
+                .<Slot> emptyList();
+
+        /* Find the slots at either end that are still current. */
+        int prefix = 0;
+        int limit = Math.min(messages.size(), previousSlots.size());
+        while (prefix < limit
+                && previousSlots.get(prefix).isCurrent(messages.get(prefix),
+                        source)) {
+            prefix++;
+        }
+        int suffix = 0;
+        limit -= prefix;
+        while (suffix < limit
+                && previousSlots.get(previousSlots.size() - 1 - suffix)
+                        .isCurrent(messages.get(messages.size() - 1 - suffix),
+                                source)) {
+            suffix++;
+        }
+
+        List<Entry<Long, DacPlaylistMessageId>> periodic = new ArrayList<>(
+                periodicMessages.entrySet());
+        long nextMessageTime = startTime + getPlaybackTime(prefix);
+        int periodicIndex = getPeriodicCount(prefix);
+        int offset = previousSlots.size() - messages.size();
+        int end = previousSlots.size();
+        /* Where the unchanged slots at the end start in the old timeline. */
+        int previousIndex = end - suffix;
+        long previousTime = startTime + getPlaybackTime(previousIndex);
+        int previousPeriodicIndex = getPeriodicCount(previousIndex);
+        List<Slot> slots = new ArrayList<>();
+        for (int index = prefix; index < messages.size(); index++) {
+            /*
+             * Once a new slot ends where the matching slot of the old timeline
+             * ended, all following slots are unchanged.
+             */
+            if (index + offset >= previousIndex) {
+                if (nextMessageTime == previousTime
+                        && periodicIndex == previousPeriodicIndex) {
+                    end = index + offset;
+                    break;
+                }
+                Slot previousSlot = previousSlots.get(index + offset);
+                previousTime += previousSlot.playbackTime;
+                previousPeriodicIndex += previousSlot.periodicCount;
+            }
+            Slot slot = predict(messages.get(index), nextMessageTime,
+                    periodic, periodicIndex, interrupt, source);
+            slots.add(slot);
+            nextMessageTime += slot.playbackTime;
+            periodicIndex += slot.periodicCount;
+        }
+
+        logger.debug("Predicted {} of {} message(s).", slots.size(),
+                messages.size());
+        if (compatible) {
+            return splice(prefix, end, slots);
+        }
+        /*
+         * Capture the periodic messages after predicting, the prediction may
+         * have estimated their playback time.
+         */
+        return new PlaybackTimeline(startTime, interrupt, periodicMessages,
+                source).splice(0, 0, slots);
+    }
+
+    /**
+     * Predict the playback of a single message and of the periodic messages
+     * that become due before it starts.
+     */
+    private static Slot predict(DacPlaylistMessageId messageId,
+            long startTime, List<Entry<Long, DacPlaylistMessageId>> periodic,
+            int periodicIndex, boolean interrupt, IPlaylistMessageSource source) {
+        List<DacPlaylistMessageId> messages = new ArrayList<>(1);
+        List<MessagePlaybackPrediction> predictions = new ArrayList<>(1);
+        long nextMessageTime = startTime;
+        int periodicCount = 0;
+        while ((periodicIndex + periodicCount < periodic.size())
+                && (periodic.get(periodicIndex + periodicCount).getKey() <= nextMessageTime)) {
+            DacPlaylistMessageId periodicId = periodic.get(
+                    periodicIndex + periodicCount).getValue();
+            periodicCount++;
+            DacPlaylistMessage messageData = source.getMessage(periodicId);
+            if (messageData != null && messageData.isValid(nextMessageTime)) {
+                logger.debug("Scheduling periodic message [" + periodicId
+                        + "].");
+                try {
+                    MessagePlaybackPrediction prediction = new MessagePlaybackPrediction(
+                            nextMessageTime, messageData);
+                    long playbackTime = source.getPlaybackTime(periodicId,
+                            prediction.getNextTransmitTime());
+
+                    predictions.add(prediction);
+                    messages.add(periodicId);
+
+                    nextMessageTime += playbackTime;
+                } catch (NoSoundFileException e) {
+                    logger.error("Message " + messageId
+                            + " has no soundFile attribute. Skipping.");
+                }
+            }
+        }
+
+        DacPlaylistMessage messageData = source.getMessage(messageId);
+
+        /*
+         * ignore start/expire times for interrupt playlists, we just want to
+         * play the message.
+         */
+        boolean notBroadcast = false;
+        if (messageData != null
+                && (interrupt || messageData.isValid(nextMessageTime))) {
+            try {
+                MessagePlaybackPrediction prediction = new MessagePlaybackPrediction(
+                        nextMessageTime, messageData);
+                long playbackTime = source.getPlaybackTime(messageId,
+                        prediction.getNextTransmitTime());
+                predictions.add(prediction);
+                messages.add(messageId);
+                nextMessageTime += playbackTime;
+            } catch (NoSoundFileException e) {
+                logger.error("Message " + messageId
+                        + " has no soundFile attribute. Skipping.");
+            }
+        } else {
+            notBroadcast = true;
+        }
+        return new Slot(messageId, messages, predictions, nextMessageTime
+                - startTime, periodicCount, notBroadcast, source);
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * @return the playback time of all slots, in milliseconds.
+     */
+    public long getPlaybackTime() {
+        return playbackTime(root);
+    }
+
+    /**
+     * @param count
+     *            number of slots
+     * @return the playback time of the first {@code count} slots, in
+     *         milliseconds.
+     */
+    public long getPlaybackTime(int count) {
+        long playbackTime = 0;
+        Node node = root;
+        while (node != null && count > 0) {
+            int leftSize = size(node.left);
+            if (count <= leftSize) {
+                node = node.left;
+            } else {
+                playbackTime += playbackTime(node.left)
+                        + node.slot.playbackTime;
+                count -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return playbackTime;
+    }
+
+    /**
+     * @return the number of periodic messages consumed by all slots.
+     */
+    public int getPeriodicCount() {
+        return periodicCount(root);
+    }
+
+    /**
+     * @param count
+     *            number of slots
+     * @return the number of periodic messages consumed by the first
+     *         {@code count} slots.
+     */
+    public int getPeriodicCount(int count) {
+        int periodicCount = 0;
+        Node node = root;
+        while (node != null && count > 0) {
+            int leftSize = size(node.left);
+            if (count <= leftSize) {
+                node = node.left;
+            } else {
+                periodicCount += periodicCount(node.left)
+                        + node.slot.periodicCount;
+                count -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return periodicCount;
+    }
+
+    public Slot get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+                    + size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.slot;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * @return all slots in playback order.
+     */
+    public List<Slot> getSlots() {
+        List<Slot> slots = new ArrayList<>(size());
+        addSlots(root, slots);
+        return slots;
+    }
+
+    public PlaybackTimeline insert(int index, Slot slot) {
+        return splice(index, index, Collections.singletonList(slot));
+    }
+
+    public PlaybackTimeline remove(int index) {
+        return splice(index, index + 1, Collections.<Slot> emptyList());
+    }
+
+    public PlaybackTimeline replace(int index, Slot slot) {
+        return splice(index, index + 1, Collections.singletonList(slot));
+    }
+
+    /**
+     * Replace a range of slots.
+     * 
+     * @param fromIndex
+     *            index of the first slot to replace
+     * @param toIndex
+     *            index after the last slot to replace
+     * @param slots
+     *            the slots to put in place of the range
+     * @return a timeline with the range replaced, this timeline is not
+     *         modified.
+     */
+    public PlaybackTimeline splice(int fromIndex, int toIndex,
+            List<Slot> slots) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range: " + fromIndex + "-"
+                    + toIndex + ", Size: " + size());
+        }
+        Node[] head = split(root, fromIndex);
+        Node[] tail = split(head[1], toIndex - fromIndex);
+        Node middle = null;
+        for (Slot slot : slots) {
+            middle = merge(middle, new Node(slot, ThreadLocalRandom.current()
+                    .nextInt(), null, null));
+        }
+        return new PlaybackTimeline(this, merge(merge(head[0], middle),
+                tail[1]));
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static long playbackTime(Node node) {
+        return node == null ? 0 : node.playbackTime;
+    }
+
+    private static int periodicCount(Node node) {
+        return node == null ? 0 : node.periodicCount;
+    }
+
+    private static void addSlots(Node node, List<Slot> slots) {
+        if (node != null) {
+            addSlots(node.left, slots);
+            slots.add(node.slot);
+            addSlots(node.right, slots);
+        }
+    }
+
+    /**
+     * @return the first {@code count} slots of {@code node} and the remaining
+     *         slots.
+     */
+    private static Node[] split(Node node, int count) {
+        if (node == null) {
+            return new Node[2];
+        }
+        int leftSize = size(node.left);
+        if (count <= leftSize) {
+            Node[] left = split(node.left, count);
+            left[1] = node.copy(left[1], node.right);
+            return left;
+        } else {
+            Node[] right = split(node.right, count - leftSize - 1);
+            right[0] = node.copy(node.left, right[0]);
+            return right;
+        }
+    }
+
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else if (first.priority > second.priority) {
+            return first.copy(first.left, merge(first.right, second));
+        } else {
+            return second.copy(merge(first, second.left), second.right);
+        }
+    }
+
+    private static final class Node {
+
+        private final Slot slot;
+
+        private final int priority;
+
+        private final Node left;
+
+        private final Node right;
+
+        private final int size;
+
+        private final long playbackTime;
+
+        private final int periodicCount;
+
+        private Node(Slot slot, int priority, Node left, Node right) {
+            this.slot = slot;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + 1 + size(right);
+            this.playbackTime = playbackTime(left) + slot.playbackTime
+                    + playbackTime(right);
+            this.periodicCount = periodicCount(left) + slot.periodicCount
+                    + periodicCount(right);
+        }
+
+        private Node copy(Node left, Node right) {
+            return new Node(slot, priority, left, right);
+        }
+    }
+
+    /**
+     * The predictions for one message of a playlist, preceded by the
+     * predictions for the periodic messages that became due before it
+     * started.
+     */
+    public static final class Slot {
+
+        private final DacPlaylistMessageId messageId;
+
+        private final MessageState state;
+
+        private final List<DacPlaylistMessageId> messages;
+
+        private final List<MessagePlaybackPrediction> predictions;
+
+        private final long playbackTime;
+
+        private final int periodicCount;
+
+        private final boolean notBroadcast;
+
+        /**
+         * Create a slot, the state of the message is captured so the slot can
+         * be checked with {@link #isCurrent(DacPlaylistMessageId,
+         * IPlaylistMessageSource)} later.
+         * 
+         * @param messageId
+         *            the message of the playlist
+         * @param messages
+         *            the messages that will play, in order
+         * @param predictions
+         *            the predictions of the messages that will play
+         * @param playbackTime
+         *            total playback time of the messages, in milliseconds
+         * @param periodicCount
+         *            the number of periodic messages that were due, including
+         *            the ones that will not play
+         * @param notBroadcast
+         *            true if the message itself will not be broadcast
+         * @param source
+         *            the source the messages are read from
+         */
+        public Slot(DacPlaylistMessageId messageId,
+                List<DacPlaylistMessageId> messages,
+                List<MessagePlaybackPrediction> predictions,
+                long playbackTime, int periodicCount, boolean notBroadcast,
+                IPlaylistMessageSource source) {
+            this.messageId = messageId;
+            this.state = new MessageState(messageId, source);
+            this.messages = messages;
+            this.predictions = predictions;
+            this.playbackTime = playbackTime;
+            this.periodicCount = periodicCount;
+            this.notBroadcast = notBroadcast;
+        }
+
+        /**
+         * @return true if this slot was created for the specified message and
+         *         the message has not changed since.
+         */
+        public boolean isCurrent(DacPlaylistMessageId messageId,
+                IPlaylistMessageSource source) {
+            return this.messageId.equals(messageId)
+                    && state.matches(messageId, source);
+        }
+
+        public DacPlaylistMessageId getMessageId() {
+            return messageId;
+        }
+
+        public List<DacPlaylistMessageId> getMessages() {
+            return messages;
+        }
+
+        public List<MessagePlaybackPrediction> getPredictions() {
+            return predictions;
+        }
+
+        public long getPlaybackTime() {
+            return playbackTime;
+        }
+
+        public int getPeriodicCount() {
+            return periodicCount;
+        }
+
+        public boolean isNotBroadcast() {
+            return notBroadcast;
+        }
+    }
+
+    /**
+     * Everything about a message that the predictions depend on.
+     */
+    private static final class MessageState {
+
+        private final DacPlaylistMessage message;
+
+        private final DacPlaylistMessageMetadata metadata;
+
+        private final long timestamp;
+
+        private final long expire;
+
+        private final int playCount;
+
+        private final long lastTransmitTime;
+
+        private final boolean playedAlertTone;
+
+        private final boolean playedSameTone;
+
+        private final Object playbackTimeSource;
+
+        private MessageState(DacPlaylistMessageId id,
+                IPlaylistMessageSource source) {
+            this.message = source.getMessage(id);
+            if (message == null) {
+                this.metadata = null;
+                this.timestamp = 0;
+                this.expire = Long.MIN_VALUE;
+                this.playCount = 0;
+                this.lastTransmitTime = Long.MIN_VALUE;
+                this.playedAlertTone = false;
+                this.playedSameTone = false;
+                this.playbackTimeSource = null;
+            } else {
+                this.metadata = message.getMetadata();
+                this.timestamp = message.getTimestamp();
+                this.expire = getMillis(message.getExpire());
+                this.playCount = message.getPlayCount();
+                this.lastTransmitTime = getMillis(message
+                        .getLastTransmitTime());
+                this.playedAlertTone = message.isPlayedAlertTone();
+                this.playedSameTone = message.isPlayedSameTone();
+                this.playbackTimeSource = source.getPlaybackTimeSource(id);
+            }
+        }
+
+        private boolean matches(DacPlaylistMessageId id,
+                IPlaylistMessageSource source) {
+            DacPlaylistMessage current = source.getMessage(id);
+            if (current != message) {
+                return false;
+            } else if (current == null) {
+                return true;
+            }
+            return current.getMetadata() == metadata
+                    && current.getTimestamp() == timestamp
+                    && getMillis(current.getExpire()) == expire
+                    && current.getPlayCount() == playCount
+                    && getMillis(current.getLastTransmitTime()) == lastTransmitTime
+                    && current.isPlayedAlertTone() == playedAlertTone
+                    && current.isPlayedSameTone() == playedSameTone
+                    && source.getPlaybackTimeSource(id) == playbackTimeSource;
+        }
+
+        private static long getMillis(Calendar time) {
+            return (time == null) ? Long.MIN_VALUE : time.getTimeInMillis();
+        }
+    }
+}
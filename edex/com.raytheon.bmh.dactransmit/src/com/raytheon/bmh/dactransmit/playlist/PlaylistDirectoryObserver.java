@@ -31,8 +31,6 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
-import javax.xml.bind.JAXB;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +38,7 @@ import com.google.common.eventbus.EventBus;
 import com.raytheon.bmh.dactransmit.dacsession.DacSession;
 import com.raytheon.bmh.dactransmit.util.NamedThreadFactory;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylist;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistCodec;
 import com.raytheon.uf.common.bmh.datamodel.playlist.PlaylistUpdateNotification;
 
 /**
@@ -58,6 +57,7 @@ import com.raytheon.uf.common.bmh.datamodel.playlist.PlaylistUpdateNotification;
  * Aug 26, 2014  #3286     dgilling     Revert previous change to start().
  * Sep 08, 2014  #3286     dgilling     Make compatible with playlist changes.
  * Feb 06, 2015  #4071     bsteffen     Consolidate threading.
+ * Oct 17, 2026            agent        Read playlists with {@link DacPlaylistCodec}.
  * 
  * </pre>
  * 
@@ -140,9 +140,9 @@ public class PlaylistDirectoryObserver {
                                         + newPlaylistPath + "...");
 
                                 try {
-                                    DacPlaylist newPlaylist = JAXB.unmarshal(
-                                            newPlaylistPath.toFile(),
-                                            DacPlaylist.class);
+                                    DacPlaylist newPlaylist = DacPlaylistCodec
+                                            .read(newPlaylistPath,
+                                                    DacPlaylist.class);
                                     PlaylistUpdateNotification notification = new PlaylistUpdateNotification(
                                             newPlaylist);
                                     eventBus.post(notification);
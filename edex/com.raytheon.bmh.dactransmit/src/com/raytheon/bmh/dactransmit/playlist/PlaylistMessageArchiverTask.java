@@ -36,12 +36,11 @@ import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.xml.bind.JAXB;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.raytheon.uf.common.bmh.dac.archive.PlaylistMessageArchiver;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistCodec;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageId;
 import com.raytheon.uf.common.time.util.TimeUtil;
 
@@ -65,6 +64,9 @@ import com.raytheon.uf.common.time.util.TimeUtil;
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
  * Feb 25, 2016 5382       bkowal      Initial creation
+ * Oct 17, 2026            agent       Ignore the {@link PlaybackStateJournal}. Read message
+ *                                     files with {@link DacPlaylistCodec}.
+ * Oct 18, 2026            agent       Ignore the {@link PlaybackDurationIndex}.
  * 
  * </pre>
  * 
@@ -144,6 +146,11 @@ public class PlaylistMessageArchiverTask implements
                 .newDirectoryStream(this.messageDirectory)) {
             for (Path entry : dirStream) {
                 final String fileName = entry.getFileName().toString();
+                if (PlaybackStateJournal.JOURNAL_FILE_NAME.equals(fileName)
+                        || PlaybackDurationIndex.INDEX_FILE_NAME
+                                .equals(fileName)) {
+                    continue;
+                }
 
                 Matcher matcher = messageFilePattern.matcher(fileName);
                 if (matcher.matches()) {
@@ -221,7 +228,8 @@ public class PlaylistMessageArchiverTask implements
 
                 DacPlaylistMessageId messageId = null;
                 try (InputStream is = Files.newInputStream(messageFilePath)) {
-                    messageId = JAXB.unmarshal(is, DacPlaylistMessageId.class);
+                    messageId = DacPlaylistCodec.read(is,
+                            DacPlaylistMessageId.class);
                 } catch (IOException e) {
                     logger.error(
                             "Failed to read message file: "
@@ -285,7 +293,7 @@ public class PlaylistMessageArchiverTask implements
                             .get(sortedMetadataPathList.size() - 1);
                     try (InputStream is = Files
                             .newInputStream(lastMetadataFilePath)) {
-                        messageId = JAXB.unmarshal(is,
+                        messageId = DacPlaylistCodec.read(is,
                                 DacPlaylistMessageId.class);
                     } catch (IOException e) {
                         logger.error(
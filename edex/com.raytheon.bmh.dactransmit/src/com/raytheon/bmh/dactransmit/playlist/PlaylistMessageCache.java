@@ -31,14 +31,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TimeZone;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
-import javax.xml.bind.JAXB;
+import javax.xml.bind.DataBindingException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.common.eventbus.EventBus;
@@ -51,6 +51,7 @@ import com.raytheon.bmh.dactransmit.ipc.ChangeTimeZone;
 import com.raytheon.uf.common.bmh.FilePermissionUtils;
 import com.raytheon.uf.common.bmh.dac.archive.PlaylistMessageArchiver;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylist;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistCodec;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageId;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageMetadata;
@@ -140,12 +141,19 @@ import com.raytheon.uf.edex.bmh.msg.logging.ErrorActivity.BMH_COMPONENT;
  * Aug 04, 2016 5766       bkowal       Ensure periodicity cycles are set when retrieving a message.
  * Sep 30, 2016 5912       bkowal       Specify the SAME padding to use when loading audio.
  * May 02, 2017 6259       bkowal       Updated to use {@link IOPermissionsHelper}.
+ * Oct 17, 2026            agent        Own the {@link PlaybackStateJournal}; compact it during
+ *                                      the purge and flush messages evicted from the cache.
+ *                                      Read and write message files with {@link DacPlaylistCodec}.
+ * Oct 18, 2026            agent        Calculate playback time from the {@link PlaybackDurationIndex}.
+ * Oct 18, 2026            agent        Flush the journal before evicting a message.
+ * Oct 18, 2026            agent        Implement {@link IPlaylistMessageSource}.
  * </pre>
  * 
  * @author dgilling
  */
 
-public final class PlaylistMessageCache implements IAudioJobListener {
+public final class PlaylistMessageCache implements IAudioJobListener,
+        IPlaylistMessageSource {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -180,6 +188,10 @@ public final class PlaylistMessageCache implements IAudioJobListener {
 
     private final ExecutorService executorService;
 
+    private final PlaybackStateJournal stateJournal;
+
+    private final PlaybackDurationIndex durationIndex;
+
     private final ConcurrentMap<DacPlaylistMessageId, DacPlaylistMessage> cachedMessages;
 
     private final ConcurrentMap<DacPlaylistMessage, IAudioFileBuffer> cachedFiles;
@@ -230,6 +242,12 @@ public final class PlaylistMessageCache implements IAudioJobListener {
         sameEOMPadding = config.getSamePaddingConfiguration()
                 .getSameEOMPadding();
         this.messageDirectory = config.getInputDirectory().resolve("messages");
+        /*
+         * Replays any playback state left behind by a previous process, so it
+         * must be opened before any messages are read.
+         */
+        this.stateJournal = new PlaybackStateJournal(this.messageDirectory);
+        this.durationIndex = new PlaybackDurationIndex(this.messageDirectory);
         this.cachedMessages = new ConcurrentHashMap<>();
         this.cachedFiles = new ConcurrentHashMap<>();
         this.cacheStatus = new ConcurrentHashMap<>();
@@ -444,10 +462,11 @@ public final class PlaylistMessageCache implements IAudioJobListener {
      */
     private Future<IAudioFileBuffer> scheduleFileRetrieval(final int priority,
             final DacPlaylistMessageId id, final String taskId) {
-        Callable<IAudioFileBuffer> retrieveAudioJob = new RetrieveAudioJob(
-                priority, this.audioAmplitude, this.sameAmplitude,
-                this.alertAmplitude, this.getMessage(id), this, taskId,
-                samePadding, sameEOMPadding);
+        RetrieveAudioJob retrieveAudioJob = new RetrieveAudioJob(priority,
+                this.audioAmplitude, this.sameAmplitude, this.alertAmplitude,
+                this.getMessage(id), this, taskId, samePadding,
+                sameEOMPadding);
+        retrieveAudioJob.setDurationIndex(this.durationIndex);
         return executorService.submit(retrieveAudioJob);
     }
 
@@ -544,6 +563,7 @@ public final class PlaylistMessageCache implements IAudioJobListener {
      *            id of a playlist message
      * @return the full message.
      */
+    @Override
     public DacPlaylistMessage getMessage(DacPlaylistMessageId id) {
         DacPlaylistMessage message = cachedMessages.get(id);
         if (message == null) {
@@ -570,7 +590,7 @@ public final class PlaylistMessageCache implements IAudioJobListener {
         boolean fileExists = Files.exists(messagePath);
         if (fileExists) {
             try {
-                message = JAXB.unmarshal(messagePath.toFile(),
+                message = DacPlaylistCodec.read(messagePath,
                         DacPlaylistMessage.class);
             } catch (Exception e) {
                 logger.warn(
@@ -601,9 +621,16 @@ public final class PlaylistMessageCache implements IAudioJobListener {
                 }
             }
             if (restored) {
-                message = JAXB.unmarshal(messagePath.toFile(),
-                        DacPlaylistMessage.class);
-            } else {
+                try {
+                    message = DacPlaylistCodec.read(messagePath,
+                            DacPlaylistMessage.class);
+                } catch (IOException e) {
+                    logger.error("Failed to read restored message file: "
+                            + messagePath.toString()
+                            + ". Using a new playlist message file.", e);
+                }
+            }
+            if (message == null) {
                 message = new DacPlaylistMessage();
                 message.setBroadcastId(id.getBroadcastId());
                 message.setVersion(DacPlaylistMessageId.CURRENT_VERSION);
@@ -618,8 +645,16 @@ public final class PlaylistMessageCache implements IAudioJobListener {
             DacPlaylistMessageId id) {
         Path messageMetadataPath = messageDirectory.resolve(
                 id.getBroadcastId() + "_" + id.getTimestamp() + ".xml");
-        DacPlaylistMessageMetadata messageMetadata = JAXB.unmarshal(
-                messageMetadataPath.toFile(), DacPlaylistMessageMetadata.class);
+        DacPlaylistMessageMetadata messageMetadata;
+        try {
+            messageMetadata = DacPlaylistCodec.read(messageMetadataPath,
+                    DacPlaylistMessageMetadata.class);
+        } catch (IOException e) {
+            /*
+             * Callers expect the unchecked failure JAXB.unmarshal produced.
+             */
+            throw new DataBindingException(e);
+        }
         messageMetadata.setPath(messageMetadataPath);
 
         /*
@@ -662,7 +697,7 @@ public final class PlaylistMessageCache implements IAudioJobListener {
         try (OutputStream os = IOPermissionsHelper.getOutputStream(
                 messageMetadataPath,
                 FilePermissionUtils.FILE_PERMISSIONS_SET)) {
-            JAXB.marshal(messageMetadata, os);
+            os.write(DacPlaylistCodec.marshal(messageMetadata));
         } catch (Exception e) {
             logger.error("Failed to update message metadata file: "
                     + messageMetadataPath.toString()
@@ -703,6 +738,7 @@ public final class PlaylistMessageCache implements IAudioJobListener {
      * @throws NoSoundFileException
      *             If the message data contains no soundFile attribute.
      */
+    @Override
     public long getPlaybackTime(DacPlaylistMessageId messageId,
             Calendar startTime) throws NoSoundFileException {
         DacPlaylistMessage message = getMessage(messageId);
@@ -734,33 +770,18 @@ public final class PlaylistMessageCache implements IAudioJobListener {
         if (buffer != null) {
             fileSize = buffer.capacity(includeTones);
         } else {
-            List<String> soundFiles = message.getSoundFiles();
-            if (soundFiles == null || soundFiles.isEmpty()) {
-                throw new NoSoundFileException("Message " + messageId
-                        + " contains no soundFile attributes.");
-            }
-            for (String pathString : soundFiles) {
-
-                if ((pathString != null) && (!pathString.isEmpty())) {
-                    Path audioFile = Paths.get(pathString);
-                    try {
-                        fileSize = Files.size(audioFile);
-                    } catch (NoSuchFileException e) {
-                        logger.error(
-                                "Unable to retrieve file size for file: {} because it does not exist.",
-                                audioFile);
-                    } catch (Exception e) {
-                        logger.error(
-                                "Unable to retrieve file size for file: {}",
-                                audioFile, e);
-                    }
-
-                } else {
-                    throw new NoSoundFileException("Message " + messageId
-                            + " contains an empty soundFile attribute.");
-                }
+            /*
+             * The size is recorded when the audio is retrieved, so the sound
+             * files only need to be examined until then.
+             */
+            PlaybackDurationIndex.PlaybackSize size = durationIndex
+                    .get(message);
+            if (size == null) {
+                size = durationIndex.recordEstimate(message,
+                        getSoundFilesSize(messageId, message));
             }
-            if (includeTones) {
+            fileSize = size.getBytes(includeTones);
+            if (size.isEstimate() && includeTones) {
                 /*
                  * audio playback is truncated to two (2) minutes when tones are
                  * also played.
@@ -779,6 +800,78 @@ public final class PlaylistMessageCache implements IAudioJobListener {
         return playbackTime;
     }
 
+    /**
+     * Get the object that {@link #getPlaybackTime(DacPlaylistMessageId,
+     * Calendar)} currently derives the size of a message from: the cached
+     * audio, the finished retrieval or the {@link PlaybackDurationIndex}
+     * entry. The playback time of an unchanged message cannot change while
+     * the same source is returned, which allows predictions to be reused.
+     * 
+     * @param messageId
+     *            The {@code DacPlaylistMessageId} of the message.
+     * @return the current size source, {@code null} if there is none yet.
+     */
+    @Override
+    public Object getPlaybackTimeSource(DacPlaylistMessageId messageId) {
+        DacPlaylistMessage message = cachedMessages.get(messageId);
+        if (message == null) {
+            return null;
+        }
+        IAudioFileBuffer buffer = cachedFiles.get(message);
+        if (buffer != null) {
+            return buffer;
+        }
+        Future<IAudioFileBuffer> status = cacheStatus.get(messageId);
+        if (status != null && status.isDone()) {
+            return status;
+        }
+        return durationIndex.get(message);
+    }
+
+    /**
+     * Estimate the playback size of a message based on the size of its sound
+     * files.
+     * 
+     * @param messageId
+     *            The {@code DacPlaylistMessageId} of the message.
+     * @param message
+     *            The message.
+     * @return the size of the sound files.
+     * @throws NoSoundFileException
+     *             If the message data contains no soundFile attribute.
+     */
+    private long getSoundFilesSize(DacPlaylistMessageId messageId,
+            DacPlaylistMessage message) throws NoSoundFileException {
+        long fileSize = 0;
+        List<String> soundFiles = message.getSoundFiles();
+        if (soundFiles == null || soundFiles.isEmpty()) {
+            throw new NoSoundFileException("Message " + messageId
+                    + " contains no soundFile attributes.");
+        }
+        for (String pathString : soundFiles) {
+
+            if ((pathString != null) && (!pathString.isEmpty())) {
+                Path audioFile = Paths.get(pathString);
+                try {
+                    fileSize = Files.size(audioFile);
+                } catch (NoSuchFileException e) {
+                    logger.error(
+                            "Unable to retrieve file size for file: {} because it does not exist.",
+                            audioFile);
+                } catch (Exception e) {
+                    logger.error(
+                            "Unable to retrieve file size for file: {}",
+                            audioFile, e);
+                }
+
+            } else {
+                throw new NoSoundFileException("Message " + messageId
+                        + " contains an empty soundFile attribute.");
+            }
+        }
+        return fileSize;
+    }
+
     /**
      * Listens for changes to the amplitude target
      * 
@@ -878,6 +971,14 @@ public final class PlaylistMessageCache implements IAudioJobListener {
         return (currentTime >= purgeTime);
     }
 
+    /**
+     * @return the {@link PlaybackStateJournal} that the playback state of the
+     *         cached messages is recorded in.
+     */
+    public PlaybackStateJournal getStateJournal() {
+        return stateJournal;
+    }
+
     public void enableCleanup() {
         this.cleanupAllowed = true;
     }
@@ -928,7 +1029,16 @@ public final class PlaylistMessageCache implements IAudioJobListener {
     private void purgeMessage(final DacPlaylistMessageId messageId) {
         logger.debug("Removing message " + messageId + " from cache.");
 
-        cachedMessages.remove(messageId);
+        DacPlaylistMessage message = cachedMessages.get(messageId);
+        if (message != null) {
+            /*
+             * Ensure the message file is current before the message is
+             * evicted in case the message is read again.
+             */
+            stateJournal.flush(message);
+            cachedMessages.remove(messageId, message);
+        }
+        durationIndex.remove(messageId.getBroadcastId());
     }
 
     private void purgeAudio(final DacPlaylistMessageId messageId) {
@@ -1033,6 +1143,9 @@ public final class PlaylistMessageCache implements IAudioJobListener {
                     "Purge Summary: messages purged = {}; cached audio purged = {}.",
                     messagesPurged, audioFilesPurged);
 
+            stateJournal.checkpoint();
+            durationIndex.save();
+
             return null;
         }
 
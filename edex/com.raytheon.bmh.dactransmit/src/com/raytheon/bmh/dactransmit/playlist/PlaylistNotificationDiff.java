@@ -0,0 +1,171 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.playlist;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.raytheon.uf.common.bmh.notify.MessagePlaybackPrediction;
+import com.raytheon.uf.common.bmh.notify.PlaylistNotification;
+
+/**
+ * The difference between two {@link PlaylistNotification}s for the same
+ * transmitter group: the range of predictions that was replaced and whether
+ * the periodic predictions or the cycle time changed. A notification only
+ * needs to be sent when the difference is not empty.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public final class PlaylistNotificationDiff {
+
+    private final int fromIndex;
+
+    private final int removed;
+
+    private final List<MessagePlaybackPrediction> inserted;
+
+    private final boolean periodicChanged;
+
+    private final boolean cycleTimeChanged;
+
+    private PlaylistNotificationDiff(int fromIndex, int removed,
+            List<MessagePlaybackPrediction> inserted, boolean periodicChanged,
+            boolean cycleTimeChanged) {
+        this.fromIndex = fromIndex;
+        this.removed = removed;
+        this.inserted = inserted;
+        this.periodicChanged = periodicChanged;
+        this.cycleTimeChanged = cycleTimeChanged;
+    }
+
+    /**
+     * Compare two notifications.
+     * 
+     * @param previous
+     *            the notification that was sent last, may be null
+     * @param current
+     *            the new notification
+     * @return the difference, every prediction of {@code current} is
+     *         inserted when the notifications are for a different suite or
+     *         transmitter group.
+     */
+    public static PlaylistNotificationDiff between(
+            PlaylistNotification previous, PlaylistNotification current) {
+        List<MessagePlaybackPrediction> messages = current.getMessages();
+        if (previous == null
+                || !equal(previous.getSuiteName(), current.getSuiteName())
+                || !equal(previous.getTransmitterGroup(),
+                        current.getTransmitterGroup())) {
+            return new PlaylistNotificationDiff(0, previous == null ? 0
+                    : previous.getMessages().size(), messages, true, true);
+        }
+        List<MessagePlaybackPrediction> previousMessages = previous
+                .getMessages();
+        int prefix = 0;
+        int limit = Math.min(previousMessages.size(), messages.size());
+        while (prefix < limit
+                && previousMessages.get(prefix).equals(messages.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        limit -= prefix;
+        while (suffix < limit
+                && previousMessages.get(previousMessages.size() - 1 - suffix)
+                        .equals(messages.get(messages.size() - 1 - suffix))) {
+            suffix++;
+        }
+        return new PlaylistNotificationDiff(prefix, previousMessages.size()
+                - prefix - suffix, messages.subList(prefix, messages.size()
+                - suffix), !previous.getPeriodicMessages().equals(
+                current.getPeriodicMessages()),
+                previous.getPlaybackCycleTime() != current
+                        .getPlaybackCycleTime());
+    }
+
+    private static boolean equal(Object o1, Object o2) {
+        return (o1 == null) ? (o2 == null) : o1.equals(o2);
+    }
+
+    /**
+     * @return true if nothing changed.
+     */
+    public boolean isEmpty() {
+        return removed == 0 && inserted.isEmpty() && !periodicChanged
+                && !cycleTimeChanged;
+    }
+
+    /**
+     * @return index of the first prediction that changed.
+     */
+    public int getFromIndex() {
+        return fromIndex;
+    }
+
+    /**
+     * @return the number of predictions of the previous notification that were
+     *         replaced, starting at {@link #getFromIndex()}.
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return the predictions that replaced them.
+     */
+    public List<MessagePlaybackPrediction> getInserted() {
+        return Collections.unmodifiableList(inserted);
+    }
+
+    public boolean isPeriodicChanged() {
+        return periodicChanged;
+    }
+
+    public boolean isCycleTimeChanged() {
+        return cycleTimeChanged;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("PlaylistNotificationDiff [fromIndex=");
+        builder.append(fromIndex);
+        builder.append(", removed=");
+        builder.append(removed);
+        builder.append(", inserted=");
+        builder.append(inserted.size());
+        builder.append(", periodicChanged=");
+        builder.append(periodicChanged);
+        builder.append(", cycleTimeChanged=");
+        builder.append(cycleTimeChanged);
+        builder.append("]");
+        return builder.toString();
+    }
+}
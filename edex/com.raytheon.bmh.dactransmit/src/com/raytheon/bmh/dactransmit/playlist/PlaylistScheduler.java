@@ -30,11 +30,14 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -43,7 +46,6 @@ import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutorService;
 import java.util.regex.Pattern;
 
-import javax.xml.bind.JAXB;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +56,7 @@ import com.raytheon.bmh.dactransmit.events.handlers.IPlaylistUpdateNotificationH
 import com.raytheon.bmh.dactransmit.exceptions.NoSoundFileException;
 import com.raytheon.uf.common.bmh.broadcast.LiveBroadcastStartCommand.BROADCASTTYPE;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylist;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistCodec;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageId;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistStartTimeComparator;
@@ -170,6 +173,13 @@ import com.raytheon.uf.edex.bmh.msg.logging.ErrorActivity.BMH_COMPONENT;
  * Aug 04, 2016  5766      bkowal       Handle scheduling and prediction of cycle-based periodic
  *                                      messages. Next playback of time-based periodic messages now
  *                                      based on the effective time.
+ * Oct 17, 2026            agent        Record playback state in the {@link PlaybackStateJournal}.
+ *                                      Read playlists with {@link DacPlaylistCodec}.
+ *                                      Merge updated playlists with the played messages
+ *                                      in linear time.
+ * Oct 18, 2026            agent        Reuse unchanged predictions from a {@link PlaybackTimeline}
+ *                                      and only send a {@link PlaylistNotification} when the
+ *                                      predictions changed.
  * </pre>
  * 
  * @author dgilling
@@ -286,6 +296,18 @@ public final class PlaylistScheduler implements
      */
     private InterruptPlaylistState interruptPlaylistState;
 
+    /**
+     * Predictions for the messages of the current cycle that have not played
+     * yet, reused by the next update when they are still valid.
+     */
+    private PlaybackTimeline timeline;
+
+    /**
+     * The last {@link PlaylistNotification} that was sent, a new one is only
+     * sent when the predictions change.
+     */
+    private volatile PlaylistNotification lastNotification;
+
     /**
      * Reads the directory specified in DacSession for valid playlist files
      * (ones that have not already passed their expiration time) and sorts them
@@ -350,7 +372,7 @@ public final class PlaylistScheduler implements
         Path playlistPath = this.playlistDirectory.resolve(playlistName);
         DacPlaylist playlist = null;
         try {
-            playlist = JAXB.unmarshal(playlistPath.toFile(), DacPlaylist.class);
+            playlist = DacPlaylistCodec.read(playlistPath, DacPlaylist.class);
         } catch (Exception e) {
             logger.error(
                     "Unable to parse playlist file: " + playlistPath.toString()
@@ -762,6 +784,7 @@ public final class PlaylistScheduler implements
 
         DacMessagePlaybackData nextMessageData = new DacMessagePlaybackData();
         nextMessageData.setMessage(nextMessage);
+        nextMessageData.setStateJournal(cache.getStateJournal());
         nextMessageData.setInterrupt(currentPlaylist.isInterrupt());
         if (startup) {
             nextMessageData.allowResume();
@@ -865,7 +888,7 @@ public final class PlaylistScheduler implements
         DacPlaylist newPlaylist = notification.parseFilepath();
         if (newPlaylist != null) {
             try {
-                newPlaylist = JAXB.unmarshal(playlistPath.toFile(),
+                newPlaylist = DacPlaylistCodec.read(playlistPath,
                         DacPlaylist.class);
             } catch (Throwable e) {
                 logger.error(
@@ -1168,22 +1191,49 @@ public final class PlaylistScheduler implements
          * is before the currently playing message.
          */
         List<DacPlaylistMessageId> past = Collections.emptyList();
+        Set<DacPlaylistMessageId> pastMessages = Collections.emptySet();
         if (update && !currentMessages.isEmpty()) {
-            past = new ArrayList<>(messageIndex);
-            List<DacPlaylistMessageId> oldPast = currentMessages.subList(0,
-                    messageIndex);
-            for (DacPlaylistMessageId id : oldPast) {
-                if (playlistMessages.contains(id)) {
-                    past.add(id);
+            Set<DacPlaylistMessageId> playlistMessageSet = new HashSet<>(
+                    playlistMessages);
+            List<DacPlaylistMessageId> oldPast = new ArrayList<>(messageIndex);
+            Map<DacPlaylistMessageId, Integer> oldPastIndices = new HashMap<>(
+                    messageIndex * 2);
+            for (DacPlaylistMessageId id : currentMessages.subList(0,
+                    messageIndex)) {
+                if (playlistMessageSet.contains(id)) {
+                    if (!oldPastIndices.containsKey(id)) {
+                        oldPastIndices.put(id, oldPast.size());
+                    }
+                    oldPast.add(id);
                 }
             }
 
+            /*
+             * New messages are placed ahead of the next message in the
+             * playlist that has already played. The insertions are collected
+             * per position and spliced in with a single pass instead of
+             * searching and shifting the list for every message.
+             */
+            List<List<DacPlaylistMessageId>> insertions = new ArrayList<>(
+                    Collections.<List<DacPlaylistMessageId>> nCopies(
+                            oldPast.size(), null));
+            int insertionCount = 0;
             List<DacPlaylistMessageId> newUnperiodicMessages = new ArrayList<>();
             for (DacPlaylistMessageId messageId : playlistMessages) {
-                int index = past.indexOf(messageId);
-                if (index >= 0) {
-                    past.addAll(index, newUnperiodicMessages);
-                    newUnperiodicMessages.clear();
+                Integer index = oldPastIndices.get(messageId);
+                if (index != null) {
+                    if (!newUnperiodicMessages.isEmpty()) {
+                        List<DacPlaylistMessageId> inserted = insertions
+                                .get(index);
+                        if (inserted == null) {
+                            inserted = new ArrayList<>(
+                                    newUnperiodicMessages.size());
+                            insertions.set(index, inserted);
+                        }
+                        inserted.addAll(newUnperiodicMessages);
+                        insertionCount += newUnperiodicMessages.size();
+                        newUnperiodicMessages.clear();
+                    }
                 } else {
                     DacPlaylistMessage messageData = cache
                             .getMessage(messageId);
@@ -1195,6 +1245,15 @@ public final class PlaylistScheduler implements
                     }
                 }
             }
+
+            past = new ArrayList<>(oldPast.size() + insertionCount);
+            for (int i = 0; i < oldPast.size(); i++) {
+                if (insertions.get(i) != null) {
+                    past.addAll(insertions.get(i));
+                }
+                past.add(oldPast.get(i));
+            }
+            pastMessages = new HashSet<>(past);
         }
         /* Contains messages that should be scheduled periodically. */
         SortedMap<Long, DacPlaylistMessageId> periodicMessages = new TreeMap<>();
@@ -1227,7 +1286,7 @@ public final class PlaylistScheduler implements
                     messageData.setInitialBLDelayNotificationSent(true);
                 }
             }
-            if (!past.contains(id)) {
+            if (!pastMessages.contains(id)) {
                 DacPlaylistMessage messageData = cache.getMessage(id);
                 if (messageData != null && (messageData.getPlayCount() > 0)
                         && !forceSchedulePeriodic && messageData.isPeriodic()) {
@@ -1302,14 +1361,14 @@ public final class PlaylistScheduler implements
                                 cycleMessages.add(id);
                             }
                             /*
-                             * Write the updated remaining cycle count to the
-                             * XML file. This is only to ensure that if this
-                             * particular Dac Transmit is ever temporarily
-                             * shutdown, an accurate count of the next broadcast
-                             * cycle for this particular message is maintained.
+                             * Journal the updated remaining cycle count. This
+                             * is only to ensure that if this particular Dac
+                             * Transmit is ever temporarily shutdown, an
+                             * accurate count of the next broadcast cycle for
+                             * this particular message is maintained.
                              */
                             executorService.submit(new UpdatePlaylistMsgTask(
-                                    messageData));
+                                    messageData, cache.getStateJournal()));
                         }
                     }
                 } else {
@@ -1352,59 +1411,26 @@ public final class PlaylistScheduler implements
                         + playbackTime;
             }
         }
-        for (DacPlaylistMessageId messageId : unperiodicMessages) {
-            while (!periodicMessages.isEmpty()
-                    && (periodicMessages.firstKey() <= nextMessageTime)) {
-                DacPlaylistMessageId periodicId = periodicMessages
-                        .remove(periodicMessages.firstKey());
-                DacPlaylistMessage messageData = cache.getMessage(periodicId);
-                if (messageData != null && messageData.isValid(nextMessageTime)) {
-                    logger.debug("Scheduling periodic message [" + periodicId
-                            + "].");
-                    try {
-                        MessagePlaybackPrediction prediction = new MessagePlaybackPrediction(
-                                nextMessageTime, messageData);
-                        long playbackTime = cache.getPlaybackTime(periodicId,
-                                prediction.getNextTransmitTime());
-
-                        predictions.add(prediction);
-                        predictedMessages.add(periodicId);
-
-                        cycleTime += playbackTime;
-                        nextMessageTime += playbackTime;
-                    } catch (NoSoundFileException e) {
-                        logger.error("Message " + messageId
-                                + " has no soundFile attribute. Skipping.");
-                    }
-                }
-            }
-
-            DacPlaylistMessage messageData = cache.getMessage(messageId);
-
-            /*
-             * ignore start/expire times for interrupt playlists, we just want
-             * to play the message.
-             */
-            if (messageData != null
-                    && (playlist.isInterrupt() || messageData
-                            .isValid(nextMessageTime))) {
-                try {
-                    MessagePlaybackPrediction prediction = new MessagePlaybackPrediction(
-                            nextMessageTime, messageData);
-                    long playbackTime = cache.getPlaybackTime(messageId,
-                            prediction.getNextTransmitTime());
-                    predictions.add(prediction);
-                    predictedMessages.add(messageId);
-                    cycleTime += playbackTime;
-                    nextMessageTime += playbackTime;
-                } catch (NoSoundFileException e) {
-                    logger.error("Message " + messageId
-                            + " has no soundFile attribute. Skipping.");
-                }
-            } else {
-                this.sendNotBroadcastNotification(messageData);
+        PlaybackTimeline timeline = this.timeline;
+        if (timeline == null) {
+            timeline = new PlaybackTimeline(nextMessageTime,
+                    playlist.isInterrupt(), periodicMessages, cache);
+        }
+        timeline = timeline.update(nextMessageTime, playlist.isInterrupt(),
+                unperiodicMessages, periodicMessages, cache);
+        for (PlaybackTimeline.Slot slot : timeline.getSlots()) {
+            predictedMessages.addAll(slot.getMessages());
+            predictions.addAll(slot.getPredictions());
+            if (slot.isNotBroadcast()) {
+                this.sendNotBroadcastNotification(cache.getMessage(slot
+                        .getMessageId()));
             }
         }
+        cycleTime += timeline.getPlaybackTime();
+        /* The periodic messages that are not due in this cycle remain. */
+        for (int i = timeline.getPeriodicCount(); i > 0; i--) {
+            periodicMessages.remove(periodicMessages.firstKey());
+        }
 
         if (predictions.size() == past.size()) {
             if (predictions.isEmpty()) {
@@ -1461,9 +1487,20 @@ public final class PlaylistScheduler implements
                 notification.setPeriodicMessages(periodicPredictions);
             }
         }
-        eventBus.post(notification);
+        PlaylistNotificationDiff diff = PlaylistNotificationDiff.between(
+                lastNotification, notification);
+        if (diff.isEmpty()) {
+            logger.debug("The predictions for playlist {} are unchanged.",
+                    playlist);
+        } else {
+            logger.debug("The predictions for playlist {} changed: {}.",
+                    playlist, diff);
+            lastNotification = notification;
+            eventBus.post(notification);
+        }
         currentMessages = predictedMessages;
         messageIndex = past.size();
+        this.timeline = timeline;
         return true;
     }
 
@@ -1533,6 +1570,7 @@ public final class PlaylistScheduler implements
      * Post a No Playback Message Notification.
      */
     public void sendNoPlaybackNotification() {
+        this.lastNotification = null;
         this.eventBus.post(new NoPlaybackMessageNotification());
     }
 
@@ -0,0 +1,284 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.playlist;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.raytheon.uf.common.bmh.audio.AudioRetrievalException;
+import com.raytheon.uf.common.bmh.dac.tones.TonesGenerator;
+import com.raytheon.uf.common.bmh.tones.GeneratedTonesBuffer;
+import com.raytheon.uf.common.bmh.tones.ToneGenerationException;
+
+/**
+ * Cache of regulated SAME, alert and end of message tones. Encoding a SAME
+ * header and regulating the result is expensive and the same header is
+ * broadcast with every message of an event, so the regulated tones are built
+ * once for each combination of header, alert flag, padding and amplitude and
+ * then shared by every message that needs them. The regulated alert tone and
+ * end of message tones are shared in the same way.
+ * 
+ * The cached buffers are read-only; callers receive an independent view of
+ * the shared audio. The regulation configuration is only loaded once by a
+ * dac transmit process so it does not need to be part of the key.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class RegulatedTonesCache {
+
+    /**
+     * The maximum number of regulated tone combinations that will be kept.
+     */
+    private static final int CACHE_SIZE = Integer.getInteger(
+            "regulatedTonesCacheSize", 64);
+
+    private static final RegulatedTonesCache instance = new RegulatedTonesCache();
+
+    private final Cache<ToneKey, ByteBuffer> tonesCache = CacheBuilder
+            .newBuilder().maximumSize(CACHE_SIZE).build();
+
+    private final Cache<Short, byte[]> alertToneCache = CacheBuilder
+            .newBuilder().maximumSize(CACHE_SIZE).build();
+
+    public static RegulatedTonesCache getInstance() {
+        return instance;
+    }
+
+    protected RegulatedTonesCache() {
+    }
+
+    /**
+     * Retrieve the regulated SAME tones (and optionally, alert tones) for a
+     * SAME header.
+     * 
+     * @param sameHeader
+     *            The SAME tone header to encode into tones.
+     * @param includeAlertTone
+     *            Whether or not the alert tone needs to be included.
+     * @param samePadding
+     *            the number of 0 bytes to pad the end of the SAME tone with
+     * @param sameAmplitude
+     *            the target audio amplitude for SAME Tones.
+     * @param alertAmplitude
+     *            the target audio amplitude for Alert Tones.
+     * @param job
+     *            the job that is requesting the tones, used to regulate the
+     *            tones if they are not cached.
+     * @return a read-only view of the regulated tones.
+     * @throws ToneGenerationException
+     *             if the tones cannot be generated
+     * @throws AudioRetrievalException
+     *             if the tones cannot be regulated
+     */
+    public ByteBuffer getSAMEAlertTones(final String sameHeader,
+            final boolean includeAlertTone, final int samePadding,
+            final short sameAmplitude, final short alertAmplitude,
+            final AbstractAudioJob<?> job) throws ToneGenerationException,
+            AudioRetrievalException {
+        final ToneKey key = new ToneKey(sameHeader, includeAlertTone,
+                samePadding, sameAmplitude, includeAlertTone ? alertAmplitude
+                        : 0);
+        return get(key, new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() throws Exception {
+                GeneratedTonesBuffer tones = TonesGenerator.getSAMEAlertTones(
+                        sameHeader, includeAlertTone, false, samePadding);
+                tones.setSameTones(job.adjustAudio(tones.getSameTones(),
+                        "Same Tones", sameAmplitude));
+                if (tones.getAlertTones() != null) {
+                    tones.setAlertTones(getRegulatedAlertTone(alertAmplitude,
+                            job));
+                }
+                return tones.combineTonesArray().asReadOnlyBuffer();
+            }
+        });
+    }
+
+    /**
+     * Retrieve the regulated alert tone without any SAME tones.
+     * 
+     * @param alertAmplitude
+     *            the target audio amplitude for Alert Tones.
+     * @param job
+     *            the job that is requesting the tones, used to regulate the
+     *            tones if they are not cached.
+     * @return a read-only view of the regulated tones.
+     * @throws ToneGenerationException
+     *             if the tones cannot be generated
+     * @throws AudioRetrievalException
+     *             if the tones cannot be regulated
+     */
+    public ByteBuffer getOnlyAlertTones(final short alertAmplitude,
+            final AbstractAudioJob<?> job) throws ToneGenerationException,
+            AudioRetrievalException {
+        final ToneKey key = new ToneKey(null, true, 0, (short) 0,
+                alertAmplitude);
+        return get(key, new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() throws Exception {
+                GeneratedTonesBuffer tones = TonesGenerator
+                        .getOnlyAlertTones();
+                tones.setAlertTones(getRegulatedAlertTone(alertAmplitude, job));
+                return tones.combineTonesArray().asReadOnlyBuffer();
+            }
+        });
+    }
+
+    /**
+     * Retrieve the regulated SAME end of message tones.
+     * 
+     * @param sameEOMPadding
+     *            number of padding bytes to add at the end of the end of
+     *            message tones.
+     * @param sameAmplitude
+     *            the target audio amplitude for SAME Tones.
+     * @param job
+     *            the job that is requesting the tones, used to regulate the
+     *            tones if they are not cached.
+     * @return a read-only view of the regulated tones, positioned at 0.
+     * @throws ToneGenerationException
+     *             if the tones cannot be generated
+     * @throws AudioRetrievalException
+     *             if the tones cannot be regulated
+     */
+    public ByteBuffer getEndOfMessageTones(final int sameEOMPadding,
+            final short sameAmplitude, final AbstractAudioJob<?> job)
+            throws ToneGenerationException, AudioRetrievalException {
+        final ToneKey key = new ToneKey(null, false, sameEOMPadding,
+                sameAmplitude, (short) 0);
+        return get(key, new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() throws Exception {
+                ByteBuffer endOfMessage = TonesGenerator
+                        .getEndOfMessageTones(sameEOMPadding);
+                return ByteBuffer.wrap(
+                        job.adjustAudio(endOfMessage.array(),
+                                "End of Message", sameAmplitude))
+                        .asReadOnlyBuffer();
+            }
+        });
+    }
+
+    private byte[] getRegulatedAlertTone(final short alertAmplitude,
+            final AbstractAudioJob<?> job) throws Exception {
+        return alertToneCache.get(alertAmplitude, new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                byte[] alertTone = TonesGenerator.getOnlyAlertTones()
+                        .getAlertTones();
+                return job.adjustAudio(alertTone, "Alert Tones",
+                        alertAmplitude);
+            }
+        });
+    }
+
+    private ByteBuffer get(final ToneKey key,
+            final Callable<ByteBuffer> loader) throws ToneGenerationException,
+            AudioRetrievalException {
+        try {
+            return tonesCache.get(key, loader).duplicate();
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            /* the alert tone is loaded by a nested cache lookup. */
+            while ((cause instanceof ExecutionException
+                    || cause instanceof UncheckedExecutionException)
+                    && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof ToneGenerationException) {
+                throw (ToneGenerationException) cause;
+            } else if (cause instanceof AudioRetrievalException) {
+                throw (AudioRetrievalException) cause;
+            }
+            throw new AudioRetrievalException("Failed to generate the tones.",
+                    cause);
+        }
+    }
+
+    private static final class ToneKey {
+
+        private final String sameHeader;
+
+        private final boolean includeAlertTone;
+
+        private final int padding;
+
+        private final short sameAmplitude;
+
+        private final short alertAmplitude;
+
+        public ToneKey(String sameHeader, boolean includeAlertTone,
+                int padding, short sameAmplitude, short alertAmplitude) {
+            this.sameHeader = sameHeader;
+            this.includeAlertTone = includeAlertTone;
+            this.padding = padding;
+            this.sameAmplitude = sameAmplitude;
+            this.alertAmplitude = alertAmplitude;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = (sameHeader == null) ? 0 : sameHeader.hashCode();
+            result = prime * result + (includeAlertTone ? 1231 : 1237);
+            result = prime * result + padding;
+            result = prime * result + sameAmplitude;
+            result = prime * result + alertAmplitude;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            ToneKey other = (ToneKey) obj;
+            if (sameHeader == null) {
+                if (other.sameHeader != null) {
+                    return false;
+                }
+            } else if (!sameHeader.equals(other.sameHeader)) {
+                return false;
+            }
+            return includeAlertTone == other.includeAlertTone
+                    && padding == other.padding
+                    && sameAmplitude == other.sameAmplitude
+                    && alertAmplitude == other.alertAmplitude;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,9 +33,7 @@ import java.util.Map;
 import com.google.common.collect.Table;
 import com.raytheon.uf.common.bmh.TIME_MSG_TOKENS;
 import com.raytheon.uf.common.bmh.audio.AudioRetrievalException;
-import com.raytheon.uf.common.bmh.dac.tones.TonesGenerator;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
-import com.raytheon.uf.common.bmh.tones.GeneratedTonesBuffer;
 import com.raytheon.uf.common.bmh.tones.ToneGenerationException;
 import com.raytheon.uf.common.time.util.ITimer;
 import com.raytheon.uf.common.time.util.TimeUtil;
@@ -73,6 +72,11 @@ import com.raytheon.uf.edex.bmh.msg.logging.ErrorActivity.BMH_COMPONENT;
  * Sep 30, 2016 5912       bkowal      Added {@link #samePadding} and {@link #sameEOMPadding}.
  * Apr 26, 2016 5561       bkowal      Retry at least once if broadcast audio initialization 
  *                                     fails.
+ * Oct 17, 2026            agent       Retrieve message audio from the {@link SharedAudioStore}.
+ * Oct 17, 2026            agent       Retrieve regulated tones from the {@link RegulatedTonesCache}.
+ * Oct 18, 2026            agent       Record the playback size in the {@link PlaybackDurationIndex}.
+ * Oct 18, 2026            agent       Share combined multi-fragment audio through the
+ *                                     {@link SharedAudioStore}.
  * </pre>
  * 
  * @author bkowal
@@ -90,6 +94,8 @@ public class RetrieveAudioJob extends AbstractAudioJob<IAudioFileBuffer> {
 
     private String taskId;
 
+    private PlaybackDurationIndex durationIndex;
+
     /**
      * Constructor
      * 
@@ -190,6 +196,10 @@ public class RetrieveAudioJob extends AbstractAudioJob<IAudioFileBuffer> {
             }
         }
 
+        if (this.durationIndex != null && buffer != null) {
+            this.durationIndex.record(this.message, buffer);
+        }
+
         timer.stop();
         logger.info("Successfully retrieved audio for message: "
                 + message.getBroadcastId() + " in "
@@ -199,69 +209,81 @@ public class RetrieveAudioJob extends AbstractAudioJob<IAudioFileBuffer> {
         return buffer;
     }
 
+    /**
+     * @param durationIndex
+     *            the index to record the playback size of the retrieved audio
+     *            in.
+     */
+    public void setDurationIndex(PlaybackDurationIndex durationIndex) {
+        this.durationIndex = durationIndex;
+    }
+
     private IAudioFileBuffer initAudioBuffer() throws IOException,
             AudioRetrievalException {
-        List<byte[]> rawDataArrays = new ArrayList<>(this.message
-                .getSoundFiles().size());
+        List<Path> filePaths = new ArrayList<>(this.message.getSoundFiles()
+                .size());
+        boolean dynamicMsg = false;
+        for (String soundFile : this.message.getSoundFiles()) {
+            Path filePath = Paths.get(soundFile);
+            if (Files.isDirectory(filePath)) {
+                dynamicMsg = true;
+            }
+            filePaths.add(filePath);
+        }
+
+        List<ByteBuffer> rawDataArrays = new ArrayList<>(filePaths.size());
         Map<Integer, TIME_MSG_TOKENS> dynamicAudioPositionMap = new LinkedHashMap<>(
-                rawDataArrays.size());
+                filePaths.size());
         TimeMsgCache timeCache = null;
         IAudioFileBuffer buffer = null;
-        boolean dynamicMsg = false;
+        ByteBuffer rawData = null;
 
-        int concatenatedSize = 0;
-
-        for (int i = 0; i < this.message.getSoundFiles().size(); i++) {
-            Path filePath = Paths.get(this.message.getSoundFiles().get(i));
+        if (dynamicMsg == false) {
+            /*
+             * The regulated audio is mapped from the page cache so it can be
+             * shared with every other process broadcasting the message. The
+             * fragments are combined by the store so that the combination is
+             * shared as well.
+             */
+            rawData = getRegulatedAudio(filePaths, "Body");
+        } else {
+            for (int i = 0; i < filePaths.size(); i++) {
+                Path filePath = filePaths.get(i);
 
-            if (Files.isDirectory(filePath)) {
-                dynamicMsg = true;
-                rawDataArrays.add(null);
-                if (timeCache == null) {
-                    timeCache = new TimeMsgCache();
+                if (Files.isDirectory(filePath)) {
+                    rawDataArrays.add(null);
+                    if (timeCache == null) {
+                        timeCache = new TimeMsgCache();
+                    }
+                    TIME_MSG_TOKENS token = timeCache.loadCache(filePath);
+                    /*
+                     * This audio is dynamic. Use the tokens to keep track of
+                     * the order of the dynamic audio blocks.
+                     */
+                    dynamicAudioPositionMap.put(i, token);
+                    continue;
                 }
-                TIME_MSG_TOKENS token = timeCache.loadCache(filePath);
-                /*
-                 * This audio is dynamic. Use the tokens to keep track of the
-                 * order of the dynamic audio blocks.
-                 */
-                dynamicAudioPositionMap.put(i, token);
-                continue;
-            }
 
-            try {
-                byte[] rawData = Files.readAllBytes(filePath);
-                concatenatedSize += rawData.length;
-                byte[] regulatedRawData = this.adjustAudio(rawData,
-                        "Body (segment " + i + ")", this.audioAmplitude);
-                rawDataArrays.add(regulatedRawData);
+                rawDataArrays.add(getRegulatedAudio(
+                        Collections.singletonList(filePath), "Body (segment "
+                                + i + ")"));
                 /*
                  * Not dynamic data. So, no lookup key.
                  */
                 dynamicAudioPositionMap.put(i, null);
-            } catch (IOException e) {
-                String msg = "Failed to buffer audio file for message: "
-                        + message.getBroadcastId() + ", file: " + filePath;
-                AudioRetrievalException audioEx = new AudioRetrievalException(
-                        msg, e);
-                DefaultMessageLogger.getInstance().logError(this.message,
-                        BMH_COMPONENT.DAC_TRANSMIT, BMH_ACTIVITY.AUDIO_READ,
-                        this.message, audioEx);
-                throw audioEx;
-            } catch (AudioRetrievalException e) {
-                DefaultMessageLogger.getInstance().logError(this.message,
-                        BMH_COMPONENT.DAC_TRANSMIT,
-                        BMH_ACTIVITY.AUDIO_ALTERATION, this.message, e);
-                throw e;
             }
         }
 
-        GeneratedTonesBuffer generatedTones = null;
+        /* the tones are regulated when they are first generated. */
+        final RegulatedTonesCache tonesCache = RegulatedTonesCache
+                .getInstance();
+        ByteBuffer generatedTones = null;
         if (message.isSAMETones()) {
             try {
-                generatedTones = TonesGenerator.getSAMEAlertTones(
-                        message.getSAMEtone(), message.isAlertTone(), false,
-                        samePadding);
+                generatedTones = tonesCache.getSAMEAlertTones(
+                        message.getSAMEtone(), message.isAlertTone(),
+                        samePadding, this.sameAmplitude, this.alertAmplitude,
+                        this);
             } catch (ToneGenerationException e) {
                 String msg = "Unable to generate SAME/alert tones for message: "
                         + message.getBroadcastId();
@@ -270,7 +292,8 @@ public class RetrieveAudioJob extends AbstractAudioJob<IAudioFileBuffer> {
             }
         } else if (message.isAlertTone()) {
             try {
-                generatedTones = TonesGenerator.getOnlyAlertTones();
+                generatedTones = tonesCache.getOnlyAlertTones(
+                        this.alertAmplitude, this);
             } catch (ToneGenerationException e) {
                 String msg = "Unable to generate alert tones for message: "
                         + message.getBroadcastId();
@@ -282,8 +305,8 @@ public class RetrieveAudioJob extends AbstractAudioJob<IAudioFileBuffer> {
         ByteBuffer endOfMessage = null;
         if (message.isSAMETones()) {
             try {
-                endOfMessage = TonesGenerator
-                        .getEndOfMessageTones(sameEOMPadding);
+                endOfMessage = tonesCache.getEndOfMessageTones(
+                        sameEOMPadding, this.sameAmplitude, this);
             } catch (ToneGenerationException e) {
                 String msg = "Unable to generate end of message SAME tones for message: "
                         + message.getBroadcastId();
@@ -291,42 +314,9 @@ public class RetrieveAudioJob extends AbstractAudioJob<IAudioFileBuffer> {
             }
         }
 
-        /* regulate tones (if they exist). */
-        if (generatedTones != null) {
-            if (generatedTones.getSameTones() != null) {
-                byte[] regulatedTones = adjustAudio(
-                        generatedTones.getSameTones(), "Same Tones",
-                        this.sameAmplitude);
-                generatedTones.setSameTones(regulatedTones);
-            }
-            if (generatedTones.getAlertTones() != null) {
-                byte[] regulatedTones = adjustAudio(
-                        generatedTones.getAlertTones(), "Alert Tones",
-                        this.alertAmplitude);
-                generatedTones.setAlertTones(regulatedTones);
-            }
-        }
-        if (endOfMessage != null) {
-            byte[] regulatedEndOfMessage = adjustAudio(endOfMessage.array(),
-                    "End of Message", this.sameAmplitude);
-            endOfMessage = ByteBuffer.wrap(regulatedEndOfMessage);
-        }
-
         if (dynamicMsg == false) {
-            byte[] rawData = null;
-            if (rawDataArrays.size() == 1) {
-                rawData = rawDataArrays.get(0);
-            } else {
-                ByteBuffer concatenation = ByteBuffer
-                        .allocate(concatenatedSize);
-                for (byte[] array : rawDataArrays) {
-                    concatenation.put(array);
-                }
-                rawData = concatenation.array();
-            }
             buffer = new AudioFileBuffer(this.message, rawData,
-                    (generatedTones == null ? null
-                            : generatedTones.combineTonesArray()), endOfMessage);
+                    generatedTones, endOfMessage);
         } else {
             /*
              * Adjust the time cache audio.
@@ -348,16 +338,49 @@ public class RetrieveAudioJob extends AbstractAudioJob<IAudioFileBuffer> {
             logger.info("Successfully finished audio attenuation/amplification in "
                     + TimeUtil.prettyDuration(timeCacheAdjustTimer
                             .getElapsedTime()) + " for all time cached audio.");
+            List<byte[]> audioSegments = new ArrayList<>(rawDataArrays.size());
+            for (ByteBuffer segment : rawDataArrays) {
+                byte[] audioSegment = null;
+                if (segment != null) {
+                    audioSegment = new byte[segment.remaining()];
+                    segment.get(audioSegment);
+                }
+                audioSegments.add(audioSegment);
+            }
             buffer = new DynamicTimeAudioFileBuffer(this.message,
-                    (generatedTones == null ? null : generatedTones
-                            .combineTonesArray()),
-                    rawDataArrays, dynamicAudioPositionMap, endOfMessage,
-                    timeCache);
+                    generatedTones, audioSegments, dynamicAudioPositionMap,
+                    endOfMessage, timeCache);
         }
 
         return buffer;
     }
 
+    /**
+     * Retrieve the regulated audio of one or more fragments from the
+     * {@link SharedAudioStore}, logging any failure against the message.
+     */
+    private ByteBuffer getRegulatedAudio(final List<Path> filePaths,
+            final String part) throws AudioRetrievalException {
+        try {
+            return SharedAudioStore.getInstance().getRegulatedAudio(
+                    filePaths, this.audioAmplitude, this, part);
+        } catch (IOException e) {
+            String msg = "Failed to buffer audio file for message: "
+                    + message.getBroadcastId() + ", file(s): " + filePaths;
+            AudioRetrievalException audioEx = new AudioRetrievalException(msg,
+                    e);
+            DefaultMessageLogger.getInstance().logError(this.message,
+                    BMH_COMPONENT.DAC_TRANSMIT, BMH_ACTIVITY.AUDIO_READ,
+                    this.message, audioEx);
+            throw audioEx;
+        } catch (AudioRetrievalException e) {
+            DefaultMessageLogger.getInstance().logError(this.message,
+                    BMH_COMPONENT.DAC_TRANSMIT, BMH_ACTIVITY.AUDIO_ALTERATION,
+                    this.message, e);
+            throw e;
+        }
+    }
+
     private void notifyAttemptComplete(final IAudioFileBuffer buffer) {
         if (this.listener != null && this.taskId != null) {
             this.listener.audioRetrievalFinished(this.taskId, this.message,
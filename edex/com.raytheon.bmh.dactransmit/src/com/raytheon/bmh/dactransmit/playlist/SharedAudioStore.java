@@ -0,0 +1,389 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.playlist;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.raytheon.uf.common.bmh.FilePermissionUtils;
+import com.raytheon.uf.common.bmh.audio.AudioRegulationConfiguration;
+import com.raytheon.uf.common.bmh.audio.AudioRetrievalException;
+import com.raytheon.uf.common.bmh.audio.RegulatedAudioFiles;
+import com.raytheon.uf.common.util.file.IOPermissionsHelper;
+import com.raytheon.uf.edex.bmh.audio.LoadedAudioRegulationConfiguration;
+
+/**
+ * Off-heap store for the regulated audio of message fragments. Fragment files
+ * are memory mapped read-only so the audio lives in the OS page cache, where it
+ * is shared by every dac transmit process that broadcasts the same message,
+ * instead of on the heap of each process.
+ * 
+ * Regulated variants are keyed by file and amplitude. When a variant is first
+ * needed it is written next to the fragment (with the amplitude and a
+ * fingerprint of the regulation configuration in the name) and mapped, so
+ * other processes and restarts of this process can map the existing variant
+ * instead of regulating the audio again. Variants are regular files in the
+ * dated audio directories so they are removed by the orphaned audio purge. If
+ * a variant cannot be written the regulated audio is kept in a direct buffer.
+ * 
+ * Messages made of several fragments are combined into a single variant in
+ * the same way, named after the first fragment, so the combination is shared
+ * too.
+ * 
+ * Callers only ever hold duplicate views of a mapping, so entries are softly
+ * held and expire after they have not been used for a while; the mapping
+ * itself is released once the last view is collected.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * Oct 18, 2026            agent       Hold entries softly, share combined fragments.
+ * Oct 18, 2026            agent       Name variants with {@link RegulatedAudioFiles}.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class SharedAudioStore {
+
+    private static final Logger logger = LoggerFactory
+            .getLogger(SharedAudioStore.class);
+
+    /**
+     * How long(in minutes) an unused mapping is kept.
+     */
+    private static final long EXPIRE_MINUTES = Long.getLong(
+            "sharedAudioExpireMinutes", 30);
+
+    /**
+     * Writing regulated variants next to the fragments can be disabled if the
+     * audio directory is not writable by the dac transmit processes.
+     */
+    private static final boolean PERSIST_VARIANTS = !Boolean
+            .getBoolean("disableRegulatedAudioFiles");
+
+    private static final SharedAudioStore instance = new SharedAudioStore();
+
+    private final Cache<AudioKey, ByteBuffer> audioCache = CacheBuilder
+            .newBuilder().softValues()
+            .expireAfterAccess(EXPIRE_MINUTES, TimeUnit.MINUTES).build();
+
+    public static SharedAudioStore getInstance() {
+        return instance;
+    }
+
+    protected SharedAudioStore() {
+    }
+
+    /**
+     * Retrieve the regulated audio for a fragment file.
+     * 
+     * @param file
+     *            the ulaw fragment file
+     * @param amplitude
+     *            the target amplitude
+     * @param job
+     *            the job that is requesting the audio, used to regulate the
+     *            audio if no variant exists for the amplitude.
+     * @param part
+     *            identifies the portion of audio that is being retrieved; used
+     *            for logging purposes
+     * @return a read-only view of the regulated audio, positioned at 0. The
+     *         view is independent from any other caller.
+     * @throws IOException
+     *             if the fragment cannot be read
+     * @throws AudioRetrievalException
+     *             if the audio cannot be regulated
+     */
+    public ByteBuffer getRegulatedAudio(final Path file, final short amplitude,
+            final AbstractAudioJob<?> job, final String part)
+            throws IOException, AudioRetrievalException {
+        return getRegulatedAudio(Collections.singletonList(file), amplitude,
+                job, part);
+    }
+
+    /**
+     * Retrieve the regulated audio of several fragment files played one after
+     * the other.
+     * 
+     * @param files
+     *            the ulaw fragment files, in order
+     * @param amplitude
+     *            the target amplitude
+     * @param job
+     *            the job that is requesting the audio, used to regulate the
+     *            audio if no variant exists for the amplitude.
+     * @param part
+     *            identifies the portion of audio that is being retrieved; used
+     *            for logging purposes
+     * @return a read-only view of the combined regulated audio, positioned at
+     *         0. The view is independent from any other caller.
+     * @throws IOException
+     *             if a fragment cannot be read
+     * @throws AudioRetrievalException
+     *             if the audio cannot be regulated
+     */
+    public ByteBuffer getRegulatedAudio(final List<Path> files,
+            final short amplitude, final AbstractAudioJob<?> job,
+            final String part) throws IOException, AudioRetrievalException {
+        long lastModified = 0;
+        for (Path file : files) {
+            lastModified = Math.max(lastModified, Files
+                    .getLastModifiedTime(file).toMillis());
+        }
+        final AudioKey key = new AudioKey(files, amplitude, lastModified);
+        try {
+            return audioCache.get(key, new Callable<ByteBuffer>() {
+                @Override
+                public ByteBuffer call() throws Exception {
+                    return loadRegulatedAudio(key, job, part);
+                }
+            }).duplicate();
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof AudioRetrievalException) {
+                throw (AudioRetrievalException) cause;
+            }
+            throw new AudioRetrievalException(
+                    "Failed to retrieve the audio for " + files + ".", cause);
+        }
+    }
+
+    private ByteBuffer loadRegulatedAudio(final AudioKey key,
+            final AbstractAudioJob<?> job, final String part)
+            throws IOException, AudioRetrievalException {
+        if (key.files.size() > 1) {
+            return loadCombinedAudio(key, job, part);
+        }
+        final Path file = key.files.get(0);
+        final Path variant = getVariantPath(key);
+        if (isValidVariant(variant, Files.size(file), key)) {
+            logger.debug("Using existing regulated audio {}.", variant);
+            return map(variant);
+        }
+
+        ByteBuffer source = map(file);
+        if (AbstractAudioJob.DISABLE_AUDIO_ATTENUATION) {
+            /* regulation is disabled, use the fragment as is. */
+            return source;
+        }
+        byte[] rawData = new byte[source.remaining()];
+        source.get(rawData);
+        byte[] regulated = job.adjustAudio(rawData, part, key.amplitude);
+
+        return store(variant, Collections.singletonList(ByteBuffer
+                .wrap(regulated)));
+    }
+
+    /**
+     * Combine the regulated audio of each fragment. Each fragment is retrieved
+     * through the cache so fragments shared between messages are only
+     * regulated once.
+     */
+    private ByteBuffer loadCombinedAudio(final AudioKey key,
+            final AbstractAudioJob<?> job, final String part)
+            throws IOException, AudioRetrievalException {
+        List<ByteBuffer> segments = new ArrayList<>(key.files.size());
+        long size = 0;
+        for (int i = 0; i < key.files.size(); i++) {
+            ByteBuffer segment = getRegulatedAudio(key.files.get(i),
+                    key.amplitude, job, part + " (segment " + i + ")");
+            size += segment.remaining();
+            segments.add(segment);
+        }
+
+        final Path variant = getVariantPath(key);
+        if (isValidVariant(variant, size, key)) {
+            logger.debug("Using existing combined audio {}.", variant);
+            return map(variant);
+        }
+        return store(variant, segments);
+    }
+
+    private static boolean isValidVariant(final Path variant, long size,
+            final AudioKey key) throws IOException {
+        return variant != null
+                && Files.isRegularFile(variant)
+                && Files.size(variant) == size
+                && Files.getLastModifiedTime(variant).toMillis() >= key.lastModified;
+    }
+
+    /**
+     * Write the audio to the variant and map it. If that is not possible the
+     * audio is kept in a direct buffer.
+     */
+    private ByteBuffer store(final Path variant, final List<ByteBuffer> audio) {
+        if (variant != null) {
+            try {
+                return map(writeVariant(variant, audio));
+            } catch (IOException e) {
+                logger.warn("Unable to write regulated audio file " + variant
+                        + ". The audio will not be shared.", e);
+            }
+        }
+        int size = 0;
+        for (ByteBuffer segment : audio) {
+            size += segment.remaining();
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(size);
+        for (ByteBuffer segment : audio) {
+            direct.put(segment.duplicate());
+        }
+        direct.flip();
+        return direct.asReadOnlyBuffer();
+    }
+
+    /**
+     * Atomically write a variant so that other processes never map a
+     * partially written file.
+     */
+    private Path writeVariant(final Path variant, final List<ByteBuffer> audio)
+            throws IOException {
+        Path tmp = variant.resolveSibling(variant.getFileName().toString()
+                + "." + UUID.randomUUID() + ".tmp");
+        try (OutputStream os = IOPermissionsHelper.getOutputStream(tmp,
+                FilePermissionUtils.FILE_PERMISSIONS_SET);
+                WritableByteChannel channel = Channels.newChannel(os)) {
+            for (ByteBuffer segment : audio) {
+                ByteBuffer view = segment.duplicate();
+                while (view.hasRemaining()) {
+                    channel.write(view);
+                }
+            }
+        }
+        try {
+            return Files.move(tmp, variant,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    private static ByteBuffer map(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0,
+                    channel.size());
+            return buffer.asReadOnlyBuffer();
+        }
+    }
+
+    private static Path getVariantPath(final AudioKey key) {
+        if (!PERSIST_VARIANTS) {
+            return null;
+        }
+        String fingerprint;
+        try {
+            fingerprint = getConfigurationFingerprint(LoadedAudioRegulationConfiguration
+                    .getConfiguration());
+        } catch (Exception e) {
+            /* adjustAudio will report the configuration failure. */
+            return null;
+        }
+        return RegulatedAudioFiles.getVariantPath(key.files, key.amplitude,
+                fingerprint);
+    }
+
+    /**
+     * @return a short string that will change if any setting that affects the
+     *         output of the regulation changes.
+     */
+    private static String getConfigurationFingerprint(
+            AudioRegulationConfiguration configuration) {
+        int hash = String.valueOf(configuration.getRegulationAlgorithm())
+                .hashCode();
+        hash = 31 * hash + configuration.getAmplitudeSilenceLimit();
+        hash = 31 * hash + (configuration.isDisableSilenceLimit() ? 1 : 0);
+        hash = 31 * hash + configuration.getAmplitudeMaxLimit();
+        hash = 31 * hash + (configuration.isDisableMaxLimit() ? 1 : 0);
+        return Integer.toHexString(hash);
+    }
+
+    private static final class AudioKey {
+
+        private final List<Path> files;
+
+        private final short amplitude;
+
+        private final long lastModified;
+
+        public AudioKey(List<Path> files, short amplitude, long lastModified) {
+            this.files = new ArrayList<>(files);
+            this.amplitude = amplitude;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = files.hashCode();
+            result = prime * result + amplitude;
+            result = prime * result
+                    + (int) (lastModified ^ (lastModified >>> 32));
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            AudioKey other = (AudioKey) obj;
+            return amplitude == other.amplitude
+                    && lastModified == other.lastModified
+                    && files.equals(other.files);
+        }
+    }
+}
@@ -19,22 +19,12 @@
  **/
 package com.raytheon.bmh.dactransmit.playlist;
 
-import java.nio.file.Path;
-import java.util.concurrent.locks.ReentrantLock;
-import java.io.OutputStream;
-
-import javax.xml.bind.JAXB;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.raytheon.uf.common.bmh.FilePermissionUtils;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
-import com.raytheon.uf.common.bmh.lock.InMemoryFileLockManager;
 import com.raytheon.uf.common.util.file.IOPermissionsHelper;
 
 /**
- * {@link Runnable} created to asynchronously write an updated version of a
- * {@link DacPlaylistMessage}.
+ * {@link Runnable} created to asynchronously record an updated version of a
+ * {@link DacPlaylistMessage} in the {@link PlaybackStateJournal}.
  * 
  * <pre>
  * 
@@ -44,6 +34,8 @@ import com.raytheon.uf.common.util.file.IOPermissionsHelper;
  * ------------ ---------- ----------- --------------------------
  * Aug 3, 2016  5766       bkowal      Initial creation
  * May 02, 2017 6259       bkowal      Updated to use {@link IOPermissionsHelper}.
+ * Oct 17, 2026            agent       Append to the {@link PlaybackStateJournal}
+ *                                     instead of rewriting the message file.
  * 
  * </pre>
  * 
@@ -52,16 +44,22 @@ import com.raytheon.uf.common.util.file.IOPermissionsHelper;
 
 public class UpdatePlaylistMsgTask implements Runnable {
 
-    private final Logger logger = LoggerFactory.getLogger(getClass());
-
     protected final DacPlaylistMessage messageToWrite;
 
-    public UpdatePlaylistMsgTask(final DacPlaylistMessage messageToWrite) {
+    private final PlaybackStateJournal stateJournal;
+
+    public UpdatePlaylistMsgTask(final DacPlaylistMessage messageToWrite,
+            final PlaybackStateJournal stateJournal) {
         if (messageToWrite == null) {
             throw new IllegalArgumentException(
                     "Required argument 'messageToWrite' cannot be NULL.");
         }
+        if (stateJournal == null) {
+            throw new IllegalArgumentException(
+                    "Required argument 'stateJournal' cannot be NULL.");
+        }
         this.messageToWrite = messageToWrite;
+        this.stateJournal = stateJournal;
     }
 
     @Override
@@ -70,26 +68,6 @@ public class UpdatePlaylistMsgTask implements Runnable {
     }
 
     protected void writePlaylistMsgState(final DacPlaylistMessage message) {
-        Path msgPath = message.getPath();
-        ReentrantLock fileLock = null;
-        try {
-            fileLock = InMemoryFileLockManager.getInstance()
-                    .requestResourceLock(msgPath, 1000L);
-            if (fileLock == null) {
-                logger.error("Unable to write updated message file: "
-                        + msgPath.toString() + ". Failed to lock the file.");
-                return;
-            }
-            try (OutputStream os = IOPermissionsHelper.getOutputStream(msgPath,
-                    FilePermissionUtils.FILE_PERMISSIONS_SET)) {
-                JAXB.marshal(message, os);
-            }
-        } catch (Throwable e) {
-            logger.error("Unable to persist message state.", e);
-        } finally {
-            if (fileLock != null) {
-                fileLock.unlock();
-            }
-        }
+        stateJournal.record(message);
     }
-}
\ No newline at end of file
+}
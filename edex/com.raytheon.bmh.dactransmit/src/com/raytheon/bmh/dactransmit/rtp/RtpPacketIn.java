@@ -36,6 +36,8 @@ import com.raytheon.uf.common.bmh.dac.dacsession.DacSessionConstants;
  * ------------ ---------- ----------- --------------------------
  * Jul 1, 2014   #3268    dgilling     Initial creation
  * Oct 17, 2014  #3655    bkowal       Move tones to common.
+ * Oct 17, 2026           agent        Expose header template and addressing
+ *                                     for RtpPacketInEncoder.
  * 
  * </pre>
  * 
@@ -95,6 +97,15 @@ public final class RtpPacketIn {
      */
     private Collection<Integer> transmitters;
 
+    /**
+     * The bytes of the packet header that are the same for every packet, the
+     * sequence number, timestamp, ssrc and addressing are left as zeros.
+     */
+    static final byte[] HEADER_TEMPLATE = { FLAGS, MARKER_PAYLOAD_TYPE, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, RTP_EXT_HEADER_TYPE[0],
+            RTP_EXT_HEADER_TYPE[1], RTP_EXT_HEADER_LENGTH[0],
+            RTP_EXT_HEADER_LENGTH[1], 0, 0, 0, 0 };
+
     private byte[] previousPayload;
 
     private byte[] currentPayload;
@@ -158,7 +169,7 @@ public final class RtpPacketIn {
 
         packet.put(RTP_EXT_HEADER_TYPE);
         packet.put(RTP_EXT_HEADER_LENGTH);
-        packet.putInt(getDacAddressing());
+        packet.putInt(getDacAddressing(transmitters));
 
         packet.put(previousPayload);
         packet.put(currentPayload);
@@ -166,7 +177,15 @@ public final class RtpPacketIn {
         return packet.array();
     }
 
-    private int getDacAddressing() {
+    /**
+     * Convert a collection of transmitters into the addressing bitmask used in
+     * the RTP header extension.
+     * 
+     * @param transmitters
+     *            the destination transmitters, any combination of 1-4.
+     * @return the addressing bitmask.
+     */
+    static int getDacAddressing(Collection<Integer> transmitters) {
         int value = 0;
 
         if (transmitters.contains(ONE)) {
@@ -0,0 +1,269 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ *
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ *
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ *
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.rtp;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import com.raytheon.bmh.dactransmit.dacsession.DataTransmitConstants;
+import com.raytheon.uf.common.bmh.dac.dacsession.DacSessionConstants;
+
+/**
+ * Reusable encoder for the stream of {@link RtpPacketIn} packets sent to a
+ * DAC. All buffers are allocated once so that encoding a packet every 20ms
+ * does not generate any garbage. The raw packet is written in place; the
+ * fixed header fields are written once and only the sequence number,
+ * timestamp, addressing and payloads are updated for each packet.
+ *
+ * Payloads are double buffered: the caller fills the buffer returned by
+ * {@link #getNextPayload()} and then calls {@link #encodeNext()}, which swaps
+ * the buffers so the payload that was just sent becomes the previous payload
+ * of the next packet.
+ *
+ * This class is not thread safe, it should only be used by the transmit thread
+ * that owns it.
+ *
+ * <pre>
+ *
+ * SOFTWARE HISTORY
+ *
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * Oct 18, 2026            agent       Snapshot the payloads that were sent,
+ *                                     reject an empty transmitter list.
+ *
+ * </pre>
+ *
+ * @author agent
+ * @version 1.0
+ */
+public final class RtpPacketInEncoder {
+
+    private static final int SEQUENCE_OFFSET = 2;
+
+    private static final int TIMESTAMP_OFFSET = 4;
+
+    private static final int SSRC_OFFSET = 8;
+
+    private static final int ADDRESSING_OFFSET = 16;
+
+    private static final int PREVIOUS_PAYLOAD_OFFSET = 20;
+
+    private static final int CURRENT_PAYLOAD_OFFSET = PREVIOUS_PAYLOAD_OFFSET
+            + DacSessionConstants.SINGLE_PAYLOAD_SIZE;
+
+    private final byte[] packet = new byte[DacSessionConstants.RTP_PACKET_SIZE];
+
+    private final byte[][] payloads = new byte[2][DacSessionConstants.SINGLE_PAYLOAD_SIZE];
+
+    /* index into payloads of the payload that was most recently sent. */
+    private int currentIndex;
+
+    private int sequenceNumber;
+
+    private long timestamp;
+
+    private int ssrc;
+
+    /* updated by the event bus when the transmitters change. */
+    private volatile int dacAddressing;
+
+    /* false until the first packet of the stream has been encoded. */
+    private boolean started;
+
+    public RtpPacketInEncoder(Collection<Integer> transmitters) {
+        System.arraycopy(RtpPacketIn.HEADER_TEMPLATE, 0, packet, 0,
+                RtpPacketIn.HEADER_TEMPLATE.length);
+        setTransmitters(transmitters);
+        reset();
+    }
+
+    /**
+     * Start a new stream, the next packet encoded will have sequence number
+     * and timestamp 0, a new ssrc and a silent previous payload.
+     */
+    public void reset() {
+        started = false;
+        sequenceNumber = 0;
+        timestamp = 0;
+        currentIndex = 0;
+        ssrc = new Random().nextInt();
+        Arrays.fill(payloads[currentIndex], DacSessionConstants.SILENCE);
+        putInt(SSRC_OFFSET, ssrc);
+    }
+
+    /**
+     * Update the transmitters that will be addressed by all future packets.
+     *
+     * @param transmitters
+     *            the destination transmitters, any combination of 1-4.
+     */
+    public void setTransmitters(Collection<Integer> transmitters) {
+        if ((transmitters == null) || (transmitters.isEmpty())) {
+            throw new IllegalArgumentException(
+                    "No destination transmitter specified.");
+        }
+        dacAddressing = RtpPacketIn.getDacAddressing(transmitters);
+    }
+
+    /**
+     * @return the buffer that should be filled with the audio data for the
+     *         next packet before calling {@link #encodeNext()}.
+     */
+    public byte[] getNextPayload() {
+        return payloads[currentIndex ^ 1];
+    }
+
+    /**
+     * Copy the provided audio into the buffer for the next packet.
+     *
+     * @param payload
+     *            {@link DacSessionConstants#SINGLE_PAYLOAD_SIZE} bytes of ulaw
+     *            audio.
+     */
+    public void setNextPayload(final byte[] payload) {
+        if (payload.length != DacSessionConstants.SINGLE_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Payload array should be "
+                    + DacSessionConstants.SINGLE_PAYLOAD_SIZE
+                    + " bytes in length.");
+        }
+        System.arraycopy(payload, 0, getNextPayload(), 0, payload.length);
+    }
+
+    /**
+     * Encode the next packet of the stream using the contents of
+     * {@link #getNextPayload()} as the current payload.
+     *
+     * @return the raw packet, this array is reused for every packet.
+     */
+    public byte[] encodeNext() {
+        if (started) {
+            sequenceNumber += DataTransmitConstants.SEQUENCE_INCREMENT;
+            timestamp += DataTransmitConstants.TIMESTAMP_INCREMENT;
+        } else {
+            started = true;
+        }
+        byte[] previousPayload = payloads[currentIndex];
+        currentIndex ^= 1;
+        byte[] currentPayload = payloads[currentIndex];
+
+        packet[SEQUENCE_OFFSET] = (byte) (sequenceNumber >>> 8);
+        packet[SEQUENCE_OFFSET + 1] = (byte) sequenceNumber;
+        putInt(TIMESTAMP_OFFSET, (int) timestamp);
+        putInt(ADDRESSING_OFFSET, dacAddressing);
+        System.arraycopy(previousPayload, 0, packet, PREVIOUS_PAYLOAD_OFFSET,
+                previousPayload.length);
+        System.arraycopy(currentPayload, 0, packet, CURRENT_PAYLOAD_OFFSET,
+                currentPayload.length);
+        return packet;
+    }
+
+    /**
+     * @return the raw bytes of the most recently encoded packet. This array is
+     *         reused for every packet.
+     */
+    public byte[] getPacket() {
+        return packet;
+    }
+
+    /**
+     * @return true if at least one packet has been encoded since the last
+     *         {@link #reset()}.
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    public int getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * Create an immutable copy of the most recently encoded packet so the
+     * stream can be continued by another encoder using
+     * {@link #restore(RtpPacketIn)}.
+     *
+     * @return the last packet that was encoded or null if no packets have been
+     *         encoded.
+     */
+    public RtpPacketIn snapshot(Collection<Integer> transmitters) {
+        if (!started) {
+            return null;
+        }
+        /*
+         * The payloads are copied from the packet rather than the payload
+         * buffers because the buffer for the next payload may already have
+         * been refilled.
+         */
+        return RtpPacketInFactory
+                .getInstance()
+                .setSequenceNumber(sequenceNumber)
+                .setTimestamp(timestamp)
+                .setSSRC(ssrc)
+                .setTransmitters(transmitters)
+                .setPreviousPayload(
+                        Arrays.copyOfRange(packet, PREVIOUS_PAYLOAD_OFFSET,
+                                CURRENT_PAYLOAD_OFFSET))
+                .setCurrentPayload(
+                        Arrays.copyOfRange(packet, CURRENT_PAYLOAD_OFFSET,
+                                CURRENT_PAYLOAD_OFFSET
+                                        + DacSessionConstants.SINGLE_PAYLOAD_SIZE))
+                .create();
+    }
+
+    /**
+     * Continue the stream from a packet that was encoded elsewhere, the next
+     * packet will follow the provided packet in sequence. A null packet starts
+     * a new stream.
+     *
+     * @param previousPacket
+     *            the last packet that was sent to the DAC.
+     */
+    public void restore(RtpPacketIn previousPacket) {
+        if (previousPacket == null) {
+            reset();
+            return;
+        }
+        started = true;
+        sequenceNumber = previousPacket.getSequenceNumber();
+        timestamp = previousPacket.getTimestamp();
+        ssrc = previousPacket.getSsrc();
+        putInt(SSRC_OFFSET, ssrc);
+        System.arraycopy(previousPacket.getCurrentPayload(), 0,
+                payloads[currentIndex], 0,
+                DacSessionConstants.SINGLE_PAYLOAD_SIZE);
+        /* keep the packet consistent in case it is snapshot before encoding */
+        System.arraycopy(previousPacket.getPreviousPayload(), 0, packet,
+                PREVIOUS_PAYLOAD_OFFSET,
+                DacSessionConstants.SINGLE_PAYLOAD_SIZE);
+        System.arraycopy(previousPacket.getCurrentPayload(), 0, packet,
+                CURRENT_PAYLOAD_OFFSET,
+                DacSessionConstants.SINGLE_PAYLOAD_SIZE);
+    }
+
+    private void putInt(int offset, int value) {
+        packet[offset] = (byte) (value >>> 24);
+        packet[offset + 1] = (byte) (value >>> 16);
+        packet[offset + 2] = (byte) (value >>> 8);
+        packet[offset + 3] = (byte) value;
+    }
+}
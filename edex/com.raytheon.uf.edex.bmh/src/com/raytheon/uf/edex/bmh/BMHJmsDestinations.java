@@ -34,6 +34,7 @@ import com.raytheon.uf.common.bmh.request.AbstractBMHServerRequest;
  * Nov 18, 2014 3807       bkowal      Initial creation
  * Nov 19, 2014 3817       bsteffen    Use status queue for more than just dacs.
  * Nov 21, 2014 3385       bkowal      Added ldad dissemination destinations.
+ * Oct 18, 2026            agent       Added getBMHEdgeQueueName.
  * 
  * </pre>
  * 
@@ -141,4 +142,8 @@ public class BMHJmsDestinations extends AbstractBMHJMSDestinations {
             final AbstractBMHServerRequest request) {
         return getBMHEdgeDestination(request.isOperational());
     }
+
+    public static String getBMHEdgeQueueName(final boolean operational) {
+        return instance.getBMHEdgeURI(operational);
+    }
 }
\ No newline at end of file
@@ -40,6 +40,7 @@ import javax.xml.bind.annotation.XmlAttribute;
  * ------------- -------- ----------- --------------------------
  * Sep 25, 2014  3485     bsteffen    Initial creation
  * Apr 07, 2015  4370     rjpeter     Added toString.
+ * Oct 18, 2026           agent       Added capacity.
  * </pre>
  * 
  * @author bsteffen
@@ -54,6 +55,13 @@ public class CommsHostConfig {
     @XmlAttribute
     private String dacInterface;
 
+    /*
+     * Relative share of the dac transmit processes this host should run when
+     * load balancing, hosts without a capacity are treated as 1.
+     */
+    @XmlAttribute
+    private Double capacity;
+
     public String getIpAddress() {
         return ipAddress;
     }
@@ -70,6 +78,14 @@ public class CommsHostConfig {
         this.dacInterface = dacInterface;
     }
 
+    public Double getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Double capacity) {
+        this.capacity = capacity;
+    }
+
     public boolean isLocalHost() throws UnknownHostException, SocketException {
         if (ipAddress == null) {
             return false;
@@ -97,6 +113,8 @@ public class CommsHostConfig {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
+        result = (prime * result)
+                + ((capacity == null) ? 0 : capacity.hashCode());
         result = (prime * result)
                 + ((dacInterface == null) ? 0 : dacInterface.hashCode());
         result = (prime * result)
@@ -116,6 +134,13 @@ public class CommsHostConfig {
             return false;
         }
         CommsHostConfig other = (CommsHostConfig) obj;
+        if (capacity == null) {
+            if (other.capacity != null) {
+                return false;
+            }
+        } else if (!capacity.equals(other.capacity)) {
+            return false;
+        }
         if (dacInterface == null) {
             if (other.dacInterface != null) {
                 return false;
@@ -136,7 +161,7 @@ public class CommsHostConfig {
     @Override
     public String toString() {
         return "CommsHostConfig [ipAddress=" + ipAddress + ", dacInterface="
-                + dacInterface + "]";
+                + dacInterface + ", capacity=" + capacity + "]";
     }
 
 }
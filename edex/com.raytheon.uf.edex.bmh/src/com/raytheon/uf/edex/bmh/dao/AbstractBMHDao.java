@@ -20,8 +20,10 @@
 package com.raytheon.uf.edex.bmh.dao;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -52,6 +54,10 @@ import com.raytheon.uf.edex.database.dao.DaoConfig;
  * Nov 02, 2014  3746     rjpeter     Updated loadAll to return empty list on null.
  * Dec 08, 2014  3864     bsteffen    Support collections in findByNamedQueryAndNamedParam
  * Jul 17, 2015  4636     bkowal      Added {@link #findAllByNamedInQuery(String, String, Set)}.
+ * Oct 18, 2026           agent       Split large in lists across queries. Added
+ *                                    {@link #executeNamedUpdate(String, String[], Object[])}.
+ * Oct 18, 2026           agent       Added a maximum result count to
+ *                                    {@link #findByNamedQueryAndNamedParam(String, String[], Object[], int)}.
  * 
  * </pre>
  * 
@@ -73,6 +79,13 @@ public class AbstractBMHDao<T, I extends Serializable> extends CoreDao {
         }
     }
 
+    /**
+     * The maximum number of values that will be bound to the in parameter of a
+     * single query; larger sets are split across multiple queries to stay
+     * below the bind parameter limit of the database driver.
+     */
+    private static final int MAX_IN_LIST_SIZE = 10000;
+
     private final Class<T> daoClass;
 
     /**
@@ -174,6 +187,26 @@ public class AbstractBMHDao<T, I extends Serializable> extends CoreDao {
 
     public List<?> findByNamedQueryAndNamedParam(final String queryName,
             final String[] names, final Object[] values) {
+        return findByNamedQueryAndNamedParam(queryName, names, values, 0);
+    }
+
+    /**
+     * Executes a named query, returning at most maxResults rows.
+     * 
+     * @param queryName
+     *            the name of the query
+     * @param names
+     *            the names of the query parameters
+     * @param values
+     *            the values of the query parameters, {@link Collection}s are
+     *            bound as parameter lists.
+     * @param maxResults
+     *            the maximum number of rows to return, values less than 1 do
+     *            not limit the results
+     * @return the results of the query
+     */
+    public List<?> findByNamedQueryAndNamedParam(final String queryName,
+            final String[] names, final Object[] values, final int maxResults) {
         if ((names == null) || (values == null)
                 || (names.length != values.length)) {
             throw new IllegalArgumentException(
@@ -193,6 +226,9 @@ public class AbstractBMHDao<T, I extends Serializable> extends CoreDao {
                         query.setParameter(names[i], values[i]);
                     }
                 }
+                if (maxResults > 0) {
+                    query.setMaxResults(maxResults);
+                }
                 return query.list();
             }
         });
@@ -208,9 +244,65 @@ public class AbstractBMHDao<T, I extends Serializable> extends CoreDao {
         return txTemplate.execute(new TransactionCallback<List<?>>() {
             @Override
             public List<?> doInTransaction(TransactionStatus status) {
+                Session session = getCurrentSession();
+                if (inList.size() <= MAX_IN_LIST_SIZE) {
+                    Query query = session.getNamedQuery(queryName);
+                    return query.setParameterList(inParameterName, inList)
+                            .list();
+                }
+
+                List<Object> results = new ArrayList<>(inList.size());
+                List<Serializable> chunk = new ArrayList<>(MAX_IN_LIST_SIZE);
+                Iterator<? extends Serializable> iterator = inList.iterator();
+                while (iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                    if (chunk.size() == MAX_IN_LIST_SIZE
+                            || !iterator.hasNext()) {
+                        Query query = session.getNamedQuery(queryName);
+                        results.addAll(query.setParameterList(
+                                inParameterName, chunk).list());
+                        chunk.clear();
+                    }
+                }
+                return results;
+            }
+        });
+    }
+
+    /**
+     * Executes a named bulk update or delete query.
+     * 
+     * @param queryName
+     *            the name of the query
+     * @param names
+     *            the names of the query parameters
+     * @param values
+     *            the values of the query parameters, {@link Collection}s are
+     *            bound as parameter lists.
+     * @return the number of rows that were updated or deleted
+     */
+    public int executeNamedUpdate(final String queryName,
+            final String[] names, final Object[] values) {
+        if ((names == null) || (values == null)
+                || (names.length != values.length)) {
+            throw new IllegalArgumentException(
+                    "Length of parameter names and parameter value arrays must match!");
+
+        }
+        return txTemplate.execute(new TransactionCallback<Integer>() {
+            @Override
+            public Integer doInTransaction(TransactionStatus status) {
                 Session session = getCurrentSession();
                 Query query = session.getNamedQuery(queryName);
-                return query.setParameterList(inParameterName, inList).list();
+                for (int i = 0; i < names.length; i++) {
+                    if (values[i] instanceof Collection) {
+                        query.setParameterList(names[i],
+                                (Collection<?>) values[i]);
+                    } else {
+                        query.setParameter(names[i], values[i]);
+                    }
+                }
+                return query.executeUpdate();
             }
         });
     }
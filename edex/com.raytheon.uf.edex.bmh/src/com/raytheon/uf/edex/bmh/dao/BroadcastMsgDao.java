@@ -23,7 +23,10 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
@@ -58,6 +61,11 @@ import com.raytheon.uf.edex.bmh.msg.logging.IMessageLogger;
  * Mar 25, 2015  4290     bsteffen    Switch to global replacement.
  * Apr 07, 2015  4293     bkowal      Added {@link #getMessageByInputMessageAndGroup(InputMessage, TransmitterGroup)}.
  * Apr 16, 2014  4395     rferrel     Added {@link #getAllUnexpiredMessages(Calendar)}.
+ * Oct 18, 2026           agent       Added {@link #getMessagesByIds(Set)},
+ *                                    {@link #updatePlayedTones(Set, boolean, boolean)} and
+ *                                    {@link #updatePlayedInterrupt(Set)}.
+ * Oct 18, 2026           agent       Added {@link #getFragmentPathsByInputMsgIds(Set)} and
+ *                                    {@link #getTransmitterGroupNamesByInputMsgIds(Set)}.
  * 
  * </pre>
  * 
@@ -228,4 +236,113 @@ public class BroadcastMsgDao extends
         return (List<BroadcastMsg>) findByNamedQueryAndNamedParam(
                 BroadcastMsg.ALL_UNEXPIRED_MSGS, "currentTime", currentTime);
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the {@link BroadcastMsg}s with the specified ids along with
+     * their {@link InputMessage}s and {@link TransmitterGroup}s.
+     * 
+     * @param ids
+     *            the ids of the {@link BroadcastMsg}s to retrieve
+     * @return the {@link BroadcastMsg}s that were found
+     */
+    public List<BroadcastMsg> getMessagesByIds(final Set<Long> ids) {
+        List<?> objects = findAllByNamedInQuery(BroadcastMsg.GET_MSGS_BY_IDS,
+                "ids", ids);
+        if ((objects == null) || objects.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<BroadcastMsg> msgs = new ArrayList<>(objects.size());
+        for (Object object : objects) {
+            if (object instanceof BroadcastMsg) {
+                msgs.add((BroadcastMsg) object);
+            }
+        }
+        return msgs;
+    }
+
+    /**
+     * Sets the played tone flags of the specified {@link BroadcastMsg}s in a
+     * single update. Messages that already have the specified flags are not
+     * updated.
+     * 
+     * @param ids
+     *            the ids of the {@link BroadcastMsg}s to update
+     * @param playedSameTone
+     *            the played SAME tone flag to set
+     * @param playedAlertTone
+     *            the played alert tone flag to set
+     * @return the number of {@link BroadcastMsg}s that were updated
+     */
+    public int updatePlayedTones(final Set<Long> ids,
+            final boolean playedSameTone, final boolean playedAlertTone) {
+        return executeNamedUpdate(BroadcastMsg.UPDATE_PLAYED_TONES,
+                new String[] { "ids", "playedSameTone", "playedAlertTone" },
+                new Object[] { ids, playedSameTone, playedAlertTone });
+    }
+
+    /**
+     * Sets the played interrupt flag of the interrupt {@link BroadcastMsg}s
+     * among the specified {@link BroadcastMsg}s in a single update.
+     * 
+     * @param ids
+     *            the ids of the {@link BroadcastMsg}s that have been played
+     * @return the number of {@link BroadcastMsg}s that were updated
+     */
+    public int updatePlayedInterrupt(final Set<Long> ids) {
+        return executeNamedUpdate(BroadcastMsg.UPDATE_PLAYED_INTERRUPT,
+                new String[] { "ids" }, new Object[] { ids });
+    }
+
+    /**
+     * Retrieves the audio fragment output paths of all {@link BroadcastMsg}s
+     * that were created for the specified {@link InputMessage}s.
+     * 
+     * @param inputMsgIds
+     *            the ids of the {@link InputMessage}s
+     * @return the output paths of the audio fragments
+     */
+    public List<String> getFragmentPathsByInputMsgIds(
+            final Set<Integer> inputMsgIds) {
+        List<?> objects = findAllByNamedInQuery(
+                BroadcastMsg.GET_FRAGMENT_PATHS_BY_INPUT_MSG_IDS,
+                "inputMsgIds", inputMsgIds);
+        if ((objects == null) || objects.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> paths = new ArrayList<>(objects.size());
+        for (Object object : objects) {
+            if (object instanceof String) {
+                paths.add((String) object);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Retrieves the name of the {@link TransmitterGroup} of every
+     * {@link BroadcastMsg} that was created for the specified
+     * {@link InputMessage}s.
+     * 
+     * @param inputMsgIds
+     *            the ids of the {@link InputMessage}s
+     * @return the {@link TransmitterGroup} names mapped by broadcast id
+     */
+    public Map<Long, String> getTransmitterGroupNamesByInputMsgIds(
+            final Set<Integer> inputMsgIds) {
+        List<?> objects = findAllByNamedInQuery(
+                BroadcastMsg.GET_ARCHIVE_INFO_BY_INPUT_MSG_IDS, "inputMsgIds",
+                inputMsgIds);
+        if ((objects == null) || objects.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, String> groupNames = new HashMap<>(objects.size());
+        for (Object object : objects) {
+            Object[] row = (Object[]) object;
+            groupNames.put((Long) row[0], (String) row[1]);
+        }
+        return groupNames;
+    }
+}
@@ -0,0 +1,329 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.edex.bmh.dao;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.raytheon.uf.common.bmh.datamodel.transmitter.Area;
+import com.raytheon.uf.common.bmh.datamodel.transmitter.Transmitter;
+import com.raytheon.uf.common.bmh.datamodel.transmitter.Zone;
+
+/**
+ * In memory index of the configured {@link Zone}s, {@link Area}s and the
+ * {@link Transmitter}s that cover them. Used to resolve UGCs without querying
+ * the database for every code. {@link Transmitter} membership is stored as
+ * {@link BitSet}s indexed by {@link Transmitter} id.
+ * 
+ * The index is an immutable {@link Snapshot} that is replaced as a whole. It is
+ * rebuilt the first time it is used after {@link #invalidate()}, which should
+ * be called whenever zones, areas or transmitter groups are changed. Every
+ * snapshot records the generation of the index it was built from so a rebuild
+ * that raced with an invalidation is never returned once the invalidation has
+ * completed.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * Oct 18, 2026           agent       Publish snapshots with a generation and resolve
+ *                                    every request against a single snapshot.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class GeographyIndex {
+
+    private static final int[] NO_AREAS = new int[0];
+
+    private final ZoneDao zoneDao;
+
+    private final AreaDao areaDao;
+
+    /* incremented by every invalidation. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public GeographyIndex(final ZoneDao zoneDao, final AreaDao areaDao) {
+        this.zoneDao = zoneDao;
+        this.areaDao = areaDao;
+    }
+
+    /**
+     * Discards the current index. The index will be rebuilt the next time that
+     * it is used.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Converts {@link Transmitter}s to the {@link BitSet} representation used
+     * by this index.
+     * 
+     * @param transmitters
+     *            the {@link Transmitter}s to convert
+     * @return a {@link BitSet} containing the ids of the {@link Transmitter}s
+     */
+    public static BitSet toTransmitterIds(
+            final Collection<Transmitter> transmitters) {
+        BitSet transmitterIds = new BitSet();
+        for (Transmitter transmitter : transmitters) {
+            transmitterIds.set(transmitter.getId());
+        }
+        return transmitterIds;
+    }
+
+    /**
+     * Returns the current index, rebuilding it if it has been invalidated. All
+     * of the lookups for a single request should use the same snapshot so that
+     * they are consistent with each other.
+     * 
+     * @return the current {@link Snapshot}
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation == generation.get()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            /*
+             * Capture the generation before reading the database so that an
+             * invalidation that arrives during the rebuild triggers another
+             * rebuild.
+             */
+            final long building = generation.get();
+            if (current != null && current.generation == building) {
+                return current;
+            }
+            current = new Snapshot(building, zoneDao.getAllZones(),
+                    areaDao.getAllAreas());
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private static boolean isZoneCode(final String ugc) {
+        return ugc.length() > 2 && ugc.charAt(2) == 'Z';
+    }
+
+    /**
+     * An immutable index of the configured {@link Zone}s and {@link Area}s.
+     */
+    public static final class Snapshot {
+
+        private final long generation;
+
+        private final String[] areaCodes;
+
+        private final BitSet[] areaTransmitters;
+
+        private final Map<String, Integer> areaIndices;
+
+        private final Map<String, int[]> zoneAreas;
+
+        private final Map<String, BitSet> zoneTransmitters;
+
+        private final Map<Integer, int[]> transmitterAreas;
+
+        private final Map<Integer, Transmitter> transmitters;
+
+        private Snapshot(final long generation, final List<Zone> zones,
+                final List<Area> areas) {
+            this.generation = generation;
+            List<String> codes = new ArrayList<>(areas.size());
+            List<BitSet> membership = new ArrayList<>(areas.size());
+            areaIndices = new HashMap<>(areas.size() * 2);
+            transmitters = new HashMap<>();
+            Map<Integer, List<Integer>> areasByTransmitter = new HashMap<>();
+            for (Area area : areas) {
+                addArea(area, codes, membership, areasByTransmitter);
+            }
+
+            zoneAreas = new HashMap<>(zones.size() * 2);
+            for (Zone zone : zones) {
+                if (zone.getAreas() == null || zone.getAreas().isEmpty()) {
+                    zoneAreas.put(zone.getZoneCode(), NO_AREAS);
+                    continue;
+                }
+                int[] indices = new int[zone.getAreas().size()];
+                int i = 0;
+                for (Area area : zone.getAreas()) {
+                    Integer index = areaIndices.get(area.getAreaCode());
+                    if (index == null) {
+                        index = addArea(area, codes, membership,
+                                areasByTransmitter);
+                    }
+                    indices[i++] = index;
+                }
+                zoneAreas.put(zone.getZoneCode(), indices);
+            }
+
+            areaCodes = codes.toArray(new String[codes.size()]);
+            areaTransmitters = membership.toArray(new BitSet[membership
+                    .size()]);
+
+            zoneTransmitters = new HashMap<>(zoneAreas.size() * 2);
+            for (Map.Entry<String, int[]> entry : zoneAreas.entrySet()) {
+                BitSet union = new BitSet();
+                for (int area : entry.getValue()) {
+                    union.or(areaTransmitters[area]);
+                }
+                zoneTransmitters.put(entry.getKey(), union);
+            }
+
+            transmitterAreas = new HashMap<>(areasByTransmitter.size() * 2);
+            for (Map.Entry<Integer, List<Integer>> entry : areasByTransmitter
+                    .entrySet()) {
+                List<Integer> indices = entry.getValue();
+                int[] array = new int[indices.size()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = indices.get(i);
+                }
+                transmitterAreas.put(entry.getKey(), array);
+            }
+        }
+
+        private int addArea(final Area area, final List<String> codes,
+                final List<BitSet> membership,
+                final Map<Integer, List<Integer>> areasByTransmitter) {
+            int index = codes.size();
+            BitSet transmitterIds = new BitSet();
+            if (area.getTransmitters() != null) {
+                for (Transmitter transmitter : area.getTransmitters()) {
+                    transmitterIds.set(transmitter.getId());
+                    transmitters.put(transmitter.getId(), transmitter);
+                    List<Integer> transmitterAreas = areasByTransmitter
+                            .get(transmitter.getId());
+                    if (transmitterAreas == null) {
+                        transmitterAreas = new ArrayList<>();
+                        areasByTransmitter.put(transmitter.getId(),
+                                transmitterAreas);
+                    }
+                    transmitterAreas.add(index);
+                }
+            }
+            codes.add(area.getAreaCode());
+            membership.add(transmitterIds);
+            areaIndices.put(area.getAreaCode(), index);
+            return index;
+        }
+
+        /**
+         * Adds the ids of all {@link Transmitter}s that cover the specified UGC
+         * to the specified {@link BitSet}.
+         * 
+         * @param ugc
+         *            a zone or area code
+         * @param transmitterIds
+         *            the {@link BitSet} to add the {@link Transmitter} ids to
+         * @return false if the UGC is not configured, true otherwise
+         */
+        public boolean addTransmitterIds(final String ugc,
+                final BitSet transmitterIds) {
+            BitSet ugcTransmitters = getTransmitterIds(ugc);
+            if (ugcTransmitters == null) {
+                return false;
+            }
+            transmitterIds.or(ugcTransmitters);
+            return true;
+        }
+
+        /**
+         * Adds the codes of the {@link Area}s of the specified UGC that are
+         * covered by at least one of the specified {@link Transmitter}s to the
+         * specified {@link Collection}.
+         * 
+         * @param ugc
+         *            a zone or area code
+         * @param transmitterIds
+         *            the ids of the {@link Transmitter}s
+         * @param codes
+         *            the {@link Collection} to add the area codes to
+         */
+        public void addCoveredAreaCodes(final String ugc,
+                final BitSet transmitterIds, final Collection<String> codes) {
+            for (int area : getAreas(ugc)) {
+                if (areaTransmitters[area].intersects(transmitterIds)) {
+                    codes.add(areaCodes[area]);
+                }
+            }
+        }
+
+        /**
+         * Adds the codes of all {@link Area}s that are covered by the specified
+         * {@link Transmitter} to the specified {@link Collection}.
+         * 
+         * @param transmitterId
+         *            the id of the {@link Transmitter}
+         * @param codes
+         *            the {@link Collection} to add the area codes to
+         */
+        public void addAreaCodes(final int transmitterId,
+                final Collection<String> codes) {
+            int[] areas = transmitterAreas.get(transmitterId);
+            if (areas == null) {
+                return;
+            }
+            for (int area : areas) {
+                codes.add(areaCodes[area]);
+            }
+        }
+
+        /**
+         * @param transmitterId
+         *            the id of the {@link Transmitter}
+         * @return the {@link Transmitter} with the specified id or null if it
+         *         does not cover any {@link Area}
+         */
+        public Transmitter getTransmitter(final int transmitterId) {
+            return transmitters.get(transmitterId);
+        }
+
+        private BitSet getTransmitterIds(final String ugc) {
+            if (isZoneCode(ugc)) {
+                return zoneTransmitters.get(ugc);
+            }
+            Integer area = areaIndices.get(ugc);
+            return area == null ? null : areaTransmitters[area];
+        }
+
+        private int[] getAreas(final String ugc) {
+            if (isZoneCode(ugc)) {
+                int[] areas = zoneAreas.get(ugc);
+                return areas == null ? NO_AREAS : areas;
+            }
+            Integer area = areaIndices.get(ugc);
+            return area == null ? NO_AREAS : new int[] { area };
+        }
+    }
+}
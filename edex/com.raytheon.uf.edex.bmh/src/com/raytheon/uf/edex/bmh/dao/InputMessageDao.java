@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.util.CollectionUtils;
 
@@ -63,6 +64,7 @@ import com.raytheon.uf.edex.bmh.msg.logging.IMessageLogger;
  * Jan 19, 2017  6078     bkowal      Updated {@link #createInputMessageIdNameAfosCreation(List)} to
  *                                    handle retrieval of the origin column.
 >>>>>>> origin/omaha_17.3.1
+ * Oct 18, 2026           agent       Added getPurgableMessageIds and deleteByIds.
  * </pre>
  * 
  * @author bsteffen
@@ -163,6 +165,44 @@ public class InputMessageDao
 
     }
 
+    /**
+     * Retrieves the ids of the next page of purgable {@link InputMessage}s in
+     * ascending id order.
+     * 
+     * @param purgeTime
+     *            messages that expired or were deactivated before this time
+     *            are purgable
+     * @param lastId
+     *            only ids greater than this id will be returned
+     * @param maxResults
+     *            the maximum number of ids to return
+     * @return the ids of the purgable {@link InputMessage}s
+     */
+    @SuppressWarnings("unchecked")
+    public List<Integer> getPurgableMessageIds(final Calendar purgeTime,
+            final int lastId, final int maxResults) {
+        return (List<Integer>) findByNamedQueryAndNamedParam(
+                InputMessage.PURGE_IDS_QUERY_NAME, new String[] { "purgeTime",
+                        "lastId" }, new Object[] { purgeTime, lastId },
+                maxResults);
+    }
+
+    /**
+     * Deletes the specified {@link InputMessage}s in a single statement. The
+     * database cascades the delete to all dependent records.
+     * 
+     * @param ids
+     *            the ids of the {@link InputMessage}s to delete
+     * @return the number of {@link InputMessage}s that were deleted
+     */
+    public int deleteByIds(final Set<Integer> ids) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return 0;
+        }
+        return executeNamedUpdate(InputMessage.DELETE_BY_IDS_QUERY_NAME,
+                new String[] { "ids" }, new Object[] { ids });
+    }
+
     @SuppressWarnings("unchecked")
     public List<InputMessage> getUnexpiredInputMessages(
             final Calendar currentTime) {
@@ -56,6 +56,7 @@ import com.raytheon.uf.common.bmh.datamodel.msg.MessageTypeSummary;
  * Mar 25, 2015  4290     bsteffen    Switch to global replacement.
  * Jun 23, 2015  4572     bkowal      Added {@link #getByAfosIds(Set)}.
  * Jul 17, 2015  4636     bkowal      Re-factored common code into {@link AbstractBMHDao}.
+ * Oct 18, 2026           agent       Added {@link #getMessageTypesByAfosIds(Set)}.
  * 
  * </pre>
  * 
@@ -181,6 +182,30 @@ public class MessageTypeDao extends AbstractBMHDao<MessageType, Integer> {
         return messageTypes;
     }
 
+    /**
+     * Returns the {@link MessageType}s that can be found for the specified
+     * afosIds.
+     * 
+     * @param afosIds
+     *            the specified afosIds
+     * @return a {@link List} containing the {@link MessageType}s that were
+     *         found.
+     */
+    public List<MessageType> getMessageTypesByAfosIds(final Set<String> afosIds) {
+        List<?> returnObjects = this.findAllByNamedInQuery(
+                MessageType.GET_MESSAGETYPES_FOR_AFOSIDS, "afosids", afosIds);
+        if (CollectionUtils.isEmpty(returnObjects)) {
+            return Collections.emptyList();
+        }
+
+        List<MessageType> messageTypes = new ArrayList<>(returnObjects.size());
+        for (Object object : returnObjects) {
+            messageTypes.add((MessageType) object);
+        }
+
+        return messageTypes;
+    }
+
     /**
      * Get the list of emergency override message types.
      * 
@@ -19,33 +19,20 @@
  **/
 package com.raytheon.uf.edex.bmh.edge;
 
-import javax.jms.BytesMessage;
-import javax.jms.Session;
-import javax.xml.bind.JAXBException;
-
-import org.apache.qpid.client.AMQConnectionFactory;
+import java.util.concurrent.Callable;
 
 import com.raytheon.uf.common.bmh.BMH_CATEGORY;
 import com.raytheon.uf.common.bmh.audio.AudioConvererterManager;
 import com.raytheon.uf.common.bmh.audio.BMHAudioFormat;
 import com.raytheon.uf.common.bmh.datamodel.msg.BroadcastMsgGroup;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylist;
-import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistCodec;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageMetadata;
-import com.raytheon.uf.common.serialization.JAXBManager;
-import com.raytheon.uf.common.serialization.SerializationException;
 import com.raytheon.uf.common.serialization.SerializationUtil;
 import com.raytheon.uf.edex.bmh.BMHJmsDestinations;
 import com.raytheon.uf.edex.bmh.msg.logging.IMessageLogger;
 import com.raytheon.uf.edex.bmh.status.BMHStatusHandler;
 import com.raytheon.uf.edex.bmh.status.IBMHStatusHandler;
-import com.raytheon.uf.edex.core.EDEXUtil;
-import com.raytheon.uf.edex.core.EdexException;
-import com.raytheon.uf.common.jms.JmsPooledConnection;
-import com.raytheon.uf.common.jms.JmsPooledConnectionFactory;
-import com.raytheon.uf.common.jms.wrapper.JmsSessionWrapper;
-import javax.jms.Destination;
-import javax.jms.MessageProducer;
 
 /**
  * The Edge Disseminator will transfer broadcastrmessages to the edge topic to
@@ -58,6 +45,16 @@ import javax.jms.MessageProducer;
  * Date         Ticket#    Engineer    Description
  * ------------ ---------- ----------- --------------------------
  * April 06, 2018       	ccastro      Initial creation
+ * Oct 17, 2026            agent        Send the already encoded playlist and
+ *                                      metadata instead of marshalling them again.
+ * Oct 18, 2026            agent        Queue all messages on the {@link EdgeMessageSender}
+ *                                      instead of sending on the caller's thread.
+ * Oct 18, 2026            agent        Keep sending xml to the edge when the playlist files
+ *                                      are binary.
+ * Oct 18, 2026            agent        Report every message dropped by the
+ *                                      {@link EdgeMessageSender} as a warning.
+ * Oct 18, 2026            agent        Only send the latest playlist and metadata that
+ *                                      are waiting for the edge.
  * 
  * </pre>
  * 
@@ -67,15 +64,14 @@ import javax.jms.MessageProducer;
 
 public class EdgeDisseminator {
 
+	/* Default priority is 4. Audio is set higher to get higher route priority. */
+	private static final int DEFAULT_PRIORITY = 4;
+
+	private static final int AUDIO_PRIORITY = 6;
+
 	private boolean operational = true;
-	private final JAXBManager jaxbManager;
-	// Session session;
-	private JmsSessionWrapper session;
-	// private JmsPooledSession session;
-	private JmsPooledConnection conn = null;
-	Thread thread = Thread.currentThread();
-	private JmsPooledConnectionFactory connFactory = null;
-	private AMQConnectionFactory amqConnFactory = null;
+
+	private final EdgeMessageSender sender = EdgeMessageSender.getInstance();
 
 	private static final IBMHStatusHandler statusHandler = BMHStatusHandler.getInstance(EdgeDisseminator.class);
 
@@ -83,12 +79,6 @@ public class EdgeDisseminator {
 
 	public EdgeDisseminator(final IMessageLogger messageLogger) {
 		// this.messageLogger = messageLogger;
-		try {
-			this.jaxbManager = new JAXBManager(DacPlaylistMessage.class, DacPlaylistMessageMetadata.class,
-					DacPlaylist.class);
-		} catch (JAXBException e) {
-			throw new RuntimeException("Failed to instantiate the JAXB Manager.", e);
-		}
 	}
 
 	@SuppressWarnings("unused")
@@ -110,143 +100,124 @@ public class EdgeDisseminator {
 	 * @throws Exception
 	 *             if the specified {@BroadcastMsgGroup} is NULL
 	 */
-	public void sendToEdge(BroadcastMsgGroup group) throws Exception {
+	public void sendToEdge(final BroadcastMsgGroup group) throws Exception {
 		if (group == null) {
 			throw new Exception("Receieved an empty playlist");
 		}
-		try {
-			this.sendToDestination(BMHJmsDestinations.getBMHEdgeDestination(operational),
-					SerializationUtil.transformToThrift(group));
-		} catch (EdexException | SerializationException e) {
-			statusHandler.error(BMH_CATEGORY.PLAYLIST_MANAGER_ERROR, "Unable to send playlist notification.", e);
-		}
-
+		this.submit(null, true, new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return SerializationUtil.transformToThrift(group);
+			}
+		});
 	}
 	/**
 	 * Sends a DacPlaylist to Edge queue.
 	 * 
-	 * @param group
+	 * @param playlist
 	 *            the specified {@DacPlaylist}.
+	 * @param playlistData
+	 *            the playlist as encoded by {@DacPlaylistCodec}. Always sent
+	 *            to the edge as xml.
 	 * @throws Exception
 	 *             if the specified {@DacPlaylist} is NULL
 	 */
-	public void sendToEdge(DacPlaylist playlist) throws Exception {
-		if (playlist == null) {
+	public void sendToEdge(DacPlaylist playlist, byte[] playlistData) throws Exception {
+		if (playlist == null || playlistData == null) {
 			throw new Exception("Receieved an empty playlist");
 		}
-		try {
-			this.sendToDestination(BMHJmsDestinations.getBMHEdgeDestination(operational),
-					jaxbManager.marshalToXml(playlist));
-
-		} catch (EdexException e) {
-			statusHandler.error(BMH_CATEGORY.PLAYLIST_MANAGER_ERROR, "Unable to send playlist notification.", e);
-		}
-
+		/*
+		 * A newer version of the playlist replaces one that is still waiting
+		 * and is sent after the metadata queued before it.
+		 */
+		String key = "playlist " + playlist.getTransmitterGroup() + "/P" + playlist.getPriority() + "_"
+				+ playlist.getSuite() + "_" + (playlist.getStart() == null ? "" : playlist.getStart().getTimeInMillis());
+		this.submit(key, false, xml(playlistData, DacPlaylist.class));
 	}
 	/**
 	 * Sends a DacPlaylistMessageMetadata to Edge queue.
 	 * 
-	 * @param group
+	 * @param messageMetadata
 	 *            the specified {@DacPlaylistMessageMetadata}.
+	 * @param metadataData
+	 *            the metadata as encoded by {@DacPlaylistCodec}. Always sent
+	 *            to the edge as xml.
 	 * @throws Exception
 	 *             if the specified {@DacPlaylistMessageMetadata} is NULL
 	 */
-	public void sendToEdge(DacPlaylistMessageMetadata messageMetadata) throws Exception {
-		if (messageMetadata == null) {
+	public void sendToEdge(DacPlaylistMessageMetadata messageMetadata, byte[] metadataData) throws Exception {
+		if (messageMetadata == null || metadataData == null) {
 			throw new Exception("Receieved an empty messageMetadata");
 		}
-		try {
-			this.sendToDestination(BMHJmsDestinations.getBMHEdgeDestination(operational),
-					jaxbManager.marshalToXml(messageMetadata));
-
-		} catch (EdexException e) {
-			statusHandler.error(BMH_CATEGORY.PLAYLIST_MANAGER_ERROR, "Unable to send playlist notification to Edge", e);
-		}
-
+		/*
+		 * Newer metadata for the broadcast replaces metadata that is still
+		 * waiting and keeps its place ahead of the playlists that use it.
+		 */
+		String key = "metadata " + messageMetadata.getBroadcastId();
+		this.submit(key, true, xml(metadataData, DacPlaylistMessageMetadata.class));
 	}
 
 	/**
-	 * Sends a StreamMessage to Edge queue.
+	 * Sends a StreamMessage to Edge queue. The audio is converted to MP3 on
+	 * the {@link EdgeMessageSender} thread.
 	 * 
 	 * @param audioMessage
 	 *            the specified {AudioMessage}.
 	 * @throws Exception
 	 *             if the specified {AudioMessage} is NULL
 	 */
-	public void sendToEdge(byte[] audioMessage, String id) throws Exception {
+	public void sendToEdge(final byte[] audioMessage, String id) throws Exception {
 		if (audioMessage == null) {
 			throw new Exception("Receieved an empty audioMessage");
 		}
 
-		String jmsVirtualHost = System.getenv("JMS_VIRTUALHOST");
-		String jmsServer = System.getenv("JMS_SERVER");
-		String connString = "amqp://guest:guest@/" + jmsVirtualHost + "?brokerlist='" + jmsServer + "'&amp;ssl='true'";
-		String filename = id; // id.substring(0, id.indexOf('.'));
-
-		amqConnFactory = new AMQConnectionFactory(connString);
-		connFactory = new JmsPooledConnectionFactory(amqConnFactory);
-		conn = new JmsPooledConnection(connFactory, thread);
-		session = conn.getSession(false, Session.AUTO_ACKNOWLEDGE);
-
-		// Manually send to queue for the prototype.
-		// Cannot get the EdexUtil to send a BytesMessage
-		Destination dest = session.createQueue("BMH.EDGE");
-		MessageProducer messProducer = session.createProducer(dest);
-		BytesMessage bMess = session.createBytesMessage();
-		BytesMessage newbMess = session.createBytesMessage();
-		BytesMessage newbMessMp3 = session.createBytesMessage();
-
-		// Default priority is 4. Set it higher to get higher route priority
-		int priority = 6;
-		bMess.writeBytes(SerializationUtil.transformToThrift(audioMessage));
-		bMess.setJMSPriority(priority);
-		bMess.setStringProperty("FileName", filename);
-		bMess.setJMSType(audioMessage.getClass().getName());
-		bMess.reset();
-
-		// Convert Msg
-		byte[] convertedMessage = null;
-        // Convert Msg in 2 steps ULAW->WAV->MP3
-		try {
-			convertedMessage = AudioConvererterManager.getInstance().convertAudio(audioMessage, BMHAudioFormat.ULAW,
-					BMHAudioFormat.WAV);
-		} catch (Exception e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		// If ULAW was converted to WAV then convert to MP3 and send
-		if (convertedMessage != null) {
-			byte[] convertedMessageMp3 = null;
-			try {
-				convertedMessageMp3 = AudioConvererterManager.getInstance().convertAudio(convertedMessage,
+		this.submitAudio(id, new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				// Convert Msg in 2 steps ULAW->WAV->MP3
+				byte[] convertedMessage = AudioConvererterManager.getInstance().convertAudio(audioMessage,
+						BMHAudioFormat.ULAW, BMHAudioFormat.WAV);
+				if (convertedMessage == null) {
+					return null;
+				}
+				byte[] convertedMessageMp3 = AudioConvererterManager.getInstance().convertAudio(convertedMessage,
 						BMHAudioFormat.WAV, BMHAudioFormat.MP3);
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			if (convertedMessageMp3 != null) {
-				newbMessMp3.setJMSPriority(priority);
-				newbMessMp3.writeBytes(SerializationUtil.transformToThrift(convertedMessageMp3));
-				newbMessMp3.setStringProperty("FileName", filename);
-				messProducer.send(newbMessMp3);
+				if (convertedMessageMp3 == null) {
+					return null;
+				}
+				return SerializationUtil.transformToThrift(convertedMessageMp3);
 			}
+		});
+	}
 
+	private void submit(String key, boolean keepPosition, Callable<byte[]> payload) {
+		if (!sender.submit(BMHJmsDestinations.getBMHEdgeQueueName(operational), key, keepPosition,
+				DEFAULT_PRIORITY, payload)) {
+			statusHandler.warn(BMH_CATEGORY.UNKNOWN, "The edge queue is full, dropped "
+					+ (key == null ? "a message" : key) + ". The edge may be out of date.");
 		}
+	}
 
-		// Manually sending to queue for the prototype.
-		// Cannot get the EdexUtil to send a BytesMessage
-		/*
-		 * try {
-		 * this.sendToDestination(BMHJmsDestinations.getBMHEdgeDestination(
-		 * operational) + options,bMess); } catch (EdexException e) {
-		 * statusHandler.error(BMH_CATEGORY.PLAYLIST_MANAGER_ERROR,
-		 * "Unable to send audio message.", e); }
-		 */
+	private void submitAudio(String fileName, Callable<byte[]> payload) {
+		if (!sender.submitAudio(BMHJmsDestinations.getBMHEdgeQueueName(operational), fileName, AUDIO_PRIORITY,
+				payload)) {
+			statusHandler.warn(BMH_CATEGORY.UNKNOWN, "The edge queue is full, dropped " + fileName + ".");
+		}
 	}
 
-	private void sendToDestination(final String destinationURI, final Object message)
-			throws EdexException, SerializationException {
-		EDEXUtil.getMessageProducer().sendAsyncUri(destinationURI, message);
+	/*
+	 * The edge only understands xml. The encoded data is converted on the
+	 * sender thread; decoding it gives the conversion its own copy of the
+	 * object. The xml is sent as the bytes of a BytesMessage like everything
+	 * else on the edge queue, not as a TextMessage.
+	 */
+	private static Callable<byte[]> xml(final byte[] data, final Class<?> type) {
+		return new Callable<byte[]>() {
+			@Override
+			public byte[] call() throws Exception {
+				return DacPlaylistCodec.toXml(data, type);
+			}
+		};
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,565 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.edex.bmh.edge;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.qpid.client.AMQConnectionFactory;
+
+import com.raytheon.uf.common.bmh.BMH_CATEGORY;
+import com.raytheon.uf.common.jms.JmsPooledConnectionFactory;
+import com.raytheon.uf.common.time.util.TimeUtil;
+import com.raytheon.uf.edex.bmh.status.BMHStatusHandler;
+import com.raytheon.uf.edex.bmh.status.IBMHStatusHandler;
+
+/**
+ * Sends messages to the edge queues on a dedicated thread so that slow edge
+ * dissemination never delays the caller. Messages are placed on a bounded
+ * queue and are sent in the order that they were submitted, in transacted
+ * batches, using a single long lived connection and cached producers. All
+ * messages are sent as a {@link BytesMessage}.
+ * 
+ * Submitting never blocks. A message submitted with a key replaces a message
+ * with the same key that has not been sent yet, so only the latest version of
+ * a playlist or of the metadata of a broadcast is sent. When the queue is full
+ * the oldest audio is dropped to make room; keyed messages are only rejected
+ * if there is no audio left to drop. A batch that cannot be sent is retried,
+ * with a growing delay, up to the number of attempts configured by
+ * {@value #RETRY_ATTEMPTS_PROPERTY} and is then dropped. Messages submitted
+ * during the retries are kept in the queue.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * Oct 18, 2026           agent       Block producers when the queue is full and retry
+ *                                    failed batches instead of dropping them.
+ * Oct 18, 2026           agent       Never block producers, replace keyed messages,
+ *                                    drop the oldest audio when full and limit the
+ *                                    retries.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class EdgeMessageSender implements Runnable {
+
+    private static final IBMHStatusHandler statusHandler = BMHStatusHandler
+            .getInstance(EdgeMessageSender.class);
+
+    private static final int QUEUE_SIZE = Integer.getInteger(
+            "bmh.edge.queue.size", 1000);
+
+    private static final int BATCH_SIZE = Integer.getInteger(
+            "bmh.edge.batch.size", 50);
+
+    private static final String RETRY_ATTEMPTS_PROPERTY = "bmh.edge.retry.attempts";
+
+    private static final int RETRY_ATTEMPTS = Integer.getInteger(
+            RETRY_ATTEMPTS_PROPERTY, 5);
+
+    private static final long RETRY_DELAY = Long.getLong(
+            "bmh.edge.retry.delay", 5 * TimeUtil.MILLIS_PER_SECOND);
+
+    private static final long MAX_RETRY_DELAY = TimeUtil.MILLIS_PER_MINUTE;
+
+    private static final long STATS_INTERVAL = 5 * TimeUtil.MILLIS_PER_MINUTE;
+
+    private static final String FILE_NAME_PROPERTY = "FileName";
+
+    private static final EdgeMessageSender instance = new EdgeMessageSender();
+
+    /*
+     * The queue and the keyed messages in it, guarded by the queue.
+     */
+    private final Deque<EdgeMessage> queue = new ArrayDeque<>(QUEUE_SIZE);
+
+    private final Map<String, EdgeMessage> keyedMessages = new HashMap<>();
+
+    private final AtomicLong sentCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong replacedCount = new AtomicLong();
+
+    private final AtomicLong totalSendLatency = new AtomicLong();
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private Thread senderThread;
+
+    /*
+     * The following are only accessed by the sender thread.
+     */
+    private JmsPooledConnectionFactory connFactory;
+
+    private Connection connection;
+
+    private Session session;
+
+    private final Map<String, MessageProducer> producers = new HashMap<>();
+
+    private boolean dropReported;
+
+    private long intervalMaxSendLatency;
+
+    private long intervalMaxQueueLatency;
+
+    private long intervalMessageCount;
+
+    public static EdgeMessageSender getInstance() {
+        return instance;
+    }
+
+    private EdgeMessageSender() {
+    }
+
+    /**
+     * Queues audio for the specified edge queue. The payload is produced on the
+     * sender thread so that any serialization or conversion does not delay the
+     * caller. Audio is the first to be dropped when the queue is full.
+     * 
+     * @param queueName
+     *            the name of the edge queue
+     * @param fileName
+     *            the file name to attach to the message
+     * @param priority
+     *            the JMS priority of the message
+     * @param payload
+     *            produces the message contents, a null result is not sent
+     * @return true if the audio was queued, false if it was dropped because
+     *         the queue is full of messages that are not audio
+     */
+    public boolean submitAudio(String queueName, String fileName, int priority,
+            Callable<byte[]> payload) {
+        return submit(new EdgeMessage(queueName, fileName, null, true,
+                priority, payload));
+    }
+
+    /**
+     * Queues a message for the specified edge queue. The payload is produced
+     * on the sender thread so that any serialization or conversion does not
+     * delay the caller.
+     * 
+     * @param queueName
+     *            the name of the edge queue
+     * @param key
+     *            identifies the message, replaces a queued message with the
+     *            same key that has not been sent yet. May be null.
+     * @param keepPosition
+     *            true if a replacement is sent where the replaced message was
+     *            queued so that it still precedes the messages that depend on
+     *            it, false if it is sent after all messages that are already
+     *            queued so that it follows the messages that it depends on.
+     * @param priority
+     *            the JMS priority of the message
+     * @param payload
+     *            produces the message contents, a null result is not sent
+     * @return true if the message was queued, false if it was dropped because
+     *         the queue is full and there is no audio to drop instead
+     */
+    public boolean submit(String queueName, String key, boolean keepPosition,
+            int priority, Callable<byte[]> payload) {
+        EdgeMessage message = new EdgeMessage(queueName, null, key, false,
+                priority, payload);
+        startSenderThread();
+        synchronized (queue) {
+            EdgeMessage replaced = key == null ? null : keyedMessages.get(key);
+            if (replaced != null) {
+                replacedCount.incrementAndGet();
+                if (keepPosition) {
+                    replaced.replace(message);
+                    return true;
+                }
+                queue.remove(replaced);
+            }
+            return enqueue(message);
+        }
+    }
+
+    private boolean submit(EdgeMessage message) {
+        startSenderThread();
+        synchronized (queue) {
+            return enqueue(message);
+        }
+    }
+
+    /**
+     * Must hold the lock on the queue.
+     */
+    private boolean enqueue(EdgeMessage message) {
+        if (queue.size() >= QUEUE_SIZE && !dropOldestAudio()) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        queue.add(message);
+        if (message.key != null) {
+            keyedMessages.put(message.key, message);
+        }
+        queue.notify();
+        return true;
+    }
+
+    /**
+     * Must hold the lock on the queue.
+     * 
+     * @return true if audio was dropped, false if the queue holds no audio
+     */
+    private boolean dropOldestAudio() {
+        Iterator<EdgeMessage> it = queue.iterator();
+        while (it.hasNext()) {
+            if (it.next().audio) {
+                it.remove();
+                droppedCount.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of messages waiting to be sent
+     */
+    public int getQueueDepth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * @return the number of messages that have been sent
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * @return the number of messages that could not be sent
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return the number of messages that were dropped because the queue was
+     *         full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the number of messages that were replaced by a newer message
+     *         with the same key before they were sent
+     */
+    public long getReplacedCount() {
+        return replacedCount.get();
+    }
+
+    /**
+     * @return the average time in milliseconds needed to send and commit a
+     *         batch of messages
+     */
+    public long getAverageSendLatency() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0 : totalSendLatency.get() / batches;
+    }
+
+    private synchronized void startSenderThread() {
+        if (senderThread == null) {
+            senderThread = new Thread(this, "BMHEdgeMessageSender");
+            senderThread.setDaemon(true);
+            senderThread.start();
+        }
+    }
+
+    @Override
+    public void run() {
+        List<EdgeMessage> batch = new ArrayList<>(BATCH_SIZE);
+        long nextStatsTime = System.currentTimeMillis() + STATS_INTERVAL;
+        long lastDroppedCount = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                take(batch, nextStatsTime - System.currentTimeMillis());
+                if (!batch.isEmpty()) {
+                    send(batch);
+                    batch.clear();
+                }
+
+                long dropped = droppedCount.get();
+                if (dropped > lastDroppedCount && !dropReported) {
+                    statusHandler.warn(BMH_CATEGORY.UNKNOWN,
+                            "The edge dissemination queue is full. Messages are being dropped.");
+                    dropReported = true;
+                }
+                long currentTime = System.currentTimeMillis();
+                if (currentTime >= nextStatsTime) {
+                    logStats(dropped - lastDroppedCount);
+                    lastDroppedCount = dropped;
+                    dropReported = false;
+                    nextStatsTime = currentTime + STATS_INTERVAL;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                statusHandler.error(BMH_CATEGORY.UNKNOWN,
+                        "Unexpected failure in the edge message sender.", e);
+                batch.clear();
+            }
+        }
+        closeConnection();
+    }
+
+    /**
+     * Waits up to timeout ms for messages and moves up to a batch of them to
+     * the batch. Sent messages can no longer be replaced.
+     */
+    private void take(List<EdgeMessage> batch, long timeout)
+            throws InterruptedException {
+        synchronized (queue) {
+            if (queue.isEmpty() && timeout > 0) {
+                queue.wait(timeout);
+            }
+            while (!queue.isEmpty() && batch.size() < BATCH_SIZE) {
+                EdgeMessage message = queue.poll();
+                if (message.key != null) {
+                    keyedMessages.remove(message.key);
+                }
+                batch.add(message);
+            }
+        }
+    }
+
+    private void send(List<EdgeMessage> batch) {
+        intervalMessageCount += batch.size();
+        List<EdgeMessage> prepared = new ArrayList<>(batch.size());
+        for (EdgeMessage message : batch) {
+            try {
+                message.data = message.payload.call();
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+                statusHandler.error(BMH_CATEGORY.UNKNOWN,
+                        "Unable to prepare message "
+                                + (message.audio ? message.fileName
+                                        : message.key) + " for the edge.", e);
+                continue;
+            }
+            if (message.data != null) {
+                prepared.add(message);
+            }
+        }
+        if (prepared.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long retryDelay = RETRY_DELAY;
+        for (int attempt = 1;; attempt++) {
+            try {
+                sendBatch(prepared);
+                break;
+            } catch (JMSException e) {
+                closeConnection();
+                if (attempt == 1) {
+                    /*
+                     * The connection may have gone stale, retry immediately
+                     * with a new one.
+                     */
+                    continue;
+                }
+                if (attempt >= RETRY_ATTEMPTS) {
+                    failedCount.addAndGet(prepared.size());
+                    statusHandler.error(BMH_CATEGORY.UNKNOWN, "Unable to send "
+                            + prepared.size() + " messages to the edge after "
+                            + attempt + " attempts. The messages are dropped.",
+                            e);
+                    return;
+                }
+                statusHandler.error(BMH_CATEGORY.UNKNOWN, "Unable to send "
+                        + prepared.size() + " messages to the edge (attempt "
+                        + attempt + "). Retrying in " + retryDelay
+                        + " ms; " + getQueueDepth()
+                        + " messages are waiting.", e);
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException e1) {
+                    Thread.currentThread().interrupt();
+                    failedCount.addAndGet(prepared.size());
+                    statusHandler.error(BMH_CATEGORY.UNKNOWN,
+                            "Interrupted while retrying; " + prepared.size()
+                                    + " messages were not sent to the edge.");
+                    return;
+                }
+                retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+            }
+        }
+        long end = System.currentTimeMillis();
+
+        long sendLatency = end - start;
+        totalSendLatency.addAndGet(sendLatency);
+        batchCount.incrementAndGet();
+        sentCount.addAndGet(prepared.size());
+        intervalMaxSendLatency = Math.max(intervalMaxSendLatency, sendLatency);
+        intervalMaxQueueLatency = Math.max(intervalMaxQueueLatency, end
+                - prepared.get(0).submitTime);
+    }
+
+    private void sendBatch(List<EdgeMessage> messages) throws JMSException {
+        if (session == null) {
+            openConnection();
+        }
+        try {
+            for (EdgeMessage message : messages) {
+                MessageProducer producer = producers.get(message.queueName);
+                if (producer == null) {
+                    producer = session.createProducer(session
+                            .createQueue(message.queueName));
+                    producers.put(message.queueName, producer);
+                }
+                BytesMessage bytesMessage = session.createBytesMessage();
+                bytesMessage.writeBytes(message.data);
+                if (message.fileName != null) {
+                    bytesMessage.setStringProperty(FILE_NAME_PROPERTY,
+                            message.fileName);
+                }
+                producer.send(bytesMessage, producer.getDeliveryMode(),
+                        message.priority, producer.getTimeToLive());
+            }
+            session.commit();
+        } catch (JMSException e) {
+            try {
+                session.rollback();
+            } catch (JMSException e1) {
+                e.addSuppressed(e1);
+            }
+            throw e;
+        }
+    }
+
+    private void openConnection() throws JMSException {
+        if (connFactory == null) {
+            String jmsVirtualHost = System.getenv("JMS_VIRTUALHOST");
+            String jmsServer = System.getenv("JMS_SERVER");
+            String connString = "amqp://guest:guest@/" + jmsVirtualHost
+                    + "?brokerlist='" + jmsServer + "'&amp;ssl='true'";
+            try {
+                connFactory = new JmsPooledConnectionFactory(
+                        new AMQConnectionFactory(connString));
+            } catch (Exception e) {
+                JMSException jmsException = new JMSException(
+                        "Unable to create the edge connection factory.");
+                jmsException.setLinkedException(e);
+                jmsException.initCause(e);
+                throw jmsException;
+            }
+        }
+        connection = connFactory.createConnection();
+        session = connection.createSession(true, Session.SESSION_TRANSACTED);
+    }
+
+    private void closeConnection() {
+        producers.clear();
+        session = null;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (JMSException e) {
+                statusHandler.error(BMH_CATEGORY.UNKNOWN,
+                        "Failed to close the edge connection.", e);
+            }
+            connection = null;
+        }
+    }
+
+    private void logStats(long dropped) {
+        if (intervalMessageCount == 0 && dropped == 0) {
+            return;
+        }
+        statusHandler.info("Edge dissemination: sent " + sentCount.get()
+                + " messages (average batch send "
+                + getAverageSendLatency() + " ms, max send "
+                + intervalMaxSendLatency + " ms, max queue wait "
+                + intervalMaxQueueLatency + " ms), queue depth "
+                + getQueueDepth() + ", failed " + failedCount.get()
+                + ", replaced " + replacedCount.get() + ", dropped "
+                + dropped + " in the last interval.");
+        intervalMaxSendLatency = 0;
+        intervalMaxQueueLatency = 0;
+        intervalMessageCount = 0;
+    }
+
+    private static final class EdgeMessage {
+
+        private final String queueName;
+
+        private final String fileName;
+
+        private final String key;
+
+        private final boolean audio;
+
+        private final long submitTime = System.currentTimeMillis();
+
+        /*
+         * The following may be replaced while the message is queued, guarded
+         * by the queue.
+         */
+        private int priority;
+
+        private Callable<byte[]> payload;
+
+        private byte[] data;
+
+        private EdgeMessage(String queueName, String fileName, String key,
+                boolean audio, int priority, Callable<byte[]> payload) {
+            this.queueName = queueName;
+            this.fileName = fileName;
+            this.key = key;
+            this.audio = audio;
+            this.priority = priority;
+            this.payload = payload;
+        }
+
+        private void replace(EdgeMessage message) {
+            this.priority = message.priority;
+            this.payload = message.payload;
+        }
+    }
+}
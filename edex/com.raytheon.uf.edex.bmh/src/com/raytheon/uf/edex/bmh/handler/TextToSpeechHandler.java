@@ -19,13 +19,14 @@
  **/
 package com.raytheon.uf.edex.bmh.handler;
 
-import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import com.raytheon.uf.common.bmh.BMHVoice;
 import com.raytheon.uf.common.bmh.TTSConstants.TTS_FORMAT;
 import com.raytheon.uf.common.bmh.TTSConstants.TTS_RETURN_VALUE;
+import com.raytheon.uf.common.bmh.datamodel.language.Language;
 import com.raytheon.uf.common.bmh.datamodel.language.TtsVoice;
 import com.raytheon.uf.common.bmh.notify.config.VoiceConfigNotification;
 import com.raytheon.uf.common.bmh.request.TextToSpeechRequest;
@@ -36,7 +37,7 @@ import com.raytheon.uf.edex.bmh.tts.TTSManager;
 import com.raytheon.uf.edex.bmh.tts.TTSReturn;
 import com.raytheon.uf.edex.bmh.tts.TTSSynthesisFactory;
 import com.raytheon.uf.edex.bmh.xformer.MessageTransformer;
-import com.raytheon.uf.edex.bmh.xformer.data.ITextTransformation;
+import com.raytheon.uf.edex.bmh.xformer.TransformationDictionary;
 
 /**
  * Handle the CAVE text to speech requests.
@@ -58,6 +59,9 @@ import com.raytheon.uf.edex.bmh.xformer.data.ITextTransformation;
  * Oct 26, 2014    3759    bkowal      Update to support practice mode.
  * Jun 08, 2015    4403    bkowal      Transform text prior to synthesis when the
  *                                     associated flag has been set.
+ * Oct 17, 2026            agent       Use the compiled {@link TransformationDictionary}.
+ * Oct 18, 2026            agent       Capture the dictionary versions before the voice
+ *                                     is retrieved.
  * 
  * </pre>
  * 
@@ -118,6 +122,12 @@ public class TextToSpeechHandler extends
 
     private String transformContent(TextToSpeechRequest request)
             throws Exception {
+        final MessageTransformer messageTransformer = (request.isOperational()) ? this.messageTransformer
+                : this.practiceMessageTransformer;
+        /* Must be captured before the voice dictionary is retrieved. */
+        final Map<Language, Long> dictionaryVersions = messageTransformer
+                .getDictionaryVersions();
+
         /*
          * Acquire the associated {@link TtsVoice}.
          */
@@ -129,11 +139,9 @@ public class TextToSpeechHandler extends
                             + request.getVoice() + ".");
         }
 
-        final MessageTransformer messageTransformer = (request.isOperational()) ? this.messageTransformer
-                : this.practiceMessageTransformer;
-        List<ITextTransformation> textTransformations = messageTransformer
+        TransformationDictionary textTransformations = messageTransformer
                 .mergeDictionaries(voice.getLanguage(), null,
-                        voice.getDictionary());
+                        voice.getDictionary(), dictionaryVersions);
         SSMLDocument ssmlDocument = this.messageTransformer
                 .applyTransformations(this.messageTransformer
                         .formatText(request.getContent()), SpeechRateFormatter
@@ -34,6 +34,7 @@ import com.raytheon.uf.common.serialization.SerializationException;
 import com.raytheon.uf.edex.bmh.BMHFileProcessException;
 import com.raytheon.uf.edex.bmh.BmhMessageProducer;
 import com.raytheon.uf.edex.bmh.FileManager;
+import com.raytheon.uf.edex.bmh.dao.GeographyIndex;
 import com.raytheon.uf.edex.bmh.dao.InputMessageDao;
 import com.raytheon.uf.edex.bmh.dao.MessageTypeDao;
 import com.raytheon.uf.edex.bmh.dao.ValidatedMessageDao;
@@ -67,6 +68,7 @@ import com.raytheon.uf.edex.core.EdexException;
  * Nov 16, 2015  5127     rjpeter     Renamed BMHRejectionDataManager to FileManager.
  * Feb 04, 2016  5308     rjpeter     Removed duplicate handling.
  * Aug 04, 2016  5766     bkowal      Handle initialization of the cycles field on a validated message.
+ * Oct 18, 2026           agent       Share a {@link GeographyIndex} with the {@link TransmissionValidator}.
  * </pre>
  * 
  * @author bsteffen
@@ -95,10 +97,11 @@ public class InputMessageValidator {
     private final FileManager rejectionManager;
 
     public InputMessageValidator(final IMessageLogger messageLogger,
-            final FileManager rejectionManager) {
+            final FileManager rejectionManager,
+            final GeographyIndex geographyIndex) {
         this.messageLogger = messageLogger;
         this.ldadCheck = new LdadValidator(true, messageLogger);
-        this.transmissionCheck = new TransmissionValidator();
+        this.transmissionCheck = new TransmissionValidator(geographyIndex);
         this.inputMessageDao = new InputMessageDao(true, messageLogger);
         this.validatedMessageDao = new ValidatedMessageDao(true, messageLogger);
         this.rejectionManager = rejectionManager;
@@ -19,6 +19,7 @@
  **/
 package com.raytheon.uf.edex.bmh.msg.validator;
 
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.List;
@@ -28,17 +29,13 @@ import com.raytheon.uf.common.bmh.BMH_CATEGORY;
 import com.raytheon.uf.common.bmh.datamodel.msg.InputMessage;
 import com.raytheon.uf.common.bmh.datamodel.msg.ValidatedMessage;
 import com.raytheon.uf.common.bmh.datamodel.msg.ValidatedMessage.TransmissionStatus;
-import com.raytheon.uf.common.bmh.datamodel.transmitter.Area;
-import com.raytheon.uf.common.bmh.datamodel.transmitter.Transmitter;
 import com.raytheon.uf.common.bmh.datamodel.transmitter.TransmitterGroup;
-import com.raytheon.uf.common.bmh.datamodel.transmitter.Zone;
 import com.raytheon.uf.common.time.SimulatedTime;
 import com.raytheon.uf.common.time.util.TimeUtil;
-import com.raytheon.uf.edex.bmh.dao.AreaDao;
+import com.raytheon.uf.edex.bmh.dao.GeographyIndex;
 import com.raytheon.uf.edex.bmh.dao.MessageTypeDao;
 import com.raytheon.uf.edex.bmh.dao.ProgramDao;
 import com.raytheon.uf.edex.bmh.dao.TtsVoiceDao;
-import com.raytheon.uf.edex.bmh.dao.ZoneDao;
 import com.raytheon.uf.edex.bmh.status.BMHStatusHandler;
 
 /**
@@ -58,6 +55,8 @@ import com.raytheon.uf.edex.bmh.status.BMHStatusHandler;
  * Dec 03, 2015  5158     bkowal      Validate that the message is associated with a
  *                                    recognized {@link Language}.
  * Feb 04, 2016  5308     rjpeter     Remove duplicate handling.
+ * Oct 18, 2026           agent       Resolve UGCs with the {@link GeographyIndex}.
+ * Oct 18, 2026           agent       Resolve each message against a single snapshot.
  * </pre>
  * 
  * @author bsteffen
@@ -70,14 +69,16 @@ public class TransmissionValidator {
 
     private final MessageTypeDao messageTypeDao = new MessageTypeDao();
 
-    private final AreaDao areaDao = new AreaDao();
-
-    private final ZoneDao zoneDao = new ZoneDao();
-
     private final ProgramDao programDao = new ProgramDao();
 
     private final TtsVoiceDao ttsVoiceDao = new TtsVoiceDao();
 
+    private final GeographyIndex geographyIndex;
+
+    public TransmissionValidator(final GeographyIndex geographyIndex) {
+        this.geographyIndex = geographyIndex;
+    }
+
     public void validate(ValidatedMessage message) {
         InputMessage input = message.getInputMessage();
         try {
@@ -169,34 +170,28 @@ public class TransmissionValidator {
      */
     protected Set<TransmitterGroup> getTransmissionGroups(InputMessage message) {
         List<String> ugcList = message.getAreaCodeList();
-        Set<TransmitterGroup> transmitterGroups = new HashSet<>(
-                ugcList.size() * 2);
+        final GeographyIndex.Snapshot geography = geographyIndex.getSnapshot();
+        BitSet transmitterIds = new BitSet();
         for (String ugc : ugcList) {
-            if (ugc.charAt(2) == 'Z') {
-                Zone zone = zoneDao.getByZoneCode(ugc);
-                if (zone == null) {
+            if (!geography.addTransmitterIds(ugc, transmitterIds)) {
+                if (ugc.charAt(2) == 'Z') {
                     statusHandler.warn(BMH_CATEGORY.MESSAGE_AREA_UNCONFIGURED,
                             "Message zone is not configured: " + ugc);
                 } else {
-                    for (Area area : zone.getAreas()) {
-                        for (Transmitter t : area.getTransmitters()) {
-                            transmitterGroups.add(t.getTransmitterGroup());
-                        }
-                    }
-                }
-            } else {
-                Area area = areaDao.getByAreaCode(ugc);
-                if (area == null) {
                     statusHandler.warn(BMH_CATEGORY.MESSAGE_AREA_UNCONFIGURED,
                             "Message area is not configured: " + ugc);
-                } else {
-                    for (Transmitter t : area.getTransmitters()) {
-                        transmitterGroups.add(t.getTransmitterGroup());
-                    }
                 }
             }
         }
 
+        Set<TransmitterGroup> transmitterGroups = new HashSet<>(
+                ugcList.size() * 2);
+        for (int id = transmitterIds.nextSetBit(0); id >= 0; id = transmitterIds
+                .nextSetBit(id + 1)) {
+            transmitterGroups.add(geography.getTransmitter(id)
+                    .getTransmitterGroup());
+        }
+
         return transmitterGroups;
     }
 
@@ -27,9 +27,9 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -38,7 +38,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
-import javax.xml.bind.JAXBException;
 
 import org.springframework.util.CollectionUtils;
 
@@ -62,6 +61,7 @@ import com.raytheon.uf.common.bmh.datamodel.msg.SuiteMessage;
 import com.raytheon.uf.common.bmh.datamodel.msg.ValidatedMessage;
 import com.raytheon.uf.common.bmh.datamodel.msg.ValidatedMessage.TransmissionStatus;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylist;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistCodec;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageId;
 import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageMetadata;
@@ -71,7 +71,6 @@ import com.raytheon.uf.common.bmh.datamodel.playlist.PlaylistUpdateNotification;
 import com.raytheon.uf.common.bmh.datamodel.transmitter.Area;
 import com.raytheon.uf.common.bmh.datamodel.transmitter.Transmitter;
 import com.raytheon.uf.common.bmh.datamodel.transmitter.TransmitterGroup;
-import com.raytheon.uf.common.bmh.datamodel.transmitter.Zone;
 import com.raytheon.uf.common.bmh.notify.config.MessageActivationNotification;
 import com.raytheon.uf.common.bmh.notify.config.MessageForcedExpirationNotification;
 import com.raytheon.uf.common.bmh.notify.config.ProgramConfigNotification;
@@ -85,7 +84,6 @@ import com.raytheon.uf.common.bmh.stats.MessageExpirationProcessingEvent;
 import com.raytheon.uf.common.bmh.trace.ITraceable;
 import com.raytheon.uf.common.bmh.trace.TraceableUtil;
 import com.raytheon.uf.common.event.EventBus;
-import com.raytheon.uf.common.serialization.JAXBManager;
 import com.raytheon.uf.common.serialization.SerializationException;
 import com.raytheon.uf.common.serialization.SerializationUtil;
 import com.raytheon.uf.common.time.util.ITimer;
@@ -95,15 +93,14 @@ import com.raytheon.uf.common.util.file.IOPermissionsHelper;
 import com.raytheon.uf.edex.bmh.BMHConstants;
 import com.raytheon.uf.edex.bmh.BMHJmsDestinations;
 import com.raytheon.uf.edex.bmh.dao.AbstractBMHDao;
-import com.raytheon.uf.edex.bmh.dao.AreaDao;
 import com.raytheon.uf.edex.bmh.dao.BroadcastMsgDao;
+import com.raytheon.uf.edex.bmh.dao.GeographyIndex;
 import com.raytheon.uf.edex.bmh.dao.InputMessageDao;
 import com.raytheon.uf.edex.bmh.dao.MessageTypeDao;
 import com.raytheon.uf.edex.bmh.dao.PlaylistDao;
 import com.raytheon.uf.edex.bmh.dao.ProgramDao;
 import com.raytheon.uf.edex.bmh.dao.TransmitterGroupDao;
 import com.raytheon.uf.edex.bmh.dao.ValidatedMessageDao;
-import com.raytheon.uf.edex.bmh.dao.ZoneDao;
 import com.raytheon.uf.edex.bmh.msg.logging.ErrorActivity.BMH_ACTIVITY;
 import com.raytheon.uf.edex.bmh.msg.logging.ErrorActivity.BMH_COMPONENT;
 import com.raytheon.uf.edex.bmh.msg.logging.MessageActivity.MESSAGE_ACTIVITY;
@@ -227,6 +224,9 @@ import com.raytheon.uf.edex.bmh.edge.EdgeDisseminator;
  * Jan 20, 2017  6078     bkowal      Set the Area Code Override for DMO messages created using
  *                                    the Demo Message dialog instead of all DMO messages.
  * May 02, 2017  6259     bkowal      Updated to use {@link com.raytheon.uf.common.util.file.Files}.
+ * Oct 17, 2026           agent       Write playlists and message metadata with {@link DacPlaylistCodec}.
+ * Oct 18, 2026           agent       Resolve SAME areas with the {@link GeographyIndex}.
+ * Oct 18, 2026           agent       Resolve SAME areas against a single snapshot.
  * </pre>
  * 
  * @author bsteffen
@@ -242,13 +242,9 @@ public class PlaylistManager implements IContextStateProcessor {
 
     private final ClusterLocker locker;
 
-    private final JAXBManager jaxbManager;
-
     private PlaylistDao playlistDao;
 
-    private ZoneDao zoneDao;
-
-    private AreaDao areaDao;
+    private GeographyIndex geographyIndex;
 
     private ProgramDao programDao;
 
@@ -275,13 +271,6 @@ public class PlaylistManager implements IContextStateProcessor {
         playlistDir = BMHConstants.getBmhDataDirectory(operational)
                 .resolve(BMHConstants.PLAYLIST_DIRECTORY);
         locker = new ClusterLocker(AbstractBMHDao.getDatabaseName(operational));
-        try {
-            this.jaxbManager = new JAXBManager(DacPlaylistMessage.class,
-                    DacPlaylistMessageMetadata.class, DacPlaylist.class);
-        } catch (JAXBException e) {
-            throw new RuntimeException(
-                    "Failed to instantiate the JAXB Manager.", e);
-        }
         this.operational = operational;
         this.messageLogger = messageLogger;
         com.raytheon.uf.common.util.file.Files.createDirectories(playlistDir,
@@ -975,13 +964,17 @@ public class PlaylistManager implements IContextStateProcessor {
             return null;
         }
         try {
+            /*
+             * Encode once for both the playlist file and the edge.
+             */
+            final byte[] playlistData = DacPlaylistCodec.marshal(dacList);
             try (OutputStream os = IOPermissionsHelper.getOutputStream(
                     playlistPath, FilePermissionUtils.FILE_PERMISSIONS_SET)) {
-                jaxbManager.marshalToStream(dacList, os);
+                os.write(playlistData);
             }
             this.messageLogger.logPlaylistActivity(traceable, dacList); 
             try {
-            	edgeDisseminator.sendToEdge(dacList);
+            	edgeDisseminator.sendToEdge(dacList, playlistData);
     		} catch (EdexException | SerializationException e)  {
     			statusHandler.error(BMH_CATEGORY.PLAYLIST_MANAGER_ERROR,
                         "Unable to send list to Edge.", e);
@@ -1175,6 +1168,8 @@ public class PlaylistManager implements IContextStateProcessor {
                                         messageType.getOriginator());
                             }
                             builder.setEventFromAfosid(broadcast.getAfosid());
+                            final GeographyIndex.Snapshot geography = geographyIndex
+                                    .getSnapshot();
                             Set<String> areaCodeSet = new HashSet<>();
                             if (input.getAreaCodes() != null) {
                                 areaCodeSet.addAll(input.getAreaCodeList());
@@ -1194,37 +1189,17 @@ public class PlaylistManager implements IContextStateProcessor {
                                          */
                                         continue;
                                     }
-                                    List<Area> transmitterAreas = this.areaDao
-                                            .getAreasForTransmitter(t.getId());
-                                    for (Area a : transmitterAreas) {
-                                        areaCodeSet.add(a.getAreaCode());
-                                    }
+                                    geography.addAreaCodes(t.getId(),
+                                            areaCodeSet);
                                 }
                             }
 
+                            BitSet sameTransmitterIds = GeographyIndex
+                                    .toTransmitterIds(sameTransmitters);
                             List<String> ugcs = new ArrayList<>();
                             for (String ugc : areaCodeSet) {
-                                if (ugc.charAt(2) == 'Z') {
-                                    Zone z = zoneDao.getByZoneCode(ugc);
-                                    if (z != null) {
-                                        for (Area area : z.getAreas()) {
-                                            if (!Collections.disjoint(
-                                                    area.getTransmitters(),
-                                                    sameTransmitters)) {
-                                                ugcs.add(area.getAreaCode());
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    Area area = areaDao.getByAreaCode(ugc);
-                                    if (area != null) {
-                                        if (!Collections.disjoint(
-                                                area.getTransmitters(),
-                                                sameTransmitters)) {
-                                            ugcs.add(area.getAreaCode());
-                                        }
-                                    }
-                                }
+                                geography.addCoveredAreaCodes(ugc,
+                                        sameTransmitterIds, ugcs);
                             }
                             builder.addAreasFromUGC(ugcs);
                             String invalidAreas = builder
@@ -1273,12 +1248,14 @@ public class PlaylistManager implements IContextStateProcessor {
                 dacMetadata.setInitialRecognitionTime(
                         input.getLastUpdateTime().getTime());
                 dacMetadata.setExpire(input.getExpirationTime());
+                final byte[] metadataData = DacPlaylistCodec
+                        .marshal(dacMetadata);
                 try (OutputStream os = IOPermissionsHelper.getOutputStream(
                         messageMetadataFile,
                         FilePermissionUtils.FILE_PERMISSIONS_SET)) {
-                    jaxbManager.marshalToStream(dacMetadata, os);
+                    os.write(metadataData);
                     //CCastro Prototype
-                    edgeDisseminator.sendToEdge(dacMetadata);
+                    edgeDisseminator.sendToEdge(dacMetadata, metadataData);
                 }
                 statusHandler.info("Wrote message metadata file: "
                         + messageMetadataFile.toString() + ".");
@@ -1303,12 +1280,8 @@ public class PlaylistManager implements IContextStateProcessor {
         this.playlistDao = playlistDao;
     }
 
-    public void setZoneDao(ZoneDao zoneDao) {
-        this.zoneDao = zoneDao;
-    }
-
-    public void setAreaDao(AreaDao areaDao) {
-        this.areaDao = areaDao;
+    public void setGeographyIndex(GeographyIndex geographyIndex) {
+        this.geographyIndex = geographyIndex;
     }
 
     public void setProgramDao(ProgramDao programDao) {
@@ -1348,12 +1321,9 @@ public class PlaylistManager implements IContextStateProcessor {
         if (playlistDao == null) {
             throw new IllegalStateException(
                     "PlaylistDao has not been set on the PlaylistManager");
-        } else if (zoneDao == null) {
-            throw new IllegalStateException(
-                    "ZoneDao has not been set on the PlaylistManager");
-        } else if (areaDao == null) {
+        } else if (geographyIndex == null) {
             throw new IllegalStateException(
-                    "AreaDao has not been set on the PlaylistManager");
+                    "GeographyIndex has not been set on the PlaylistManager");
         } else if (programDao == null) {
             throw new IllegalStateException(
                     "ProgramDao has not been set on the PlaylistManager");
@@ -21,8 +21,12 @@ package com.raytheon.uf.edex.bmh.playlist;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.raytheon.uf.common.bmh.data.PlaylistDataStructure;
 import com.raytheon.uf.common.bmh.datamodel.msg.BroadcastMsg;
@@ -37,7 +41,9 @@ import com.raytheon.uf.edex.bmh.dao.BroadcastMsgDao;
 import com.raytheon.uf.edex.bmh.dao.MessageTypeDao;
 
 /**
- * Updates broadcast flags in the database.
+ * Updates broadcast flags in the database. Playback status notifications are
+ * coalesced and written by {@link #flushPlaybackStatus()} in a fixed number of
+ * bulk updates regardless of how many messages have been played.
  * 
  * 
  * 
@@ -77,6 +83,8 @@ import com.raytheon.uf.edex.bmh.dao.MessageTypeDao;
  * Jul 29, 2015   4686     bkowal      Removed setting of the broadcast flag on {@link BroadcastMsg}.
  * Jan 28, 2016   5300     rjpeter     Fix PlaylistDataStructure memory leak.
  * Feb 04, 2016   5308     rjpeter     Removed Playlist caching.
+ * Oct 18, 2026            agent       Bulk load broadcast data. Coalesce playback status
+ *                                     updates into periodic bulk updates.
  * </pre>
  * 
  * @author mpduff
@@ -88,6 +96,12 @@ public class PlaylistStateManager {
 
     private BroadcastMsgDao broadcastMsgDao;
 
+    /*
+     * The tone flags that should be set for each broadcast message that has
+     * been played since the last flush.
+     */
+    private final ConcurrentMap<Long, PlayedTones> pendingPlaybackStatus = new ConcurrentHashMap<>();
+
     public PlaylistStateManager() {
 
     }
@@ -97,60 +111,90 @@ public class PlaylistStateManager {
             return Collections.emptyMap();
         }
 
-        Map<BroadcastMsg, MessageType> broadcastData = new HashMap<>(
-                ids.size(), 1);
-
-        for (Long id : ids) {
-            BroadcastMsg bMsg = broadcastMsgDao.getByID(id);
+        List<BroadcastMsg> messages = broadcastMsgDao.getMessagesByIds(ids);
+        if (messages.isEmpty()) {
+            return Collections.emptyMap();
+        }
 
-            if (bMsg != null) {
-                broadcastData.put(bMsg,
-                        messageTypeDao.getByAfosId(bMsg.getAfosid()));
+        Set<String> afosIds = new HashSet<>(messages.size(), 1);
+        for (BroadcastMsg bMsg : messages) {
+            afosIds.add(bMsg.getAfosid());
+        }
+        Map<String, MessageType> messageTypes = new HashMap<>(afosIds.size(),
+                1);
+        for (MessageType messageType : messageTypeDao
+                .getMessageTypesByAfosIds(afosIds)) {
+            if (!messageTypes.containsKey(messageType.getAfosid())) {
+                messageTypes.put(messageType.getAfosid(), messageType);
             }
         }
 
+        Map<BroadcastMsg, MessageType> broadcastData = new HashMap<>(
+                messages.size(), 1);
+        for (BroadcastMsg bMsg : messages) {
+            broadcastData.put(bMsg, messageTypes.get(bMsg.getAfosid()));
+        }
+
         return broadcastData;
     }
 
-    public synchronized void processMessagePlaybackStatusNotification(
+    public void processMessagePlaybackStatusNotification(
             MessagePlaybackStatusNotification notification) {
         /* Update any tone flags in the database */
         if (notification.isPlayedAlertTone() || notification.isPlayedSameTone()
                 || (notification.getPlayCount() == 1)) {
-            BroadcastMsg broadcastMessage = broadcastMsgDao
-                    .getByID(notification.getBroadcastId());
-            if (broadcastMessage != null) {
-                boolean updated = false;
-
-                if (!tonesMatch(notification, broadcastMessage)) {
-                    broadcastMessage.setPlayedAlertTone(notification
-                            .isPlayedAlertTone());
-                    broadcastMessage.setPlayedSameTone(notification
-                            .isPlayedSameTone());
-                    updated = true;
-                }
+            /* The most recent playback determines the tone flags. */
+            pendingPlaybackStatus.put(notification.getBroadcastId(),
+                    PlayedTones.fromFlags(notification.isPlayedSameTone(),
+                            notification.isPlayedAlertTone()));
+        }
+    }
 
-                if (broadcastMessage.getInputMessage().getInterrupt()
-                        && !broadcastMessage.isPlayedInterrupt()) {
-                    broadcastMessage.setPlayedInterrupt(true);
-                    updated = true;
-                }
+    /**
+     * Writes the tone and interrupt flags of all broadcast messages that have
+     * been played since the last flush. At most one update is executed for
+     * each combination of tone flags plus one update for the interrupt flags.
+     */
+    public void flushPlaybackStatus() {
+        if (pendingPlaybackStatus.isEmpty()) {
+            return;
+        }
 
-                if (updated) {
-                    broadcastMsgDao.persist(broadcastMessage);
-                }
+        Map<PlayedTones, Set<Long>> idsByTones = new HashMap<>(
+                PlayedTones.values().length, 1);
+        Set<Long> playedIds = new HashSet<>(pendingPlaybackStatus.size(), 1);
+        for (Long id : pendingPlaybackStatus.keySet()) {
+            PlayedTones tones = pendingPlaybackStatus.remove(id);
+            if (tones == null) {
+                continue;
             }
-
+            Set<Long> ids = idsByTones.get(tones);
+            if (ids == null) {
+                ids = new HashSet<>();
+                idsByTones.put(tones, ids);
+            }
+            ids.add(id);
+            playedIds.add(id);
         }
-    }
 
-    private static boolean tonesMatch(
-            MessagePlaybackStatusNotification notification,
-            BroadcastMsg broadcastMessage) {
-        return (broadcastMessage.isPlayedAlertTone() == notification
-                .isPlayedAlertTone())
-                && (broadcastMessage.isPlayedSameTone() == notification
-                        .isPlayedSameTone());
+        try {
+            for (Map.Entry<PlayedTones, Set<Long>> entry : idsByTones
+                    .entrySet()) {
+                broadcastMsgDao.updatePlayedTones(entry.getValue(), entry
+                        .getKey().isPlayedSameTone(), entry.getKey()
+                        .isPlayedAlertTone());
+            }
+            broadcastMsgDao.updatePlayedInterrupt(playedIds);
+        } catch (RuntimeException e) {
+            /* Retry with the next flush unless the message played again. */
+            for (Map.Entry<PlayedTones, Set<Long>> entry : idsByTones
+                    .entrySet()) {
+                for (Long id : entry.getValue()) {
+                    pendingPlaybackStatus.putIfAbsent(id, entry.getKey());
+                }
+            }
+            throw e;
+        }
     }
 
     public void setMessageTypeDao(MessageTypeDao messageTypeDao) {
@@ -171,4 +215,34 @@ public class PlaylistStateManager {
     public void setBroadcastMsgDao(BroadcastMsgDao broadcastMsgDao) {
         this.broadcastMsgDao = broadcastMsgDao;
     }
+
+    private static enum PlayedTones {
+        NONE(false, false), SAME(true, false), ALERT(false, true), SAME_AND_ALERT(
+                true, true);
+
+        private final boolean playedSameTone;
+
+        private final boolean playedAlertTone;
+
+        private PlayedTones(boolean playedSameTone, boolean playedAlertTone) {
+            this.playedSameTone = playedSameTone;
+            this.playedAlertTone = playedAlertTone;
+        }
+
+        public static PlayedTones fromFlags(boolean playedSameTone,
+                boolean playedAlertTone) {
+            if (playedSameTone) {
+                return playedAlertTone ? SAME_AND_ALERT : SAME;
+            }
+            return playedAlertTone ? ALERT : NONE;
+        }
+
+        public boolean isPlayedSameTone() {
+            return playedSameTone;
+        }
+
+        public boolean isPlayedAlertTone() {
+            return playedAlertTone;
+        }
+    }
 }
@@ -20,23 +20,33 @@
 package com.raytheon.uf.edex.bmh.purge;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.raytheon.uf.common.bmh.audio.RegulatedAudioFiles;
 import com.raytheon.uf.common.bmh.dac.archive.PlaylistMessageArchiver;
 import com.raytheon.uf.common.bmh.datamodel.msg.BroadcastContents;
 import com.raytheon.uf.common.bmh.datamodel.msg.BroadcastFragment;
 import com.raytheon.uf.common.bmh.datamodel.msg.BroadcastMsg;
-import com.raytheon.uf.common.bmh.datamodel.msg.InputMessage;
 import com.raytheon.uf.common.time.util.ITimer;
 import com.raytheon.uf.common.time.util.TimeUtil;
 import com.raytheon.uf.edex.bmh.BMHConstants;
@@ -66,6 +76,11 @@ import com.raytheon.uf.edex.bmh.dao.InputMessageDao;
  *                                    error handling if a random, unexpected file is encountered.
  * Apr 06, 2016  5552     bkowal      Implemented better exception handling and added progress
  *                                    logging.
+ * Oct 18, 2026           agent       Purge the database in keyset paginated chunks with set based
+ *                                    queries, delete files in parallel and checkpoint pending
+ *                                    file deletes.
+ * Oct 18, 2026           agent       Purge the regulated audio variants of purged fragments.
+ * Oct 18, 2026           agent       Find variants with {@link RegulatedAudioFiles}.
  * </pre>
  * 
  * @author bsteffen
@@ -75,6 +90,26 @@ public class MessagePurger {
 
     private static final String DATE_GLOB = "[0-9][0-9][0-1][0-9][0-3][0-9]";
 
+    /**
+     * The maximum number of input messages that are deleted in a single
+     * transaction.
+     */
+    private static final int PURGE_CHUNK_SIZE = Integer.getInteger(
+            "bmh.purge.chunk.size", 500);
+
+    /**
+     * The number of threads that are used to delete the files of purged
+     * messages.
+     */
+    private static final int PURGE_IO_THREADS = Integer.getInteger(
+            "bmh.purge.io.threads", 4);
+
+    /**
+     * Lists the files of the chunk that is currently being purged so that the
+     * deletes can be completed if the purge is interrupted.
+     */
+    private static final String CHECKPOINT_FILE_NAME = "purge.checkpoint";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final int purgeDays;
@@ -89,6 +124,8 @@ public class MessagePurger {
 
     private final List<FileManager> fileManagers;
 
+    private final Path checkpointPath;
+
     public MessagePurger(int purgeDays, final InputMessageDao inputMessageDao,
             final BroadcastMsgDao broadcastMessageDao, boolean operational) {
         this(purgeDays, inputMessageDao, broadcastMessageDao, operational, null);
@@ -104,6 +141,8 @@ public class MessagePurger {
                 BMHConstants.AUDIO_DATA_DIRECTORY);
         playlistPath = BMHConstants.getBmhDataDirectory(operational).resolve(
                 "playlist");
+        checkpointPath = BMHConstants.getBmhDataDirectory(operational)
+                .resolve(CHECKPOINT_FILE_NAME);
         if (fileManagers != null) {
             this.fileManagers = fileManagers;
         } else {
@@ -187,58 +226,159 @@ public class MessagePurger {
                 TimeUtil.prettyDuration(timer.getElapsedTime()));
     }
 
-    protected void purgeDatabase(Calendar purgeTime) {
-        List<InputMessage> inputMessages = inputMessageDao
-                .getPurgableMessages(purgeTime);
-        logger.info("Purging {} messages older than {}", inputMessages.size(),
-                purgeTime.getTime());
-        List<Path> audioFilesToDelete = new ArrayList<>(inputMessages.size());
-        List<Path> messageFilesToDelete = new ArrayList<>(inputMessages.size());
-        for (InputMessage inputMessage : inputMessages) {
-            for (BroadcastMsg broadcastMessage : broadcastMessageDao
-                    .getMessagesByInputMsgId(inputMessage.getId())) {
-                if (broadcastMessage.getContents() == null
-                        || broadcastMessage.getContents().isEmpty()) {
-                    continue;
+    protected void purgeDatabase(Calendar purgeTime) throws IOException {
+        ExecutorService deleteExecutor = Executors
+                .newFixedThreadPool(PURGE_IO_THREADS);
+        try {
+            List<Path> pendingFiles = readCheckpoint();
+            if (!pendingFiles.isEmpty()) {
+                logger.info(
+                        "Completing the file deletes of an interrupted purge: {} files.",
+                        pendingFiles.size());
+                if (!deleteFiles(pendingFiles, deleteExecutor)) {
+                    return;
                 }
-                for (BroadcastContents contents : broadcastMessage
-                        .getContents()) {
-                    if (contents.getFragments() == null
-                            || contents.getFragments().isEmpty()) {
-                        continue;
-                    }
-                    for (BroadcastFragment fragment : contents.getFragments()) {
-                        if (fragment.getOutputName() == null) {
-                            continue;
-                        }
-                        audioFilesToDelete.add(Paths.get(fragment
-                                .getOutputName()));
-                    }
+                Files.deleteIfExists(checkpointPath);
+            }
+
+            logger.info("Purging messages older than {}", purgeTime.getTime());
+            int purged = 0;
+            int lastId = 0;
+            List<Integer> ids = inputMessageDao.getPurgableMessageIds(
+                    purgeTime, lastId, PURGE_CHUNK_SIZE);
+            while (!ids.isEmpty()) {
+                Set<Integer> chunk = new HashSet<>(ids);
+                List<Path> filesToDelete = getFilesToDelete(chunk);
+
+                /*
+                 * The checkpoint must exist before the rows are deleted,
+                 * otherwise the files would be orphaned by a failure that
+                 * occurs after the transaction has been committed.
+                 */
+                writeCheckpoint(filesToDelete);
+                try {
+                    inputMessageDao.deleteByIds(chunk);
+                } catch (RuntimeException e) {
+                    Files.deleteIfExists(checkpointPath);
+                    throw e;
+                }
+                if (!deleteFiles(filesToDelete, deleteExecutor)) {
+                    return;
                 }
-                Path messagePath = playlistPath
-                        .resolve(
-                                broadcastMessage.getTransmitterGroup()
-                                        .getName())
-                        .resolve(PlaylistMessageArchiver.ARCHIVE_DIR)
-                        .resolve(broadcastMessage.getId() + ".xml");
-                messageFilesToDelete.add(messagePath);
+                Files.deleteIfExists(checkpointPath);
+
+                purged += chunk.size();
+                logger.info("Purged {} messages ...", purged);
+                if (ids.size() < PURGE_CHUNK_SIZE) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+                ids = inputMessageDao.getPurgableMessageIds(purgeTime, lastId,
+                        PURGE_CHUNK_SIZE);
             }
+            logger.info("Purged {} messages older than {}", purged,
+                    purgeTime.getTime());
+        } finally {
+            deleteExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Determines the audio and archived message files that belong to the
+     * specified input messages.
+     * 
+     * @param inputMsgIds
+     *            the ids of the input messages that will be purged
+     * @return the files to delete
+     */
+    private List<Path> getFilesToDelete(Set<Integer> inputMsgIds) {
+        List<String> audioFiles = broadcastMessageDao
+                .getFragmentPathsByInputMsgIds(inputMsgIds);
+        Map<Long, String> groupNames = broadcastMessageDao
+                .getTransmitterGroupNamesByInputMsgIds(inputMsgIds);
+        List<Path> filesToDelete = new ArrayList<>(audioFiles.size()
+                + groupNames.size());
+        for (String audioFile : audioFiles) {
+            filesToDelete.add(Paths.get(audioFile));
+        }
+        filesToDelete.addAll(getRegulatedVariants(filesToDelete));
+        for (Map.Entry<Long, String> entry : groupNames.entrySet()) {
+            filesToDelete.add(playlistPath.resolve(entry.getValue())
+                    .resolve(PlaylistMessageArchiver.ARCHIVE_DIR)
+                    .resolve(entry.getKey() + ".xml"));
+        }
+        return filesToDelete;
+    }
+
+    /**
+     * Deletes the specified files using the specified executor and waits for
+     * all of the deletes to finish. Failures to delete individual files are
+     * logged.
+     * 
+     * @param filesToDelete
+     *            the files to delete
+     * @param deleteExecutor
+     *            the executor to delete the files with
+     * @return false if the purge was interrupted before all of the deletes
+     *         finished, true otherwise
+     */
+    private boolean deleteFiles(List<Path> filesToDelete,
+            ExecutorService deleteExecutor) {
+        List<Future<?>> deletes = new ArrayList<>(filesToDelete.size());
+        for (final Path path : filesToDelete) {
+            deletes.add(deleteExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        logger.error("Failed to delete {}", path, e);
+                    }
+                }
+            }));
         }
-        inputMessageDao.deleteAll(inputMessages);
-        for (Path path : audioFilesToDelete) {
+        for (Future<?> delete : deletes) {
             try {
-                Files.deleteIfExists(path);
-            } catch (IOException e) {
-                logger.error("Failed to delete {}", path, e);
+                delete.get();
+            } catch (InterruptedException e) {
+                logger.warn("Interrupted while deleting the files of purged messages. The deletes will be completed by the next purge.");
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                logger.error("Failed to delete the file of a purged message.",
+                        e.getCause());
             }
         }
-        for (Path path : messageFilesToDelete) {
-            try {
-                Files.deleteIfExists(path);
-            } catch (IOException e) {
-                logger.error("Failed to delete {}", path, e);
+        return true;
+    }
+
+    private List<Path> readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointPath)) {
+            return Collections.emptyList();
+        }
+        List<String> lines = Files.readAllLines(checkpointPath,
+                StandardCharsets.UTF_8);
+        List<Path> paths = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (!line.isEmpty()) {
+                paths.add(Paths.get(line));
             }
         }
+        return paths;
+    }
+
+    private void writeCheckpoint(List<Path> filesToDelete) throws IOException {
+        List<String> lines = new ArrayList<>(filesToDelete.size());
+        for (Path path : filesToDelete) {
+            lines.add(path.toString());
+        }
+        Path tmpPath = checkpointPath.resolveSibling(CHECKPOINT_FILE_NAME
+                + ".tmp");
+        Files.createDirectories(checkpointPath.getParent());
+        Files.write(tmpPath, lines, StandardCharsets.UTF_8);
+        Files.move(tmpPath, checkpointPath,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
     }
 
     protected void purgeAudioFiles(Calendar purgeTime) {
@@ -270,7 +410,20 @@ public class MessagePurger {
         boolean empty = true;
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(datedDir)) {
             for (Path audioFile : stream) {
-                if (Files.getLastModifiedTime(audioFile).toMillis() < purgeTime
+                if (RegulatedAudioFiles.isVariant(audioFile)) {
+                    /*
+                     * Variants are purged with their fragment, only clean up
+                     * variants whose fragment is already gone.
+                     */
+                    if (isOrphanedVariant(audioFile)) {
+                        logger.info(
+                                "Deleting orphaned regulated audio file: {}",
+                                audioFile);
+                        Files.deleteIfExists(audioFile);
+                    } else {
+                        empty = false;
+                    }
+                } else if (Files.getLastModifiedTime(audioFile).toMillis() < purgeTime
                         .getTimeInMillis()) {
                     BroadcastMsg parent = broadcastMessageDao
                             .getMessageByFragmentPath(audioFile);
@@ -401,6 +554,7 @@ public class MessagePurger {
             }
             this.broadcastMessageDao.saveOrUpdate(msg);
 
+            filesToDelete.addAll(getRegulatedVariants(filesToDelete));
             for (Path fileToDelete : filesToDelete) {
                 try {
                     Files.delete(fileToDelete);
@@ -411,4 +565,64 @@ public class MessagePurger {
             }
         }
     }
+
+    /**
+     * Finds the regulated audio variants of the specified fragments. Each
+     * directory is only listed once no matter how many fragments it contains.
+     * 
+     * @param audioFiles
+     *            the fragment files
+     * @return the variants of the fragments
+     */
+    private List<Path> getRegulatedVariants(List<Path> audioFiles) {
+        Map<Path, Set<String>> fragmentNames = new HashMap<>();
+        for (Path audioFile : audioFiles) {
+            Path dir = audioFile.getParent();
+            if (dir == null) {
+                continue;
+            }
+            Set<String> names = fragmentNames.get(dir);
+            if (names == null) {
+                names = new HashSet<>();
+                fragmentNames.put(dir, names);
+            }
+            names.add(audioFile.getFileName().toString());
+        }
+
+        List<Path> variants = new ArrayList<>();
+        for (Map.Entry<Path, Set<String>> entry : fragmentNames.entrySet()) {
+            if (!Files.isDirectory(entry.getKey())) {
+                continue;
+            }
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(
+                    entry.getKey(), RegulatedAudioFiles.GLOB)) {
+                for (Path variant : stream) {
+                    for (String fragmentName : RegulatedAudioFiles
+                            .getFragmentNames(variant)) {
+                        if (entry.getValue().contains(fragmentName)) {
+                            variants.add(variant);
+                            break;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Cannot list the regulated audio files in {}",
+                        entry.getKey(), e);
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * @return true if the fragment that a regulated audio variant was created
+     *         from no longer exists.
+     */
+    private static boolean isOrphanedVariant(Path variant) {
+        for (String fragmentName : RegulatedAudioFiles.getFragmentNames(variant)) {
+            if (Files.exists(variant.resolveSibling(fragmentName))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -28,9 +28,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.sound.sampled.AudioFileFormat.Type;
 import javax.sound.sampled.AudioFormat;
@@ -52,6 +59,7 @@ import com.raytheon.uf.common.bmh.datamodel.language.TtsVoice;
 import com.raytheon.uf.common.bmh.datamodel.msg.BroadcastFragment;
 import com.raytheon.uf.common.bmh.datamodel.msg.BroadcastMsg;
 import com.raytheon.uf.common.bmh.datamodel.msg.BroadcastMsgGroup;
+import com.raytheon.uf.common.bmh.notify.config.VoiceConfigNotification;
 import com.raytheon.uf.common.bmh.notify.status.TTSStatus;
 import com.raytheon.uf.common.bmh.trace.ITraceable;
 import com.raytheon.uf.common.serialization.SerializationUtil;
@@ -131,6 +139,12 @@ import com.raytheon.uf.edex.core.IContextStateProcessor;
  *                                     easily distinguishable.
  * Oct 06, 2015 4904       bkowal      Verify the NeoSpeech volume.
  * May 02, 2017 6259       bkowal      Updated to use {@link com.raytheon.uf.common.util.file.Files}.
+ * Oct 17, 2026            agent       Synthesize the fragments of a group concurrently with a
+ *                                     group deadline.
+ * Oct 17, 2026            agent       Reuse previously synthesized audio from the
+ *                                     {@link TTSSynthesisCache}.
+ * Oct 18, 2026            agent       Stop retrying when interrupted and ignore the
+ *                                     results of cancelled fragments.
  * </pre>
  * 
  * @author bkowal
@@ -165,6 +179,15 @@ public class TTSManager implements IContextStateProcessor, Runnable {
 
     private static final int DEFAULT_MAX_AUDIO_DURATION_SECONDS = 600;
 
+    /*
+     * property used to override the maximum amount of time allowed to
+     * synthesize all of the fragments in a message group. property value
+     * specified in milliseconds.
+     */
+    private static final String GROUP_SYNTHESIS_TIMEOUT = "bmh.tts.group-timeout";
+
+    private static final long DEFAULT_GROUP_SYNTHESIS_TIMEOUT_MS = 10 * TimeUtil.MILLIS_PER_MINUTE;
+
     /*
      * property used to override the 10-minute maximum audio length. property
      * value specified in seconds.
@@ -186,10 +209,20 @@ public class TTSManager implements IContextStateProcessor, Runnable {
 
     private final int maxAudioByteCount;
 
+    private final long groupSynthesisTimeout;
+
+    /*
+     * Synthesizes the fragments of a message group concurrently. Each thread
+     * waits on the {@link TTSSynthesisFactory} for a synthesizer.
+     */
+    private ExecutorService fragmentExecutor;
+
     private final boolean operational;
 
     private TTSSynthesisFactory synthesisFactory;
 
+    private TTSSynthesisCache synthesisCache;
+
     private ScheduledThreadPoolExecutor heartbeatMonitor;
 
     private final IMessageLogger messageLogger;
@@ -210,6 +243,8 @@ public class TTSManager implements IContextStateProcessor, Runnable {
                 DEFAULT_MAX_AUDIO_DURATION_SECONDS);
         this.maxAudioByteCount = ((this.maxAudioDuration
                 * (int) TimeUtil.MILLIS_PER_SECOND) / 20) * 160;
+        this.groupSynthesisTimeout = Long.getLong(GROUP_SYNTHESIS_TIMEOUT,
+                DEFAULT_GROUP_SYNTHESIS_TIMEOUT_MS);
     }
 
     /*
@@ -268,6 +303,8 @@ public class TTSManager implements IContextStateProcessor, Runnable {
     private void initialize() throws BMHConfigurationException, IOException {
         statusHandler.info("Initializing the TTS Manager ...");
 
+        this.synthesisCache = new TTSSynthesisCache(this.bmhDataDirectory);
+
         /* Attempt to retrieve the location of BMH_DATA */
         this.bmhDataDirectory = FilenameUtils.normalize(this.bmhDataDirectory
                 + File.separatorChar + BMHConstants.AUDIO_DATA_DIRECTORY);
@@ -328,6 +365,13 @@ public class TTSManager implements IContextStateProcessor, Runnable {
                     ttsHeartbeat, TimeUnit.MILLISECONDS);
         }
 
+        this.fragmentExecutor = Executors.newFixedThreadPool(Math.max(1,
+                this.synthesisFactory.getMaxConnections()));
+        statusHandler.info("TTS Group Synthesis Timeout is: "
+                + this.groupSynthesisTimeout + " ms");
+
+        this.synthesisCache.initialize();
+
         NeoSpeechConstants.verify();
         statusHandler
                 .info("NeoSpeech Volume is: " + NeoSpeechConstants.getVolume());
@@ -343,11 +387,27 @@ public class TTSManager implements IContextStateProcessor, Runnable {
                                 .getCanonicalHostName();
     }
 
+    /**
+     * Discards any cached audio that was synthesized with a voice that has
+     * been updated.
+     * 
+     * @param notification
+     *            identifies the voice that was updated
+     */
+    public void voiceUpdated(final VoiceConfigNotification notification) {
+        if (this.synthesisCache != null) {
+            this.synthesisCache.invalidateVoice(notification.getId());
+        }
+    }
+
     public void dispose() {
         if (this.operational && this.heartbeatMonitor != null) {
             statusHandler.info("Stopping TTS Server Monitor ...");
             this.heartbeatMonitor.shutdownNow();
         }
+        if (this.fragmentExecutor != null) {
+            this.fragmentExecutor.shutdownNow();
+        }
     }
 
     /**
@@ -410,7 +470,8 @@ public class TTSManager implements IContextStateProcessor, Runnable {
 
     /**
      * Invoked by the Camel Route to process the BroadcastMsgGroup - the primary
-     * purpose of this class.
+     * purpose of this class. The fragments of every message in the group are
+     * synthesized concurrently; each fragment succeeds or fails independently.
      * 
      * @param group
      *            the messages to process
@@ -422,25 +483,34 @@ public class TTSManager implements IContextStateProcessor, Runnable {
         messageLogger.logMessageActivity(group, MESSAGE_ACTIVITY.TTS_START,
                 group);
         for (BroadcastMsg message : group.getMessages()) {
-            process(group, message);
+            this.validate(message);
+        }
+
+        final List<FragmentSynthesisTask> tasks = new ArrayList<>();
+        for (BroadcastMsg message : group.getMessages()) {
+            statusHandler
+                    .info("Performing Text-to-Speech Transformation for message: "
+                            + message.getId() + ".");
+            for (BroadcastFragment fragment : message
+                    .getLatestBroadcastContents().getFragments()) {
+                if (fragment.isSuccess()
+                        && Files.exists(Paths.get(fragment.getOutputName()))) {
+                    continue;
+                }
+                tasks.add(new FragmentSynthesisTask(group, message, fragment));
+            }
+        }
+        this.synthesizeFragments(tasks);
+
+        for (BroadcastMsg message : group.getMessages()) {
+            message.setUpdateDate(TimeUtil.newGmtCalendar());
         }
         messageLogger.logMessageActivity(group, MESSAGE_ACTIVITY.TTS_END,
                 group);
         return group;
     }
 
-    /**
-     * Invoked by the Camel Route to process the Broadcast Message - the primary
-     * purpose of this class.
-     * 
-     * @param message
-     *            the message to process
-     * @return an updated {@link BroadcastMsg} that will indicate whether or not
-     *         the synthesis and file write are successful as well as the output
-     *         file location when synthesis is successful
-     */
-    private BroadcastMsg process(ITraceable traceable, BroadcastMsg message)
-            throws Exception {
+    private void validate(BroadcastMsg message) throws Exception {
         if (message == null || message.getLatestBroadcastContents() == null
                 || message.getLatestBroadcastContents().getFragments() == null
                 || message.getLatestBroadcastContents().getFragments()
@@ -449,65 +519,137 @@ public class TTSManager implements IContextStateProcessor, Runnable {
             throw new Exception(
                     "Receieved an uninitialized or incomplete Broadcast Message to process!");
         }
+    }
 
-        statusHandler
-                .info("Performing Text-to-Speech Transformation for message: "
-                        + message.getId() + ".");
-        for (BroadcastFragment fragment : message.getLatestBroadcastContents()
-                .getFragments()) {
-            if (fragment.isSuccess()
-                    && Files.exists(Paths.get(fragment.getOutputName()))) {
-                continue;
+    /**
+     * Runs the synthesis of every fragment across the synthesis pool and waits
+     * until all fragments are complete or the group deadline expires. Any
+     * fragment that is not complete by the deadline is cancelled and marked as
+     * unsuccessful. Results are stored on the fragments themselves so the
+     * order of the fragments in each message is unchanged.
+     * 
+     * @param tasks
+     *            the fragments to synthesize
+     */
+    private void synthesizeFragments(final List<FragmentSynthesisTask> tasks) {
+        if (tasks.size() == 1 || this.fragmentExecutor == null) {
+            for (FragmentSynthesisTask task : tasks) {
+                task.run();
             }
+            return;
+        }
 
-            final StringBuilder logIdentifier = new StringBuilder("message: ");
-            logIdentifier.append(message.getId());
-            logIdentifier.append(" (fragment: ");
-            logIdentifier.append(fragment.getId());
-            logIdentifier.append(")");
-
-            TTSReturn ttsReturn = this.attemptAudioSynthesis(fragment.getSsml(),
-                    fragment.getVoice().getVoiceNumber(),
-                    logIdentifier.toString());
-
-            fragment.setSuccess(ttsReturn.isSynthesisSuccess());
-            if (ttsReturn.isSynthesisSuccess()) {
-                /* Synthesis Success */
-                byte[] synthesizedAudio = ttsReturn.getVoiceData();
-                int totalPlaybackSeconds = this
-                        .getAudioPlaybackDurationSeconds(synthesizedAudio);
-
-                /* Write the output file. */
-                File outputFile = this.determineOutputFile(message.getId(),
-                        fragment.getId(), message.getInputMessage().getAfosid(),
-                        fragment.getVoice());
-                boolean writeSuccess = true;
-                try {
-                    this.writeSynthesizedAudio(synthesizedAudio,
-                            Paths.get(outputFile.getAbsolutePath()),
-                            logIdentifier.toString(), DEFAULT_OUTPUT_FORMAT);
-                } catch (IOException e) {
-                    writeSuccess = false;
-                    this.messageLogger.logError(null, BMH_COMPONENT.TTS_MANAGER,
-                            BMH_ACTIVITY.AUDIO_WRITE, message, e);
-                }
-                fragment.setSuccess(writeSuccess);
+        final List<Future<?>> futures = new ArrayList<>(tasks.size());
+        for (FragmentSynthesisTask task : tasks) {
+            futures.add(this.fragmentExecutor.submit(task));
+        }
 
-                if (writeSuccess) {
-                    fragment.setOutputName(outputFile.getAbsolutePath());
-                    messageLogger.logTTSSucces(traceable, fragment,
-                            totalPlaybackSeconds);
+        final long deadline = System.currentTimeMillis()
+                + this.groupSynthesisTimeout;
+        for (int i = 0; i < futures.size(); i++) {
+            final Future<?> future = futures.get(i);
+            final FragmentSynthesisTask task = tasks.get(i);
+            try {
+                future.get(
+                        Math.max(0, deadline - System.currentTimeMillis()),
+                        TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                if (task.cancel() == false) {
+                    /* finished just as the deadline expired. */
+                    continue;
                 }
-            } else {
-                /* Synthesis Failed */
-                this.logSynthesisError(ttsReturn, logIdentifier.toString());
+                statusHandler.error(BMH_CATEGORY.TTS_SYSTEM_ERROR,
+                        "Text-to-Speech Transformation of "
+                                + task.getLogIdentifier()
+                                + " did not finish within "
+                                + this.groupSynthesisTimeout + " ms!");
                 this.messageLogger.logError(null, BMH_COMPONENT.TTS_MANAGER,
-                        BMH_ACTIVITY.AUDIO_SYNTHESIS, message);
+                        BMH_ACTIVITY.AUDIO_SYNTHESIS, task.message);
+            } catch (InterruptedException e) {
+                for (Future<?> remaining : futures) {
+                    remaining.cancel(true);
+                }
+                for (FragmentSynthesisTask remaining : tasks) {
+                    remaining.cancel();
+                }
+                Thread.currentThread().interrupt();
+                statusHandler.warn(BMH_CATEGORY.INTERRUPTED,
+                        "Interrupted while waiting for Text-to-Speech Transformation of "
+                                + task.getLogIdentifier() + ".");
+                return;
+            } catch (ExecutionException e) {
+                /* Should not happen, the task handles all errors. */
+                task.fragment.setSuccess(false);
+                statusHandler.error(BMH_CATEGORY.TTS_SOFTWARE_ERROR,
+                        "Text-to-Speech Transformation of "
+                                + task.getLogIdentifier() + " has failed!",
+                        e.getCause());
             }
         }
-        message.setUpdateDate(TimeUtil.newGmtCalendar());
+    }
 
-        return message;
+    /**
+     * Synthesizes a single fragment and writes the audio file for it. The
+     * results are only applied to the fragment if the task has not been
+     * cancelled.
+     * 
+     * @param task
+     *            the task of the fragment to synthesize
+     */
+    private void synthesizeFragment(final FragmentSynthesisTask task) {
+        final BroadcastMsg message = task.message;
+        final BroadcastFragment fragment = task.fragment;
+        final String logIdentifier = task.getLogIdentifier();
+        TTSReturn ttsReturn = this.attemptAudioSynthesis(fragment.getSsml(),
+                fragment.getVoice().getVoiceNumber(), logIdentifier);
+
+        if (task.isCancelled()) {
+            return;
+        }
+
+        if (ttsReturn == null) {
+            /* Every attempt failed without a result. */
+            task.complete(false, null);
+            this.messageLogger.logError(null, BMH_COMPONENT.TTS_MANAGER,
+                    BMH_ACTIVITY.AUDIO_SYNTHESIS, message);
+            return;
+        }
+
+        if (ttsReturn.isSynthesisSuccess()) {
+            /* Synthesis Success */
+            byte[] synthesizedAudio = ttsReturn.getVoiceData();
+            int totalPlaybackSeconds = this
+                    .getAudioPlaybackDurationSeconds(synthesizedAudio);
+
+            /* Write the output file. */
+            File outputFile = this.determineOutputFile(message.getId(),
+                    fragment.getId(), message.getInputMessage().getAfosid(),
+                    fragment.getVoice());
+            boolean writeSuccess = true;
+            try {
+                this.writeSynthesizedAudio(synthesizedAudio,
+                        Paths.get(outputFile.getAbsolutePath()),
+                        logIdentifier, DEFAULT_OUTPUT_FORMAT);
+            } catch (Exception e) {
+                writeSuccess = false;
+                this.messageLogger.logError(null, BMH_COMPONENT.TTS_MANAGER,
+                        BMH_ACTIVITY.AUDIO_WRITE, message, e);
+            }
+
+            if (task.complete(writeSuccess,
+                    writeSuccess ? outputFile.getAbsolutePath() : null)
+                    && writeSuccess) {
+                messageLogger.logTTSSucces(task.traceable, fragment,
+                        totalPlaybackSeconds);
+            }
+        } else {
+            /* Synthesis Failed */
+            task.complete(false, null);
+            this.logSynthesisError(ttsReturn, logIdentifier);
+            this.messageLogger.logError(null, BMH_COMPONENT.TTS_MANAGER,
+                    BMH_ACTIVITY.AUDIO_SYNTHESIS, message);
+        }
     }
 
     /**
@@ -634,8 +776,15 @@ public class TTSManager implements IContextStateProcessor, Runnable {
     public TTSReturn attemptAudioSynthesis(final String ssml,
             final int voiceNumber, final String logIdentifier) {
 
+        TTSReturn ttsReturn = this.synthesisCache.get(ssml, voiceNumber,
+                TTS_DEFAULT_FORMAT);
+        if (ttsReturn != null) {
+            statusHandler.info("Retrieved " + ttsReturn.getVoiceData().length
+                    + " bytes of cached audio data for " + logIdentifier + ".");
+            return ttsReturn;
+        }
+
         int attempt = 0;
-        TTSReturn ttsReturn = null;
 
         while (true) {
             ++attempt;
@@ -649,7 +798,8 @@ public class TTSManager implements IContextStateProcessor, Runnable {
                         "TTS synthesis of " + logIdentifier
                                 + " has failed! Attempt (" + attempt + ")",
                         e);
-                if (attempt > this.ttsRetryThreshold) {
+                if (attempt > this.ttsRetryThreshold
+                        || Thread.currentThread().isInterrupted()) {
                     break;
                 } else {
                     continue;
@@ -663,6 +813,8 @@ public class TTSManager implements IContextStateProcessor, Runnable {
                             + ttsReturn.getVoiceData().length
                             + " bytes of audio data for " + logIdentifier
                             + ". Data retrieval complete!");
+                    this.synthesisCache.put(ssml, voiceNumber,
+                            TTS_DEFAULT_FORMAT, ttsReturn.getVoiceData());
                     break;
                 }
 
@@ -674,10 +826,11 @@ public class TTSManager implements IContextStateProcessor, Runnable {
 
             /* Have we reached the retry threshold? */
 
-            if (attempt > this.ttsRetryThreshold) {
+            if (attempt > this.ttsRetryThreshold
+                    || Thread.currentThread().isInterrupted()) {
                 /*
-                 * maximum retry count reached; halt text-to-speech
-                 * transformation attempts
+                 * maximum retry count reached or the synthesis has been
+                 * cancelled; halt text-to-speech transformation attempts
                  */
                 break;
             } else {
@@ -700,7 +853,10 @@ public class TTSManager implements IContextStateProcessor, Runnable {
                 /* Just log a warning. */
                 statusHandler.warn(category, logMessage);
 
-                this.sleepDelayTime();
+                if (this.sleepDelayTime() == false) {
+                    /* the synthesis has been cancelled. */
+                    break;
+                }
             }
         }
 
@@ -843,16 +999,21 @@ public class TTSManager implements IContextStateProcessor, Runnable {
     }
 
     /**
-     * Sleeps a configurable number of milliseconds before continuing.
+     * Sleeps a configurable number of milliseconds before continuing. The
+     * interrupt status is preserved when the sleep is interrupted so that the
+     * caller stops retrying.
+     * 
+     * @return true if the full delay elapsed; false if interrupted
      */
-    private void sleepDelayTime() {
+    private boolean sleepDelayTime() {
         /* Wait 'X' milliseconds. */
         try {
             Thread.sleep(this.ttsRetryDelay);
         } catch (InterruptedException e) {
             /*
-             * Not sure what the actual likelihood of this error actually is.
+             * The synthesis has been cancelled or has timed out.
              */
+            Thread.currentThread().interrupt();
             StringBuilder stringBuilder = new StringBuilder("Failed to wait ");
             stringBuilder.append(this.ttsRetryDelay);
             stringBuilder.append("milliseconds!");
@@ -862,9 +1023,9 @@ public class TTSManager implements IContextStateProcessor, Runnable {
             }
             statusHandler.warn(BMH_CATEGORY.INTERRUPTED,
                     stringBuilder.toString());
-
-            /* Just log the error and continue. */
+            return false;
         }
+        return true;
     }
 
     /**
@@ -1088,4 +1249,95 @@ public class TTSManager implements IContextStateProcessor, Runnable {
 
         return playbackTimeS;
     }
-}
\ No newline at end of file
+
+    /**
+     * Synthesizes one fragment of a message group.
+     */
+    private class FragmentSynthesisTask implements Runnable {
+
+        private final ITraceable traceable;
+
+        private final BroadcastMsg message;
+
+        private final BroadcastFragment fragment;
+
+        /* guarded by this, set once the fragment must no longer change. */
+        private boolean cancelled;
+
+        /* guarded by this, set once the results have been applied. */
+        private boolean completed;
+
+        public FragmentSynthesisTask(final ITraceable traceable,
+                final BroadcastMsg message, final BroadcastFragment fragment) {
+            this.traceable = traceable;
+            this.message = message;
+            this.fragment = fragment;
+        }
+
+        public String getLogIdentifier() {
+            final StringBuilder logIdentifier = new StringBuilder("message: ");
+            logIdentifier.append(message.getId());
+            logIdentifier.append(" (fragment: ");
+            logIdentifier.append(fragment.getId());
+            logIdentifier.append(")");
+            return logIdentifier.toString();
+        }
+
+        /**
+         * Stops any results of this task from being applied to the fragment
+         * and marks the fragment as unsuccessful.
+         * 
+         * @return true if the task was cancelled; false if the results had
+         *         already been applied.
+         */
+        public synchronized boolean cancel() {
+            if (this.completed) {
+                return false;
+            }
+            if (this.cancelled == false) {
+                this.cancelled = true;
+                this.fragment.setSuccess(false);
+            }
+            return true;
+        }
+
+        public synchronized boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Applies the results of the synthesis to the fragment unless this
+         * task has been cancelled.
+         * 
+         * @param success
+         *            whether or not the synthesis was successful
+         * @param outputName
+         *            the audio file that was written, may be null
+         * @return true if the results were applied; false if cancelled
+         */
+        public synchronized boolean complete(final boolean success,
+                final String outputName) {
+            if (this.cancelled) {
+                return false;
+            }
+            this.fragment.setSuccess(success);
+            if (outputName != null) {
+                this.fragment.setOutputName(outputName);
+            }
+            this.completed = true;
+            return true;
+        }
+
+        @Override
+        public void run() {
+            try {
+                synthesizeFragment(this);
+            } catch (Throwable e) {
+                complete(false, null);
+                statusHandler.error(BMH_CATEGORY.TTS_SOFTWARE_ERROR,
+                        "Text-to-Speech Transformation of "
+                                + getLogIdentifier() + " has failed!", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.edex.bmh.tts;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.raytheon.uf.common.bmh.BMH_CATEGORY;
+import com.raytheon.uf.common.bmh.FilePermissionUtils;
+import com.raytheon.uf.common.bmh.TTSConstants.TTS_FORMAT;
+import com.raytheon.uf.common.bmh.TTSConstants.TTS_RETURN_VALUE;
+import com.raytheon.uf.common.util.file.IOPermissionsHelper;
+import com.raytheon.uf.edex.bmh.status.BMHStatusHandler;
+import com.raytheon.uf.edex.bmh.status.IBMHStatusHandler;
+
+/**
+ * Content addressed cache of synthesized audio. The same ssml is frequently
+ * synthesized over and over again (periodic messages, station ids, identical
+ * text for multiple transmitters and languages), so successful synthesis
+ * results are stored in $BMH_DATA/ttsCache keyed by a SHA-256 hash of the
+ * normalized ssml, the voice and the output format. Dictionary substitutions
+ * have already been applied to the ssml so a dictionary change will naturally
+ * result in a different key; the entries for a voice are discarded when the
+ * voice configuration changes.
+ * 
+ * The cache is bounded by total size, the least recently used entries are
+ * removed when the limit is exceeded. The index is rebuilt from the files on
+ * disk during startup so the cache survives an EDEX restart.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class TTSSynthesisCache {
+
+    private static final IBMHStatusHandler statusHandler = BMHStatusHandler
+            .getInstance(TTSSynthesisCache.class);
+
+    public static final String CACHE_DIRECTORY = "ttsCache";
+
+    /*
+     * property used to override the maximum size of the cache. property value
+     * specified in megabytes; a value of 0 disables the cache.
+     */
+    private static final String MAX_SIZE_PROPERTY = "bmh.tts.cache.max-size";
+
+    private static final long DEFAULT_MAX_SIZE_MB = 512;
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    /* The hit ratio is logged every time this many lookups have completed. */
+    private static final long STATISTICS_INTERVAL = 500;
+
+    private static final String CACHE_FILE_EXTENSION = ".cache";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path cacheDirectory;
+
+    private final long maxSizeBytes;
+
+    /* access ordered so that iteration starts with the eldest entry. */
+    private final LinkedHashMap<Path, Long> index = new LinkedHashMap<>(256,
+            0.75f, true);
+
+    private long currentSizeBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public TTSSynthesisCache(final String bmhDataDirectory) {
+        this.cacheDirectory = Paths.get(bmhDataDirectory, CACHE_DIRECTORY);
+        this.maxSizeBytes = Long.getLong(MAX_SIZE_PROPERTY,
+                DEFAULT_MAX_SIZE_MB) * BYTES_PER_MB;
+    }
+
+    /**
+     * Rebuilds the index from the cache files that already exist on disk. Any
+     * partially written files that were left behind are removed.
+     */
+    public void initialize() {
+        if (!this.isEnabled()) {
+            statusHandler.info("TTS Synthesis Cache is disabled.");
+            return;
+        }
+        synchronized (this.index) {
+            this.index.clear();
+            this.currentSizeBytes = 0;
+            if (Files.exists(this.cacheDirectory)) {
+                try (DirectoryStream<Path> voiceDirs = Files
+                        .newDirectoryStream(this.cacheDirectory)) {
+                    for (Path voiceDir : voiceDirs) {
+                        if (Files.isDirectory(voiceDir)) {
+                            this.loadVoiceDirectory(voiceDir);
+                        }
+                    }
+                } catch (IOException e) {
+                    statusHandler.error(BMH_CATEGORY.TTS_SYSTEM_ERROR,
+                            "Failed to read the TTS Synthesis Cache directory: "
+                                    + this.cacheDirectory.toString() + ".", e);
+                }
+            }
+            this.evict();
+        }
+        statusHandler.info("TTS Synthesis Cache is: "
+                + this.cacheDirectory.toString() + " (" + this.index.size()
+                + " entries, " + this.currentSizeBytes + " of "
+                + this.maxSizeBytes + " bytes)");
+    }
+
+    private void loadVoiceDirectory(final Path voiceDir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(voiceDir)) {
+            for (Path file : files) {
+                if (file.getFileName().toString()
+                        .endsWith(CACHE_FILE_EXTENSION)) {
+                    long size = Files.size(file);
+                    this.index.put(file, size);
+                    this.currentSizeBytes += size;
+                } else {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.maxSizeBytes > 0;
+    }
+
+    /**
+     * Retrieves previously synthesized audio.
+     * 
+     * @param ssml
+     *            the ssml that will be synthesized
+     * @param voiceNumber
+     *            the voice that will be used for the synthesis
+     * @param format
+     *            the output format of the synthesis
+     * @return a successful {@link TTSReturn} containing the cached audio or
+     *         null if the audio is not in the cache.
+     */
+    public TTSReturn get(final String ssml, final int voiceNumber,
+            final TTS_FORMAT format) {
+        if (!this.isEnabled()) {
+            return null;
+        }
+        final Path file = this.getCacheFile(ssml, voiceNumber, format);
+        boolean indexed;
+        synchronized (this.index) {
+            indexed = this.index.get(file) != null;
+        }
+        byte[] audio = null;
+        if (indexed) {
+            try {
+                audio = Files.readAllBytes(file);
+            } catch (IOException e) {
+                statusHandler.warn(BMH_CATEGORY.TTS_SYSTEM_ERROR,
+                        "Failed to read cached audio file: " + file.toString()
+                                + "; REASON = " + e.getLocalizedMessage()
+                                + ". The audio will be synthesized.");
+                this.remove(file);
+            }
+        }
+        this.recordLookup(audio != null);
+        if (audio == null) {
+            return null;
+        }
+
+        TTSReturn ttsReturn = new TTSReturn(TTS_RETURN_VALUE.TTS_RESULT_SUCCESS);
+        ttsReturn.setVoiceData(audio);
+        ttsReturn.synthesisIsComplete(audio.length);
+        return ttsReturn;
+    }
+
+    /**
+     * Stores successfully synthesized audio in the cache. Failures are logged
+     * but otherwise ignored since the cache is only an optimization.
+     * 
+     * @param ssml
+     *            the ssml that was synthesized
+     * @param voiceNumber
+     *            the voice that was used for the synthesis
+     * @param format
+     *            the output format of the synthesis
+     * @param audio
+     *            the synthesized audio
+     */
+    public void put(final String ssml, final int voiceNumber,
+            final TTS_FORMAT format, final byte[] audio) {
+        if (!this.isEnabled() || audio == null || audio.length == 0
+                || audio.length > this.maxSizeBytes) {
+            return;
+        }
+        final Path file = this.getCacheFile(ssml, voiceNumber, format);
+        final Path tmp = file.resolveSibling(UUID.randomUUID().toString()
+                + ".tmp");
+        try {
+            if (!Files.exists(file.getParent())) {
+                com.raytheon.uf.common.util.file.Files.createDirectories(
+                        file.getParent(),
+                        FilePermissionUtils.DIRECTORY_PERMISSIONS_ATTR);
+            }
+            try (OutputStream os = IOPermissionsHelper.getOutputStream(tmp,
+                    FilePermissionUtils.FILE_PERMISSIONS_SET)) {
+                os.write(audio);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            statusHandler.warn(BMH_CATEGORY.TTS_SYSTEM_ERROR,
+                    "Failed to cache synthesized audio file: "
+                            + file.toString() + "; REASON = "
+                            + e.getLocalizedMessage());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException e1) {
+                /* the next restart will remove it */
+            }
+            return;
+        }
+
+        synchronized (this.index) {
+            Long previous = this.index.put(file, (long) audio.length);
+            if (previous != null) {
+                this.currentSizeBytes -= previous;
+            }
+            this.currentSizeBytes += audio.length;
+            this.evict();
+        }
+    }
+
+    /**
+     * Discards all cached audio that was synthesized using the specified
+     * voice.
+     * 
+     * @param voiceNumber
+     *            the voice that has changed
+     */
+    public void invalidateVoice(final int voiceNumber) {
+        if (!this.isEnabled()) {
+            return;
+        }
+        final Path voiceDir = this.getVoiceDirectory(voiceNumber);
+        List<Path> removed = new ArrayList<>();
+        synchronized (this.index) {
+            Iterator<Map.Entry<Path, Long>> it = this.index.entrySet()
+                    .iterator();
+            while (it.hasNext()) {
+                Map.Entry<Path, Long> entry = it.next();
+                if (voiceDir.equals(entry.getKey().getParent())) {
+                    this.currentSizeBytes -= entry.getValue();
+                    removed.add(entry.getKey());
+                    it.remove();
+                }
+            }
+        }
+        for (Path file : removed) {
+            this.deleteFile(file);
+        }
+        statusHandler.info("Discarded " + removed.size()
+                + " cached audio files for voice " + voiceNumber + ".");
+    }
+
+    /**
+     * @return the fraction of lookups that were satisfied by the cache since
+     *         startup.
+     */
+    public double getHitRatio() {
+        long hitCount = this.hits.get();
+        long total = hitCount + this.misses.get();
+        return (total == 0) ? 0.0 : (double) hitCount / total;
+    }
+
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    public long getSizeBytes() {
+        synchronized (this.index) {
+            return this.currentSizeBytes;
+        }
+    }
+
+    private void recordLookup(boolean hit) {
+        if (hit) {
+            this.hits.incrementAndGet();
+        } else {
+            this.misses.incrementAndGet();
+        }
+        if ((this.hits.get() + this.misses.get()) % STATISTICS_INTERVAL == 0) {
+            statusHandler.info(String.format(
+                    "TTS Synthesis Cache hit ratio is %.1f%% (%d hits, %d misses, %d bytes cached).",
+                    this.getHitRatio() * 100.0, this.hits.get(),
+                    this.misses.get(), this.getSizeBytes()));
+        }
+    }
+
+    private void remove(final Path file) {
+        synchronized (this.index) {
+            Long size = this.index.remove(file);
+            if (size != null) {
+                this.currentSizeBytes -= size;
+            }
+        }
+        this.deleteFile(file);
+    }
+
+    /*
+     * must be called while holding the index lock.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Path, Long>> it = this.index.entrySet().iterator();
+        while (this.currentSizeBytes > this.maxSizeBytes && it.hasNext()) {
+            Map.Entry<Path, Long> eldest = it.next();
+            this.currentSizeBytes -= eldest.getValue();
+            it.remove();
+            this.deleteFile(eldest.getKey());
+        }
+    }
+
+    private void deleteFile(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            statusHandler.warn(BMH_CATEGORY.TTS_SYSTEM_ERROR,
+                    "Failed to delete cached audio file: " + file.toString()
+                            + "; REASON = " + e.getLocalizedMessage());
+        }
+    }
+
+    private Path getVoiceDirectory(final int voiceNumber) {
+        return this.cacheDirectory.resolve(Integer.toString(voiceNumber));
+    }
+
+    private Path getCacheFile(final String ssml, final int voiceNumber,
+            final TTS_FORMAT format) {
+        return this.getVoiceDirectory(voiceNumber).resolve(
+                hash(ssml, voiceNumber, format) + CACHE_FILE_EXTENSION);
+    }
+
+    /**
+     * Whitespace between and within ssml elements does not change the
+     * synthesized audio so it is collapsed before the key is calculated.
+     */
+    private static String normalize(final String ssml) {
+        return WHITESPACE.matcher(ssml.trim()).replaceAll(" ");
+    }
+
+    private static String hash(final String ssml, final int voiceNumber,
+            final TTS_FORMAT format) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            /* every java implementation is required to support SHA-256 */
+            throw new IllegalStateException(e);
+        }
+        digest.update(Integer.toString(voiceNumber).getBytes(
+                StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(Integer.toString(format.getCode()).getBytes(
+                StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        byte[] result = digest.digest(normalize(ssml).getBytes(
+                StandardCharsets.UTF_8));
+        char[] hex = new char[result.length * 2];
+        for (int i = 0; i < result.length; i++) {
+            hex[i * 2] = HEX[(result[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[result[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
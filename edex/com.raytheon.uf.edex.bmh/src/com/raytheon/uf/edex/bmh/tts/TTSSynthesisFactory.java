@@ -48,6 +48,7 @@ import com.raytheon.uf.edex.bmh.status.IBMHStatusHandler;
  * Oct 2, 2014  3642       bkowal      Made NO_TIMEOUT public.
  * Oct 28, 2014 3759       bkowal      Removed extended TTS Synthesis lockout.
  * Jan 27, 2015 4026       bkowal      Removed validateServerAvailability.
+ * Oct 17, 2026            agent       Added {@link #getMaxConnections()}. Preserve interrupts.
  * 
  * </pre>
  * 
@@ -74,6 +75,8 @@ public class TTSSynthesisFactory {
 
     private final Semaphore resourceCounter;
 
+    private final int maxConnections;
+
     /**
      * Constructor
      * 
@@ -103,6 +106,7 @@ public class TTSSynthesisFactory {
         this.executorService = MoreExecutors.listeningDecorator(Executors
                 .newFixedThreadPool(maxConnections * 2));
         this.resourceCounter = new Semaphore(maxConnections, true);
+        this.maxConnections = maxConnections;
     }
 
     /**
@@ -155,6 +159,8 @@ public class TTSSynthesisFactory {
                 }
             }
         } catch (InterruptedException e) {
+            /* preserve the interrupt so the caller stops retrying. */
+            Thread.currentThread().interrupt();
             throw new TTSSynthesisException(
                     "Interrupted while trying to acquire a synthesizer!", e);
         }
@@ -169,6 +175,8 @@ public class TTSSynthesisFactory {
         try {
             ttsReturn = future.get();
         } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
             throw new TTSSynthesisException(
                     "Interrupted during the synthesis process!", e);
         } catch (ExecutionException e) {
@@ -196,4 +204,11 @@ public class TTSSynthesisFactory {
     public int getTtsSynthesisPort() {
         return ttsSynthesisPort;
     }
+
+    /**
+     * @return the total number of synthesizers that are available
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
 }
\ No newline at end of file
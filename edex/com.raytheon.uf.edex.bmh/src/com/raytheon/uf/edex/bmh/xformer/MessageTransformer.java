@@ -165,6 +165,12 @@ import com.raytheon.uf.edex.core.IContextStateProcessor;
  *                                     rules before they are applied.
  * Apr 07, 2016 5558       bkowal      The national and voice-specific dictionaries will now be used
  *                                     during ldad message generation.
+ * Oct 17, 2026            agent       Apply the merged dictionaries using a compiled
+ *                                     {@link TransformationDictionary}.
+ * Oct 17, 2026            agent       Cache merged dictionaries in a
+ *                                     {@link TransformationDictionaryCache}.
+ * Oct 18, 2026            agent       Capture the dictionary versions before the
+ *                                     dictionaries are retrieved.
  * </pre>
  * 
  * @author bkowal
@@ -207,6 +213,9 @@ public class MessageTransformer implements IContextStateProcessor {
     private final ConcurrentMap<Language, Dictionary> nationalDictionaryLanguageMap = new ConcurrentHashMap<>(
             Language.values().length, 1.0f);
 
+    /* Cached merged dictionaries */
+    private final TransformationDictionaryCache dictionaryCache = new TransformationDictionaryCache();
+
     /* Cached transmitter languages */
     private final Table<TransmitterGroup, Language, TransmitterLanguage> transmitterLanguageTableCache = HashBasedTable
             .create();
@@ -277,6 +286,10 @@ public class MessageTransformer implements IContextStateProcessor {
         final String formattedText = this.formatText(message.getInputMessage()
                 .getContent().trim());
 
+        /* Must be captured before any dictionaries are retrieved. */
+        final Map<Language, Long> dictionaryVersions = this
+                .getDictionaryVersions();
+
         /* Retrieve the message type based on afos id. */
         MessageType messageType = this.getMessageType(message);
 
@@ -320,7 +333,7 @@ public class MessageTransformer implements IContextStateProcessor {
             try {
                 msg = this.transformText(message.getInputMessage(),
                         formattedText, transmitterDictionary, group,
-                        messageType, message);
+                        messageType, message, dictionaryVersions);
             } catch (SSMLConversionException e) {
                 StringBuilder errorString = new StringBuilder(msgHeader);
                 errorString
@@ -376,6 +389,10 @@ public class MessageTransformer implements IContextStateProcessor {
         statusHandler.info(msgHeader + "Building ldad message(s) for message: "
                 + message.getId() + "...");
 
+        /* Must be captured before any dictionaries are retrieved. */
+        final Map<Language, Long> dictionaryVersions = this
+                .getDictionaryVersions();
+
         /* Retrieve the message type based on afos id. */
         MessageType messageType = this.getMessageType(message);
 
@@ -388,7 +405,7 @@ public class MessageTransformer implements IContextStateProcessor {
 
         try {
             return this.processLdad(traceId, msgHeader, messageType,
-                    formattedText);
+                    formattedText, dictionaryVersions);
         } catch (SSMLConversionException e) {
             StringBuilder errorString = new StringBuilder();
             errorString.append(msgHeader);
@@ -413,7 +430,9 @@ public class MessageTransformer implements IContextStateProcessor {
 
     private List<LdadMsg> processLdad(final String traceId,
             final String msgHeader, final MessageType messageType,
-            final String formattedText) throws SSMLConversionException,
+            final String formattedText,
+            final Map<Language, Long> dictionaryVersions)
+            throws SSMLConversionException,
             TransformationException {
         /*
          * Retrieve all ldad configuration(s) associated with the specified
@@ -459,9 +478,10 @@ public class MessageTransformer implements IContextStateProcessor {
                  * Generate the default case. Transformed text/ssml based on the
                  * national and voice dictionaries.
                  */
-                final List<ITextTransformation> defaultTransformations = this
+                final TransformationDictionary defaultTransformations = this
                         .mergeDictionaries(ldadConfig.getVoice().getLanguage(),
-                                null, ldadConfig.getVoice().getDictionary());
+                                null, ldadConfig.getVoice().getDictionary(),
+                                dictionaryVersions);
                 SSMLDocument defaultSSMLDocument = this
                         .applyTransformations(
                                 formattedText,
@@ -493,9 +513,13 @@ public class MessageTransformer implements IContextStateProcessor {
              * Generate ssml based on text transformed using the specified
              * dictionary.
              */
-            // Generate the transformation rules.
-            List<ITextTransformation> textTransformations = this
-                    .mergeDictionaries(ldadConfig.getVoice().getLanguage(),
+            /*
+             * Generate the transformation rules. Changes to a dictionary that
+             * is only used by ldad do not generate a notification so the
+             * merged dictionary is not cached.
+             */
+            TransformationDictionary textTransformations = this
+                    .buildMergedDictionary(ldadConfig.getVoice().getLanguage(),
                             ldadConfig.getDictionary(), ldadConfig.getVoice()
                                     .getDictionary());
 
@@ -622,6 +646,9 @@ public class MessageTransformer implements IContextStateProcessor {
      * @param messageType
      *            the {@link MessageType} associated with the Validated Message
      *            based on afosid
+     * @param dictionaryVersions
+     *            the {@link #getDictionaryVersions()} captured before the
+     *            dictionaries were retrieved
      * @return the broadcast message that was built.
      * @throws SSMLConversionException
      * @throws BMHConfigurationException
@@ -629,13 +656,14 @@ public class MessageTransformer implements IContextStateProcessor {
     private BroadcastMsg transformText(InputMessage inputMessage,
             final String formattedContent, Dictionary dictionary,
             TransmitterGroup group, MessageType messageType,
-            ITraceable traceable) throws SSMLConversionException,
-            TransformationException, BMHConfigurationException {
+            ITraceable traceable, final Map<Language, Long> dictionaryVersions)
+            throws SSMLConversionException, TransformationException,
+            BMHConfigurationException {
 
         /* Create Transformation rules based on the dictionary. */
-        List<ITextTransformation> textTransformations = this.mergeDictionaries(
+        TransformationDictionary textTransformations = this.mergeDictionaries(
                 inputMessage.getLanguage(), dictionary, messageType.getVoice()
-                        .getDictionary());
+                        .getDictionary(), dictionaryVersions);
 
         /*
          * Handle the static message type special case.
@@ -877,20 +905,66 @@ public class MessageTransformer implements IContextStateProcessor {
         return WordUtils.capitalizeFully(content);
     }
 
+    /**
+     * @return the current versions of the merged dictionaries. Must be
+     *         retrieved before the dictionaries that will be provided to
+     *         {@link #mergeDictionaries(Language, Dictionary, Dictionary, Map)}
+     *         are retrieved.
+     */
+    public Map<Language, Long> getDictionaryVersions() {
+        return this.dictionaryCache.getVersions();
+    }
+
+    /**
+     * Merges the National {@link Dictionary}, the Voice {@link Dictionary}, and
+     * the Transmitter {@link Dictionary} into a single
+     * {@link TransformationDictionary}.
+     * 
+     * @param destinationDictionary
+     *            the {@link Dictionary} specific to the intended destination of
+     *            the message.
+     * @param voiceDictionary
+     *            the Voice {@link Dictionary}
+     * @param dictionaryVersions
+     *            the {@link #getDictionaryVersions()} captured before the
+     *            dictionaries were retrieved.
+     * @return the merged and compiled {@link ITextTransformation} rules.
+     * @throws SSMLConversionException
+     */
+    public TransformationDictionary mergeDictionaries(Language language,
+            final Dictionary destinationDictionary,
+            final Dictionary voiceDictionary,
+            final Map<Language, Long> dictionaryVersions)
+            throws SSMLConversionException, TransformationException {
+        TransformationDictionary mergedDictionary = this.dictionaryCache.get(
+                language, destinationDictionary, voiceDictionary);
+        if (mergedDictionary != null) {
+            return mergedDictionary;
+        }
+
+        final long version = dictionaryVersions.get(language);
+        mergedDictionary = this.buildMergedDictionary(language,
+                destinationDictionary, voiceDictionary);
+        this.dictionaryCache.put(language, destinationDictionary,
+                voiceDictionary, version, mergedDictionary);
+
+        return mergedDictionary;
+    }
+
     /**
      * Merges the National {@link Dictionary}, the Voice {@link Dictionary}, and
-     * the Transmitter {@link Dictionary} into a single {@link List} of
-     * {@link ITextTransformation}s.
+     * the Transmitter {@link Dictionary} into a new
+     * {@link TransformationDictionary} without using the cache.
      * 
      * @param destinationDictionary
      *            the {@link Dictionary} specific to the intended destination of
      *            the message.
      * @param voiceDictionary
      *            the Voice {@link Dictionary}
-     * @return the merged list of {@link ITextTransformation} rules.
+     * @return the merged and compiled {@link ITextTransformation} rules.
      * @throws SSMLConversionException
      */
-    public List<ITextTransformation> mergeDictionaries(Language language,
+    private TransformationDictionary buildMergedDictionary(Language language,
             final Dictionary destinationDictionary,
             final Dictionary voiceDictionary) throws SSMLConversionException,
             TransformationException {
@@ -905,7 +979,7 @@ public class MessageTransformer implements IContextStateProcessor {
             statusHandler.info("Successfully merged the dictionaries in "
                     + TimeUtil.prettyDuration(dictionaryTimer.getElapsedTime())
                     + ".");
-            return Collections.emptyList();
+            return TransformationDictionary.EMPTY;
         }
 
         Map<String, ITextTransformation> mergedDictionaryMap = new LinkedHashMap<>();
@@ -913,19 +987,22 @@ public class MessageTransformer implements IContextStateProcessor {
         this.mergeDictionary(voiceDictionary, mergedDictionaryMap);
         this.mergeDictionary(destinationDictionary, mergedDictionaryMap);
         if (mergedDictionaryMap.isEmpty()) {
-            return Collections.emptyList();
+            return TransformationDictionary.EMPTY;
         }
 
+        List<ITextTransformation> allTransformationsList = new ArrayList<ITextTransformation>(
+                mergedDictionaryMap.values());
+        Collections
+                .sort(allTransformationsList, new WordLengthDescComparator());
+        TransformationDictionary mergedDictionary = new TransformationDictionary(
+                allTransformationsList);
+
         dictionaryTimer.stop();
         statusHandler.info("Successfully merged the dictionaries in "
                 + TimeUtil.prettyDuration(dictionaryTimer.getElapsedTime())
                 + ".");
 
-        List<ITextTransformation> allTransformationsList = new LinkedList<ITextTransformation>(
-                mergedDictionaryMap.values());
-        Collections
-                .sort(allTransformationsList, new WordLengthDescComparator());
-        return allTransformationsList;
+        return mergedDictionary;
     }
 
     /**
@@ -980,7 +1057,9 @@ public class MessageTransformer implements IContextStateProcessor {
      * Determines which text is eligible for transformation and which text
      * should be used as is. The goal is to segregate text that a transformation
      * can be applied to so that it will be possible to guarantee that multiple
-     * transformations will not be applied to the same block of text.
+     * transformations will not be applied to the same block of text. Only used
+     * when the text cannot be evaluated by the compiled
+     * {@link TransformationDictionary}.
      * 
      * @param textTransformations
      *            a list of the available transformations
@@ -1026,7 +1105,7 @@ public class MessageTransformer implements IContextStateProcessor {
 
     public SSMLDocument applyTransformations(final String content,
             final String speechRate, final Language language,
-            List<ITextTransformation> textTransformations)
+            TransformationDictionary textTransformations)
             throws SSMLConversionException {
 
         SSMLDocument ssmlDocument = new SSMLDocument(language);
@@ -1042,12 +1121,20 @@ public class MessageTransformer implements IContextStateProcessor {
         final String cleanContent = content.replaceAll(
                 PLATFORM_AGNOSTIC_NEWLINE_REGEX, " ").trim();
 
-        List<ITextRuling> transformationCandidates = new LinkedList<ITextRuling>();
-        transformationCandidates.add(new RulingFreeText(cleanContent));
-
+        List<ITextRuling> transformationCandidates = null;
         if (textTransformations.isEmpty() == false) {
-            transformationCandidates = this.setTransformations(
-                    textTransformations, transformationCandidates);
+            transformationCandidates = textTransformations
+                    .determineRulings(cleanContent);
+        }
+        if (transformationCandidates == null) {
+            transformationCandidates = new LinkedList<ITextRuling>();
+            transformationCandidates.add(new RulingFreeText(cleanContent));
+
+            if (textTransformations.isEmpty() == false) {
+                transformationCandidates = this.setTransformations(
+                        textTransformations.getTransformations(),
+                        transformationCandidates);
+            }
         }
 
         List<Sentence> sentences = this
@@ -1148,23 +1235,24 @@ public class MessageTransformer implements IContextStateProcessor {
      */
     public void updateNationalDictionary(
             LanguageDictionaryConfigNotification notification) {
-        if (notification.isNational() == false) {
-            /*
-             * Just a voice-level dictionary.
-             */
-            return;
+        if (notification.isNational()) {
+            if (notification.getType() == ConfigChangeType.Update) {
+                this.retrieveNationalDictionaryForLanguage(notification
+                        .getLanguage());
+            } else {
+                /*
+                 * The National {@link Dictionary} no longer exists.
+                 */
+                this.nationalDictionaryLanguageMap.remove(notification
+                        .getLanguage());
+            }
         }
 
-        if (notification.getType() == ConfigChangeType.Update) {
-            this.retrieveNationalDictionaryForLanguage(notification
-                    .getLanguage());
-        } else {
-            /*
-             * The National {@link Dictionary} no longer exists.
-             */
-            this.nationalDictionaryLanguageMap.remove(notification
-                    .getLanguage());
-        }
+        /*
+         * Voice-level dictionaries are retrieved with the voice; however, any
+         * merged dictionaries that include them are no longer valid.
+         */
+        this.invalidateMergedDictionaries(notification.getLanguage());
     }
 
     /**
@@ -1192,6 +1280,21 @@ public class MessageTransformer implements IContextStateProcessor {
                         + " from the Transmitter Language cache.");
             }
         }
+        this.invalidateMergedDictionaries(notification.getKey().getLanguage());
+    }
+
+    /**
+     * Discards all cached merged dictionaries for the specified
+     * {@link Language}.
+     * 
+     * @param language
+     *            the {@link Language} of the {@link Dictionary} that changed
+     */
+    private void invalidateMergedDictionaries(final Language language) {
+        int removed = this.dictionaryCache.invalidate(language);
+        statusHandler.info("Removed " + removed
+                + " merged dictionaries for Language: " + language.toString()
+                + " from the Dictionary cache.");
     }
 
     /**
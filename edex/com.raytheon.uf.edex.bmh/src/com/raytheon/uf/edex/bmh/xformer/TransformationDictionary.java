@@ -0,0 +1,373 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.edex.bmh.xformer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.raytheon.uf.edex.bmh.xformer.data.AbstractTextTransformation;
+import com.raytheon.uf.edex.bmh.xformer.data.IBoundText;
+import com.raytheon.uf.edex.bmh.xformer.data.ITextRuling;
+import com.raytheon.uf.edex.bmh.xformer.data.ITextTransformation;
+import com.raytheon.uf.edex.bmh.xformer.data.RulingBoundText;
+import com.raytheon.uf.edex.bmh.xformer.data.RulingFreeText;
+
+/**
+ * A merged set of {@link ITextTransformation}s ordered by priority (longest
+ * word first) that has been compiled into a single trie. All of the
+ * transformations that apply to a block of text are found in one pass over the
+ * text instead of running the regex of every transformation against every
+ * remaining block of free text.
+ * 
+ * Transformations only match text that starts and ends on a word boundary, so
+ * the trie is only walked from positions that can begin a match and no
+ * failure links are needed. The matches are then claimed in the same order the
+ * regex based transformations would claim them: by priority and then from
+ * left to right, where the ends of previously claimed text act as the start
+ * or end of the remaining free text.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class TransformationDictionary {
+
+    public static final TransformationDictionary EMPTY = new TransformationDictionary(
+            Collections.<ITextTransformation> emptyList());
+
+    private final List<ITextTransformation> transformations;
+
+    /*
+     * The transformations as an array, indexed by priority. Null when a
+     * transformation cannot be represented in the trie.
+     */
+    private final AbstractTextTransformation[] rules;
+
+    private final TrieNode root = new TrieNode();
+
+    /**
+     * Constructor
+     * 
+     * @param transformations
+     *            the transformations in the order they should be applied.
+     */
+    public TransformationDictionary(
+            final List<ITextTransformation> transformations) {
+        this.transformations = Collections
+                .unmodifiableList(new ArrayList<>(transformations));
+        AbstractTextTransformation[] compiled = new AbstractTextTransformation[this.transformations
+                .size()];
+        for (int i = 0; i < compiled.length; i++) {
+            ITextTransformation transformation = this.transformations.get(i);
+            if (transformation instanceof AbstractTextTransformation == false) {
+                compiled = null;
+                break;
+            }
+            compiled[i] = (AbstractTextTransformation) transformation;
+            this.root.insert(compiled[i].getMatchTemplate(), i);
+        }
+        this.rules = compiled;
+    }
+
+    /**
+     * @return the transformations in the order they should be applied.
+     */
+    public List<ITextTransformation> getTransformations() {
+        return this.transformations;
+    }
+
+    public boolean isEmpty() {
+        return this.transformations.isEmpty();
+    }
+
+    /**
+     * Divides the specified text into {@link RulingBoundText} that a
+     * transformation will be applied to and {@link RulingFreeText} that will
+     * be used as is.
+     * 
+     * @param text
+     *            the text to evaluate
+     * @return the text divided into rulings or null if the text cannot be
+     *         evaluated using the compiled dictionary.
+     */
+    public List<ITextRuling> determineRulings(final String text) {
+        if (this.rules == null) {
+            return null;
+        }
+        final String lower = text.toLowerCase();
+        if (lower.length() != text.length()) {
+            return null;
+        }
+        final char[] chars = lower.toCharArray();
+        for (char c : chars) {
+            if (isLineTerminator(c)) {
+                /* '$' in a transformation regex would also match here. */
+                return null;
+            }
+        }
+
+        long[] candidates = this.findCandidates(chars);
+        TreeMap<Integer, Integer> claims = this.claim(chars, candidates);
+
+        List<ITextRuling> rulings = new LinkedList<>();
+        if (claims.isEmpty()) {
+            rulings.add(new RulingFreeText(text));
+            return rulings;
+        }
+        int lastEnd = 0;
+        for (Map.Entry<Integer, Integer> claim : claims.entrySet()) {
+            final int start = claim.getKey();
+            final int rank = claim.getValue();
+            final int end = start + this.rules[rank].getMatchTemplate().length;
+            addFreeText(rulings, text.substring(lastEnd, start));
+            IBoundText boundText = new RulingBoundText(text.substring(start,
+                    end));
+            boundText.setTransformation(this.rules[rank]);
+            rulings.add(boundText);
+            lastEnd = end;
+        }
+        addFreeText(rulings, text.substring(lastEnd));
+
+        return rulings;
+    }
+
+    private static void addFreeText(final List<ITextRuling> rulings,
+            final String text) {
+        if (text.trim().isEmpty() == false) {
+            rulings.add(new RulingFreeText(text));
+        }
+    }
+
+    /**
+     * Walks the trie from every position that could start a match.
+     * 
+     * @return every potential match encoded as (priority << 32 | start) and
+     *         sorted so the matches that should be claimed first are first.
+     */
+    private long[] findCandidates(final char[] chars) {
+        long[] candidates = new long[16];
+        int count = 0;
+        List<TrieNode> active = new ArrayList<>();
+        List<TrieNode> next = new ArrayList<>();
+        for (int start = 0; start < chars.length; start++) {
+            /*
+             * a match may only begin at the start of the text, after a
+             * boundary character, or at the end of previously claimed text
+             * which is always followed by a non-word character.
+             */
+            if (start > 0 && isBoundary(chars[start - 1]) == false
+                    && isWordChar(chars[start])) {
+                continue;
+            }
+            active.clear();
+            active.add(this.root);
+            for (int end = start; end < chars.length && !active.isEmpty(); end++) {
+                next.clear();
+                final char c = chars[end];
+                for (TrieNode node : active) {
+                    TrieNode child = node.getChild(c);
+                    if (child != null) {
+                        next.add(child);
+                    }
+                    if (c >= '0' && c <= '9') {
+                        child = node
+                                .getChild(AbstractTextTransformation.DIGIT_WILDCARD);
+                        if (child != null) {
+                            next.add(child);
+                        }
+                    }
+                }
+                List<TrieNode> swap = active;
+                active = next;
+                next = swap;
+
+                final int matchEnd = end + 1;
+                if (matchEnd < chars.length && isWordChar(chars[matchEnd])
+                        && isBoundary(chars[end]) == false) {
+                    /*
+                     * a match must be followed by a non-word character, the
+                     * end of the text or claimed text, which is always
+                     * preceded by a boundary character.
+                     */
+                    continue;
+                }
+                for (TrieNode node : active) {
+                    if (node.rank >= 0) {
+                        if (count == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, count * 2);
+                        }
+                        candidates[count++] = ((long) node.rank << 32) | start;
+                    }
+                }
+            }
+        }
+        candidates = Arrays.copyOf(candidates, count);
+        Arrays.sort(candidates);
+        return candidates;
+    }
+
+    /**
+     * Claims the candidate matches in priority order. All of the matches for
+     * a transformation are evaluated against the text that was claimed by
+     * higher priority transformations.
+     * 
+     * @return the claimed matches, start index mapped to priority
+     */
+    private TreeMap<Integer, Integer> claim(final char[] chars,
+            final long[] candidates) {
+        TreeMap<Integer, Integer> claims = new TreeMap<>();
+        List<Integer> pending = new ArrayList<>();
+        int index = 0;
+        while (index < candidates.length) {
+            final int rank = (int) (candidates[index] >>> 32);
+            final AbstractTextTransformation rule = this.rules[rank];
+            final int length = rule.getMatchTemplate().length;
+            pending.clear();
+            int lastEnd = -1;
+            for (; index < candidates.length
+                    && (int) (candidates[index] >>> 32) == rank; index++) {
+                final int start = (int) candidates[index];
+                final int end = start + length;
+                if (start < lastEnd) {
+                    continue;
+                }
+
+                /* determine the bounds of the free text containing the match */
+                int freeStart = 0;
+                Map.Entry<Integer, Integer> before = claims.floorEntry(start);
+                if (before != null) {
+                    freeStart = before.getKey()
+                            + this.rules[before.getValue()].getMatchTemplate().length;
+                    if (freeStart > start) {
+                        continue;
+                    }
+                }
+                int freeEnd = chars.length;
+                Integer after = claims.higherKey(start);
+                if (after != null) {
+                    freeEnd = after;
+                    if (freeEnd < end) {
+                        continue;
+                    }
+                }
+
+                final boolean atStart = (start == freeStart);
+                final boolean atEnd = (end == freeEnd);
+                if (atStart && atEnd) {
+                    if (rule.isWholeCandidateMatch() == false) {
+                        continue;
+                    }
+                } else if ((atStart || isBoundary(chars[start - 1])) == false
+                        || (atEnd || isWordChar(chars[end]) == false) == false) {
+                    continue;
+                }
+
+                pending.add(start);
+                lastEnd = end;
+            }
+            for (Integer start : pending) {
+                claims.put(start, rank);
+            }
+        }
+
+        return claims;
+    }
+
+    /**
+     * @return true if the character is matched by \w
+     */
+    private static boolean isWordChar(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * @return true if a match may begin after the character.
+     */
+    private static boolean isBoundary(final char c) {
+        return isWordChar(c) == false && c != '\'';
+    }
+
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028'
+                || c == '\u2029';
+    }
+
+    private static class TrieNode {
+
+        private char[] labels = new char[0];
+
+        private TrieNode[] children = new TrieNode[0];
+
+        /* priority of the transformation that ends at this node. */
+        private int rank = -1;
+
+        private TrieNode getChild(final char c) {
+            int index = Arrays.binarySearch(this.labels, c);
+            return (index < 0) ? null : this.children[index];
+        }
+
+        private void insert(final char[] template, final int rank) {
+            TrieNode node = this;
+            for (char c : template) {
+                int index = Arrays.binarySearch(node.labels, c);
+                if (index < 0) {
+                    index = -(index + 1);
+                    node.labels = insertAt(node.labels, index, c);
+                    TrieNode[] children = new TrieNode[node.children.length + 1];
+                    System.arraycopy(node.children, 0, children, 0, index);
+                    System.arraycopy(node.children, index, children,
+                            index + 1, node.children.length - index);
+                    children[index] = new TrieNode();
+                    node.children = children;
+                }
+                node = node.children[index];
+            }
+            /* the first (highest priority) transformation wins. */
+            if (node.rank < 0) {
+                node.rank = rank;
+            }
+        }
+
+        private static char[] insertAt(final char[] labels, final int index,
+                final char c) {
+            char[] result = new char[labels.length + 1];
+            System.arraycopy(labels, 0, result, 0, index);
+            result[index] = c;
+            System.arraycopy(labels, index, result, index + 1, labels.length
+                    - index);
+            return result;
+        }
+    }
+}
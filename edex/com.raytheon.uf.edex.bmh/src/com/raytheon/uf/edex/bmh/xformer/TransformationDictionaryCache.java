@@ -0,0 +1,209 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.uf.edex.bmh.xformer;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.raytheon.uf.common.bmh.datamodel.language.Dictionary;
+import com.raytheon.uf.common.bmh.datamodel.language.Language;
+
+/**
+ * Caches the {@link TransformationDictionary} that is built by merging the
+ * national, voice and destination {@link Dictionary}(ies) so that the same
+ * rules are not rebuilt and recompiled for every message. Snapshots are keyed
+ * by {@link Language} and the names of the voice and destination
+ * {@link Dictionary}(ies).
+ * 
+ * Every {@link Language} has a version that is incremented whenever a
+ * dictionary of that {@link Language} changes. The versions must be captured
+ * before any of the dictionaries that will be merged are retrieved, a snapshot
+ * is only cached if no dictionary changed after its versions were captured and
+ * is only returned if it was built for the current version. So a merge of
+ * dictionaries that were retrieved before a change will never be used by a
+ * later message.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 17, 2026            agent       Initial creation
+ * Oct 18, 2026            agent       Added getVersions.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class TransformationDictionaryCache {
+
+    private final ConcurrentMap<SnapshotKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Language, AtomicLong> versions = new ConcurrentHashMap<>(
+            Language.values().length, 1.0f);
+
+    public TransformationDictionaryCache() {
+        for (Language language : Language.values()) {
+            this.versions.put(language, new AtomicLong());
+        }
+    }
+
+    /**
+     * @return the current version of the dictionaries for the specified
+     *         {@link Language}.
+     */
+    public long getVersion(final Language language) {
+        return this.versions.get(language).get();
+    }
+
+    /**
+     * @return the current version of the dictionaries for every
+     *         {@link Language}. Must be retrieved before the dictionaries that
+     *         will be merged are retrieved and then provided to
+     *         {@link #put(Language, Dictionary, Dictionary, long, TransformationDictionary)}
+     *         .
+     */
+    public Map<Language, Long> getVersions() {
+        Map<Language, Long> current = new EnumMap<>(Language.class);
+        for (Language language : Language.values()) {
+            current.put(language, this.getVersion(language));
+        }
+        return current;
+    }
+
+    /**
+     * Retrieves a previously merged {@link TransformationDictionary}.
+     * 
+     * @param language
+     *            the {@link Language} of the dictionaries
+     * @param destinationDictionary
+     *            the destination {@link Dictionary}, may be null
+     * @param voiceDictionary
+     *            the voice {@link Dictionary}, may be null
+     * @return the cached {@link TransformationDictionary} or null if the
+     *         dictionaries have not been merged since they were last updated.
+     */
+    public TransformationDictionary get(final Language language,
+            final Dictionary destinationDictionary,
+            final Dictionary voiceDictionary) {
+        Snapshot snapshot = this.snapshots.get(new SnapshotKey(language,
+                destinationDictionary, voiceDictionary));
+        if (snapshot == null || snapshot.version != this.getVersion(language)) {
+            return null;
+        }
+        return snapshot.dictionary;
+    }
+
+    /**
+     * Caches a merged {@link TransformationDictionary}. The dictionary will
+     * not be cached if the dictionaries of the specified {@link Language} have
+     * changed since the specified version.
+     */
+    public void put(final Language language,
+            final Dictionary destinationDictionary,
+            final Dictionary voiceDictionary, final long version,
+            final TransformationDictionary dictionary) {
+        if (version != this.getVersion(language)) {
+            return;
+        }
+        this.snapshots.put(new SnapshotKey(language, destinationDictionary,
+                voiceDictionary), new Snapshot(version, dictionary));
+    }
+
+    /**
+     * Discards all snapshots that include a {@link Dictionary} of the
+     * specified {@link Language}.
+     * 
+     * @param language
+     *            the {@link Language} of the {@link Dictionary} that changed
+     * @return the number of snapshots that were discarded
+     */
+    public int invalidate(final Language language) {
+        this.versions.get(language).incrementAndGet();
+        int removed = 0;
+        Iterator<SnapshotKey> it = this.snapshots.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().language == language) {
+                it.remove();
+                ++removed;
+            }
+        }
+        return removed;
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+
+        private final TransformationDictionary dictionary;
+
+        public Snapshot(long version, TransformationDictionary dictionary) {
+            this.version = version;
+            this.dictionary = dictionary;
+        }
+    }
+
+    private static class SnapshotKey {
+
+        private final Language language;
+
+        private final String destinationDictionary;
+
+        private final String voiceDictionary;
+
+        public SnapshotKey(Language language, Dictionary destinationDictionary,
+                Dictionary voiceDictionary) {
+            this.language = language;
+            this.destinationDictionary = (destinationDictionary == null) ? null
+                    : destinationDictionary.getName();
+            this.voiceDictionary = (voiceDictionary == null) ? null
+                    : voiceDictionary.getName();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.language, this.destinationDictionary,
+                    this.voiceDictionary);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            SnapshotKey other = (SnapshotKey) obj;
+            return this.language == other.language
+                    && Objects.equals(this.destinationDictionary,
+                            other.destinationDictionary)
+                    && Objects.equals(this.voiceDictionary,
+                            other.voiceDictionary);
+        }
+    }
+}
@@ -49,6 +49,8 @@ import com.raytheon.uf.common.bmh.schemas.ssml.SSMLDocument;
  * Apr 10, 2015 4356       bkowal      Use the end index of the group of interest.
  * Jul 06, 2015 4603       bkowal      Improved matching text retrieval.
  * Jan 15, 2016 5241       bkowal      Added {@link #getWordLength()}.
+ * Oct 17, 2026            agent       Added {@link #getMatchTemplate()} and
+ *                                     {@link #isWholeCandidateMatch()}.
  * 
  * </pre>
  * 
@@ -67,6 +69,12 @@ public abstract class AbstractTextTransformation implements ITextTransformation
 
     private static final String REPLACEMENT_TXT = "REPLACE_TXT";
 
+    /**
+     * Placeholder in a match template for a position that will match any
+     * single digit.
+     */
+    public static final char DIGIT_WILDCARD = '\uFFFF';
+
     private static String ssmlSpeakWrapperText;
 
     protected final Pattern transformationRegex;
@@ -75,6 +83,8 @@ public abstract class AbstractTextTransformation implements ITextTransformation
 
     private final int wordLength;
 
+    private final char[] matchTemplate;
+
     /**
      * Constructor
      * 
@@ -99,6 +109,19 @@ public abstract class AbstractTextTransformation implements ITextTransformation
         }
         this.ssmlReplacement = ssmlReplacement;
         this.wordLength = text.length();
+        this.matchTemplate = this.prepareMatchTemplate(text.toLowerCase());
+    }
+
+    /**
+     * Builds the literal, lower-case form of the text this transformation
+     * matches. Used to compile dictionaries into a single automaton.
+     * 
+     * @param text
+     *            the lower-case text of interest
+     * @return the match template
+     */
+    protected char[] prepareMatchTemplate(String text) {
+        return text.toCharArray();
     }
 
     protected String prepareTransformationRegex(String text) {
@@ -185,4 +208,20 @@ public abstract class AbstractTextTransformation implements ITextTransformation
     public int getWordLength() {
         return this.wordLength;
     }
+
+    /**
+     * @return the lower-case text this transformation matches with
+     *         {@link #DIGIT_WILDCARD} in any position that will match a digit.
+     */
+    public char[] getMatchTemplate() {
+        return this.matchTemplate;
+    }
+
+    /**
+     * @return true if this transformation also applies to a candidate that
+     *         consists of nothing but the matched text; false, otherwise.
+     */
+    public boolean isWholeCandidateMatch() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -42,6 +42,7 @@ import com.raytheon.uf.common.bmh.schemas.ssml.SSMLConversionException;
  *                                     regex and determining if rules apply.
  * Mar 24, 2015 4301       bkowal      Implement and override {@link #prepareTransformationRegex(String)}.
  * Jul 16, 2015 4603       bkowal      Fixed dynamic numerical text matching.
+ * Oct 17, 2026            agent       Implement {@link #prepareMatchTemplate(String)}.
  * 
  * </pre>
  * 
@@ -101,6 +102,17 @@ public class DynamicNumericTextTransformation extends
         return super.prepareTransformationRegex(regexBuilder.toString());
     }
 
+    @Override
+    protected char[] prepareMatchTemplate(String text) {
+        char[] template = text.toCharArray();
+        for (int i = 0; i < template.length; i++) {
+            if (template[i] == '#') {
+                template[i] = DIGIT_WILDCARD;
+            }
+        }
+        return template;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -45,6 +45,7 @@ import com.raytheon.uf.common.bmh.schemas.ssml.SSMLConversionException;
  * May 13, 2015 4403       bkowal      Reversed {@link #NON_ALPHA_REGEX} to match any rules that
  *                                     are not followed by alphanumeric characters or an apostrophe.
  * Jul 02, 2015 4603       bkowal      Improved regex to handle additional scenarios.
+ * Oct 17, 2026            agent       Implement {@link #isWholeCandidateMatch()}.
  * 
  * </pre>
  * 
@@ -99,6 +100,11 @@ public class SimpleTextTransformation extends AbstractTextTransformation {
         return super.determineTransformationApplicability(candidate);
     }
 
+    @Override
+    public boolean isWholeCandidateMatch() {
+        return true;
+    }
+
     @Override
     public List<Serializable> applyTransformation(String text)
             throws SSMLConversionException {
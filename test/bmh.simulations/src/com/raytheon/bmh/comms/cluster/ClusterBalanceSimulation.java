@@ -0,0 +1,259 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.comms.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * 
+ * Replays membership changes and load traces against the
+ * {@link ClusterLoadBalancer} and the {@link ClusterLoadFilter} and prints how
+ * many transmitter groups move. Every move restarts a dac transmit and
+ * interrupts audio, so this is the figure to check after changing either
+ * class. Runs without a cluster: traces are generated from a fixed seed and
+ * use a simulated clock.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * Oct 18, 2026           agent       Moved out of the comms plugin.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class ClusterBalanceSimulation {
+
+    /* interval(in ms) between weight updates, one heartbeat. */
+    private static final long SAMPLE_INTERVAL = 30 * 1000L;
+
+    /* interval(in ms) between moves, matches ClusterBalanceMoveInterval. */
+    private static final long MOVE_INTERVAL = 60 * 1000L;
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private final Random random = new Random(18102026L);
+
+    public static void main(String[] args) {
+        ClusterBalanceSimulation simulation = new ClusterBalanceSimulation();
+        simulation.simulateMembership();
+        simulation.simulateBoundaryLoad();
+        simulation.simulateLoadSpikes();
+        simulation.simulateLoadFeedback();
+    }
+
+    private void simulateMembership() {
+        System.out.println("Membership changes, 12 groups:");
+        List<String> groups = groups(12);
+        Map<String, Double> weights = new TreeMap<>();
+        weights.put("px1", 1.0);
+        weights.put("px2", 1.0);
+        Map<String, String> owners = ClusterLoadBalancer.assign(groups,
+                weights);
+        printStep("px1, px2", owners);
+
+        weights.put("px3", 1.0);
+        owners = step("px3 joins", groups, weights, owners);
+
+        weights.remove("px2");
+        owners = step("px2 leaves", groups, weights, owners);
+
+        weights.put("px2", 1.0);
+        weights.put("px3", 2.0);
+        step("px2 rejoins, px3 capacity 2", groups, weights, owners);
+        System.out.println();
+    }
+
+    private Map<String, String> step(String description, List<String> groups,
+            Map<String, Double> weights, Map<String, String> owners) {
+        Map<String, String> assignment = ClusterLoadBalancer.assign(groups,
+                weights);
+        int moves = 0;
+        int orphans = 0;
+        for (String group : ClusterLoadBalancer.planMigrations(assignment,
+                owners).keySet()) {
+            if (weights.containsKey(owners.get(group))) {
+                ++moves;
+            } else {
+                ++orphans;
+            }
+        }
+        System.out.print("  " + description + ": " + moves + " moves, "
+                + orphans + " restarts of orphaned groups, ");
+        printStep(null, assignment);
+        return assignment;
+    }
+
+    private void printStep(String description, Map<String, String> owners) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (String owner : owners.values()) {
+            Integer count = counts.get(owner);
+            counts.put(owner, count == null ? 1 : count + 1);
+        }
+        if (description == null) {
+            System.out.println(counts);
+        } else {
+            System.out.println("  " + description + ": " + counts);
+        }
+    }
+
+    /**
+     * Load that wanders around the 0.375 boundary between two buckets.
+     */
+    private void simulateBoundaryLoad() {
+        double[] trace = new double[(int) (4 * HOUR / SAMPLE_INTERVAL)];
+        for (int i = 0; i < trace.length; i++) {
+            trace[i] = 0.375 + (random.nextDouble() - 0.5) * 0.04;
+        }
+        printLoadTrace("Load wandering between 0.355 and 0.395 for 4 hours",
+                trace);
+    }
+
+    /**
+     * A lightly loaded host with a two minute spike, e.g. text to speech, every
+     * fifteen minutes.
+     */
+    private void simulateLoadSpikes() {
+        double[] trace = new double[(int) (4 * HOUR / SAMPLE_INTERVAL)];
+        int period = (int) (15 * 60 * 1000L / SAMPLE_INTERVAL);
+        int spike = (int) (2 * 60 * 1000L / SAMPLE_INTERVAL);
+        for (int i = 0; i < trace.length; i++) {
+            double load = 0.15 + random.nextDouble() * 0.05;
+            if (i % period < spike) {
+                load += 1.2;
+            }
+            trace[i] = load;
+        }
+        printLoadTrace(
+                "Load 0.15-0.2 with a 2 minute spike of +1.2 every 15 minutes for 4 hours",
+                trace);
+    }
+
+    private void printLoadTrace(String description, double[] trace) {
+        System.out.println(description + ":");
+        ClusterLoadFilter filter = new ClusterLoadFilter();
+        double lastRounded = -1;
+        double lastFiltered = -1;
+        int roundedChanges = 0;
+        int filteredChanges = 0;
+        for (int i = 0; i < trace.length; i++) {
+            double rounded = Math.min(
+                    Math.round(trace[i] / ClusterLoadFilter.LOAD_QUANTUM)
+                            * ClusterLoadFilter.LOAD_QUANTUM,
+                    ClusterLoadBalancer.MAX_LOAD_DISCOUNT);
+            double filtered = filter.update(trace[i], i * SAMPLE_INTERVAL);
+            if (i > 0 && rounded != lastRounded) {
+                ++roundedChanges;
+            }
+            if (i > 0 && filtered != lastFiltered) {
+                ++filteredChanges;
+            }
+            lastRounded = rounded;
+            lastFiltered = filtered;
+        }
+        System.out.println("  rounded load: " + roundedChanges
+                + " weight changes");
+        System.out.println("  filtered load: " + filteredChanges
+                + " weight changes");
+        System.out.println();
+    }
+
+    /**
+     * Two hosts whose load rises with every dac transmit they run, so taking
+     * groups lowers the weight of the host that took them. One host also runs
+     * other work. Moves are staggered as they are by the {@link ClusterServer}.
+     */
+    private void simulateLoadFeedback() {
+        System.out.println(
+                "Two hosts, 20 groups, load 0.3 (px1) or 0.1 (px2) + 0.05 per group run, 4 hours:");
+        System.out.println("  rounded load: " + simulateFeedback(false)
+                + " moves");
+        System.out.println("  filtered load: " + simulateFeedback(true)
+                + " moves");
+        System.out.println();
+    }
+
+    private int simulateFeedback(boolean filtered) {
+        List<String> groups = groups(20);
+        String[] hosts = { "px1", "px2" };
+        double[] baseLoads = { 0.3, 0.1 };
+        Map<String, ClusterLoadFilter> filters = new TreeMap<>();
+        Map<String, Double> weights = new TreeMap<>();
+        for (String host : hosts) {
+            filters.put(host, new ClusterLoadFilter());
+            weights.put(host, ClusterLoadBalancer.DEFAULT_WEIGHT);
+        }
+        Map<String, String> owners = ClusterLoadBalancer.assign(groups,
+                weights);
+        int moves = 0;
+        long lastMoveTime = Long.MIN_VALUE / 2;
+        for (long time = 0; time < 4 * HOUR; time += SAMPLE_INTERVAL) {
+            for (int h = 0; h < hosts.length; h++) {
+                String host = hosts[h];
+                int running = 0;
+                for (String owner : owners.values()) {
+                    if (owner.equals(host)) {
+                        ++running;
+                    }
+                }
+                double load = baseLoads[h] + 0.05 * running
+                        + (random.nextDouble() - 0.5) * 0.05;
+                double discount = filtered ? filters.get(host).update(load,
+                        time) : Math.round(load
+                        / ClusterLoadFilter.LOAD_QUANTUM)
+                        * ClusterLoadFilter.LOAD_QUANTUM;
+                weights.put(host, ClusterLoadBalancer.calculateWeight(
+                        ClusterLoadBalancer.DEFAULT_WEIGHT, discount));
+            }
+            if (time - lastMoveTime < MOVE_INTERVAL) {
+                continue;
+            }
+            Map<String, String> migrations = ClusterLoadBalancer
+                    .planMigrations(
+                            ClusterLoadBalancer.assign(groups, weights),
+                            owners);
+            if (migrations.isEmpty() == false) {
+                Map.Entry<String, String> move = migrations.entrySet()
+                        .iterator().next();
+                owners.put(move.getKey(), move.getValue());
+                lastMoveTime = time;
+                ++moves;
+            }
+        }
+        return moves;
+    }
+
+    private static List<String> groups(int count) {
+        List<String> groups = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            groups.add(String.format("GRP%02d", i));
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,358 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.comms.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 
+ * Replays heartbeat traces against the {@link PhiAccrualFailureDetector} and
+ * the failure checks of the {@link ClusterServer}, prints the suspicion
+ * reached and when a member would be disconnected and verifies both. A
+ * disconnect hands the dacs of the member to this host so any disconnect of a
+ * live member is a false failover. Runs without a cluster: traces are
+ * generated from a fixed seed and use a simulated clock. The detector uses its
+ * configured defaults so the same system properties can be passed to check
+ * other settings. Exits with an error if any expectation fails.
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date          Ticket#  Engineer    Description
+ * ------------- -------- ----------- --------------------------
+ * Oct 18, 2026           agent       Initial creation
+ * Oct 18, 2026           agent       Moved out of the comms plugin, verify the
+ *                                    phi and disconnect times.
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class PhiAccrualFailureDetectorSimulation {
+
+    /* interval(in ms) between heartbeats and checks, ClusterHeartbeatInterval */
+    private static final long HEARTBEAT_INTERVAL = Long.getLong(
+            "ClusterHeartbeatInterval", 10 * 1000L);
+
+    /* matches ClusterFailureConfirmInterval */
+    private static final long FAILURE_CONFIRM_INTERVAL = Long.getLong(
+            "ClusterFailureConfirmInterval", 2 * HEARTBEAT_INTERVAL);
+
+    private static final int SUSPECT_PHI = Integer.getInteger(
+            "ClusterSuspectPhi", 3);
+
+    private static final int FAILURE_PHI = Integer.getInteger(
+            "ClusterFailurePhi", 8);
+
+    private static final long MINUTE = 60 * 1000L;
+
+    private static final long HOUR = 60 * MINUTE;
+
+    /* longest pause of a live member that must not cause a disconnect. */
+    private static final long TOLERATED_PAUSE = 45 * 1000L;
+
+    /* longest time from the last heartbeat of a hung member to a disconnect. */
+    private static final long MAX_DISCONNECT_TIME = 2 * MINUTE;
+
+    private final Random random = new Random(18102026L);
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        PhiAccrualFailureDetectorSimulation simulation = new PhiAccrualFailureDetectorSimulation();
+        simulation.simulateSteady();
+        simulation.simulateJitter();
+        simulation.simulateRemotePause();
+        simulation.simulateLocalPause();
+        simulation.simulateHang();
+        if (simulation.failures.isEmpty() == false) {
+            for (String failure : simulation.failures) {
+                System.err.println("FAILED: " + failure);
+            }
+            System.exit(1);
+        }
+        System.out.println("All expectations met.");
+    }
+
+    /**
+     * Heartbeats from an idle member, a few ms of network jitter.
+     */
+    private void simulateSteady() {
+        List<Long> heartbeats = heartbeats(0, 4 * HOUR, 20);
+        Replay replay = replay(heartbeats, checks(0, 4 * HOUR));
+        printReplay("Steady heartbeats for 4 hours", replay, -1, 0);
+        verify("steady: never suspected", replay.suspected == 0);
+        verify("steady: never disconnected", replay.confirmedTime < 0);
+    }
+
+    /**
+     * Heartbeats from a busy member, up to 2s late and 2% of them up to 8s
+     * late.
+     */
+    private void simulateJitter() {
+        List<Long> heartbeats = new ArrayList<>();
+        for (long time = HEARTBEAT_INTERVAL; time < 4 * HOUR; time += HEARTBEAT_INTERVAL) {
+            long delay = random.nextInt(2000);
+            if (random.nextInt(50) == 0) {
+                delay += random.nextInt(6000);
+            }
+            heartbeats.add(time + delay);
+        }
+        Replay replay = replay(heartbeats, checks(0, 4 * HOUR));
+        printReplay("Busy member for 4 hours", replay, -1, 0);
+        verify("busy: never suspected", replay.suspected == 0);
+        verify("busy: never disconnected", replay.confirmedTime < 0);
+    }
+
+    /**
+     * The member stops for a garbage collection or a stalled disk and then
+     * sends the heartbeats that queued up all at once.
+     */
+    private void simulateRemotePause() {
+        long[] pauses = { 15 * 1000L, 30 * 1000L, 45 * 1000L, MINUTE,
+                2 * MINUTE };
+        System.out.println("Member pauses after 30 minutes of heartbeats:");
+        for (long pause : pauses) {
+            long start = 30 * MINUTE;
+            List<Long> heartbeats = heartbeats(0, start, 20);
+            long resume = start + pause;
+            for (long time = start; time < resume; time += HEARTBEAT_INTERVAL) {
+                heartbeats.add(resume);
+            }
+            heartbeats.addAll(heartbeats(resume, resume + 30 * MINUTE, 20));
+            Replay replay = replay(heartbeats,
+                    checks(0, resume + 30 * MINUTE));
+            printReplay("  " + (pause / 1000) + "s pause", replay, -1, 0);
+            if (pause <= TOLERATED_PAUSE) {
+                verify("member pauses " + (pause / 1000)
+                        + "s: not disconnected", replay.confirmedTime < 0);
+            }
+            verify("member pauses " + (pause / 1000)
+                    + "s: phi back to normal after the pause",
+                    replay.finalPhi < SUSPECT_PHI);
+        }
+        System.out.println();
+    }
+
+    /**
+     * This host pauses. The timer then runs the checks it missed back to back
+     * before the communicator has read the heartbeats that arrived during the
+     * pause.
+     */
+    private void simulateLocalPause() {
+        long[] pauses = { 30 * 1000L, MINUTE, 2 * MINUTE, 5 * MINUTE };
+        System.out.println("This host pauses after 30 minutes:");
+        for (long pause : pauses) {
+            long start = 30 * MINUTE;
+            long resume = start + pause;
+            List<Long> heartbeats = new ArrayList<>();
+            for (long heartbeat : heartbeats(0, resume + 30 * MINUTE, 20)) {
+                if ((heartbeat >= start) && (heartbeat < resume)) {
+                    /* read just after the first checks */
+                    heartbeats.add(resume + 50);
+                } else {
+                    heartbeats.add(heartbeat);
+                }
+            }
+            List<Long> checks = new ArrayList<>();
+            int missed = 0;
+            for (long check : checks(0, resume + 30 * MINUTE)) {
+                if ((check >= start) && (check < resume)) {
+                    checks.add(resume + missed);
+                    missed += 1;
+                } else {
+                    checks.add(check);
+                }
+            }
+            Replay replay = replay(heartbeats, checks);
+            printReplay("  " + (pause / 1000) + "s pause", replay, -1, 0);
+            verify("host pauses " + (pause / 1000) + "s: not disconnected",
+                    replay.confirmedTime < 0);
+        }
+        System.out.println();
+    }
+
+    /**
+     * The member hangs or the network is partitioned, no more heartbeats
+     * arrive. Reported times are measured from the last heartbeat.
+     */
+    private void simulateHang() {
+        long hang = 30 * MINUTE;
+        List<Long> heartbeats = heartbeats(0, hang, 20);
+        long last = heartbeats.get(heartbeats.size() - 1);
+        Replay replay = replay(heartbeats, checks(0, hang + 10 * MINUTE));
+        printReplay("Member hangs after 30 minutes", replay, last, last);
+        verify("hang: suspected before failing", (replay.suspectTime >= 0)
+                && (replay.suspectTime < replay.failureTime));
+        long confirmTime = replay.confirmedTime - replay.failureTime;
+        verify("hang: not disconnected before the confirm interval",
+                confirmTime >= FAILURE_CONFIRM_INTERVAL);
+        long disconnectTime = replay.confirmedTime - last;
+        verify("hang: disconnected within "
+                + (MAX_DISCONNECT_TIME / 1000) + "s",
+                (replay.confirmedTime >= 0)
+                        && (disconnectTime <= MAX_DISCONNECT_TIME));
+    }
+
+    private void verify(String expectation, boolean met) {
+        if (met == false) {
+            failures.add(expectation);
+        }
+    }
+
+    /**
+     * @return heartbeats sent at the heartbeat interval, each delayed by up to
+     *         maxDelay ms.
+     */
+    private List<Long> heartbeats(long start, long end, int maxDelay) {
+        List<Long> heartbeats = new ArrayList<>();
+        for (long time = start + HEARTBEAT_INTERVAL; time < end; time += HEARTBEAT_INTERVAL) {
+            heartbeats.add(time + random.nextInt(maxDelay));
+        }
+        return heartbeats;
+    }
+
+    /**
+     * @return checks run by the heartbeat timer, out of phase with the
+     *         heartbeats of the member.
+     */
+    private List<Long> checks(long start, long end) {
+        List<Long> checks = new ArrayList<>();
+        for (long time = start + (HEARTBEAT_INTERVAL / 3); time < end; time += HEARTBEAT_INTERVAL) {
+            checks.add(time);
+        }
+        return checks;
+    }
+
+    /**
+     * Replay a trace, the heartbeats and the checks must each be in order.
+     */
+    private Replay replay(List<Long> heartbeats, List<Long> checks) {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(0);
+        Replay replay = new Replay();
+        boolean previousFailed = false;
+        Long firstFailure = null;
+        int h = 0;
+        for (long check : checks) {
+            while ((h < heartbeats.size()) && (heartbeats.get(h) <= check)) {
+                detector.heartbeat(heartbeats.get(h));
+                h += 1;
+            }
+            double phi = detector.phi(check);
+            replay.maxPhi = Math.max(replay.maxPhi, phi);
+            replay.finalPhi = phi;
+            if (phi >= SUSPECT_PHI) {
+                replay.suspected += 1;
+                if (replay.suspectTime < 0) {
+                    replay.suspectTime = check;
+                }
+            }
+            boolean failed = phi >= FAILURE_PHI;
+            if (failed && (replay.failureTime < 0)) {
+                replay.failureTime = check;
+            }
+            /* the previous policy, two consecutive checks */
+            if (failed && previousFailed && (replay.consecutiveTime < 0)) {
+                replay.consecutiveTime = check;
+            }
+            previousFailed = failed;
+            /* the policy of ClusterServer, two checks a minimum time apart */
+            if (failed == false) {
+                firstFailure = null;
+            } else if (firstFailure == null) {
+                firstFailure = check;
+            } else if (((check - firstFailure) >= FAILURE_CONFIRM_INTERVAL)
+                    && (replay.confirmedTime < 0)) {
+                replay.confirmedTime = check;
+            }
+        }
+        return replay;
+    }
+
+    /**
+     * @param hangTime
+     *            when the member hung or -1 if it stays alive, any disconnect
+     *            of a live member is reported as a false failover.
+     * @param reference
+     *            time that reported times are relative to.
+     */
+    private void printReplay(String description, Replay replay,
+            long hangTime, long reference) {
+        StringBuilder result = new StringBuilder(description);
+        if (hangTime < 0) {
+            result.append(": max phi ").append(format(replay.maxPhi));
+            result.append(", ").append(replay.suspected)
+                    .append(" suspect checks");
+            result.append(", disconnect with consecutive checks ");
+            result.append(falseFailover(replay.consecutiveTime));
+            result.append(", with confirm interval ");
+            result.append(falseFailover(replay.confirmedTime));
+        } else {
+            result.append(": phi ").append(SUSPECT_PHI).append(" after ");
+            result.append(elapsed(replay.suspectTime, reference));
+            result.append(", phi ").append(FAILURE_PHI).append(" after ");
+            result.append(elapsed(replay.failureTime, reference));
+            result.append(", disconnect after ");
+            result.append(elapsed(replay.confirmedTime, reference));
+        }
+        System.out.println(result);
+        if (hangTime >= 0) {
+            System.out.println();
+        }
+    }
+
+    private static String falseFailover(long time) {
+        return time < 0 ? "never" : "at " + (time / 1000) + "s (false)";
+    }
+
+    private static String elapsed(long time, long reference) {
+        return time < 0 ? "never" : ((time - reference) / 1000) + "s";
+    }
+
+    private static String format(double phi) {
+        /* far in the tail the approximation overflows to infinity */
+        return phi > 99 ? "> 99" : String.format("%.2f", phi);
+    }
+
+    /**
+     * What the checks of one replay saw, times are -1 if never reached.
+     */
+    private static class Replay {
+
+        private double maxPhi = 0;
+
+        /* phi at the last check */
+        private double finalPhi = 0;
+
+        private int suspected = 0;
+
+        private long suspectTime = -1;
+
+        private long failureTime = -1;
+
+        private long consecutiveTime = -1;
+
+        private long confirmedTime = -1;
+    }
+}
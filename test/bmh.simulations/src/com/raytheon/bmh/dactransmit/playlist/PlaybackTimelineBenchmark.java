@@ -0,0 +1,240 @@
+/**
+ * This software was developed and / or modified by Raytheon Company,
+ * pursuant to Contract DG133W-05-CQ-1067 with the US Government.
+ * 
+ * U.S. EXPORT CONTROLLED TECHNICAL DATA
+ * This software product contains export-restricted data whose
+ * export/transfer/disclosure is restricted by U.S. law. Dissemination
+ * to non-U.S. persons whether in the United States or abroad requires
+ * an export license or other authorization.
+ * 
+ * Contractor Name:        Raytheon Company
+ * Contractor Address:     6825 Pine Street, Suite 340
+ *                         Mail Stop B8
+ *                         Omaha, NE 68106
+ *                         402.291.0100
+ * 
+ * See the AWIPS II Master Rights File ("Master Rights File.pdf") for
+ * further licensing information.
+ **/
+package com.raytheon.bmh.dactransmit.playlist;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.raytheon.bmh.dactransmit.exceptions.NoSoundFileException;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessage;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageId;
+import com.raytheon.uf.common.bmh.datamodel.playlist.DacPlaylistMessageMetadata;
+import com.raytheon.uf.common.bmh.notify.MessagePlaybackPrediction;
+import com.raytheon.uf.common.time.util.TimeUtil;
+
+/**
+ * Microbenchmark of {@link PlaybackTimeline#update(long, boolean, List,
+ * SortedMap, IPlaylistMessageSource)} for a 100 message playlist with a few
+ * periodic messages. Every iteration replaces one message of the playlist,
+ * the way a replacement warning does, and predicts the playlist again: once
+ * from an empty timeline, which is what every update used to do, and once
+ * from the timeline of the previous iteration. The predictions of both are
+ * compared so the benchmark fails if they ever differ.
+ * 
+ * Run it with the dac transmit and common bmh classes on the classpath:
+ * 
+ * <pre>
+ * java com.raytheon.bmh.dactransmit.playlist.PlaybackTimelineBenchmark [iterations]
+ * </pre>
+ * 
+ * <pre>
+ * 
+ * SOFTWARE HISTORY
+ * 
+ * Date         Ticket#    Engineer    Description
+ * ------------ ---------- ----------- --------------------------
+ * Oct 18, 2026            agent       Initial creation
+ * 
+ * </pre>
+ * 
+ * @author agent
+ * @version 1.0
+ */
+public class PlaybackTimelineBenchmark {
+
+    private static final int PLAYLIST_SIZE = 100;
+
+    private static final int PERIODIC_COUNT = 4;
+
+    private static final int WARMUP_ITERATIONS = 20000;
+
+    private static final long START_TIME = 1700000000000L;
+
+    /**
+     * Messages that are read from memory, the playback time of a message is
+     * derived from its broadcast id.
+     */
+    private static final class MessageSource implements IPlaylistMessageSource {
+
+        private final Map<DacPlaylistMessageId, DacPlaylistMessage> messages = new HashMap<>();
+
+        private final Object playbackTimeSource = new Object();
+
+        private DacPlaylistMessageId add(long broadcastId) {
+            DacPlaylistMessageMetadata metadata = new DacPlaylistMessageMetadata();
+            metadata.setStart(calendar(START_TIME - TimeUtil.MILLIS_PER_HOUR));
+            if (broadcastId % 3 == 0) {
+                metadata.setSAMEtone("ZCZC-WXR-SVR-031055+0030-");
+                metadata.setAlertTone(true);
+            }
+            DacPlaylistMessage message = new DacPlaylistMessage();
+            message.setBroadcastId(broadcastId);
+            message.setTimestamp(broadcastId);
+            message.setExpire(calendar(START_TIME + TimeUtil.MILLIS_PER_HOUR
+                    * 24));
+            message.setMetadata(metadata);
+            DacPlaylistMessageId id = new DacPlaylistMessageId(broadcastId);
+            messages.put(id, message);
+            return id;
+        }
+
+        @Override
+        public DacPlaylistMessage getMessage(DacPlaylistMessageId id) {
+            return messages.get(id);
+        }
+
+        @Override
+        public long getPlaybackTime(DacPlaylistMessageId id,
+                Calendar startTime) throws NoSoundFileException {
+            DacPlaylistMessage message = messages.get(id);
+            long playbackTime = 20000 + (id.getBroadcastId() * 7919) % 100000;
+            if (startTime != null && message.shouldPlayTones(startTime)) {
+                playbackTime += 12000;
+            }
+            return playbackTime;
+        }
+
+        @Override
+        public Object getPlaybackTimeSource(DacPlaylistMessageId id) {
+            return playbackTimeSource;
+        }
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+        MessageSource source = new MessageSource();
+        List<DacPlaylistMessageId> playlist = new ArrayList<>(PLAYLIST_SIZE);
+        for (int i = 1; i <= PLAYLIST_SIZE; i++) {
+            playlist.add(source.add(i));
+        }
+        SortedMap<Long, DacPlaylistMessageId> periodicMessages = new TreeMap<>();
+        for (int i = 1; i <= PERIODIC_COUNT; i++) {
+            periodicMessages.put(START_TIME + i * 15 * TimeUtil.MILLIS_PER_MINUTE,
+                    source.add(PLAYLIST_SIZE * 10 + i));
+        }
+        /* Replacements for every position of the playlist. */
+        List<DacPlaylistMessageId> replacements = new ArrayList<>(
+                PLAYLIST_SIZE);
+        for (int i = 1; i <= PLAYLIST_SIZE; i++) {
+            replacements.add(source.add(PLAYLIST_SIZE * 100 + i));
+        }
+
+        PlaybackTimeline timeline = predict(new PlaybackTimeline(START_TIME,
+                false, periodicMessages, source), playlist, periodicMessages,
+                source);
+        run(WARMUP_ITERATIONS, timeline, playlist, replacements,
+                periodicMessages, source, false);
+        run(WARMUP_ITERATIONS, timeline, playlist, replacements,
+                periodicMessages, source, true);
+
+        long full = run(iterations, timeline, playlist, replacements,
+                periodicMessages, source, false);
+        long incremental = run(iterations, timeline, playlist, replacements,
+                periodicMessages, source, true);
+        System.out.println(String.format(
+                "%d updates of a %d message playlist:", iterations,
+                PLAYLIST_SIZE));
+        System.out.println(String.format("  full rebuild: %8.2f us/update",
+                full / 1000.0 / iterations));
+        System.out.println(String.format("  incremental:  %8.2f us/update",
+                incremental / 1000.0 / iterations));
+        System.out.println(String.format("  speedup:      %8.2fx",
+                (double) full / incremental));
+    }
+
+    /**
+     * Replace a message of the playlist and predict it again, cycling through
+     * every position of the playlist.
+     * 
+     * @return the elapsed time in nanoseconds.
+     */
+    private static long run(int iterations, PlaybackTimeline timeline,
+            List<DacPlaylistMessageId> playlist,
+            List<DacPlaylistMessageId> replacements,
+            SortedMap<Long, DacPlaylistMessageId> periodicMessages,
+            MessageSource source, boolean incremental) {
+        List<DacPlaylistMessageId> messages = new ArrayList<>(playlist);
+        long elapsed = 0;
+        for (int i = 0; i < iterations; i++) {
+            int index = (i * 37) % messages.size();
+            DacPlaylistMessageId replaced = messages.set(index,
+                    replacements.get(index));
+            long start = System.nanoTime();
+            PlaybackTimeline previous = incremental ? timeline
+                    : new PlaybackTimeline(START_TIME, false,
+                            periodicMessages, source);
+            PlaybackTimeline updated = predict(previous, messages,
+                    periodicMessages, source);
+            elapsed += System.nanoTime() - start;
+            if (i % 1000 == 0) {
+                verify(updated, messages, periodicMessages, source);
+            }
+            /* Put the original back so every iteration is a replacement. */
+            messages.set(index, replaced);
+            if (incremental) {
+                timeline = predict(updated, messages, periodicMessages, source);
+            }
+        }
+        return elapsed;
+    }
+
+    private static PlaybackTimeline predict(PlaybackTimeline timeline,
+            List<DacPlaylistMessageId> messages,
+            SortedMap<Long, DacPlaylistMessageId> periodicMessages,
+            IPlaylistMessageSource source) {
+        return timeline.update(START_TIME, false, messages, periodicMessages,
+                source);
+    }
+
+    private static void verify(PlaybackTimeline timeline,
+            List<DacPlaylistMessageId> messages,
+            SortedMap<Long, DacPlaylistMessageId> periodicMessages,
+            IPlaylistMessageSource source) {
+        PlaybackTimeline expected = predict(new PlaybackTimeline(START_TIME,
+                false, periodicMessages, source), messages, periodicMessages,
+                source);
+        if (!getPredictions(timeline).equals(getPredictions(expected))
+                || timeline.getPlaybackTime() != expected.getPlaybackTime()
+                || timeline.getPeriodicCount() != expected.getPeriodicCount()) {
+            throw new IllegalStateException(
+                    "The incremental predictions differ from a full rebuild.");
+        }
+    }
+
+    private static List<MessagePlaybackPrediction> getPredictions(
+            PlaybackTimeline timeline) {
+        List<MessagePlaybackPrediction> predictions = new ArrayList<>();
+        for (PlaybackTimeline.Slot slot : timeline.getSlots()) {
+            predictions.addAll(slot.getPredictions());
+        }
+        return predictions;
+    }
+
+    private static Calendar calendar(long time) {
+        return TimeUtil.newGmtCalendar(new Date(time));
+    }
+}